@@ -0,0 +1,399 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Function;
+import com.trazere.core.reactive.Future;
+import com.trazere.core.reactive.Promise;
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Result;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The {@link AsyncLoadingCache} class provides thread-safe caches that load the missing values asynchronously.
+ * <p>
+ * The lookups do not wait for the loadings: they return futures of the values that are loaded in the background using some executor. Concurrent loadings of
+ * the value of the same key are deduplicated. The lookups still briefly synchronize with the other updates of the cache.
+ * <p>
+ * The entries older than the refresh delay are refreshed ahead of their expiration: the stale value keeps being served while the new value is loaded in the
+ * background. The number of concurrent refreshes is bounded, and the refreshes that cannot be started are retried on the next lookups. The entries older than
+ * the expiration delay are loaded again. The failed refreshes keep the stale value, while the failed loadings are not cached.
+ * <p>
+ * The capacity of the cache is bounded by its retention policy.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class AsyncLoadingCache<K, V> {
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @param loader Function computing the value associated to some key.
+	 * @param executor Executor of the loadings.
+	 * @param refreshDelay Age of the entries from which they are refreshed in the background.
+	 * @param expirationDelay Age of the entries from which they are loaded again.
+	 * @param maxRefreshes Maximum number of concurrent refreshes.
+	 * @since 2.0
+	 */
+	public AsyncLoadingCache(final CachePolicy<K> policy, final Function<? super K, ? extends V> loader, final Executor executor, final Duration refreshDelay, final Duration expirationDelay, final int maxRefreshes) {
+		assert null != policy;
+		assert null != loader;
+		assert null != executor;
+		assert null != refreshDelay;
+		assert null != expirationDelay;
+		assert refreshDelay.compareTo(expirationDelay) <= 0;
+		assert maxRefreshes > 0;
+		
+		// Initialization.
+		_entries = new ConcurrentCache<>(policy);
+		_loader = loader;
+		_executor = executor;
+		_refreshDelay = refreshDelay.toNanos();
+		_expirationDelay = expirationDelay.toNanos();
+		_refreshes = new Semaphore(maxRefreshes);
+	}
+	
+	// Loader.
+	
+	/**
+	 * Function computing the value associated to some key.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Function<? super K, ? extends V> _loader;
+	
+	/**
+	 * Executor of the loadings.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Executor _executor;
+	
+	// Refreshes.
+	
+	/**
+	 * Age of the entries from which they are refreshed in the background, in nanoseconds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _refreshDelay;
+	
+	/**
+	 * Age of the entries from which they are loaded again, in nanoseconds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _expirationDelay;
+	
+	/**
+	 * Permits of the concurrent refreshes.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Semaphore _refreshes;
+	
+	// Entries.
+	
+	/**
+	 * The {@link Entry} class represents entries of the cache.
+	 * 
+	 * @param <V> Type of the values.
+	 * @since 2.0
+	 */
+	protected static final class Entry<V> {
+		/** Promise of the value. */
+		private final Promise<Result<V>> _promise;
+		
+		/** Load time of the value in nanoseconds. */
+		private volatile long _loadTime;
+		
+		/** Indicates whether a refresh is in progress. */
+		private final AtomicBoolean _refreshing = new AtomicBoolean();
+		
+		public Entry() {
+			_promise = new Promise<>();
+		}
+		
+		public Entry(final V value, final long loadTime) {
+			this();
+			complete(Result.success(value), loadTime);
+		}
+		
+		public Future<Result<V>> getFuture() {
+			return _promise.getFuture();
+		}
+		
+		public void complete(final Result<V> result, final long loadTime) {
+			// Note: the load time must be visible before the value.
+			_loadTime = loadTime;
+			_promise.fulfil(result);
+		}
+	}
+	
+	/**
+	 * Entries of the cache.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ConcurrentCache<K, Entry<V>> _entries;
+	
+	/**
+	 * Loadings in progress indexed by key.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ConcurrentHashMap<K, Entry<V>> _loadings = new ConcurrentHashMap<>();
+	
+	/**
+	 * Gets the number of entries of this cache.
+	 * 
+	 * @return The number of entries.
+	 * @since 2.0
+	 */
+	public int size() {
+		return _entries.size();
+	}
+	
+	/**
+	 * Gets the keys of the entries of this cache.
+	 * 
+	 * @return An unmodifiable view of the keys.
+	 * @since 2.0
+	 */
+	public Set<K> keys() {
+		return _entries.keys();
+	}
+	
+	/**
+	 * Gets the value associated to the given key in this cache, loading it in the background when needed.
+	 * <p>
+	 * This method does not wait for the loading of the value.
+	 * 
+	 * @param key Key whose associated value should be returned.
+	 * @return The future result of the loading of the value.
+	 * @since 2.0
+	 */
+	public Future<Result<V>> get(final K key) {
+		assert null != key;
+		
+		// Read the cache.
+		final Maybe<Entry<V>> cachedEntry = _entries.get(key);
+		if (cachedEntry.isNone()) {
+			return load(key);
+		}
+		
+		final Entry<V> entry = cachedEntry.asSome().getValue();
+		final Future<Result<V>> future = entry.getFuture();
+		final Maybe<Result<V>> result = future.get();
+		if (result.isNone()) {
+			// Note: loading in progress.
+			return future;
+		}
+		
+		final long age = System.nanoTime() - entry._loadTime;
+		if (!result.asSome().getValue().isSuccess() || age >= _expirationDelay) {
+			// Load the value again.
+			return load(key);
+		} else if (age >= _refreshDelay) {
+			// Refresh the value ahead of its expiration.
+			refresh(key, entry);
+		}
+		return future;
+	}
+	
+	/**
+	 * Gets the value associated to the given key in this cache, if loaded.
+	 * <p>
+	 * This method neither loads nor refreshes the value.
+	 * 
+	 * @param key Key whose associated value should be returned.
+	 * @return The value associated to the key, or nothing when no values are loaded for the key.
+	 * @since 2.0
+	 */
+	public Maybe<V> getIfLoaded(final K key) {
+		assert null != key;
+		
+		final Maybe<Entry<V>> entry = _entries.get(key);
+		if (entry.isSome()) {
+			final Maybe<Result<V>> result = entry.asSome().getValue().getFuture().get();
+			if (result.isSome() && result.asSome().getValue().isSuccess()) {
+				return result.asSome().getValue().getSuccess();
+			}
+		}
+		return Maybe.none();
+	}
+	
+	/**
+	 * Fills this cache with an entry that associates the given value to the given key.
+	 * 
+	 * @param key Key of the entry.
+	 * @param value Value of the entry. May be <code>null</code>.
+	 * @since 2.0
+	 */
+	public void fill(final K key, final V value) {
+		assert null != key;
+		
+		_entries.fill(key, new Entry<>(value, System.nanoTime()));
+	}
+	
+	/**
+	 * Clears the entry associated to the given key from this cache.
+	 * <p>
+	 * The loading in progress for the key, if any, completes without filling the cache.
+	 * 
+	 * @param key Key of the entry to clear.
+	 * @since 2.0
+	 */
+	public void clear(final K key) {
+		assert null != key;
+		
+		_loadings.remove(key);
+		_entries.clear(key);
+	}
+	
+	/**
+	 * Clears all entries from this cache.
+	 * 
+	 * @since 2.0
+	 */
+	public void clear() {
+		_loadings.clear();
+		_entries.clear();
+	}
+	
+	/**
+	 * Clears the expired entries of this cache according to its retention policy.
+	 * 
+	 * @since 2.0
+	 */
+	public void cleanUp() {
+		_entries.cleanUp();
+	}
+	
+	// Loadings.
+	
+	private Future<Result<V>> load(final K key) {
+		// Deduplicate the loadings.
+		final Entry<V> entry = new Entry<>();
+		final Entry<V> currentEntry = _loadings.putIfAbsent(key, entry);
+		if (null != currentEntry) {
+			return currentEntry.getFuture();
+		}
+		
+		// Fill the cache.
+		// Note: the entry is filled once the loading is registered, outside of the loadings map, so that the evictions and the disposals do not run within its
+		// updates. The clears of the key interleaved with the registration unregister the loading before the fill, so the entry is cleared back in that case.
+		_entries.fill(key, entry);
+		if (_loadings.get(key) != entry) {
+			_entries.clear(key, entry);
+		}
+		
+		// Load the value.
+		try {
+			_executor.execute(() -> {
+				final Result<V> result = loadValue(key);
+				entry.complete(result, System.nanoTime());
+				unregisterLoading(key, entry, result);
+			});
+		} catch (final RejectedExecutionException exception) {
+			final Result<V> result = Result.failure(exception);
+			unregisterLoading(key, entry, result);
+			entry.complete(result, System.nanoTime());
+		}
+		return entry.getFuture();
+	}
+	
+	private void unregisterLoading(final K key, final Entry<V> entry, final Result<V> result) {
+		if (_loadings.remove(key, entry) && !result.isSuccess()) {
+			// Note: the failures are not cached. The entry is only cleared while it is current so that the entries of the next loadings are kept.
+			_entries.clear(key, entry);
+		}
+	}
+	
+	private void refresh(final K key, final Entry<V> entry) {
+		if (!entry._refreshing.compareAndSet(false, true)) {
+			// Note: refresh in progress.
+			return;
+		} else if (!_refreshes.tryAcquire()) {
+			// Note: too many refreshes, retry on next lookup.
+			entry._refreshing.set(false);
+			return;
+		}
+		
+		// Refresh the value.
+		try {
+			_executor.execute(() -> {
+				try {
+					final Result<V> result = loadValue(key);
+					if (!result.isSuccess() || !fillIfCurrent(key, entry, new Entry<>(result.asSuccess().getValue(), System.nanoTime()))) {
+						// Note: keep the stale value.
+						entry._refreshing.set(false);
+					}
+				} finally {
+					_refreshes.release();
+				}
+			});
+		} catch (final RejectedExecutionException exception) {
+			_refreshes.release();
+			entry._refreshing.set(false);
+		}
+	}
+	
+	private Result<V> loadValue(final K key) {
+		try {
+			return Result.success(_loader.evaluate(key));
+		} catch (final RuntimeException | Error exception) {
+			return Result.failure(exception);
+		}
+	}
+	
+	private boolean fillIfCurrent(final K key, final Entry<V> entry, final Entry<V> newEntry) {
+		// Note: the check and the fill are atomic so that the clears and the loadings of the key cannot interleave.
+		return _entries.replace(key, entry, newEntry);
+	}
+	
+	// Statistics.
+	
+	/**
+	 * Enables the statistics of this cache.
+	 * <p>
+	 * A lookup of a loading in progress counts as a hit.
+	 * 
+	 * @return The counter of the statistics.
+	 * @since 2.0
+	 */
+	public CacheStatsCounter enableStats() {
+		return _entries.enableStats();
+	}
+	
+	/**
+	 * Gets the statistics of this cache.
+	 * 
+	 * @return The counter of the statistics, or nothing when the statistics are disabled.
+	 * @since 2.0
+	 */
+	public Maybe<CacheStatsCounter> getStats() {
+		return _entries.getStats();
+	}
+}
@@ -15,18 +15,29 @@
  */
 package com.trazere.core.cache;
 
-import com.trazere.core.collection.CollectionAccumulators;
 import com.trazere.core.collection.CollectionFactories;
 import com.trazere.core.collection.CollectionUtils;
 import com.trazere.core.functional.Predicate;
-import com.trazere.core.functional.Predicates;
 import com.trazere.core.imperative.Accumulator;
 import com.trazere.core.text.Describable;
 import com.trazere.core.text.DescriptionBuilder;
 import com.trazere.core.text.TextUtils;
 import com.trazere.core.util.Maybe;
+import com.trazere.core.util.MaybeUtils;
+import com.trazere.core.util.Tuple2;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The {@link BaseCache} class provides a skeleton implementation of caches.
@@ -78,18 +89,77 @@ implements Cache<K, V>, Describable {
 		// Fill the cache.
 		final Maybe<V> oldValue = setEntry(key, value);
 		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (null != stats) {
+			stats.recordFill();
+			if (oldValue.isSome()) {
+				stats.recordReplacement();
+			}
+		}
+		
 		// Dispose the previous value.
 		if (oldValue.isSome()) {
-			dispose(oldValue.asSome().getValue());
+			disposeValue(key, oldValue.asSome().getValue());
 		}
 		
-		// Notify the policy state and clear the dirty entries.
-		final Accumulator<K, Set<K>> dirtyKeys = _policyState.updatedEntry(key, CollectionAccumulators.add(new HashSet<K>()));
-		clear(Predicates.<K>values(dirtyKeys.get()));
+		// Notify the policy state and evict the dirty entries.
+		evictEntries(_policyState.updatedEntry(key, value, _dirtyKeys));
 		
 		return oldValue;
 	}
 	
+	@Override
+	public void fillAll(final Map<? extends K, ? extends V> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		
+		// Notify the policy state.
+		// Note: the policy state is notified before the entries are stored so that the batch is handled in a single eviction pass and the entries of the batch
+		// that are dirty right away are not stored.
+		final List<K> dirtyKeyList = _policyState.updatedEntries(entries, _dirtyKeys).drain();
+		final Set<K> dirtyKeys = dirtyKeyList.isEmpty() ? Collections.<K>emptySet() : new HashSet<>(dirtyKeyList);
+		
+		// Evict the dirty entries.
+		for (final K key : dirtyKeys) {
+			if (!entries.containsKey(key)) {
+				_dirtyKeys.add(key);
+			}
+		}
+		evictEntries(_dirtyKeys);
+		
+		// Fill the cache.
+		int replacementCount = 0;
+		int rejectionCount = 0;
+		for (final Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+			final K key = entry.getKey();
+			final V value = entry.getValue();
+			final boolean dirty = dirtyKeys.contains(key);
+			final Maybe<V> oldValue = dirty ? removeEntry(key) : setEntry(key, value);
+			if (oldValue.isSome()) {
+				// Dispose the previous value.
+				disposeValue(key, oldValue.asSome().getValue());
+				replacementCount += 1;
+			}
+			if (dirty) {
+				// Evict the entry without storing it.
+				evictFilledEntry(key, value);
+				rejectionCount += 1;
+			}
+		}
+		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (null != stats) {
+			stats.recordFills(entries.size());
+			stats.recordReplacements(replacementCount);
+			if (rejectionCount > 0) {
+				stats.recordEvictions(rejectionCount);
+			}
+		}
+	}
+	
 	@Override
 	public Maybe<V> get(final K key) {
 		assert null != key;
@@ -97,26 +167,99 @@ implements Cache<K, V>, Describable {
 		// Read the cache.
 		final Maybe<V> value = getEntry(key);
 		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (null != stats) {
+			if (value.isSome()) {
+				stats.recordHit();
+			} else {
+				stats.recordMiss();
+			}
+		}
+		
 		if (value.isSome()) {
-			// Notify the policy state and clear the dirty entries.
-			final Accumulator<K, Set<K>> dirtyKeys = _policyState.accessedEntry(key, CollectionAccumulators.add(new HashSet<K>()));
-			clear(Predicates.<K>values(dirtyKeys.get()));
+			// Notify the policy state and evict the dirty entries.
+			evictEntries(_policyState.accessedEntry(key, _dirtyKeys));
 		}
 		
 		return value;
 	}
 	
+	@Override
+	public Map<K, V> getAll(final Iterable<? extends K> keys) {
+		// Read the cache.
+		int missCount = 0;
+		final Map<K, V> values = newValueMap(keys);
+		for (final K key : keys) {
+			final Maybe<V> value = getEntry(key);
+			if (value.isSome()) {
+				values.put(key, value.asSome().getValue());
+			} else {
+				missCount += 1;
+			}
+		}
+		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (null != stats) {
+			stats.recordHits(values.size());
+			stats.recordMisses(missCount);
+		}
+		
+		if (!values.isEmpty()) {
+			// Notify the policy state and evict the dirty entries.
+			evictEntries(_policyState.accessedEntries(values.keySet(), _dirtyKeys));
+		}
+		
+		return Collections.unmodifiableMap(values);
+	}
+	
+	/**
+	 * Builds a map to collect the values associated to the given keys.
+	 * <p>
+	 * The map is sized according to the number of keys when they are known to avoid rehashing it.
+	 * 
+	 * @param keys Keys whose associated values should be collected.
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	protected Map<K, V> newValueMap(final Iterable<? extends K> keys) {
+		if (keys instanceof Collection) {
+			return new LinkedHashMap<>(Math.max(16, (int) (((Collection<?>) keys).size() / 0.75f) + 1));
+		} else {
+			return new LinkedHashMap<>();
+		}
+	}
+	
 	@Override
 	public void clear(final K key) {
+		if (clearEntry(key)) {
+			// Record the statistics.
+			final CacheStatsCounter stats = _stats;
+			if (null != stats) {
+				stats.recordClear();
+			}
+		}
+	}
+	
+	@Override
+	public void clearAll(final Iterable<? extends K> keys) {
 		// Clean the cache.
-		final Maybe<V> value = removeEntry(key);
-		if (value.isSome()) {
-			// Dispose the value.
-			dispose(value.asSome().getValue());
-			
-			// Notify the policy.
-			_policyState.clearedEntry(key);
+		final List<K> clearedKeys = new ArrayList<>();
+		for (final K key : keys) {
+			final Maybe<V> value = removeEntry(key);
+			if (value.isSome()) {
+				// Dispose the value.
+				disposeValue(key, value.asSome().getValue());
+				clearedKeys.add(key);
+			}
 		}
+		
+		// Notify the policy.
+		_policyState.clearedEntries(clearedKeys);
+		
+		// Record the statistics.
+		recordClears(clearedKeys.size());
 	}
 	
 	@Override
@@ -128,17 +271,191 @@ implements Cache<K, V>, Describable {
 	
 	@Override
 	public void clear() {
+		int count = 0;
 		for (final K key : new HashSet<>(keys())) {
 			// Clean the cache.
 			final Maybe<V> value = removeEntry(key);
 			if (value.isSome()) {
 				// Dispose the value.
-				dispose(value.asSome().getValue());
+				disposeValue(key, value.asSome().getValue());
+				count += 1;
 			}
 		}
 		
 		// Notify the policy.
 		_policyState.clearedAllEntries();
+		
+		// Record the statistics.
+		recordClears(count);
+		
+		// Dispose the pending values.
+		drainDisposals();
+	}
+	
+	/**
+	 * Clears the expired entries of this cache according to its retention policy.
+	 * <p>
+	 * This method allows to evict the expired entries of caches that are not accessed.
+	 * 
+	 * @since 2.0
+	 */
+	public void cleanUp() {
+		expireEntries(_policyState.expiredEntries(_dirtyKeys));
+	}
+	
+	// Dirty entries.
+	
+	/**
+	 * Accumulator of the keys of the dirty entries reported by the policy state.
+	 * <p>
+	 * This accumulator is reused by all notifications of the policy state to avoid allocations when no entries are dirty.
+	 * 
+	 * @since 2.0
+	 */
+	protected final DirtyKeys<K> _dirtyKeys = new DirtyKeys<>();
+	
+	/**
+	 * Evicts the dirty entries accumulated by the given accumulator on access or update of this cache.
+	 * 
+	 * @param dirtyKeys Accumulator of the keys of the dirty entries.
+	 * @since 2.0
+	 */
+	protected void evictEntries(final DirtyKeys<K> dirtyKeys) {
+		final int count = clearEntries(dirtyKeys);
+		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (count > 0 && null != stats) {
+			stats.recordEvictions(count);
+		}
+	}
+	
+	/**
+	 * Expires the dirty entries accumulated by the given accumulator on clean up of this cache.
+	 * 
+	 * @param dirtyKeys Accumulator of the keys of the dirty entries.
+	 * @since 2.0
+	 */
+	protected void expireEntries(final DirtyKeys<K> dirtyKeys) {
+		final int count = clearEntries(dirtyKeys);
+		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (count > 0 && null != stats) {
+			stats.recordExpirations(count);
+		}
+	}
+	
+	/**
+	 * Evicts the given entry of a bulk fill, which the policy state has reported as dirty before it has been stored.
+	 * <p>
+	 * The value is disposed and the policy state is notified.
+	 * 
+	 * @param key Key of the entry.
+	 * @param value Value of the entry.
+	 * @since 2.0
+	 */
+	protected void evictFilledEntry(final K key, final V value) {
+		// Dispose the value.
+		disposeValue(key, value);
+		
+		// Notify the policy.
+		_policyState.clearedEntry(key);
+	}
+	
+	/**
+	 * Clears the dirty entries accumulated by the given accumulator.
+	 * <p>
+	 * The entries are removed directly by key and the accumulator is reset.
+	 * 
+	 * @param dirtyKeys Accumulator of the keys of the dirty entries.
+	 * @return The number of cleared entries.
+	 * @since 2.0
+	 */
+	protected int clearEntries(final DirtyKeys<K> dirtyKeys) {
+		if (dirtyKeys.isEmpty()) {
+			return 0;
+		}
+		
+		// Note: the keys are detached first to support reentrant notifications of the policy state.
+		int count = 0;
+		for (final K key : dirtyKeys.drain()) {
+			if (clearEntry(key)) {
+				count += 1;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Clears the entry associated to the given key.
+	 * <p>
+	 * The entry is removed, its value is disposed and the policy state is notified.
+	 * 
+	 * @param key Key of the entry to clear.
+	 * @return <code>true</code> when the entry has been cleared, <code>false</code> when no entries is associated to the key.
+	 * @since 2.0
+	 */
+	protected boolean clearEntry(final K key) {
+		// Clean the cache.
+		final Maybe<V> value = removeEntry(key);
+		if (value.isSome()) {
+			// Dispose the value.
+			disposeValue(key, value.asSome().getValue());
+			
+			// Notify the policy.
+			_policyState.clearedEntry(key);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	/**
+	 * The {@link DirtyKeys} class implements reusable accumulators of keys of dirty entries.
+	 * <p>
+	 * The keys are buffered into a list allocated lazily, so accumulating no keys allocates nothing.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @since 2.0
+	 */
+	protected static final class DirtyKeys<K>
+	implements Accumulator<K, List<K>> {
+		/** Accumulated keys, or <code>null</code> when no keys have been accumulated. */
+		private List<K> _keys = null;
+		
+		@Override
+		public void add(final K key) {
+			if (null == _keys) {
+				_keys = new ArrayList<>();
+			}
+			_keys.add(key);
+		}
+		
+		/**
+		 * Indicates whether this accumulator contains no keys.
+		 * 
+		 * @return <code>true</code> when no keys have been accumulated, <code>false</code> otherwise.
+		 */
+		public boolean isEmpty() {
+			return null == _keys;
+		}
+		
+		@Override
+		public List<K> get() {
+			return null != _keys ? Collections.unmodifiableList(_keys) : Collections.<K>emptyList();
+		}
+		
+		/**
+		 * Gets the accumulated keys and resets this accumulator.
+		 * 
+		 * @return The accumulated keys.
+		 */
+		public List<K> drain() {
+			final List<K> keys = null != _keys ? _keys : Collections.<K>emptyList();
+			_keys = null;
+			return keys;
+		}
 	}
 	
 	/**
@@ -181,6 +498,251 @@ implements Cache<K, V>, Describable {
 		// Nothing to do.
 	}
 	
+	/**
+	 * Dispose the given entry which has been removed from this cache.
+	 * <p>
+	 * This method is called whenever an entry is removed from the cache. The default implementation disposes the value.
+	 * 
+	 * @param key The key of the entry.
+	 * @param value The value of the entry. May be <code>null</code>.
+	 * @see #dispose(Object)
+	 * @since 2.0
+	 */
+	protected void dispose(final K key, final V value) {
+		dispose(value);
+	}
+	
+	/**
+	 * Disposes the given entry which has been removed from this cache and records the statistics.
+	 * <p>
+	 * The entry is enqueued for disposal when the asynchronous disposal is enabled.
+	 * 
+	 * @param key The key of the entry.
+	 * @param value The value of the entry. May be <code>null</code>.
+	 * @see #dispose(Object, Object)
+	 * @see #enableAsyncDisposal(Executor, int)
+	 * @since 2.0
+	 */
+	protected void disposeValue(final K key, final V value) {
+		final DisposalQueue disposals = _disposals;
+		if (null == disposals) {
+			disposeValueNow(key, value);
+		} else {
+			disposals.offer(key, value);
+		}
+	}
+	
+	private void disposeValueNow(final K key, final V value) {
+		final CacheStatsCounter stats = _stats;
+		if (null == stats) {
+			dispose(key, value);
+		} else {
+			final long start = System.nanoTime();
+			try {
+				dispose(key, value);
+			} finally {
+				stats.recordDispose(System.nanoTime() - start);
+			}
+		}
+	}
+	
+	// Asynchronous disposal.
+	
+	/**
+	 * The {@link DisposalQueue} class implements bounded queues of entries to dispose asynchronously.
+	 * <p>
+	 * The entries are disposed one at a time by a drain task submitted to the executor when the queue becomes non empty. The entries offered to a full queue
+	 * are disposed by the offering threads.
+	 * 
+	 * @since 2.0
+	 */
+	protected final class DisposalQueue {
+		/**
+		 * Instantiates a new queue.
+		 * 
+		 * @param executor Executor of the disposals.
+		 * @param capacity Capacity of the queue.
+		 * @since 2.0
+		 */
+		public DisposalQueue(final Executor executor, final int capacity) {
+			assert null != executor;
+			assert capacity > 0;
+			
+			// Initialization.
+			_executor = executor;
+			_entries = new ArrayBlockingQueue<>(capacity);
+		}
+		
+		/** Executor of the disposals. */
+		private final Executor _executor;
+		
+		/** Entries to dispose. */
+		private final BlockingQueue<Tuple2<K, V>> _entries;
+		
+		/** Indicates whether a drain task is submitted. */
+		private final AtomicBoolean _draining = new AtomicBoolean();
+		
+		/**
+		 * Enqueues the given entry for disposal.
+		 * <p>
+		 * The entry is disposed by the calling thread when the queue is full.
+		 * 
+		 * @param key Key of the entry to dispose.
+		 * @param value Value of the entry to dispose. May be <code>null</code>.
+		 * @since 2.0
+		 */
+		public void offer(final K key, final V value) {
+			if (_entries.offer(new Tuple2<>(key, value))) {
+				submit();
+			} else {
+				// Note: the calling thread runs the disposal rather than waiting for some room, which would stall it behind the executor.
+				disposeValueNow(key, value);
+			}
+		}
+		
+		/**
+		 * Gets the number of entries waiting for disposal.
+		 * 
+		 * @return The number of pending disposals.
+		 * @since 2.0
+		 */
+		public int pending() {
+			return _entries.size();
+		}
+		
+		/**
+		 * Disposes the pending entries in the calling thread.
+		 * 
+		 * @since 2.0
+		 */
+		public void drain() {
+			Tuple2<K, V> entry;
+			while (null != (entry = _entries.poll())) {
+				disposeValueNow(entry.get1(), entry.get2());
+			}
+		}
+		
+		private void submit() {
+			if (_draining.compareAndSet(false, true)) {
+				try {
+					_executor.execute(this::run);
+				} catch (final RejectedExecutionException exception) {
+					// Note: dispose in the calling thread when the executor is shut down.
+					_draining.set(false);
+					drain();
+				}
+			}
+		}
+		
+		private void run() {
+			try {
+				drain();
+			} finally {
+				_draining.set(false);
+			}
+			
+			// Note: entries may have been offered after the last poll but before the reset of the flag.
+			if (!_entries.isEmpty()) {
+				submit();
+			}
+		}
+	}
+	
+	/**
+	 * Queue of the values to dispose asynchronously, or <code>null</code> when the values are disposed synchronously.
+	 * 
+	 * @since 2.0
+	 */
+	protected volatile DisposalQueue _disposals = null;
+	
+	/**
+	 * Enables the asynchronous disposal of the values removed from this cache.
+	 * <p>
+	 * The removed values are enqueued into a bounded queue and disposed by the given executor, off the calling threads. The values removed when the queue is full
+	 * are disposed by the removing threads. The pending values are disposed by the calling thread when all entries are cleared.
+	 * <p>
+	 * The values are disposed synchronously by default.
+	 * 
+	 * @param executor Executor of the disposals.
+	 * @param capacity Capacity of the queue.
+	 * @since 2.0
+	 */
+	public synchronized void enableAsyncDisposal(final Executor executor, final int capacity) {
+		assert null == _disposals;
+		
+		_disposals = new DisposalQueue(executor, capacity);
+	}
+	
+	/**
+	 * Gets the number of values of this cache waiting for an asynchronous disposal.
+	 * 
+	 * @return The number of pending disposals.
+	 * @since 2.0
+	 */
+	public int getPendingDisposals() {
+		final DisposalQueue disposals = _disposals;
+		return null != disposals ? disposals.pending() : 0;
+	}
+	
+	/**
+	 * Disposes the values waiting for an asynchronous disposal in the calling thread.
+	 * 
+	 * @since 2.0
+	 */
+	protected void drainDisposals() {
+		final DisposalQueue disposals = _disposals;
+		if (null != disposals) {
+			disposals.drain();
+		}
+	}
+	
+	// Statistics.
+	
+	/**
+	 * Statistics of the cache, or <code>null</code> when they are disabled.
+	 * 
+	 * @since 2.0
+	 */
+	protected volatile CacheStatsCounter _stats = null;
+	
+	/**
+	 * Enables the statistics of this cache.
+	 * <p>
+	 * The statistics are disabled by default. The overhead of disabled statistics is a field read per operation.
+	 * 
+	 * @return The statistics of the cache.
+	 * @since 2.0
+	 */
+	public synchronized CacheStatsCounter enableStats() {
+		if (null == _stats) {
+			_stats = new CacheStatsCounter();
+		}
+		return _stats;
+	}
+	
+	/**
+	 * Records the given number of explicitly cleared entries in the statistics of this cache.
+	 * 
+	 * @param count Number of cleared entries.
+	 * @since 2.0
+	 */
+	protected void recordClears(final int count) {
+		final CacheStatsCounter stats = _stats;
+		if (count > 0 && null != stats) {
+			stats.recordClears(count);
+		}
+	}
+	
+	/**
+	 * Gets the statistics of this cache.
+	 * 
+	 * @return The statistics, or nothing when they are disabled.
+	 * @since 2.0
+	 */
+	public Maybe<CacheStatsCounter> getStats() {
+		return MaybeUtils.fromNullable(_stats);
+	}
+	
 	// Object.
 	
 	@Override
@@ -17,6 +17,9 @@ package com.trazere.core.cache;
 
 import com.trazere.core.functional.Predicate;
 import com.trazere.core.util.Maybe;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -42,6 +45,20 @@ public interface Cache<K, V> {
 	 */
 	Maybe<V> fill(K key, V value);
 	
+	/**
+	 * Fills this cache with the given entries.
+	 * <p>
+	 * The possible current entries associated to the keys are replaced. The entries are evicted according to the retention policy as they are filled.
+	 * 
+	 * @param entries Entries to fill.
+	 * @since 2.0
+	 */
+	default void fillAll(final Map<? extends K, ? extends V> entries) {
+		for (final Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+			fill(entry.getKey(), entry.getValue());
+		}
+	}
+	
 	/**
 	 * Indicates whether this cache contains entries.
 	 * 
@@ -84,6 +101,24 @@ public interface Cache<K, V> {
 	 */
 	Maybe<V> get(K key);
 	
+	/**
+	 * Gets the values associated to the given keys in this cache.
+	 * 
+	 * @param keys Keys whose associated values should be returned.
+	 * @return An unmodifiable map of the values of the entries associated to the keys. The keys not associated to any entries are missing.
+	 * @since 2.0
+	 */
+	default Map<K, V> getAll(final Iterable<? extends K> keys) {
+		final Map<K, V> values = new LinkedHashMap<>();
+		for (final K key : keys) {
+			final Maybe<V> value = get(key);
+			if (value.isSome()) {
+				values.put(key, value.asSome().getValue());
+			}
+		}
+		return Collections.unmodifiableMap(values);
+	}
+	
 	/**
 	 * Clears the entry of this cache associated to the given key.
 	 * 
@@ -92,6 +127,18 @@ public interface Cache<K, V> {
 	 */
 	void clear(K key);
 	
+	/**
+	 * Clears the entries of this cache associated to the given keys.
+	 * 
+	 * @param keys Keys of the entries to clear.
+	 * @since 2.0
+	 */
+	default void clearAll(final Iterable<? extends K> keys) {
+		for (final K key : keys) {
+			clear(key);
+		}
+	}
+	
 	/**
 	 * Clears the entries of this cache associated to key accepted by the given filter.
 	 * 
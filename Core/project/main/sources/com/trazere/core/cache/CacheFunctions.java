@@ -0,0 +1,77 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Function;
+import com.trazere.core.functional.ResettableFunction;
+import com.trazere.core.lang.Releasable;
+
+/**
+ * The {@link CacheFunctions} class provides various factories of {@link Function functions} related to {@link Cache caches}.
+ * 
+ * @see Function
+ * @see Cache
+ * @since 2.0
+ */
+public class CacheFunctions {
+	/**
+	 * Builds a memoized, resettable view of the given function whose results are retained according to the given policy.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param <R> Type of the results.
+	 * @param function Function to memoize.
+	 * @param policy Retention policy of the memoized results.
+	 * @return The built function.
+	 * @see CachedResettableFunction
+	 * @since 2.0
+	 */
+	public static <A, R> ResettableFunction<A, R> memoized(final Function<? super A, ? extends R> function, final CachePolicy<A> policy) {
+		assert null != function;
+		
+		return new CachedResettableFunction<A, R>(policy) {
+			@Override
+			protected R compute(final A arg) {
+				return function.evaluate(arg);
+			}
+		};
+	}
+	
+	/**
+	 * Builds a memoized, resettable view of the given function whose results are retained according to the given policy and released on reset and eviction.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param <R> Type of the results.
+	 * @param function Function to memoize.
+	 * @param policy Retention policy of the memoized results.
+	 * @return The built function.
+	 * @see ReleasingCachedResettableFunction
+	 * @since 2.0
+	 */
+	public static <A, R extends Releasable> ResettableFunction<A, R> releasingMemoized(final Function<? super A, ? extends R> function, final CachePolicy<A> policy) {
+		assert null != function;
+		
+		return new ReleasingCachedResettableFunction<A, R>(policy) {
+			@Override
+			protected R compute(final A arg) {
+				return function.evaluate(arg);
+			}
+		};
+	}
+	
+	private CacheFunctions() {
+		// Prevents instantiation.
+	}
+}
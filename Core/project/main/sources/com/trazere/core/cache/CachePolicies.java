@@ -16,11 +16,13 @@
 package com.trazere.core.cache;
 
 import com.trazere.core.collection.CollectionAccumulators;
+import com.trazere.core.functional.Function2;
 import com.trazere.core.functional.Predicates;
 import com.trazere.core.imperative.Accumulator;
 import com.trazere.core.imperative.AccumulatorUtils;
 import java.time.Duration;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -97,6 +99,20 @@ public class CachePolicies {
 						return dirtyEntries;
 					}
 					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final Object value, final A dirtyEntries) {
+						state1.updatedEntry(key, value, dirtyEntries);
+						state2.updatedEntry(key, value, dirtyEntries);
+						return dirtyEntries;
+					}
+					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A updatedEntries(final Map<? extends K, ?> entries, final A dirtyEntries) {
+						state1.updatedEntries(entries, dirtyEntries);
+						state2.updatedEntries(entries, dirtyEntries);
+						return dirtyEntries;
+					}
+					
 					@Override
 					public <A extends Accumulator<? super K, ?>> A accessedEntry(final K key, final A dirtyEntries) {
 						state1.accessedEntry(key, dirtyEntries);
@@ -104,12 +120,32 @@ public class CachePolicies {
 						return dirtyEntries;
 					}
 					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A accessedEntries(final Iterable<? extends K> keys, final A dirtyEntries) {
+						state1.accessedEntries(keys, dirtyEntries);
+						state2.accessedEntries(keys, dirtyEntries);
+						return dirtyEntries;
+					}
+					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A expiredEntries(final A dirtyEntries) {
+						state1.expiredEntries(dirtyEntries);
+						state2.expiredEntries(dirtyEntries);
+						return dirtyEntries;
+					}
+					
 					@Override
 					public void clearedEntry(final K key) {
 						state1.clearedEntry(key);
 						state2.clearedEntry(key);
 					}
 					
+					@Override
+					public void clearedEntries(final Iterable<? extends K> keys) {
+						state1.clearedEntries(keys);
+						state2.clearedEntries(keys);
+					}
+					
 					@Override
 					public void clearedAllEntries() {
 						state1.clearedAllEntries();
@@ -146,6 +182,20 @@ public class CachePolicies {
 						return dirtyEntries;
 					}
 					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final Object value, final A dirtyEntries) {
+						final Set<K> dirtyEntries1 = state1.updatedEntry(key, value, CollectionAccumulators.add(new HashSet<K>())).get();
+						state2.updatedEntry(key, value, AccumulatorUtils.filter(dirtyEntries, Predicates.values(dirtyEntries1)));
+						return dirtyEntries;
+					}
+					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A updatedEntries(final Map<? extends K, ?> entries, final A dirtyEntries) {
+						final Set<K> dirtyEntries1 = state1.updatedEntries(entries, CollectionAccumulators.add(new HashSet<K>())).get();
+						state2.updatedEntries(entries, AccumulatorUtils.filter(dirtyEntries, Predicates.values(dirtyEntries1)));
+						return dirtyEntries;
+					}
+					
 					@Override
 					public <A extends Accumulator<? super K, ?>> A accessedEntry(final K key, final A dirtyEntries) {
 						final Set<K> dirtyEntries1 = state1.accessedEntry(key, CollectionAccumulators.add(new HashSet<K>())).get();
@@ -153,12 +203,32 @@ public class CachePolicies {
 						return dirtyEntries;
 					}
 					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A accessedEntries(final Iterable<? extends K> keys, final A dirtyEntries) {
+						final Set<K> dirtyEntries1 = state1.accessedEntries(keys, CollectionAccumulators.add(new HashSet<K>())).get();
+						state2.accessedEntries(keys, AccumulatorUtils.filter(dirtyEntries, Predicates.values(dirtyEntries1)));
+						return dirtyEntries;
+					}
+					
+					@Override
+					public <A extends Accumulator<? super K, ?>> A expiredEntries(final A dirtyEntries) {
+						final Set<K> dirtyEntries1 = state1.expiredEntries(CollectionAccumulators.add(new HashSet<K>())).get();
+						state2.expiredEntries(AccumulatorUtils.filter(dirtyEntries, Predicates.values(dirtyEntries1)));
+						return dirtyEntries;
+					}
+					
 					@Override
 					public void clearedEntry(final K key) {
 						state1.clearedEntry(key);
 						state2.clearedEntry(key);
 					}
 					
+					@Override
+					public void clearedEntries(final Iterable<? extends K> keys) {
+						state1.clearedEntries(keys);
+						state2.clearedEntries(keys);
+					}
+					
 					@Override
 					public void clearedAllEntries() {
 						state1.clearedAllEntries();
@@ -177,10 +247,36 @@ public class CachePolicies {
 	 * @return The built policy.
 	 * @since 2.0
 	 */
-	public <K> CachePolicy<K> idle(final Duration timeout) {
+	public static <K> CachePolicy<K> idle(final Duration timeout) {
 		return new IdleCachePolicy<>(timeout);
 	}
 	
+	/**
+	 * Builds a cache policy based on idle access time backed by a timing wheel.
+	 * <p>
+	 * Unlike {@link #idle(Duration)}, the expired entries are found in amortized constant time and can be evicted by {@link BaseCache#cleanUp()}.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param timeout Timeout of the idle entries.
+	 * @return The built policy.
+	 * @since 2.0
+	 */
+	public static <K> CachePolicy<K> timedIdle(final Duration timeout) {
+		return new TimerWheelCachePolicy<>(timeout, true);
+	}
+	
+	/**
+	 * Builds a cache policy based on the time elapsed since the last update of the entries backed by a timing wheel.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param timeout Time to live of the entries.
+	 * @return The built policy.
+	 * @since 2.0
+	 */
+	public static <K> CachePolicy<K> timeToLive(final Duration timeout) {
+		return new TimerWheelCachePolicy<>(timeout, false);
+	}
+	
 	/**
 	 * Builds a cache policy with a bounded capacity based on the First In/First Out algorithm.
 	 * 
@@ -189,7 +285,7 @@ public class CachePolicies {
 	 * @return The built policy.
 	 * @since 2.0
 	 */
-	public <K> CachePolicy<K> fifo(final int capacity) {
+	public static <K> CachePolicy<K> fifo(final int capacity) {
 		return new FIFOCachePolicy<>(capacity);
 	}
 	
@@ -201,10 +297,60 @@ public class CachePolicies {
 	 * @return The built policy.
 	 * @since 2.0
 	 */
-	public <K> CachePolicy<K> lru(final int capacity) {
+	public static <K> CachePolicy<K> lru(final int capacity) {
 		return new LRUCachePolicy<>(capacity);
 	}
 	
+	/**
+	 * Builds a cache policy with a bounded capacity based on the Window TinyLFU algorithm.
+	 * <p>
+	 * This policy admits the entries according to their access frequency, which gives better hit rates than {@link #lru(int)} for workloads including scans.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param capacity Capacity of the cache.
+	 * @return The built policy.
+	 * @since 2.0
+	 */
+	public static <K> CachePolicy<K> tinyLfu(final int capacity) {
+		return new TinyLFUCachePolicy<>(capacity);
+	}
+	
+	/**
+	 * Builds a cache policy with a bounded total weight of the entries based on the Least Recently Used algorithm.
+	 * <p>
+	 * The policy must be used by caches whose values are instances of the given value type. Since the policies are only typed by the keys, this requirement is not
+	 * checked at compile time: filling a cache using this policy with a value of another type fails with an {@link IllegalArgumentException}.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @param valueType Type of the values.
+	 * @param weigher Function computing the weight of the entries.
+	 * @param maxWeight Maximum total weight of the entries.
+	 * @return The built policy.
+	 * @since 2.0
+	 */
+	public static <K, V> CachePolicy<K> weightedLru(final Class<V> valueType, final Function2<? super K, ? super V, Long> weigher, final long maxWeight) {
+		return new WeightedCachePolicy<>(valueType, weigher, maxWeight, true);
+	}
+	
+	/**
+	 * Builds a cache policy with a bounded total weight of the entries based on the First In/First Out algorithm.
+	 * <p>
+	 * The policy must be used by caches whose values are instances of the given value type. Since the policies are only typed by the keys, this requirement is not
+	 * checked at compile time: filling a cache using this policy with a value of another type fails with an {@link IllegalArgumentException}.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @param valueType Type of the values.
+	 * @param weigher Function computing the weight of the entries.
+	 * @param maxWeight Maximum total weight of the entries.
+	 * @return The built policy.
+	 * @since 2.0
+	 */
+	public static <K, V> CachePolicy<K> weightedFifo(final Class<V> valueType, final Function2<? super K, ? super V, Long> weigher, final long maxWeight) {
+		return new WeightedCachePolicy<>(valueType, weigher, maxWeight, false);
+	}
+	
 	private CachePolicies() {
 		// Prevents instantiation.
 	}
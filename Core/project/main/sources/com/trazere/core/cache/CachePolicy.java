@@ -17,6 +17,7 @@ package com.trazere.core.cache;
 
 import com.trazere.core.design.Factory;
 import com.trazere.core.imperative.Accumulator;
+import java.util.Map;
 
 /**
  * The {@link CachePolicy} interfaces defines retention policies of caches.
@@ -51,6 +52,44 @@ extends Factory<CachePolicy.State<K>> {
 		 */
 		<A extends Accumulator<? super K, ?>> A updatedEntry(K key, A dirtyEntries);
 		
+		/**
+		 * Notifies this cache policy state that the entry associated to the given key has been updated with the given value.
+		 * <p>
+		 * This method should populate the given dirty entry accumulator with keys of the entries to clear from the cache. It allows value based policies to
+		 * inspect the values. The default implementation ignores the value.
+		 * 
+		 * @param <A> Type of the dirty entry accumulator.
+		 * @param key Key of the updated entry.
+		 * @param value Value of the updated entry. May be <code>null</code>.
+		 * @param dirtyEntries Accumulator to populate with the keys of the dirty entries to clear from the cache.
+		 * @return The given dirty entry accumulator.
+		 * @since 2.0
+		 */
+		default <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final Object value, final A dirtyEntries) {
+			return updatedEntry(key, dirtyEntries);
+		}
+		
+		/**
+		 * Notifies this cache policy state that the entries associated to the given keys are being updated with the given values.
+		 * <p>
+		 * This method should populate the given dirty entry accumulator with keys of the entries to clear from the cache once all entries have been updated. The
+		 * same key may be accumulated several times. The caches notify the bulk updates before storing the entries, so that the entries of the batch that are
+		 * dirty right away are never stored. The default implementation notifies the updates one by one, implementations should find the dirty entries in a
+		 * single pass.
+		 * 
+		 * @param <A> Type of the dirty entry accumulator.
+		 * @param entries Keys and values of the updated entries.
+		 * @param dirtyEntries Accumulator to populate with the keys of the dirty entries to clear from the cache.
+		 * @return The given dirty entry accumulator.
+		 * @since 2.0
+		 */
+		default <A extends Accumulator<? super K, ?>> A updatedEntries(final Map<? extends K, ?> entries, final A dirtyEntries) {
+			for (final Map.Entry<? extends K, ?> entry : entries.entrySet()) {
+				updatedEntry(entry.getKey(), entry.getValue(), dirtyEntries);
+			}
+			return dirtyEntries;
+		}
+		
 		/**
 		 * Notifies this cache policy state that the entry associated to the given key has been accessed in the the cache.
 		 * <p>
@@ -64,6 +103,40 @@ extends Factory<CachePolicy.State<K>> {
 		 */
 		<A extends Accumulator<? super K, ?>> A accessedEntry(K key, A dirtyEntries);
 		
+		/**
+		 * Notifies this cache policy state that the entries associated to the given keys have been accessed in the the cache.
+		 * <p>
+		 * This method should populate the given dirty entry accumulator with keys of the entries to clear from the cache. The same key may be accumulated
+		 * several times. The default implementation notifies the accesses one by one.
+		 * 
+		 * @param <A> Type of the dirty entry accumulator.
+		 * @param keys Keys of the accessed entries.
+		 * @param dirtyEntries Accumulator to populate with the keys of the dirty entries to clear from the cache.
+		 * @return The given dirty entry accumulator.
+		 * @since 2.0
+		 */
+		default <A extends Accumulator<? super K, ?>> A accessedEntries(final Iterable<? extends K> keys, final A dirtyEntries) {
+			for (final K key : keys) {
+				accessedEntry(key, dirtyEntries);
+			}
+			return dirtyEntries;
+		}
+		
+		/**
+		 * Notifies this cache policy state that time has passed.
+		 * <p>
+		 * This method should populate the given dirty entry accumulator with keys of the expired entries to clear from the cache. It allows to evict the expired
+		 * entries without waiting for the cache to be accessed.
+		 * 
+		 * @param <A> Type of the dirty entry accumulator.
+		 * @param dirtyEntries Accumulator to populate with the keys of the dirty entries to clear from the cache.
+		 * @return The given dirty entry accumulator.
+		 * @since 2.0
+		 */
+		default <A extends Accumulator<? super K, ?>> A expiredEntries(final A dirtyEntries) {
+			return dirtyEntries;
+		}
+		
 		/**
 		 * Notifies this cache policy state that the entry associated to the given key has been cleared from the cache.
 		 * 
@@ -72,6 +145,20 @@ extends Factory<CachePolicy.State<K>> {
 		 */
 		void clearedEntry(K key);
 		
+		/**
+		 * Notifies this cache policy state that the entries associated to the given keys have been cleared from the cache.
+		 * <p>
+		 * The default implementation notifies the clearings one by one.
+		 * 
+		 * @param keys Keys of the removed entries.
+		 * @since 2.0
+		 */
+		default void clearedEntries(final Iterable<? extends K> keys) {
+			for (final K key : keys) {
+				clearedEntry(key);
+			}
+		}
+		
 		/**
 		 * Notifies this cache policy state that all values have been cleared from the cache.
 		 * 
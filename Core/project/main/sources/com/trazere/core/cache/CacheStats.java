@@ -0,0 +1,357 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.text.Describable;
+import com.trazere.core.text.DescriptionBuilder;
+import com.trazere.core.text.TextUtils;
+
+/**
+ * The {@link CacheStats} class represents snapshots of the statistics of caches.
+ * 
+ * @see CacheStatsCounter
+ * @since 2.0
+ */
+public class CacheStats
+implements Describable {
+	/**
+	 * Instantiates a new snapshot.
+	 * 
+	 * @param hitCount Number of cache hits.
+	 * @param missCount Number of cache misses.
+	 * @param fillCount Number of fills.
+	 * @param replacementCount Number of values replaced by fills.
+	 * @param evictionCount Number of entries evicted by the retention policy on access or update.
+	 * @param expirationCount Number of entries expired by the clean ups.
+	 * @param clearCount Number of entries cleared explicitly.
+	 * @param disposeCount Number of disposed values.
+	 * @param disposeTime Total time spent disposing values in nanoseconds.
+	 * @param loadSuccessCount Number of successful loads.
+	 * @param loadFailureCount Number of failed loads.
+	 * @param loadTime Total time spent loading values in nanoseconds.
+	 * @since 2.0
+	 */
+	public CacheStats(final long hitCount, final long missCount, final long fillCount, final long replacementCount, final long evictionCount, final long expirationCount, final long clearCount, final long disposeCount, final long disposeTime, final long loadSuccessCount, final long loadFailureCount, final long loadTime) {
+		// Initialization.
+		_hitCount = hitCount;
+		_missCount = missCount;
+		_fillCount = fillCount;
+		_replacementCount = replacementCount;
+		_evictionCount = evictionCount;
+		_expirationCount = expirationCount;
+		_clearCount = clearCount;
+		_disposeCount = disposeCount;
+		_disposeTime = disposeTime;
+		_loadSuccessCount = loadSuccessCount;
+		_loadFailureCount = loadFailureCount;
+		_loadTime = loadTime;
+	}
+	
+	// Hits.
+	
+	/**
+	 * Number of cache hits.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _hitCount;
+	
+	/**
+	 * Gets the number of cache hits.
+	 * 
+	 * @return The number of cache hits.
+	 * @since 2.0
+	 */
+	public long getHitCount() {
+		return _hitCount;
+	}
+	
+	// Misses.
+	
+	/**
+	 * Number of cache misses.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _missCount;
+	
+	/**
+	 * Gets the number of cache misses.
+	 * 
+	 * @return The number of cache misses.
+	 * @since 2.0
+	 */
+	public long getMissCount() {
+		return _missCount;
+	}
+	
+	// Fills.
+	
+	/**
+	 * Number of fills.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _fillCount;
+	
+	/**
+	 * Gets the number of fills.
+	 * 
+	 * @return The number of fills.
+	 * @since 2.0
+	 */
+	public long getFillCount() {
+		return _fillCount;
+	}
+	
+	// Replacements.
+	
+	/**
+	 * Number of values replaced by fills.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _replacementCount;
+	
+	/**
+	 * Gets the number of values replaced by fills.
+	 * 
+	 * @return The number of values replaced by fills.
+	 * @since 2.0
+	 */
+	public long getReplacementCount() {
+		return _replacementCount;
+	}
+	
+	// Evictions.
+	
+	/**
+	 * Number of entries evicted by the retention policy on access or update.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _evictionCount;
+	
+	/**
+	 * Gets the number of entries evicted by the retention policy on access or update.
+	 * 
+	 * @return The number of entries evicted by the retention policy on access or update.
+	 * @since 2.0
+	 */
+	public long getEvictionCount() {
+		return _evictionCount;
+	}
+	
+	// Expirations.
+	
+	/**
+	 * Number of entries expired by the clean ups.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _expirationCount;
+	
+	/**
+	 * Gets the number of entries expired by the clean ups.
+	 * 
+	 * @return The number of entries expired by the clean ups.
+	 * @since 2.0
+	 */
+	public long getExpirationCount() {
+		return _expirationCount;
+	}
+	
+	// Clears.
+	
+	/**
+	 * Number of entries cleared explicitly.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _clearCount;
+	
+	/**
+	 * Gets the number of entries cleared explicitly.
+	 * 
+	 * @return The number of entries cleared explicitly.
+	 * @since 2.0
+	 */
+	public long getClearCount() {
+		return _clearCount;
+	}
+	
+	// Disposals.
+	
+	/**
+	 * Number of disposed values.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _disposeCount;
+	
+	/**
+	 * Gets the number of disposed values.
+	 * 
+	 * @return The number of disposed values.
+	 * @since 2.0
+	 */
+	public long getDisposeCount() {
+		return _disposeCount;
+	}
+	
+	// Dispose time.
+	
+	/**
+	 * Total time spent disposing values in nanoseconds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _disposeTime;
+	
+	/**
+	 * Gets the total time spent disposing values in nanoseconds.
+	 * 
+	 * @return The total time spent disposing values in nanoseconds.
+	 * @since 2.0
+	 */
+	public long getDisposeTime() {
+		return _disposeTime;
+	}
+	
+	// Successful loads.
+	
+	/**
+	 * Number of successful loads.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _loadSuccessCount;
+	
+	/**
+	 * Gets the number of successful loads.
+	 * 
+	 * @return The number of successful loads.
+	 * @since 2.0
+	 */
+	public long getLoadSuccessCount() {
+		return _loadSuccessCount;
+	}
+	
+	// Failed loads.
+	
+	/**
+	 * Number of failed loads.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _loadFailureCount;
+	
+	/**
+	 * Gets the number of failed loads.
+	 * 
+	 * @return The number of failed loads.
+	 * @since 2.0
+	 */
+	public long getLoadFailureCount() {
+		return _loadFailureCount;
+	}
+	
+	// Load time.
+	
+	/**
+	 * Total time spent loading values in nanoseconds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _loadTime;
+	
+	/**
+	 * Gets the total time spent loading values in nanoseconds.
+	 * 
+	 * @return The total time spent loading values in nanoseconds.
+	 * @since 2.0
+	 */
+	public long getLoadTime() {
+		return _loadTime;
+	}
+	
+	// Derived.
+	
+	/**
+	 * Gets the number of reads of the cache.
+	 * 
+	 * @return The number of hits and misses.
+	 * @since 2.0
+	 */
+	public long getRequestCount() {
+		return _hitCount + _missCount;
+	}
+	
+	/**
+	 * Gets the ratio of reads of the cache that were hits.
+	 * 
+	 * @return The hit rate, or <code>1</code> when the cache has not been read.
+	 * @since 2.0
+	 */
+	public double getHitRate() {
+		final long requestCount = getRequestCount();
+		return 0 == requestCount ? 1. : (double) _hitCount / requestCount;
+	}
+	
+	/**
+	 * Gets the number of entries removed from the cache, excluding the replacements.
+	 * 
+	 * @return The number of evicted, expired and cleared entries.
+	 * @since 2.0
+	 */
+	public long getRemovalCount() {
+		return _evictionCount + _expirationCount + _clearCount;
+	}
+	
+	/**
+	 * Gets the average time spent loading a value.
+	 * 
+	 * @return The average load time in nanoseconds, or <code>0</code> when no values have been loaded.
+	 * @since 2.0
+	 */
+	public double getAverageLoadTime() {
+		final long loadCount = _loadSuccessCount + _loadFailureCount;
+		return 0 == loadCount ? 0. : (double) _loadTime / loadCount;
+	}
+	
+	// Object.
+	
+	@Override
+	public final String toString() {
+		return TextUtils.description(this);
+	}
+	
+	@Override
+	public void appendDescription(final DescriptionBuilder description) {
+		description.append("Hits", _hitCount);
+		description.append("Misses", _missCount);
+		description.append("Fills", _fillCount);
+		description.append("Replacements", _replacementCount);
+		description.append("Evictions", _evictionCount);
+		description.append("Expirations", _expirationCount);
+		description.append("Clears", _clearCount);
+		description.append("Disposals", _disposeCount);
+		description.append("Dispose time", _disposeTime);
+		description.append("Successful loads", _loadSuccessCount);
+		description.append("Failed loads", _loadFailureCount);
+		description.append("Load time", _loadTime);
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.reactive.Broadcaster;
+import com.trazere.core.reactive.Observable;
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link CacheStatsCounter} class implements thread-safe accumulators of statistics of caches.
+ * <p>
+ * The counters are striped to limit the contention between the threads that record events. Snapshots are taken without locking and may therefore not reflect
+ * a single instant when events are recorded concurrently.
+ * 
+ * @see CacheStats
+ * @see BaseCache#enableStats()
+ * @since 2.0
+ */
+public class CacheStatsCounter {
+	/** Number of cache hits. */
+	private final LongAdder _hitCount = new LongAdder();
+	
+	/** Number of cache misses. */
+	private final LongAdder _missCount = new LongAdder();
+	
+	/** Number of fills. */
+	private final LongAdder _fillCount = new LongAdder();
+	
+	/** Number of values replaced by fills. */
+	private final LongAdder _replacementCount = new LongAdder();
+	
+	/** Number of entries evicted by the retention policy on access or update. */
+	private final LongAdder _evictionCount = new LongAdder();
+	
+	/** Number of entries expired by the clean ups. */
+	private final LongAdder _expirationCount = new LongAdder();
+	
+	/** Number of entries cleared explicitly. */
+	private final LongAdder _clearCount = new LongAdder();
+	
+	/** Number of disposed values. */
+	private final LongAdder _disposeCount = new LongAdder();
+	
+	/** Total time spent disposing values in nanoseconds. */
+	private final LongAdder _disposeTime = new LongAdder();
+	
+	/** Number of successful loads. */
+	private final LongAdder _loadSuccessCount = new LongAdder();
+	
+	/** Number of failed loads. */
+	private final LongAdder _loadFailureCount = new LongAdder();
+	
+	/** Total time spent loading values in nanoseconds. */
+	private final LongAdder _loadTime = new LongAdder();
+	
+	// Recording.
+	
+	/**
+	 * Records the given hits.
+	 * 
+	 * @param count Number of hits.
+	 * @since 2.0
+	 */
+	public void recordHits(final int count) {
+		_hitCount.add(count);
+	}
+	
+	/**
+	 * Records one hit.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordHit() {
+		_hitCount.increment();
+	}
+	
+	/**
+	 * Records the given misses.
+	 * 
+	 * @param count Number of misses.
+	 * @since 2.0
+	 */
+	public void recordMisses(final int count) {
+		_missCount.add(count);
+	}
+	
+	/**
+	 * Records one miss.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordMiss() {
+		_missCount.increment();
+	}
+	
+	/**
+	 * Records the given fills.
+	 * 
+	 * @param count Number of fills.
+	 * @since 2.0
+	 */
+	public void recordFills(final int count) {
+		_fillCount.add(count);
+	}
+	
+	/**
+	 * Records one fill.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordFill() {
+		_fillCount.increment();
+	}
+	
+	/**
+	 * Records the given replacements.
+	 * 
+	 * @param count Number of replacements.
+	 * @since 2.0
+	 */
+	public void recordReplacements(final int count) {
+		_replacementCount.add(count);
+	}
+	
+	/**
+	 * Records one replacement.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordReplacement() {
+		_replacementCount.increment();
+	}
+	
+	/**
+	 * Records the given evictions.
+	 * 
+	 * @param count Number of evictions.
+	 * @since 2.0
+	 */
+	public void recordEvictions(final int count) {
+		_evictionCount.add(count);
+	}
+	
+	/**
+	 * Records one eviction.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordEviction() {
+		_evictionCount.increment();
+	}
+	
+	/**
+	 * Records the given expirations.
+	 * 
+	 * @param count Number of expirations.
+	 * @since 2.0
+	 */
+	public void recordExpirations(final int count) {
+		_expirationCount.add(count);
+	}
+	
+	/**
+	 * Records one expiration.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordExpiration() {
+		_expirationCount.increment();
+	}
+	
+	/**
+	 * Records the given clears.
+	 * 
+	 * @param count Number of clears.
+	 * @since 2.0
+	 */
+	public void recordClears(final int count) {
+		_clearCount.add(count);
+	}
+	
+	/**
+	 * Records one clear.
+	 * 
+	 * @since 2.0
+	 */
+	public void recordClear() {
+		_clearCount.increment();
+	}
+	
+	/**
+	 * Records the disposal of a value.
+	 * 
+	 * @param time Time spent disposing the value in nanoseconds.
+	 * @since 2.0
+	 */
+	public void recordDispose(final long time) {
+		_disposeCount.increment();
+		_disposeTime.add(time);
+	}
+	
+	/**
+	 * Records successful loads.
+	 * 
+	 * @param count Number of loaded values.
+	 * @param time Time spent loading the values in nanoseconds.
+	 * @since 2.0
+	 */
+	public void recordLoadSuccess(final int count, final long time) {
+		_loadSuccessCount.add(count);
+		_loadTime.add(time);
+	}
+	
+	/**
+	 * Records failed loads.
+	 * 
+	 * @param count Number of loaded values.
+	 * @param time Time spent loading the values in nanoseconds.
+	 * @since 2.0
+	 */
+	public void recordLoadFailure(final int count, final long time) {
+		_loadFailureCount.add(count);
+		_loadTime.add(time);
+	}
+	
+	// Snapshots.
+	
+	/**
+	 * Takes a snapshot of the statistics.
+	 * 
+	 * @return The snapshot.
+	 * @since 2.0
+	 */
+	public CacheStats snapshot() {
+		return new CacheStats(_hitCount.sum(), _missCount.sum(), _fillCount.sum(), _replacementCount.sum(), _evictionCount.sum(), _expirationCount.sum(), _clearCount.sum(), _disposeCount.sum(), _disposeTime.sum(), _loadSuccessCount.sum(), _loadFailureCount.sum(), _loadTime.sum());
+	}
+	
+	/**
+	 * Broadcaster of the snapshots.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Broadcaster<CacheStats> _snapshots = new Broadcaster<>();
+	
+	/**
+	 * Gets the observable of the published snapshots.
+	 * 
+	 * @return The observable.
+	 * @see #publish()
+	 * @since 2.0
+	 */
+	public Observable<CacheStats> getSnapshots() {
+		return _snapshots.getObservable();
+	}
+	
+	/**
+	 * Takes and publishes a snapshot of the statistics.
+	 * 
+	 * @return The published snapshot.
+	 * @since 2.0
+	 */
+	public CacheStats publish() {
+		final CacheStats snapshot = snapshot();
+		_snapshots.fire(snapshot);
+		return snapshot;
+	}
+	
+	/**
+	 * Schedules periodic publications of snapshots of the statistics using the given executor.
+	 * 
+	 * @param executor Executor to use.
+	 * @param period Period of the publications.
+	 * @return The scheduled task, to cancel to stop the publications.
+	 * @since 2.0
+	 */
+	public ScheduledFuture<?> schedulePublication(final ScheduledExecutorService executor, final Duration period) {
+		assert null != executor;
+		assert null != period;
+		assert !period.isNegative() && !period.isZero();
+		
+		final long periodNanos = period.toNanos();
+		return executor.scheduleWithFixedDelay(this::publish, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+	}
+}
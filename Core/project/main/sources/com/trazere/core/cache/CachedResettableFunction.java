@@ -0,0 +1,163 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Predicate;
+import com.trazere.core.functional.ResettableFunction;
+import com.trazere.core.util.Maybe;
+import java.util.Set;
+
+/**
+ * The {@link CachedResettableFunction} class provides a skeleton implementation of {@link ResettableFunction resettable functions} whose memoized results are
+ * stored in a cache.
+ * <p>
+ * The memoized results are retained according to the policy of the cache, which allows to bound the memory used by the function. The results evicted by the
+ * policy are disposed like the reset results. The arguments cannot be <code>null</code>.
+ * <p>
+ * This function is not thread-safe.
+ * 
+ * @param <A> Type of the arguments.
+ * @param <R> Type of the results.
+ * @since 2.0
+ */
+public abstract class CachedResettableFunction<A, R>
+implements ResettableFunction<A, R> {
+	/**
+	 * Instantiates a new function.
+	 * 
+	 * @param policy Retention policy of the memoized results.
+	 * @since 2.0
+	 */
+	public CachedResettableFunction(final CachePolicy<A> policy) {
+		_results = new ResultCache(policy);
+	}
+	
+	// Results.
+	
+	/**
+	 * The {@link ResultCache} class implements caches of the memoized results.
+	 * 
+	 * @since 2.0
+	 */
+	protected final class ResultCache
+	extends SimpleCache<A, R> {
+		/**
+		 * Instantiates a new cache.
+		 * 
+		 * @param policy Retention policy of the memoized results.
+		 * @since 2.0
+		 */
+		public ResultCache(final CachePolicy<A> policy) {
+			super(policy);
+		}
+		
+		/**
+		 * Reads the result memoized for the given argument without notifying the policy.
+		 * 
+		 * @param arg Argument whose memoized result should be read.
+		 * @return The memoized result, or nothing when no results are memoized for the argument.
+		 * @since 2.0
+		 */
+		public Maybe<R> peek(final A arg) {
+			return getEntry(arg);
+		}
+		
+		@Override
+		protected void dispose(final A arg, final R result) {
+			CachedResettableFunction.this.dispose(arg, result);
+		}
+	}
+	
+	/**
+	 * Memoized results.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ResultCache _results;
+	
+	@Override
+	public R evaluate(final A arg) {
+		final Maybe<R> memoizedResult = _results.get(arg);
+		if (memoizedResult.isSome()) {
+			return memoizedResult.asSome().getValue();
+		} else {
+			final R result = compute(arg);
+			_results.fill(arg, result);
+			return result;
+		}
+	}
+	
+	/**
+	 * Computes the result of the evaluation of this function with the given argument.
+	 * 
+	 * @param arg Argument to evaluate the function with.
+	 * @return The result of the function evaluation.
+	 * @since 2.0
+	 */
+	protected abstract R compute(A arg);
+	
+	@Override
+	public boolean isMemoized(final A arg) {
+		return _results.contains(arg);
+	}
+	
+	@Override
+	public Maybe<R> probe(final A arg) {
+		return _results.peek(arg);
+	}
+	
+	@Override
+	public Set<A> memoizedArgs() {
+		return _results.keys();
+	}
+	
+	@Override
+	public void reset(final A arg) {
+		_results.clear(arg);
+	}
+	
+	@Override
+	public void reset(final Predicate<? super A> filter) {
+		_results.clear(filter);
+	}
+	
+	@Override
+	public void resetAll() {
+		_results.clear();
+	}
+	
+	/**
+	 * Resets the memoized results of this function that have expired according to the retention policy.
+	 * 
+	 * @since 2.0
+	 */
+	public void cleanUp() {
+		_results.cleanUp();
+	}
+	
+	/**
+	 * Disposes the given result corresponding to the evaluation of this function with the given argument.
+	 * <p>
+	 * This methods is called when some memoized result is reset or evicted. The defaut implementation does nothing.
+	 * 
+	 * @param arg Argument whose evaluation produced the result to dispose.
+	 * @param result Result to dispose.
+	 * @since 2.0
+	 */
+	protected void dispose(final A arg, final R result) {
+		// Nothing to do.
+	}
+}
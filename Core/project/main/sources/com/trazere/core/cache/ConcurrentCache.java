@@ -0,0 +1,576 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Predicate;
+import com.trazere.core.imperative.Accumulator;
+import com.trazere.core.imperative.Accumulators;
+import com.trazere.core.util.Maybe;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@link ConcurrentCache} class provides a thread-safe implementation of caches backed by a concurrent map.
+ * <p>
+ * Reads are lock-free. The accesses to the entries are recorded into striped buffers and notified to the retention policy state in batches, so the policy state
+ * does not need to be thread-safe and concurrent reads never block each other. Updates and clears are serialized by a lock that also guards the policy state.
+ * The removed values are disposed once that lock is released.
+ * <p>
+ * Accesses are notified to the policy state lazily, at the latest before the next update of the cache. Accesses may be dropped when the buffers are saturated,
+ * which only affects the precision of access based policies.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class ConcurrentCache<K, V>
+extends BaseCache<K, V> {
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @since 2.0
+	 */
+	public ConcurrentCache(final CachePolicy<K> policy) {
+		super(policy);
+		
+		// Initialization.
+		final int stripeCount = stripeCount(Runtime.getRuntime().availableProcessors());
+		@SuppressWarnings("unchecked")
+		final AccessBuffer<K>[] accessBuffers = (AccessBuffer<K>[]) new AccessBuffer<?>[stripeCount];
+		for (int i = 0; i < stripeCount; i += 1) {
+			accessBuffers[i] = new AccessBuffer<>();
+		}
+		_accessBuffers = accessBuffers;
+	}
+	
+	private static int stripeCount(final int processors) {
+		int count = 1;
+		while (count < 4 * processors) {
+			count <<= 1;
+		}
+		return count;
+	}
+	
+	// Entries.
+	
+	// Note: values are wrapped to support null values.
+	/**
+	 * Entries of the cache.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ConcurrentHashMap<K, Maybe<V>> _entries = new ConcurrentHashMap<>();
+	
+	@Override
+	public boolean isEmpty() {
+		return _entries.isEmpty();
+	}
+	
+	@Override
+	public int size() {
+		return _entries.size();
+	}
+	
+	@Override
+	public boolean contains(final K key) {
+		return _entries.containsKey(key);
+	}
+	
+	@Override
+	public Set<K> keys() {
+		return Collections.unmodifiableSet(_entries.keySet());
+	}
+	
+	@Override
+	public Maybe<V> fill(final K key, final V value) {
+		_policyLock.lock();
+		try {
+			// Flush the pending accesses.
+			drainAccesses();
+			
+			// Fill the cache.
+			return super.fill(key, value);
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void fillAll(final Map<? extends K, ? extends V> entries) {
+		_policyLock.lock();
+		try {
+			// Flush the pending accesses.
+			drainAccesses();
+			
+			// Fill the cache.
+			super.fillAll(entries);
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	/**
+	 * Replaces the value associated to the given key in this cache by the given value when the current value is equal to the given expected value.
+	 * <p>
+	 * The comparison and the fill are atomic with respect to the other updates of this cache.
+	 * 
+	 * @param key Key of the entry.
+	 * @param expectedValue Value expected to be associated to the key. May be <code>null</code>.
+	 * @param newValue Value to associate to the key. May be <code>null</code>.
+	 * @return <code>true</code> when the value has been replaced, <code>false</code> when the key is not associated to the expected value.
+	 * @since 2.0
+	 */
+	public boolean replace(final K key, final V expectedValue, final V newValue) {
+		assert null != key;
+		
+		_policyLock.lock();
+		try {
+			if (!getEntry(key).equals(Maybe.some(expectedValue))) {
+				return false;
+			}
+			
+			// Flush the pending accesses.
+			drainAccesses();
+			
+			// Fill the cache.
+			super.fill(key, newValue);
+			return true;
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public Maybe<V> get(final K key) {
+		assert null != key;
+		
+		// Read the cache.
+		final Maybe<V> value = getEntry(key);
+		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (null != stats) {
+			if (value.isSome()) {
+				stats.recordHit();
+			} else {
+				stats.recordMiss();
+			}
+		}
+		
+		if (value.isSome()) {
+			// Record the access.
+			recordAccess(key);
+		}
+		
+		return value;
+	}
+	
+	@Override
+	public Map<K, V> getAll(final Iterable<? extends K> keys) {
+		// Read the cache.
+		int missCount = 0;
+		final Map<K, V> values = newValueMap(keys);
+		for (final K key : keys) {
+			final Maybe<V> value = getEntry(key);
+			if (value.isSome()) {
+				values.put(key, value.asSome().getValue());
+				
+				// Record the access.
+				recordAccess(key);
+			} else {
+				missCount += 1;
+			}
+		}
+		
+		// Record the statistics.
+		final CacheStatsCounter stats = _stats;
+		if (null != stats) {
+			stats.recordHits(values.size());
+			stats.recordMisses(missCount);
+		}
+		
+		return Collections.unmodifiableMap(values);
+	}
+	
+	@Override
+	public void clear(final K key) {
+		_policyLock.lock();
+		try {
+			super.clear(key);
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	/**
+	 * Clears the entry associated to the given key from this cache when its value is equal to the given expected value.
+	 * <p>
+	 * The comparison and the clear are atomic with respect to the other updates of this cache.
+	 * 
+	 * @param key Key of the entry to clear.
+	 * @param expectedValue Value expected to be associated to the key. May be <code>null</code>.
+	 * @return <code>true</code> when the entry has been cleared, <code>false</code> when the key is not associated to the expected value.
+	 * @since 2.0
+	 */
+	public boolean clear(final K key, final V expectedValue) {
+		assert null != key;
+		
+		_policyLock.lock();
+		try {
+			if (!getEntry(key).equals(Maybe.some(expectedValue))) {
+				return false;
+			}
+			
+			super.clear(key);
+			return true;
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void clearAll(final Iterable<? extends K> keys) {
+		_policyLock.lock();
+		try {
+			super.clearAll(keys);
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void clear(final Predicate<? super K> filter) {
+		_policyLock.lock();
+		try {
+			int count = 0;
+			final Iterator<Map.Entry<K, Maybe<V>>> entries = _entries.entrySet().iterator();
+			while (entries.hasNext()) {
+				final Map.Entry<K, Maybe<V>> entry = entries.next();
+				final K key = entry.getKey();
+				if (filter.evaluate(key)) {
+					// Remove the entry.
+					entries.remove();
+					
+					// Dispose the value.
+					disposeValue(key, entry.getValue().asSome().getValue());
+					count += 1;
+					
+					// Notify the policy state.
+					_policyState.clearedEntry(key);
+				}
+			}
+			
+			// Record the statistics.
+			recordClears(count);
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void clear() {
+		_policyLock.lock();
+		try {
+			// Discard the pending accesses.
+			for (final AccessBuffer<K> accessBuffer : _accessBuffers) {
+				accessBuffer.drain(Accumulators.constant(null));
+			}
+			
+			// Remove and dispose the entries.
+			int count = 0;
+			final Iterator<Map.Entry<K, Maybe<V>>> entries = _entries.entrySet().iterator();
+			while (entries.hasNext()) {
+				final Map.Entry<K, Maybe<V>> entry = entries.next();
+				entries.remove();
+				disposeValue(entry.getKey(), entry.getValue().asSome().getValue());
+				count += 1;
+			}
+			
+			// Notify the policy state.
+			_policyState.clearedAllEntries();
+			
+			// Record the statistics.
+			recordClears(count);
+		} finally {
+			unlockPolicy();
+		}
+		
+		// Dispose the pending values.
+		drainDisposals();
+	}
+	
+	@Override
+	protected Maybe<V> setEntry(final K key, final V value) {
+		final Maybe<V> oldValue = _entries.put(key, Maybe.some(value));
+		return null != oldValue ? oldValue : Maybe.<V>none();
+	}
+	
+	@Override
+	protected Maybe<V> getEntry(final K key) {
+		final Maybe<V> value = _entries.get(key);
+		return null != value ? value : Maybe.<V>none();
+	}
+	
+	@Override
+	protected Maybe<V> removeEntry(final K key) {
+		final Maybe<V> value = _entries.remove(key);
+		return null != value ? value : Maybe.<V>none();
+	}
+	
+	// Policy.
+	
+	/**
+	 * Lock guarding the updates of the entries and the policy state.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ReentrantLock _policyLock = new ReentrantLock();
+	
+	/** Keys of the entries removed while holding the policy lock, to dispose once it is released. */
+	private final List<K> _removedKeys = new ArrayList<>();
+	
+	/** Values of the entries removed while holding the policy lock, to dispose once it is released. */
+	private final List<V> _removedValues = new ArrayList<>();
+	
+	/**
+	 * Releases the policy lock of this cache and disposes the values removed while holding it.
+	 * <p>
+	 * The values are disposed once the lock is fully released, so the disposals neither stall nor reenter the updates of the cache.
+	 * 
+	 * @since 2.0
+	 */
+	protected void unlockPolicy() {
+		if (_policyLock.getHoldCount() > 1 || _removedValues.isEmpty()) {
+			_policyLock.unlock();
+			return;
+		}
+		
+		final List<K> keys = new ArrayList<>(_removedKeys);
+		final List<V> values = new ArrayList<>(_removedValues);
+		_removedKeys.clear();
+		_removedValues.clear();
+		_policyLock.unlock();
+		
+		// Dispose the removed entries.
+		for (int i = 0; i < keys.size(); i += 1) {
+			super.disposeValue(keys.get(i), values.get(i));
+		}
+	}
+	
+	@Override
+	protected void disposeValue(final K key, final V value) {
+		if (_policyLock.isHeldByCurrentThread()) {
+			// Note: dispose the entry once the lock is released.
+			_removedKeys.add(key);
+			_removedValues.add(value);
+		} else {
+			super.disposeValue(key, value);
+		}
+	}
+	
+	/**
+	 * Striped buffers of the accesses not yet notified to the policy state.
+	 * 
+	 * @since 2.0
+	 */
+	protected final AccessBuffer<K>[] _accessBuffers;
+	
+	/**
+	 * Flushes the pending accesses of this cache to its policy state and clears the expired entries.
+	 * <p>
+	 * The pending accesses are flushed automatically when the access buffers fill up and before any update of the cache. This method can be called explicitely
+	 * to apply them and evict the expired entries, for example by a maintenance thread.
+	 * 
+	 * @since 2.0
+	 * @see #scheduleCleanUp(ScheduledExecutorService, Duration)
+	 */
+	@Override
+	public void cleanUp() {
+		_policyLock.lock();
+		try {
+			evictEntries(drainAccesses());
+			expireEntries(_policyState.expiredEntries(_dirtyKeys));
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	/**
+	 * Schedules periodic clean ups of this cache using the given executor.
+	 * <p>
+	 * The expired entries are cleared and disposed by the executor without waiting for the cache to be accessed.
+	 * 
+	 * @param executor Executor to use.
+	 * @param period Period of the clean ups.
+	 * @return The scheduled task, to cancel to stop the clean ups.
+	 * @since 2.0
+	 * @see #cleanUp()
+	 */
+	public ScheduledFuture<?> scheduleCleanUp(final ScheduledExecutorService executor, final Duration period) {
+		assert null != executor;
+		assert null != period;
+		assert !period.isNegative() && !period.isZero();
+		
+		final long periodNanos = period.toNanos();
+		return executor.scheduleWithFixedDelay(this::cleanUp, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	private void recordAccess(final K key) {
+		final AccessBuffer<K> accessBuffer = _accessBuffers[stripe()];
+		if (!accessBuffer.offer(key) || accessBuffer.pending() >= AccessBuffer.DRAIN_THRESHOLD) {
+			// Flush the pending accesses when nobody else does.
+			// Note: the access is dropped when the buffer is full and the lock is busy.
+			if (_policyLock.tryLock()) {
+				try {
+					evictEntries(drainAccesses());
+				} finally {
+					unlockPolicy();
+				}
+			}
+		}
+	}
+	
+	private int stripe() {
+		// Note: spread the thread ids to limit the collisions of consecutive threads.
+		final long id = Thread.currentThread().getId();
+		final int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (_accessBuffers.length - 1);
+	}
+	
+	/**
+	 * Notifies the pending accesses to the policy state.
+	 * <p>
+	 * The policy lock must be held.
+	 * 
+	 * @return The accumulator of the keys of the dirty entries to clear from the cache.
+	 */
+	private DirtyKeys<K> drainAccesses() {
+		for (final AccessBuffer<K> accessBuffer : _accessBuffers) {
+			accessBuffer.drain(_accessedKeys);
+		}
+		return _dirtyKeys;
+	}
+	
+	/** Reusable accumulator notifying the drained accesses to the policy state. */
+	private final AccessedKeys _accessedKeys = new AccessedKeys();
+	
+	/**
+	 * The {@link AccessedKeys} class implements accumulators notifying the drained accesses to the policy state.
+	 * <p>
+	 * The keys of the dirty entries are accumulated into the reusable dirty key accumulator of the cache.
+	 */
+	private final class AccessedKeys
+	implements Accumulator<K, DirtyKeys<K>> {
+		@Override
+		public void add(final K key) {
+			// Note: the entry may have been cleared since it has been accessed.
+			if (_entries.containsKey(key)) {
+				_policyState.accessedEntry(key, _dirtyKeys);
+			}
+		}
+		
+		@Override
+		public DirtyKeys<K> get() {
+			return _dirtyKeys;
+		}
+	}
+	
+	/**
+	 * The {@link AccessBuffer} class implements bounded lossy ring buffers of accessed keys.
+	 * <p>
+	 * Access buffers support many concurrent producers and a single consumer.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @since 2.0
+	 */
+	protected static final class AccessBuffer<K> {
+		/** Capacity of the buffers. Must be a power of two. */
+		private static final int CAPACITY = 16;
+		
+		/** Number of pending accesses that triggers a drain. */
+		private static final int DRAIN_THRESHOLD = CAPACITY / 2;
+		
+		/** Elements. */
+		private final AtomicReferenceArray<K> _keys = new AtomicReferenceArray<>(CAPACITY);
+		
+		/** Count of the written elements. */
+		private final AtomicLong _writeCount = new AtomicLong();
+		
+		/** Count of the read elements. */
+		private volatile long _readCount = 0;
+		
+		/**
+		 * Records an access to the given key.
+		 * 
+		 * @param key Accessed key.
+		 * @return <code>true</code> when the access has been recorded, <code>false</code> when the buffer is full or contended.
+		 */
+		public boolean offer(final K key) {
+			final long writeCount = _writeCount.get();
+			if (writeCount - _readCount >= CAPACITY || !_writeCount.compareAndSet(writeCount, writeCount + 1)) {
+				return false;
+			}
+			_keys.lazySet((int) writeCount & (CAPACITY - 1), key);
+			return true;
+		}
+		
+		/**
+		 * Gets the number of pending accesses of this buffer.
+		 * 
+		 * @return The number of pending accesses.
+		 */
+		public int pending() {
+			return (int) (_writeCount.get() - _readCount);
+		}
+		
+		/**
+		 * Drains the pending accesses of this buffer into the given accumulator.
+		 * <p>
+		 * This method must not be called concurrently.
+		 * 
+		 * @param accesses Accumulator to populate with the accessed keys.
+		 */
+		public void drain(final Accumulator<? super K, ?> accesses) {
+			long readCount = _readCount;
+			final long writeCount = _writeCount.get();
+			while (readCount < writeCount) {
+				final int index = (int) readCount & (CAPACITY - 1);
+				final K key = _keys.get(index);
+				if (null == key) {
+					// Note: the producer has not published the key yet.
+					break;
+				}
+				_keys.lazySet(index, null);
+				accesses.add(key);
+				readCount += 1;
+			}
+			_readCount = readCount;
+		}
+	}
+}
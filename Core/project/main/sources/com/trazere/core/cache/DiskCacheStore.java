@@ -0,0 +1,717 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Serializer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link DiskCacheStore} class implements persistent stores of cache entries backed by memory-mapped segment files.
+ * <p>
+ * The entries are serialized and appended to the active segment of the store. The segments are sealed when full, and the sealed segments whose live data
+ * falls under half of their size are compacted by copying their live entries to a new segment. Each segment carries a checksum of its records, and the
+ * corrupted segments are discarded when the store is reopened. The index of the entries is kept in memory and rebuilt from the segments on opening.
+ * <p>
+ * This store is thread-safe.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @see TieredCache
+ * @since 2.0
+ */
+public class DiskCacheStore<K, V>
+implements AutoCloseable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(DiskCacheStore.class);
+	
+	private static final int MAGIC = 0x54435331; // TCS1
+	private static final int HEADER_SIZE = 24;
+	private static final int RECORD_HEADER_SIZE = 8;
+	private static final int TOMBSTONE = -1;
+	private static final int NULL_VALUE = -2;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+	
+	/**
+	 * Opens the store located in the given directory.
+	 * <p>
+	 * The directory is created when it does not exist. The entries of the existing valid segments are recovered.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @param directory Directory of the segment files.
+	 * @param keySerializer Serializer of the keys.
+	 * @param valueSerializer Serializer of the values.
+	 * @param segmentSize Size of the segment files in bytes.
+	 * @return The opened store.
+	 * @throws IOException When the store cannot be opened.
+	 * @since 2.0
+	 */
+	public static <K, V> DiskCacheStore<K, V> open(final Path directory, final Serializer<K, byte[]> keySerializer, final Serializer<V, byte[]> valueSerializer, final int segmentSize)
+	throws IOException {
+		final DiskCacheStore<K, V> store = new DiskCacheStore<>(directory, keySerializer, valueSerializer, segmentSize);
+		store.load();
+		return store;
+	}
+	
+	/**
+	 * Instantiates a new store.
+	 * 
+	 * @param directory Directory of the segment files.
+	 * @param keySerializer Serializer of the keys.
+	 * @param valueSerializer Serializer of the values.
+	 * @param segmentSize Size of the segment files in bytes.
+	 * @since 2.0
+	 * @see #open(Path, Serializer, Serializer, int)
+	 */
+	protected DiskCacheStore(final Path directory, final Serializer<K, byte[]> keySerializer, final Serializer<V, byte[]> valueSerializer, final int segmentSize) {
+		assert null != directory;
+		assert null != keySerializer;
+		assert null != valueSerializer;
+		assert segmentSize > HEADER_SIZE;
+		
+		// Initialization.
+		_directory = directory;
+		_keySerializer = keySerializer;
+		_valueSerializer = valueSerializer;
+		_segmentSize = segmentSize;
+	}
+	
+	// Configuration.
+	
+	/**
+	 * Directory of the segment files.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Path _directory;
+	
+	/**
+	 * Serializer of the keys.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Serializer<K, byte[]> _keySerializer;
+	
+	/**
+	 * Serializer of the values.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Serializer<V, byte[]> _valueSerializer;
+	
+	/**
+	 * Size of the segment files in bytes.
+	 * 
+	 * @since 2.0
+	 */
+	protected final int _segmentSize;
+	
+	/**
+	 * Gets the directory of the segment files of this store.
+	 * 
+	 * @return The directory.
+	 * @since 2.0
+	 */
+	public Path getDirectory() {
+		return _directory;
+	}
+	
+	// Entries.
+	
+	/** Locations of the entries. */
+	private final Map<K, Location> _index = new HashMap<>();
+	
+	/**
+	 * Gets the number of entries of this store.
+	 * 
+	 * @return The number of entries.
+	 * @since 2.0
+	 */
+	public synchronized int size() {
+		return _index.size();
+	}
+	
+	/**
+	 * Tests whether an entry is associated to the given key in this store.
+	 * 
+	 * @param key Key to test.
+	 * @return <code>true</code> when an entry is associated to the key, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public synchronized boolean contains(final K key) {
+		return _index.containsKey(key);
+	}
+	
+	/**
+	 * Gets the keys of the entries of this store.
+	 * 
+	 * @return A snapshot of the keys.
+	 * @since 2.0
+	 */
+	public synchronized Set<K> keys() {
+		return new HashSet<>(_index.keySet());
+	}
+	
+	/**
+	 * Gets the value associated to the given key in this store.
+	 * 
+	 * @param key Key whose associated value should be returned.
+	 * @return The value associated to the key, or nothing when no entries is associated to the key.
+	 * @since 2.0
+	 */
+	public synchronized Maybe<V> get(final K key) {
+		checkOpen();
+		
+		final Location location = _index.get(key);
+		if (null == location) {
+			return Maybe.none();
+		} else if (NULL_VALUE == location.valueLength) {
+			return Maybe.some(null);
+		} else {
+			final byte[] bytes = new byte[location.valueLength];
+			final ByteBuffer buffer = location.segment.buffer.duplicate();
+			buffer.position(location.offset + RECORD_HEADER_SIZE + location.keyLength);
+			buffer.get(bytes);
+			return Maybe.some(_valueSerializer.deserialize(bytes));
+		}
+	}
+	
+	/**
+	 * Stores an entry that associates the given value to the given key in this store.
+	 * 
+	 * @param key Key of the entry.
+	 * @param value Value of the entry. May be <code>null</code>.
+	 * @throws IOException When the entry cannot be written.
+	 * @since 2.0
+	 */
+	public synchronized void put(final K key, final V value)
+	throws IOException {
+		checkOpen();
+		
+		final byte[] keyBytes = _keySerializer.serialize(key);
+		final byte[] valueBytes = null != value ? _valueSerializer.serialize(value) : null;
+		final Location location = append(keyBytes, null != valueBytes ? valueBytes.length : NULL_VALUE, valueBytes);
+		release(_index.put(key, location));
+	}
+	
+	/**
+	 * Removes the entry associated to the given key from this store.
+	 * 
+	 * @param key Key of the entry to remove.
+	 * @return <code>true</code> when an entry has been removed, <code>false</code> otherwise.
+	 * @throws IOException When the removal cannot be written.
+	 * @since 2.0
+	 */
+	public synchronized boolean remove(final K key)
+	throws IOException {
+		checkOpen();
+		
+		final Location location = _index.remove(key);
+		if (null == location) {
+			return false;
+		}
+		
+		// Note: a tombstone prevents the entry from being recovered on reopening.
+		release(location);
+		append(_keySerializer.serialize(key), TOMBSTONE, null);
+		return true;
+	}
+	
+	/**
+	 * Removes all entries from this store and deletes its segment files.
+	 * 
+	 * @throws IOException When the segment files cannot be deleted.
+	 * @since 2.0
+	 */
+	public synchronized void clear()
+	throws IOException {
+		checkOpen();
+		
+		_index.clear();
+		for (final Segment segment : new ArrayList<>(_segments.values())) {
+			deleteSegment(segment);
+		}
+		_activeSegment = null;
+	}
+	
+	/**
+	 * Flushes the active segment of this store to the disk.
+	 * 
+	 * @since 2.0
+	 */
+	public synchronized void flush() {
+		checkOpen();
+		
+		if (null != _activeSegment) {
+			_activeSegment.buffer.force();
+		}
+	}
+	
+	// Segments.
+	
+	/**
+	 * The {@link Location} class represents locations of records in segments.
+	 */
+	private static final class Location {
+		public Location(final Segment segment, final int offset, final int keyLength, final int valueLength) {
+			this.segment = segment;
+			this.offset = offset;
+			this.keyLength = keyLength;
+			this.valueLength = valueLength;
+		}
+		
+		public final Segment segment;
+		public final int offset;
+		public final int keyLength;
+		public final int valueLength;
+		
+		public int length() {
+			return recordLength(keyLength, valueLength);
+		}
+	}
+	
+	/**
+	 * The {@link Segment} class represents memory-mapped segment files.
+	 */
+	private static final class Segment {
+		public Segment(final long id, final Path path, final FileChannel channel, final MappedByteBuffer buffer) {
+			this.id = id;
+			this.path = path;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+		
+		public final long id;
+		public final Path path;
+		public final FileChannel channel;
+		public final MappedByteBuffer buffer;
+		
+		/** Offset of the end of the records. */
+		public int end = HEADER_SIZE;
+		
+		/** Number of bytes of the live records. */
+		public long liveBytes = 0;
+		
+		/** Running checksum of the records. */
+		public final CRC32 checksum = new CRC32();
+		
+		public void writeHeader() {
+			buffer.putInt(0, MAGIC);
+			buffer.putInt(4, end);
+			buffer.putLong(8, checksum.getValue());
+		}
+	}
+	
+	/** Segments indexed by id. */
+	private final TreeMap<Long, Segment> _segments = new TreeMap<>();
+	
+	/** Segment accepting the appended records, or <code>null</code>. */
+	private Segment _activeSegment = null;
+	
+	/** Indicates whether this store has been closed. */
+	private boolean _closed = false;
+	
+	private static int recordLength(final int keyLength, final int valueLength) {
+		return RECORD_HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+	}
+	
+	private void checkOpen() {
+		if (_closed) {
+			throw new IllegalStateException("Store " + _directory + " is closed");
+		}
+	}
+	
+	private Location append(final byte[] keyBytes, final int valueLength, final byte[] valueBytes)
+	throws IOException {
+		final int length = recordLength(keyBytes.length, valueLength);
+		if (null == _activeSegment || _activeSegment.end + length > _activeSegment.buffer.capacity()) {
+			// Seal the active segment.
+			if (null != _activeSegment) {
+				_activeSegment.buffer.force();
+			}
+			
+			// Note: records larger than the segments get a dedicated segment.
+			_activeSegment = createSegment(Math.max(_segmentSize, HEADER_SIZE + length));
+		}
+		
+		// Write the record.
+		final ByteBuffer record = ByteBuffer.allocate(length);
+		record.putInt(keyBytes.length);
+		record.putInt(valueLength);
+		record.put(keyBytes);
+		if (null != valueBytes) {
+			record.put(valueBytes);
+		}
+		return write(_activeSegment, record.array(), keyBytes.length, valueLength);
+	}
+	
+	private static Location write(final Segment segment, final byte[] record, final int keyLength, final int valueLength) {
+		final int offset = segment.end;
+		final ByteBuffer buffer = segment.buffer.duplicate();
+		buffer.position(offset);
+		buffer.put(record);
+		
+		// Update the header.
+		segment.checksum.update(record, 0, record.length);
+		segment.end = offset + record.length;
+		segment.writeHeader();
+		
+		final Location location = new Location(segment, offset, keyLength, valueLength);
+		if (TOMBSTONE != valueLength) {
+			segment.liveBytes += record.length;
+		}
+		return location;
+	}
+	
+	private void release(final Location location) {
+		if (null != location) {
+			location.segment.liveBytes -= location.length();
+		}
+	}
+	
+	private Segment createSegment(final int size)
+	throws IOException {
+		final long id = _segments.isEmpty() ? 0L : _segments.lastKey() + 1;
+		final Path path = _directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		final Segment segment = new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+		segment.writeHeader();
+		_segments.put(id, segment);
+		return segment;
+	}
+	
+	private void deleteSegment(final Segment segment)
+	throws IOException {
+		// Note: the mapping is released when the buffer is collected.
+		_segments.remove(segment.id);
+		if (segment == _activeSegment) {
+			_activeSegment = null;
+		}
+		segment.channel.close();
+		Files.deleteIfExists(segment.path);
+	}
+	
+	private void load()
+	throws IOException {
+		Files.createDirectories(_directory);
+		
+		// List the segments.
+		final TreeMap<Long, Path> paths = new TreeMap<>();
+		try (final DirectoryStream<Path> files = Files.newDirectoryStream(_directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (final Path path : files) {
+				final String name = path.getFileName().toString();
+				try {
+					paths.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), path);
+				} catch (final NumberFormatException exception) {
+					// Note: not a segment.
+				}
+			}
+		}
+		
+		// Recover the segments in order.
+		for (final Map.Entry<Long, Path> path : paths.entrySet()) {
+			final FileChannel channel = FileChannel.open(path.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			final Segment segment = new Segment(path.getKey(), path.getValue(), channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+			if (verifySegment(segment)) {
+				_segments.put(segment.id, segment);
+				recoverSegment(segment);
+			} else {
+				// Discard the corrupted segment.
+				channel.close();
+				Files.deleteIfExists(path.getValue());
+			}
+		}
+	}
+	
+	private static boolean verifySegment(final Segment segment) {
+		final MappedByteBuffer buffer = segment.buffer;
+		if (buffer.capacity() < HEADER_SIZE || MAGIC != buffer.getInt(0)) {
+			return false;
+		}
+		final int end = buffer.getInt(4);
+		if (end < HEADER_SIZE || end > buffer.capacity()) {
+			return false;
+		}
+		
+		final byte[] records = new byte[end - HEADER_SIZE];
+		final ByteBuffer reader = buffer.duplicate();
+		reader.position(HEADER_SIZE);
+		reader.get(records);
+		segment.checksum.update(records);
+		segment.end = end;
+		return segment.checksum.getValue() == buffer.getLong(8);
+	}
+	
+	private void recoverSegment(final Segment segment) {
+		final ByteBuffer buffer = segment.buffer.duplicate();
+		int offset = HEADER_SIZE;
+		while (offset < segment.end) {
+			buffer.position(offset);
+			final int keyLength = buffer.getInt();
+			final int valueLength = buffer.getInt();
+			final byte[] keyBytes = new byte[keyLength];
+			buffer.get(keyBytes);
+			final K key = _keySerializer.deserialize(keyBytes);
+			
+			final Location location = new Location(segment, offset, keyLength, valueLength);
+			if (TOMBSTONE == valueLength) {
+				release(_index.remove(key));
+			} else {
+				segment.liveBytes += location.length();
+				release(_index.put(key, location));
+			}
+			offset += location.length();
+		}
+	}
+	
+	// Compaction.
+	
+	/** Monitor serializing the compactions. */
+	private final Object _compactionLock = new Object();
+	
+	/**
+	 * Compacts the sealed segments of this store whose live records occupy less than half of their size.
+	 * <p>
+	 * The live records are copied to a new segment without holding the monitor of the store, so the accesses to the store are only blocked while the copies are
+	 * swapped in.
+	 * 
+	 * @return The number of compacted segments.
+	 * @throws IOException When the segments cannot be compacted.
+	 * @since 2.0
+	 */
+	public int compact()
+	throws IOException {
+		synchronized (this) {
+			checkOpen();
+		}
+		
+		return compactSegments();
+	}
+	
+	private int compactSegments()
+	throws IOException {
+		synchronized (_compactionLock) {
+			// Find the sparse segments.
+			final List<Segment> segments = new ArrayList<>();
+			final List<Map.Entry<K, Location>> records = new ArrayList<>();
+			final Segment target;
+			synchronized (this) {
+				if (_closed) {
+					return 0;
+				}
+				
+				long liveBytes = 0;
+				for (final Segment segment : _segments.values()) {
+					if (segment != _activeSegment && 2 * segment.liveBytes < segment.end - HEADER_SIZE && liveBytes + segment.liveBytes <= Integer.MAX_VALUE - HEADER_SIZE) {
+						segments.add(segment);
+						liveBytes += segment.liveBytes;
+					}
+				}
+				if (segments.isEmpty()) {
+					return 0;
+				}
+				
+				// Snapshot the live records.
+				final Set<Segment> sparseSegments = new HashSet<>(segments);
+				for (final Map.Entry<K, Location> entry : _index.entrySet()) {
+					if (sparseSegments.contains(entry.getValue().segment)) {
+						records.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+					}
+				}
+				records.sort(Comparator.comparingLong((final Map.Entry<K, Location> record) -> record.getValue().segment.id).thenComparingInt(record -> record.getValue().offset));
+				
+				// Note: the active segment is sealed so that the records appended during the compaction follow the copies when the store is reopened.
+				if (null != _activeSegment) {
+					_activeSegment.buffer.force();
+					_activeSegment = null;
+				}
+				target = liveBytes > 0 ? createSegment(HEADER_SIZE + (int) liveBytes) : null;
+			}
+			
+			final List<Location> copies = new ArrayList<>(records.size());
+			final Map<Segment, Map<K, byte[]>> tombstones = new LinkedHashMap<>();
+			try {
+				// Copy the live records.
+				// Note: the sealed segments are not written anymore and the target segment is not indexed yet, so they can be accessed without holding the monitor.
+				for (final Map.Entry<K, Location> record : records) {
+					final Location location = record.getValue();
+					final byte[] bytes = new byte[location.length()];
+					final ByteBuffer buffer = location.segment.buffer.duplicate();
+					buffer.position(location.offset);
+					buffer.get(bytes);
+					copies.add(write(target, bytes, location.keyLength, location.valueLength));
+				}
+				if (null != target) {
+					target.buffer.force();
+				}
+				
+				// Collect the tombstones.
+				for (final Segment segment : segments) {
+					final Map<K, byte[]> segmentTombstones = new LinkedHashMap<>();
+					final ByteBuffer buffer = segment.buffer.duplicate();
+					int offset = HEADER_SIZE;
+					while (offset < segment.end) {
+						buffer.position(offset);
+						final int keyLength = buffer.getInt();
+						final int valueLength = buffer.getInt();
+						if (TOMBSTONE == valueLength) {
+							final byte[] keyBytes = new byte[keyLength];
+							buffer.get(keyBytes);
+							segmentTombstones.put(_keySerializer.deserialize(keyBytes), keyBytes);
+						}
+						offset += recordLength(keyLength, valueLength);
+					}
+					tombstones.put(segment, segmentTombstones);
+				}
+			} catch (final RuntimeException exception) {
+				// Discard the copies.
+				synchronized (this) {
+					if (null != target && target == _segments.get(target.id)) {
+						deleteSegment(target);
+					}
+				}
+				throw exception;
+			}
+			
+			synchronized (this) {
+				for (final Segment segment : segments) {
+					if (_closed || segment != _segments.get(segment.id)) {
+						// Note: the store has been closed or cleared meanwhile. The copies only duplicate live records, so the remaining segments stay consistent.
+						return 0;
+					}
+				}
+				
+				// Swap the live records.
+				for (int i = 0; i < records.size(); i += 1) {
+					final Map.Entry<K, Location> record = records.get(i);
+					if (record.getValue() == _index.get(record.getKey())) {
+						_index.put(record.getKey(), copies.get(i));
+					} else {
+						// Note: the entry has been updated or removed during the copy.
+						release(copies.get(i));
+					}
+				}
+				
+				// Preserve the tombstones.
+				long oldestId = Long.MAX_VALUE;
+				for (final Segment segment : _segments.values()) {
+					if (!tombstones.containsKey(segment)) {
+						oldestId = segment.id;
+						break;
+					}
+				}
+				boolean appended = false;
+				for (final Map.Entry<Segment, Map<K, byte[]>> segmentTombstones : tombstones.entrySet()) {
+					for (final Map.Entry<K, byte[]> tombstone : segmentTombstones.getValue().entrySet()) {
+						if (!_index.containsKey(tombstone.getKey()) && oldestId < segmentTombstones.getKey().id) {
+							// Note: the tombstone may still shadow some record of an older segment.
+							append(tombstone.getValue(), TOMBSTONE, null);
+							appended = true;
+						}
+					}
+				}
+				if (appended) {
+					_activeSegment.buffer.force();
+				}
+				
+				// Delete the compacted segments.
+				for (final Segment segment : segments) {
+					deleteSegment(segment);
+				}
+				return segments.size();
+			}
+		}
+	}
+	
+	/**
+	 * Schedules periodic compactions of this store using the given executor.
+	 * <p>
+	 * The failures of the compactions are logged and do not cancel the next compactions.
+	 * 
+	 * @param executor Executor to use.
+	 * @param period Period of the compactions.
+	 * @return The scheduled task, to cancel to stop the compactions.
+	 * @since 2.0
+	 */
+	public ScheduledFuture<?> scheduleCompaction(final ScheduledExecutorService executor, final Duration period) {
+		assert null != executor;
+		assert null != period;
+		assert !period.isNegative() && !period.isZero();
+		
+		final long periodNanos = period.toNanos();
+		return executor.scheduleWithFixedDelay(() -> {
+			// Note: throwing would silently cancel the next compactions.
+			try {
+				compactSegments();
+			} catch (final IOException | RuntimeException exception) {
+				LOGGER.error("Failed compacting store " + _directory, exception);
+			}
+		}, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	// Closing.
+	
+	/**
+	 * Flushes and closes this store.
+	 * 
+	 * @throws IOException When the segment files cannot be closed.
+	 * @since 2.0
+	 */
+	@Override
+	public synchronized void close()
+	throws IOException {
+		if (_closed) {
+			return;
+		}
+		_closed = true;
+		
+		final Iterator<Segment> segments = _segments.values().iterator();
+		while (segments.hasNext()) {
+			final Segment segment = segments.next();
+			segment.buffer.force();
+			segment.channel.close();
+			segments.remove();
+		}
+		_activeSegment = null;
+		_index.clear();
+	}
+}
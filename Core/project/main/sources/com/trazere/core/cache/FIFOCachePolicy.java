@@ -16,7 +16,9 @@
 package com.trazere.core.cache;
 
 import com.trazere.core.imperative.Accumulator;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
 
 /**
  * The {@link FIFOCachePolicy} class implements cache policies with a bounded capacity based on the First In/First Out algorithm.
@@ -63,20 +65,44 @@ implements CachePolicy<K> {
 	@Override
 	public CachePolicy.State<K> build() {
 		return new CachePolicy.State<K>() {
+			// Note: LinkedHashSet allows to append, find and clear the entries in constant time.
 			/** Order. */
-			private final LinkedList<K> _order = new LinkedList<>();
+			private final LinkedHashSet<K> _order = new LinkedHashSet<>();
 			
 			@Override
 			public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final A dirtyEntries) {
 				// Update the order.
+				appendEntry(key);
+				
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntries(final Map<? extends K, ?> entries, final A dirtyEntries) {
+				// Update the order.
+				for (final K key : entries.keySet()) {
+					appendEntry(key);
+				}
+				
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			private void appendEntry(final K key) {
 				// Note: the first keys comes first to optimize the cleanups.
+				// Note: key is removed first to move it at the end of the order.
 				_order.remove(key);
-				_order.addLast(key);
-				
+				_order.add(key);
+			}
+			
+			private <A extends Accumulator<? super K, ?>> A findDirtyEntries(final A dirtyEntries) {
 				// Find the dirty entries.
-				final int size = _order.size();
-				if (size > _capacity) {
-					dirtyEntries.addAll(_order.subList(0, size - _capacity));
+				int dirtyCount = _order.size() - _capacity;
+				if (dirtyCount > 0) {
+					final Iterator<K> keys = _order.iterator();
+					while (dirtyCount > 0 && keys.hasNext()) {
+						dirtyEntries.add(keys.next());
+						dirtyCount -= 1;
+					}
 				}
 				return dirtyEntries;
 			}
@@ -16,7 +16,9 @@
 package com.trazere.core.cache;
 
 import com.trazere.core.imperative.Accumulator;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * The {@link LRUCachePolicy} class provides cache policies with a bounded capacity based on the Least Recently Used algorithm.
@@ -63,18 +65,37 @@ implements CachePolicy<K> {
 	@Override
 	public CachePolicy.State<K> build() {
 		return new CachePolicy.State<K>() {
+			// Note: access ordered LinkedHashMap allows to touch, find and clear the entries in constant time, and to touch them without allocations.
 			/** Order. */
-			private final LinkedList<K> _order = new LinkedList<>();
+			private final LinkedHashMap<K, Boolean> _order = new LinkedHashMap<>(16, 0.75f, true);
 			
 			@Override
 			public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final A dirtyEntries) {
 				// Update the order.
 				touchEntry(key);
 				
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntries(final Map<? extends K, ?> entries, final A dirtyEntries) {
+				// Update the order.
+				for (final K key : entries.keySet()) {
+					touchEntry(key);
+				}
+				
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			private <A extends Accumulator<? super K, ?>> A findDirtyEntries(final A dirtyEntries) {
 				// Find the dirty entries.
-				final int size = _order.size();
-				if (size > _capacity) {
-					dirtyEntries.addAll(_order.subList(0, size - _capacity));
+				int dirtyCount = _order.size() - _capacity;
+				if (dirtyCount > 0) {
+					final Iterator<K> keys = _order.keySet().iterator();
+					while (dirtyCount > 0 && keys.hasNext()) {
+						dirtyEntries.add(keys.next());
+						dirtyCount -= 1;
+					}
 				}
 				return dirtyEntries;
 			}
@@ -90,8 +111,9 @@ implements CachePolicy<K> {
 			private void touchEntry(final K key) {
 				// Update the order.
 				// Note: the least recently used keys comes first to optimize the cleanups.
-				_order.remove(key);
-				_order.addLast(key);
+				if (null == _order.get(key)) {
+					_order.put(key, Boolean.TRUE);
+				}
 			}
 			
 			@Override
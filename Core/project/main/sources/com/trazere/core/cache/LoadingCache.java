@@ -0,0 +1,469 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Function;
+import com.trazere.core.functional.Predicate;
+import com.trazere.core.util.Maybe;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link LoadingCache} class provides thread-safe caches that load the missing values using some loader function.
+ * <p>
+ * Concurrent loadings of the value of the same key are deduplicated: only one of the calling threads evaluates the loader and the others wait for its result.
+ * Bulk loadings batch all missing keys into a single evaluation of the bulk loader.
+ * <p>
+ * Clearing an entry invalidates the loading in progress of its value, if any: the loaded value is still returned to the loading threads but is not filled in
+ * the cache, and the later loadings evaluate the loader again.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class LoadingCache<K, V>
+extends ConcurrentCache<K, V> {
+	/**
+	 * Instantiates a new cache.
+	 * <p>
+	 * The bulk loadings evaluate the given loader once per missing key.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @param loader Function computing the value associated to some key.
+	 * @since 2.0
+	 */
+	public LoadingCache(final CachePolicy<K> policy, final Function<? super K, ? extends V> loader) {
+		this(policy, loader, (final Set<K> keys) -> {
+			final Map<K, V> values = new HashMap<>();
+			for (final K key : keys) {
+				values.put(key, loader.evaluate(key));
+			}
+			return values;
+		});
+	}
+	
+	/**
+	 * Instantiates a new cache.
+	 * <p>
+	 * The bulk loader should compute the values associated to all given keys. The values of the keys missing from its result are computed by the loader.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @param loader Function computing the value associated to some key.
+	 * @param bulkLoader Function computing the values associated to some keys.
+	 * @since 2.0
+	 */
+	public LoadingCache(final CachePolicy<K> policy, final Function<? super K, ? extends V> loader, final Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkLoader) {
+		super(policy);
+		
+		assert null != loader;
+		assert null != bulkLoader;
+		
+		// Initialization.
+		_loader = loader;
+		_bulkLoader = bulkLoader;
+	}
+	
+	// Loaders.
+	
+	/**
+	 * Function computing the value associated to some key.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Function<? super K, ? extends V> _loader;
+	
+	/**
+	 * Function computing the values associated to some keys.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> _bulkLoader;
+	
+	// Loadings.
+	
+	/**
+	 * Loadings in progress indexed by key.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ConcurrentHashMap<K, Loading<V>> _loadings = new ConcurrentHashMap<>();
+	
+	/**
+	 * Gets the value associated to the given key in this cache, loading and filling it when no entries is associated to the key.
+	 * <p>
+	 * The calling thread waits for the completion of the loading in progress in some other thread for the same key, if any.
+	 * 
+	 * @param key Key whose associated value should be returned.
+	 * @return The value associated to the key.
+	 * @throws IllegalStateException When the loading of the value recursively depends on itself.
+	 * @since 2.0
+	 */
+	public V load(final K key)
+	throws IllegalStateException {
+		assert null != key;
+		
+		// Read the cache.
+		final Maybe<V> cachedValue = get(key);
+		if (cachedValue.isSome()) {
+			return cachedValue.asSome().getValue();
+		}
+		
+		// Join the loading in progress.
+		final Loading<V> loading = new Loading<>();
+		final Loading<V> currentLoading = _loadings.putIfAbsent(key, loading);
+		if (null != currentLoading) {
+			return currentLoading.await();
+		}
+		
+		// Load the value.
+		try {
+			// Note: the entry may have been filled by a loading completed since the miss.
+			final Maybe<V> filledValue = getEntry(key);
+			if (filledValue.isSome()) {
+				final V value = filledValue.asSome().getValue();
+				loading.succeed(value);
+				return value;
+			}
+			
+			final V value = loadValue(key);
+			fillLoading(key, loading, value);
+			loading.succeed(value);
+			return value;
+		} catch (final RuntimeException | Error exception) {
+			loading.fail(exception);
+			throw exception;
+		} finally {
+			_loadings.remove(key, loading);
+		}
+	}
+	
+	/**
+	 * Gets the values associated to the given keys in this cache, loading and filling the missing ones using a single evaluation of the bulk loader.
+	 * <p>
+	 * The calling thread waits for the completion of the loadings in progress in some other threads for the same keys, if any.
+	 * 
+	 * @param keys Keys whose associated values should be returned.
+	 * @return An unmodifiable map of the values associated to the keys, in the iteration order of the keys.
+	 * @throws IllegalStateException When the loading of some value recursively depends on itself.
+	 * @since 2.0
+	 */
+	public Map<K, V> loadAll(final Iterable<? extends K> keys)
+	throws IllegalStateException {
+		assert null != keys;
+		
+		final Map<K, V> values = new LinkedHashMap<>();
+		final Map<K, Loading<V>> joinedLoadings = new HashMap<>();
+		final Map<K, Loading<V>> ownedLoadings = new HashMap<>();
+		try {
+			// Read the cache and join the loadings in progress.
+			for (final K key : keys) {
+				assert null != key;
+				
+				if (values.containsKey(key) || joinedLoadings.containsKey(key) || ownedLoadings.containsKey(key)) {
+					continue;
+				}
+				
+				final Maybe<V> cachedValue = get(key);
+				if (cachedValue.isSome()) {
+					values.put(key, cachedValue.asSome().getValue());
+					continue;
+				}
+				
+				final Loading<V> loading = new Loading<>();
+				final Loading<V> currentLoading = _loadings.putIfAbsent(key, loading);
+				if (null != currentLoading) {
+					values.put(key, null); // Note: reserve the position of the key.
+					joinedLoadings.put(key, currentLoading);
+					continue;
+				}
+				
+				// Note: the entry may have been filled by a loading completed since the miss.
+				final Maybe<V> filledValue = getEntry(key);
+				if (filledValue.isSome()) {
+					final V value = filledValue.asSome().getValue();
+					loading.succeed(value);
+					_loadings.remove(key, loading);
+					values.put(key, value);
+				} else {
+					values.put(key, null); // Note: reserve the position of the key.
+					ownedLoadings.put(key, loading);
+				}
+			}
+			
+			// Load the missing values.
+			if (!ownedLoadings.isEmpty()) {
+				final Map<? extends K, ? extends V> loadedValues = loadValues(Collections.unmodifiableSet(new LinkedHashSet<>(ownedLoadings.keySet())));
+				for (final Map.Entry<K, Loading<V>> ownedLoading : ownedLoadings.entrySet()) {
+					final K key = ownedLoading.getKey();
+					final V value = loadedValues.containsKey(key) ? loadedValues.get(key) : loadValue(key);
+					fillLoading(key, ownedLoading.getValue(), value);
+					ownedLoading.getValue().succeed(value);
+					values.put(key, value);
+				}
+			}
+		} catch (final RuntimeException | Error exception) {
+			for (final Loading<V> ownedLoading : ownedLoadings.values()) {
+				ownedLoading.fail(exception);
+			}
+			throw exception;
+		} finally {
+			for (final Map.Entry<K, Loading<V>> ownedLoading : ownedLoadings.entrySet()) {
+				_loadings.remove(ownedLoading.getKey(), ownedLoading.getValue());
+			}
+		}
+		
+		// Wait for the joined loadings.
+		for (final Map.Entry<K, Loading<V>> joinedLoading : joinedLoadings.entrySet()) {
+			values.put(joinedLoading.getKey(), joinedLoading.getValue().await());
+		}
+		
+		return Collections.unmodifiableMap(values);
+	}
+	
+	private void fillLoading(final K key, final Loading<V> loading, final V value) {
+		_policyLock.lock();
+		try {
+			// Note: the entry may have been cleared during the loading.
+			if (!loading.isInvalidated()) {
+				fill(key, value);
+			}
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	/**
+	 * Invalidates the loading in progress of the value associated to the given key, if any.
+	 * <p>
+	 * The policy lock must be held.
+	 * 
+	 * @param key Key of the loading to invalidate.
+	 */
+	private void invalidateLoading(final K key) {
+		final Loading<V> loading = _loadings.remove(key);
+		if (null != loading) {
+			loading.invalidate();
+		}
+	}
+	
+	@Override
+	public void clear(final K key) {
+		_policyLock.lock();
+		try {
+			super.clear(key);
+			invalidateLoading(key);
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void clearAll(final Iterable<? extends K> keys) {
+		_policyLock.lock();
+		try {
+			super.clearAll(keys);
+			for (final K key : keys) {
+				invalidateLoading(key);
+			}
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void clear(final Predicate<? super K> filter) {
+		_policyLock.lock();
+		try {
+			super.clear(filter);
+			for (final K key : _loadings.keySet()) {
+				if (filter.evaluate(key)) {
+					invalidateLoading(key);
+				}
+			}
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	@Override
+	public void clear() {
+		_policyLock.lock();
+		try {
+			super.clear();
+			for (final K key : _loadings.keySet()) {
+				invalidateLoading(key);
+			}
+		} finally {
+			unlockPolicy();
+		}
+	}
+	
+	private V loadValue(final K key) {
+		final CacheStatsCounter stats = _stats;
+		if (null == stats) {
+			return _loader.evaluate(key);
+		}
+		
+		// Load and record the statistics.
+		final long start = System.nanoTime();
+		boolean success = false;
+		try {
+			final V value = _loader.evaluate(key);
+			success = true;
+			return value;
+		} finally {
+			recordLoads(stats, 1, System.nanoTime() - start, success);
+		}
+	}
+	
+	private Map<? extends K, ? extends V> loadValues(final Set<K> keys) {
+		final CacheStatsCounter stats = _stats;
+		if (null == stats) {
+			return _bulkLoader.evaluate(keys);
+		}
+		
+		// Load and record the statistics.
+		final long start = System.nanoTime();
+		boolean success = false;
+		try {
+			final Map<? extends K, ? extends V> values = _bulkLoader.evaluate(keys);
+			success = true;
+			return values;
+		} finally {
+			recordLoads(stats, keys.size(), System.nanoTime() - start, success);
+		}
+	}
+	
+	private static void recordLoads(final CacheStatsCounter stats, final int count, final long time, final boolean success) {
+		if (success) {
+			stats.recordLoadSuccess(count, time);
+		} else {
+			stats.recordLoadFailure(count, time);
+		}
+	}
+	
+	/**
+	 * The {@link Loading} class implements rendez-vous points of the threads loading the value of some key.
+	 * 
+	 * @param <V> Type of the value.
+	 * @since 2.0
+	 */
+	protected static final class Loading<V> {
+		/** Thread loading the value. */
+		private final Thread _owner = Thread.currentThread();
+		
+		// Note: the invalidation is guarded by the policy lock of the cache.
+		/** Indicates whether the entry has been cleared during the loading. */
+		private boolean _invalidated = false;
+		
+		/**
+		 * Indicates whether this loading has been invalidated.
+		 * 
+		 * @return <code>true</code> when the loaded value must not be filled, <code>false</code> otherwise.
+		 */
+		public boolean isInvalidated() {
+			return _invalidated;
+		}
+		
+		/**
+		 * Invalidates this loading.
+		 * <p>
+		 * The loaded value will not be filled in the cache.
+		 */
+		public void invalidate() {
+			_invalidated = true;
+		}
+		
+		/** Indicates whether the loading is completed. */
+		private boolean _completed = false;
+		
+		/** Loaded value. */
+		private V _value = null;
+		
+		/** Failure of the loading. */
+		private Throwable _failure = null;
+		
+		/**
+		 * Completes this loading with the given value.
+		 * 
+		 * @param value Loaded value.
+		 */
+		public synchronized void succeed(final V value) {
+			if (!_completed) {
+				_completed = true;
+				_value = value;
+				notifyAll();
+			}
+		}
+		
+		/**
+		 * Completes this loading with the given failure.
+		 * 
+		 * @param failure Failure of the loading.
+		 */
+		public synchronized void fail(final Throwable failure) {
+			if (!_completed) {
+				_completed = true;
+				_failure = failure;
+				notifyAll();
+			}
+		}
+		
+		/**
+		 * Waits for the completion of this loading.
+		 * <p>
+		 * The failure of the loading is rethrown in the calling thread.
+		 * 
+		 * @return The loaded value.
+		 * @throws IllegalStateException When the loading recursively depends on itself.
+		 */
+		public synchronized V await()
+		throws IllegalStateException {
+			if (!_completed && Thread.currentThread() == _owner) {
+				throw new IllegalStateException("Recursive loading of the value");
+			}
+			
+			boolean interrupted = false;
+			try {
+				while (!_completed) {
+					try {
+						wait();
+					} catch (final InterruptedException exception) {
+						// Note: the loading thread is not interruptible, wait for the completion and restore the interrupt status.
+						interrupted = true;
+					}
+				}
+			} finally {
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			
+			if (_failure instanceof RuntimeException) {
+				throw (RuntimeException) _failure;
+			} else if (_failure instanceof Error) {
+				throw (Error) _failure;
+			} else {
+				return _value;
+			}
+		}
+	}
+}
@@ -0,0 +1,573 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Serializer;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The {@link OffHeapCache} class provides an implementation of caches that stores the values outside of the Java heap.
+ * <p>
+ * The values are serialized to bytes and copied into slabs of direct memory. The slabs are managed by a buddy allocator: they are split into chunks of power
+ * of two sizes, the chunks of the cleared entries are merged back with their free buddies, and the slabs are released once they are entirely free. The values
+ * larger than the slabs get dedicated buffers. The keys are kept on heap in an open addressing hash index.
+ * <p>
+ * The values are deserialized on every read, replacement and removal. This implementation is not thread-safe.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class OffHeapCache<K, V>
+extends BaseCache<K, V> {
+	/**
+	 * Instantiates a new cache with slabs of 1 MB.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @param serializer Serializer of the values.
+	 * @since 2.0
+	 */
+	public OffHeapCache(final CachePolicy<K> policy, final Serializer<V, byte[]> serializer) {
+		this(policy, serializer, 1 << 20);
+	}
+	
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @param serializer Serializer of the values.
+	 * @param slabSize Size of the slabs in bytes. Must be a power of two.
+	 * @since 2.0
+	 */
+	public OffHeapCache(final CachePolicy<K> policy, final Serializer<V, byte[]> serializer, final int slabSize) {
+		super(policy);
+		
+		assert null != serializer;
+		assert slabSize >= MIN_CHUNK_SIZE && Integer.bitCount(slabSize) == 1;
+		
+		// Initialization.
+		_serializer = serializer;
+		_slabSize = slabSize;
+		_maxSizeClass = sizeClass(slabSize);
+		_freeChunkHeads = new long[_maxSizeClass + 1];
+		Arrays.fill(_freeChunkHeads, NO_ADDRESS);
+		clearIndex(INITIAL_CAPACITY);
+	}
+	
+	// Serializer.
+	
+	/**
+	 * Serializer of the values.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Serializer<V, byte[]> _serializer;
+	
+	/**
+	 * Gets the serializer of the values of this cache.
+	 * 
+	 * @return The serializer.
+	 * @since 2.0
+	 */
+	public Serializer<V, byte[]> getSerializer() {
+		return _serializer;
+	}
+	
+	// Entries.
+	
+	@Override
+	public boolean isEmpty() {
+		return 0 == _size;
+	}
+	
+	@Override
+	public int size() {
+		return _size;
+	}
+	
+	@Override
+	public boolean contains(final K key) {
+		return findSlot(key) >= 0;
+	}
+	
+	@Override
+	public Set<K> keys() {
+		return _keySet;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public void clear() {
+		// Dispose the values.
+		// Note: the memory is released even when some value cannot be deserialized.
+		final int count = _size;
+		try {
+			for (int slot = 0; slot < _indexKeys.length; slot += 1) {
+				if (null != _indexKeys[slot]) {
+					disposeValue((K) _indexKeys[slot], readValue(_indexAddresses[slot], _indexLengths[slot]));
+				}
+			}
+		} finally {
+			// Release the memory.
+			clearIndex(INITIAL_CAPACITY);
+			clearSlabs();
+			
+			// Notify the policy state.
+			_policyState.clearedAllEntries();
+		}
+		
+		// Record the statistics.
+		recordClears(count);
+		
+		// Dispose the pending values.
+		drainDisposals();
+	}
+	
+	@Override
+	protected Maybe<V> setEntry(final K key, final V value) {
+		assert null != key;
+		
+		// Store the value.
+		final byte[] bytes = null != value ? _serializer.serialize(value) : null;
+		final int length = null != bytes ? bytes.length : NULL_LENGTH;
+		final long address = null != bytes ? writeValue(bytes) : NO_ADDRESS;
+		
+		// Update the index.
+		final int slot = findSlot(key);
+		if (slot >= 0) {
+			final long oldAddress = _indexAddresses[slot];
+			final int oldLength = _indexLengths[slot];
+			_indexAddresses[slot] = address;
+			_indexLengths[slot] = length;
+			
+			// Note: the old chunk is freed even when the old value cannot be deserialized.
+			try {
+				return Maybe.some(readValue(oldAddress, oldLength));
+			} finally {
+				freeChunk(oldAddress, oldLength);
+			}
+		} else {
+			// Note: the load factor of the index is kept under 1/2 to bound the probe sequences.
+			int freeSlot = -slot - 1;
+			if (2 * (_size + 1) > _indexKeys.length) {
+				resizeIndex(2 * _indexKeys.length);
+				freeSlot = -findSlot(key) - 1;
+			}
+			_indexKeys[freeSlot] = key;
+			_indexAddresses[freeSlot] = address;
+			_indexLengths[freeSlot] = length;
+			_size += 1;
+			return Maybe.none();
+		}
+	}
+	
+	@Override
+	protected Maybe<V> getEntry(final K key) {
+		final int slot = findSlot(key);
+		if (slot >= 0) {
+			return Maybe.some(readValue(_indexAddresses[slot], _indexLengths[slot]));
+		} else {
+			return Maybe.none();
+		}
+	}
+	
+	@Override
+	protected Maybe<V> removeEntry(final K key) {
+		final int slot = findSlot(key);
+		if (slot >= 0) {
+			final long address = _indexAddresses[slot];
+			final int length = _indexLengths[slot];
+			
+			// Note: the chunk is freed and the slot removed even when the value cannot be deserialized.
+			try {
+				return Maybe.some(readValue(address, length));
+			} finally {
+				freeChunk(address, length);
+				removeSlot(slot);
+			}
+		} else {
+			return Maybe.none();
+		}
+	}
+	
+	// Index.
+	
+	private static final int INITIAL_CAPACITY = 16;
+	
+	/** Keys of the slots of the index, or <code>null</code> for the free slots. */
+	private Object[] _indexKeys;
+	
+	/** Addresses of the values of the slots of the index. */
+	private long[] _indexAddresses;
+	
+	/** Lengths of the values of the slots of the index. */
+	private int[] _indexLengths;
+	
+	/** Number of entries. */
+	private int _size;
+	
+	/** View of the keys. */
+	private final Set<K> _keySet = new KeySet();
+	
+	private void clearIndex(final int capacity) {
+		_indexKeys = new Object[capacity];
+		_indexAddresses = new long[capacity];
+		_indexLengths = new int[capacity];
+		_size = 0;
+	}
+	
+	private static int hash(final Object key) {
+		final int hash = key.hashCode() * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+	
+	/**
+	 * Finds the slot of the given key in the index.
+	 * 
+	 * @param key Key to find.
+	 * @return The slot of the key, or <code>-(insertion slot) - 1</code> when the key is not indexed.
+	 */
+	private int findSlot(final Object key) {
+		final Object[] keys = _indexKeys;
+		final int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (true) {
+			final Object slotKey = keys[slot];
+			if (null == slotKey) {
+				return -slot - 1;
+			} else if (slotKey.equals(key)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+	
+	private void removeSlot(final int slot) {
+		// Note: backward shift deletion keeps the probe sequences valid without tombstones.
+		final Object[] keys = _indexKeys;
+		final int mask = keys.length - 1;
+		int free = slot;
+		int next = (slot + 1) & mask;
+		while (null != keys[next]) {
+			final int home = hash(keys[next]) & mask;
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				keys[free] = keys[next];
+				_indexAddresses[free] = _indexAddresses[next];
+				_indexLengths[free] = _indexLengths[next];
+				free = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[free] = null;
+		_indexAddresses[free] = NO_ADDRESS;
+		_indexLengths[free] = 0;
+		_size -= 1;
+	}
+	
+	private void resizeIndex(final int capacity) {
+		final Object[] keys = _indexKeys;
+		final long[] addresses = _indexAddresses;
+		final int[] lengths = _indexLengths;
+		final int size = _size;
+		clearIndex(capacity);
+		for (int slot = 0; slot < keys.length; slot += 1) {
+			if (null != keys[slot]) {
+				final int freeSlot = -findSlot(keys[slot]) - 1;
+				_indexKeys[freeSlot] = keys[slot];
+				_indexAddresses[freeSlot] = addresses[slot];
+				_indexLengths[freeSlot] = lengths[slot];
+			}
+		}
+		_size = size;
+	}
+	
+	private final class KeySet
+	extends AbstractSet<K> {
+		@Override
+		public int size() {
+			return _size;
+		}
+		
+		@Override
+		public boolean contains(final Object key) {
+			return null != key && findSlot(key) >= 0;
+		}
+		
+		@Override
+		public Iterator<K> iterator() {
+			return new Iterator<K>() {
+				private final Object[] _keys = _indexKeys;
+				private int _slot = advance(0);
+				
+				private int advance(final int slot) {
+					int nextSlot = slot;
+					while (nextSlot < _keys.length && null == _keys[nextSlot]) {
+						nextSlot += 1;
+					}
+					return nextSlot;
+				}
+				
+				@Override
+				public boolean hasNext() {
+					return _slot < _keys.length;
+				}
+				
+				@Override
+				@SuppressWarnings("unchecked")
+				public K next() {
+					if (_slot >= _keys.length) {
+						throw new NoSuchElementException();
+					}
+					final K key = (K) _keys[_slot];
+					_slot = advance(_slot + 1);
+					return key;
+				}
+			};
+		}
+	}
+	
+	// Slabs.
+	
+	private static final int MIN_CHUNK_SIZE = 16;
+	private static final int MIN_SIZE_CLASS = 4;
+	private static final int NULL_LENGTH = -1;
+	private static final long NO_ADDRESS = -1L;
+	
+	/**
+	 * Size of the slabs in bytes.
+	 * 
+	 * @since 2.0
+	 */
+	protected final int _slabSize;
+	
+	/** Size class of the slabs. */
+	private final int _maxSizeClass;
+	
+	/** Slabs of direct memory, or <code>null</code> for the released slabs. */
+	private final List<ByteBuffer> _slabs = new ArrayList<>();
+	
+	/** Size classes plus one of the free chunks of the shared slabs indexed by offset / 16, or <code>null</code> for the dedicated and released slabs. */
+	private final List<byte[]> _slabFreeChunks = new ArrayList<>();
+	
+	/** Indices of the released slabs. */
+	private final List<Integer> _freeSlabs = new ArrayList<>();
+	
+	/** Addresses of the first free chunks, indexed by size class. The free chunks hold the addresses of the next and previous free chunks of their size class. */
+	private final long[] _freeChunkHeads;
+	
+	/** Number of bytes of the allocated slabs. */
+	private long _allocatedMemory = 0;
+	
+	/** Number of bytes of the used chunks. */
+	private long _usedMemory = 0;
+	
+	/**
+	 * Gets the amount of direct memory allocated by this cache.
+	 * 
+	 * @return The number of allocated bytes.
+	 * @since 2.0
+	 */
+	public long getAllocatedMemory() {
+		return _allocatedMemory;
+	}
+	
+	/**
+	 * Gets the amount of direct memory used by the values of this cache, including the padding of the chunks.
+	 * 
+	 * @return The number of used bytes.
+	 * @since 2.0
+	 */
+	public long getUsedMemory() {
+		return _usedMemory;
+	}
+	
+	private static int sizeClass(final int length) {
+		return 32 - Integer.numberOfLeadingZeros(Math.max(length, MIN_CHUNK_SIZE) - 1);
+	}
+	
+	private static long address(final int slab, final int offset) {
+		return ((long) slab << 32) | (offset & 0xFFFFFFFFL);
+	}
+	
+	private long writeValue(final byte[] bytes) {
+		final long address = allocateChunk(bytes.length);
+		final ByteBuffer slab = _slabs.get((int) (address >>> 32));
+		slab.position((int) address);
+		slab.put(bytes);
+		return address;
+	}
+	
+	private V readValue(final long address, final int length) {
+		if (NULL_LENGTH == length) {
+			return null;
+		}
+		
+		final byte[] bytes = new byte[length];
+		final ByteBuffer slab = _slabs.get((int) (address >>> 32));
+		slab.position((int) address);
+		slab.get(bytes);
+		return _serializer.deserialize(bytes);
+	}
+	
+	private long allocateChunk(final int length) {
+		final int sizeClass = sizeClass(length);
+		if (sizeClass > _maxSizeClass) {
+			// Allocate a dedicated slab.
+			_usedMemory += length;
+			return address(addSlab(length, false), 0);
+		}
+		
+		_usedMemory += 1 << sizeClass;
+		
+		// Find the smallest free chunk.
+		int chunkSizeClass = sizeClass;
+		while (chunkSizeClass <= _maxSizeClass && NO_ADDRESS == _freeChunkHeads[chunkSizeClass]) {
+			chunkSizeClass += 1;
+		}
+		final long address;
+		if (chunkSizeClass <= _maxSizeClass) {
+			address = _freeChunkHeads[chunkSizeClass];
+			removeFreeChunk(chunkSizeClass, address);
+		} else {
+			chunkSizeClass = _maxSizeClass;
+			address = address(addSlab(_slabSize, true), 0);
+		}
+		
+		// Split the chunk.
+		// Note: the upper halves are freed so that the chunks stay aligned on their size.
+		while (chunkSizeClass > sizeClass) {
+			chunkSizeClass -= 1;
+			addFreeChunk(chunkSizeClass, address + (1 << chunkSizeClass));
+		}
+		return address;
+	}
+	
+	private void freeChunk(final long address, final int length) {
+		if (NULL_LENGTH == length) {
+			return;
+		}
+		
+		final int slab = (int) (address >>> 32);
+		final int sizeClass = sizeClass(length);
+		if (sizeClass > _maxSizeClass) {
+			// Release the dedicated slab.
+			releaseSlab(slab, length);
+			_usedMemory -= length;
+			return;
+		}
+		
+		_usedMemory -= 1 << sizeClass;
+		
+		// Merge the chunk with its free buddies.
+		final byte[] freeChunks = _slabFreeChunks.get(slab);
+		int chunkSizeClass = sizeClass;
+		int offset = (int) address;
+		while (chunkSizeClass < _maxSizeClass) {
+			final int buddyOffset = offset ^ (1 << chunkSizeClass);
+			if (freeChunks[buddyOffset >>> MIN_SIZE_CLASS] != chunkSizeClass + 1) {
+				break;
+			}
+			removeFreeChunk(chunkSizeClass, address(slab, buddyOffset));
+			offset &= ~(1 << chunkSizeClass);
+			chunkSizeClass += 1;
+		}
+		
+		if (chunkSizeClass == _maxSizeClass) {
+			// Release the free slab.
+			releaseSlab(slab, _slabSize);
+		} else {
+			addFreeChunk(chunkSizeClass, address(slab, offset));
+		}
+	}
+	
+	private void addFreeChunk(final int sizeClass, final long address) {
+		final int slab = (int) (address >>> 32);
+		final int offset = (int) address;
+		final long next = _freeChunkHeads[sizeClass];
+		linkFreeChunk(address, next, NO_ADDRESS);
+		if (NO_ADDRESS != next) {
+			linkFreeChunk(next, _slabs.get((int) (next >>> 32)).getLong((int) next), address);
+		}
+		_freeChunkHeads[sizeClass] = address;
+		_slabFreeChunks.get(slab)[offset >>> MIN_SIZE_CLASS] = (byte) (sizeClass + 1);
+	}
+	
+	private void removeFreeChunk(final int sizeClass, final long address) {
+		final int slab = (int) (address >>> 32);
+		final int offset = (int) address;
+		final ByteBuffer buffer = _slabs.get(slab);
+		final long next = buffer.getLong(offset);
+		final long previous = buffer.getLong(offset + 8);
+		if (NO_ADDRESS != previous) {
+			linkFreeChunk(previous, next, _slabs.get((int) (previous >>> 32)).getLong((int) previous + 8));
+		} else {
+			_freeChunkHeads[sizeClass] = next;
+		}
+		if (NO_ADDRESS != next) {
+			linkFreeChunk(next, _slabs.get((int) (next >>> 32)).getLong((int) next), previous);
+		}
+		_slabFreeChunks.get(slab)[offset >>> MIN_SIZE_CLASS] = 0;
+	}
+	
+	private void linkFreeChunk(final long address, final long next, final long previous) {
+		final ByteBuffer buffer = _slabs.get((int) (address >>> 32));
+		final int offset = (int) address;
+		buffer.putLong(offset, next);
+		buffer.putLong(offset + 8, previous);
+	}
+	
+	private int addSlab(final int size, final boolean shared) {
+		final ByteBuffer slab = ByteBuffer.allocateDirect(size);
+		final byte[] freeChunks = shared ? new byte[size >>> MIN_SIZE_CLASS] : null;
+		_allocatedMemory += size;
+		if (!_freeSlabs.isEmpty()) {
+			final int index = _freeSlabs.remove(_freeSlabs.size() - 1);
+			_slabs.set(index, slab);
+			_slabFreeChunks.set(index, freeChunks);
+			return index;
+		} else {
+			_slabs.add(slab);
+			_slabFreeChunks.add(freeChunks);
+			return _slabs.size() - 1;
+		}
+	}
+	
+	private void releaseSlab(final int slab, final int size) {
+		// Note: the direct memory is reclaimed when the buffer is collected.
+		_slabs.set(slab, null);
+		_slabFreeChunks.set(slab, null);
+		_freeSlabs.add(slab);
+		_allocatedMemory -= size;
+	}
+	
+	private void clearSlabs() {
+		// Note: the direct memory is reclaimed when the buffers are collected.
+		_slabs.clear();
+		_slabFreeChunks.clear();
+		_freeSlabs.clear();
+		Arrays.fill(_freeChunkHeads, NO_ADDRESS);
+		_allocatedMemory = 0;
+		_usedMemory = 0;
+	}
+}
@@ -0,0 +1,307 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Predicate;
+import com.trazere.core.util.Maybe;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link ReferenceCache} class provides an implementation of caches whose values are held through soft or weak references.
+ * <p>
+ * The values can be reclaimed by the garbage collector, which allows the cache to give memory back under heap pressure. The entries whose values have been
+ * collected are purged when the cache is accessed, and the retention policy is notified. The collected values cannot be disposed. The entries evicted by the
+ * retention policy are disposed normally.
+ * <p>
+ * This cache is not thread-safe.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class ReferenceCache<K, V>
+extends BaseCache<K, V> {
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param policy Retention policy of the cache.
+	 * @param soft Indicates whether the values are held through soft references (or weak references).
+	 * @since 2.0
+	 */
+	public ReferenceCache(final CachePolicy<K> policy, final boolean soft) {
+		super(policy);
+		
+		// Initialization.
+		_soft = soft;
+	}
+	
+	// References.
+	
+	/**
+	 * Indicates whether the values are held through soft references (or weak references).
+	 * 
+	 * @since 2.0
+	 */
+	protected final boolean _soft;
+	
+	/**
+	 * Indicates whether the values of this cache are held through soft references (or weak references).
+	 * 
+	 * @return <code>true</code> for soft references, <code>false</code> for weak references.
+	 * @since 2.0
+	 */
+	public boolean isSoft() {
+		return _soft;
+	}
+	
+	/**
+	 * The {@link ValueReference} interface defines references to the values of the entries.
+	 * 
+	 * @param <K> Type of the keys.
+	 */
+	private interface ValueReference<K> {
+		K getKey();
+		
+		Object get();
+		
+		void clear();
+	}
+	
+	private static final class SoftValueReference<K>
+	extends SoftReference<Object>
+	implements ValueReference<K> {
+		private final K _key;
+		
+		public SoftValueReference(final K key, final Object value, final ReferenceQueue<Object> queue) {
+			super(value, queue);
+			
+			_key = key;
+		}
+		
+		@Override
+		public K getKey() {
+			return _key;
+		}
+	}
+	
+	private static final class WeakValueReference<K>
+	extends WeakReference<Object>
+	implements ValueReference<K> {
+		private final K _key;
+		
+		public WeakValueReference(final K key, final Object value, final ReferenceQueue<Object> queue) {
+			super(value, queue);
+			
+			_key = key;
+		}
+		
+		@Override
+		public K getKey() {
+			return _key;
+		}
+	}
+	
+	// Note: null values are held through a strongly reachable placeholder to distinguish them from the collected values.
+	/** Placeholder of the null values. */
+	private static final Object NULL = new Object();
+	
+	/** Queue of the references of the collected values. */
+	private final ReferenceQueue<Object> _queue = new ReferenceQueue<>();
+	
+	private ValueReference<K> reference(final K key, final V value) {
+		final Object referent = null != value ? value : NULL;
+		return _soft ? new SoftValueReference<>(key, referent, _queue) : new WeakValueReference<>(key, referent, _queue);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <V> Maybe<V> dereference(final ValueReference<?> reference) {
+		final Object referent = reference.get();
+		if (null == referent) {
+			return Maybe.none();
+		} else {
+			return Maybe.some(NULL != referent ? (V) referent : null);
+		}
+	}
+	
+	// Entries.
+	
+	/**
+	 * Entries of the cache.
+	 */
+	private final Map<K, ValueReference<K>> _entries = new HashMap<>();
+	
+	@Override
+	public boolean isEmpty() {
+		purge();
+		return _entries.isEmpty();
+	}
+	
+	@Override
+	public int size() {
+		purge();
+		return _entries.size();
+	}
+	
+	@Override
+	public boolean contains(final K key) {
+		purge();
+		return _entries.containsKey(key);
+	}
+	
+	@Override
+	public Set<K> keys() {
+		purge();
+		return Collections.unmodifiableSet(_entries.keySet());
+	}
+	
+	@Override
+	public Maybe<V> fill(final K key, final V value) {
+		purge();
+		return super.fill(key, value);
+	}
+	
+	@Override
+	public void fillAll(final Map<? extends K, ? extends V> entries) {
+		purge();
+		super.fillAll(entries);
+	}
+	
+	@Override
+	public Maybe<V> get(final K key) {
+		purge();
+		return super.get(key);
+	}
+	
+	@Override
+	public Map<K, V> getAll(final Iterable<? extends K> keys) {
+		purge();
+		return super.getAll(keys);
+	}
+	
+	@Override
+	public void clear(final K key) {
+		purge();
+		super.clear(key);
+	}
+	
+	@Override
+	public void clearAll(final Iterable<? extends K> keys) {
+		purge();
+		super.clearAll(keys);
+	}
+	
+	@Override
+	public void clear(final Predicate<? super K> filter) {
+		purge();
+		super.clear(filter);
+	}
+	
+	@Override
+	public void clear() {
+		purge();
+		super.clear();
+	}
+	
+	@Override
+	public void cleanUp() {
+		purge();
+		super.cleanUp();
+	}
+	
+	@Override
+	protected Maybe<V> setEntry(final K key, final V value) {
+		final ValueReference<K> oldReference = _entries.put(key, reference(key, value));
+		return null != oldReference ? detach(oldReference) : Maybe.<V>none();
+	}
+	
+	@Override
+	protected Maybe<V> getEntry(final K key) {
+		final ValueReference<K> reference = _entries.get(key);
+		return null != reference ? dereference(reference) : Maybe.<V>none();
+	}
+	
+	@Override
+	protected Maybe<V> removeEntry(final K key) {
+		final ValueReference<K> reference = _entries.remove(key);
+		if (null == reference) {
+			return Maybe.none();
+		}
+		
+		final Maybe<V> value = detach(reference);
+		if (value.isNone()) {
+			// Note: the value has been collected after the last purge, the entry is purged right away as it will be ignored when dequeued.
+			_policyState.clearedEntry(key);
+			recordPurges(1);
+		}
+		return value;
+	}
+	
+	private Maybe<V> detach(final ValueReference<K> reference) {
+		final Maybe<V> value = dereference(reference);
+		
+		// Note: cleared references are not enqueued.
+		reference.clear();
+		return value;
+	}
+	
+	// Purge.
+	
+	/**
+	 * Purges the entries of this cache whose values have been collected.
+	 * <p>
+	 * The collected entries are purged automatically when the cache is accessed.
+	 * 
+	 * @return The number of purged entries.
+	 * @since 2.0
+	 */
+	public int purge() {
+		int count = 0;
+		Reference<?> reference;
+		while (null != (reference = _queue.poll())) {
+			@SuppressWarnings("unchecked")
+			final ValueReference<K> valueReference = (ValueReference<K>) reference;
+			final K key = valueReference.getKey();
+			
+			// Note: the entry may have been replaced or removed since its value was collected.
+			if (_entries.get(key) == valueReference) {
+				_entries.remove(key);
+				
+				// Notify the policy state.
+				_policyState.clearedEntry(key);
+				count += 1;
+			}
+		}
+		
+		// Record the statistics.
+		recordPurges(count);
+		return count;
+	}
+	
+	private void recordPurges(final int count) {
+		// Note: the purges are accounted as evictions.
+		final CacheStatsCounter stats = _stats;
+		if (count > 0 && null != stats) {
+			stats.recordEvictions(count);
+		}
+	}
+}
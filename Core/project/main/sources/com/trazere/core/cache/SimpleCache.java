@@ -69,6 +69,7 @@ extends BaseCache<K, V> {
 	@Override
 	public void clear(final Predicate<? super K> filter) {
 		// Iterate the entries.
+		int count = 0;
 		final Iterator<Map.Entry<K, V>> entries = _entries.entrySet().iterator();
 		while (entries.hasNext()) {
 			final Map.Entry<K, V> entry = entries.next();
@@ -78,19 +79,24 @@ extends BaseCache<K, V> {
 				entries.remove();
 				
 				// Dispose the value.
-				dispose(entry.getValue());
+				disposeValue(key, entry.getValue());
+				count += 1;
 				
 				// Notify the policy state.
 				_policyState.clearedEntry(key);
 			}
 		}
+		
+		// Record the statistics.
+		recordClears(count);
 	}
 	
 	@Override
 	public void clear() {
 		// Dispose the values.
-		for (final V value : _entries.values()) {
-			dispose(value);
+		final int count = _entries.size();
+		for (final Map.Entry<K, V> entry : _entries.entrySet()) {
+			disposeValue(entry.getKey(), entry.getValue());
 		}
 		
 		// Remove all entries.
@@ -98,6 +104,12 @@ extends BaseCache<K, V> {
 		
 		// Notify the policy state.
 		_policyState.clearedAllEntries();
+		
+		// Record the statistics.
+		recordClears(count);
+		
+		// Dispose the pending values.
+		drainDisposals();
 	}
 	
 	@Override
@@ -0,0 +1,225 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Predicate;
+import com.trazere.core.util.Maybe;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The {@link TieredCache} class implements two-level caches whose evicted entries are spilled to a disk store.
+ * <p>
+ * The first level keeps the entries in memory according to the retention policy of the cache. The entries evicted by the policy are written to the
+ * {@link DiskCacheStore second level}, and the misses of the first level are served by the second level and promoted back to the first level. As the store
+ * survives restarts, reopening it allows to warm start the cache.
+ * <p>
+ * The size and the keys of the cache only reflect the first level. The I/O failures of the second level are reported as {@link UncheckedIOException}.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class TieredCache<K, V>
+extends SimpleCache<K, V>
+implements AutoCloseable {
+	/**
+	 * Instantiates a new cache.
+	 * 
+	 * @param policy Retention policy of the first level.
+	 * @param store Store of the second level.
+	 * @since 2.0
+	 */
+	public TieredCache(final CachePolicy<K> policy, final DiskCacheStore<K, V> store) {
+		super(policy);
+		
+		assert null != store;
+		
+		// Initialization.
+		_store = store;
+	}
+	
+	// Store.
+	
+	/**
+	 * Store of the second level.
+	 * 
+	 * @since 2.0
+	 */
+	protected final DiskCacheStore<K, V> _store;
+	
+	/**
+	 * Gets the store of the second level of this cache.
+	 * 
+	 * @return The store.
+	 * @since 2.0
+	 */
+	public DiskCacheStore<K, V> getStore() {
+		return _store;
+	}
+	
+	// Entries.
+	
+	@Override
+	public boolean contains(final K key) {
+		return super.contains(key) || _store.contains(key);
+	}
+	
+	@Override
+	public Maybe<V> fill(final K key, final V value) {
+		// Note: the second level would hold a stale value.
+		removeStoredEntry(key);
+		
+		return super.fill(key, value);
+	}
+	
+	@Override
+	public void fillAll(final Map<? extends K, ? extends V> entries) {
+		for (final K key : entries.keySet()) {
+			removeStoredEntry(key);
+		}
+		
+		super.fillAll(entries);
+	}
+	
+	@Override
+	public Maybe<V> get(final K key) {
+		final Maybe<V> value = super.get(key);
+		if (value.isSome()) {
+			return value;
+		}
+		
+		// Read the second level.
+		final Maybe<V> storedValue = _store.get(key);
+		if (storedValue.isSome()) {
+			// Promote the entry.
+			// Note: the stored copy is kept, so evicting the entry again does not need to write it.
+			setEntry(key, storedValue.asSome().getValue());
+			evictEntries(_policyState.updatedEntry(key, storedValue.asSome().getValue(), _dirtyKeys));
+		}
+		return storedValue;
+	}
+	
+	@Override
+	public Map<K, V> getAll(final Iterable<? extends K> keys) {
+		// Note: the misses of the first level are read one by one from the second level.
+		final Map<K, V> values = newValueMap(keys);
+		for (final K key : keys) {
+			final Maybe<V> value = get(key);
+			if (value.isSome()) {
+				values.put(key, value.asSome().getValue());
+			}
+		}
+		return Collections.unmodifiableMap(values);
+	}
+	
+	@Override
+	public void clear(final K key) {
+		removeStoredEntry(key);
+		super.clear(key);
+	}
+	
+	@Override
+	public void clearAll(final Iterable<? extends K> keys) {
+		for (final K key : keys) {
+			removeStoredEntry(key);
+		}
+		
+		super.clearAll(keys);
+	}
+	
+	@Override
+	public void clear(final Predicate<? super K> filter) {
+		for (final K key : _store.keys()) {
+			if (filter.evaluate(key)) {
+				removeStoredEntry(key);
+			}
+		}
+		super.clear(filter);
+	}
+	
+	@Override
+	public void clear() {
+		try {
+			_store.clear();
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		super.clear();
+	}
+	
+	@Override
+	protected void evictEntries(final DirtyKeys<K> dirtyKeys) {
+		// Spill the evicted entries.
+		if (!dirtyKeys.isEmpty()) {
+			for (final K key : dirtyKeys.get()) {
+				final Maybe<V> value = getEntry(key);
+				if (value.isSome() && !_store.contains(key)) {
+					storeEntry(key, value.asSome().getValue());
+				}
+			}
+		}
+		
+		super.evictEntries(dirtyKeys);
+	}
+	
+	@Override
+	protected void evictFilledEntry(final K key, final V value) {
+		// Spill the evicted entry.
+		storeEntry(key, value);
+		
+		super.evictFilledEntry(key, value);
+	}
+	
+	private void storeEntry(final K key, final V value) {
+		try {
+			_store.put(key, value);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private void removeStoredEntry(final K key) {
+		try {
+			_store.remove(key);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	// Closing.
+	
+	/**
+	 * Spills the entries of the first level of this cache and closes its store.
+	 * <p>
+	 * The values of the first level are not disposed.
+	 * 
+	 * @throws IOException When the store cannot be written or closed.
+	 * @since 2.0
+	 */
+	@Override
+	public void close()
+	throws IOException {
+		for (final Map.Entry<K, V> entry : _entries.entrySet()) {
+			if (!_store.contains(entry.getKey())) {
+				_store.put(entry.getKey(), entry.getValue());
+			}
+		}
+		_store.close();
+	}
+}
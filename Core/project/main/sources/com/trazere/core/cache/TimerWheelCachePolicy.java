@@ -0,0 +1,313 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.imperative.Accumulator;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link TimerWheelCachePolicy} class implements cache policies based on the time elapsed since the last update or access of the entries.
+ * <p>
+ * The deadlines of the entries are tracked by a hierarchical timing wheel driven by the {@link #currentTime() current time}, so scheduling, rescheduling and expiring
+ * entries take amortized constant time. The expired entries are reported whenever the cache notifies the policy, including when it is
+ * {@link BaseCache#cleanUp() cleaned up}.
+ * 
+ * @param <K> Type of the keys.
+ * @since 2.0
+ */
+public class TimerWheelCachePolicy<K>
+implements CachePolicy<K> {
+	/**
+	 * Instanciates a new cache policy.
+	 * 
+	 * @param timeout Timeout of the entries.
+	 * @param idle Indicates whether the accesses to the entries reset their timeout (idle time), or only their updates (time to live).
+	 * @since 2.0
+	 */
+	public TimerWheelCachePolicy(final Duration timeout, final boolean idle) {
+		assert null != timeout;
+		assert !timeout.isNegative();
+		
+		// Initialization.
+		_timeout = timeout;
+		_idle = idle;
+	}
+	
+	// Timeout.
+	
+	/**
+	 * Timeout of the entries.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Duration _timeout;
+	
+	/**
+	 * Get the timeout the entries of this policy.
+	 * 
+	 * @return The timeout.
+	 * @since 2.0
+	 */
+	public Duration getTimeout() {
+		return _timeout;
+	}
+	
+	// Idle.
+	
+	/**
+	 * Indicates whether the accesses to the entries reset their timeout.
+	 * 
+	 * @since 2.0
+	 */
+	protected final boolean _idle;
+	
+	/**
+	 * Indicates whether the accesses to the entries reset their timeout (idle time), or only their updates (time to live).
+	 * 
+	 * @return <code>true</code> when the accesses reset the timeout, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean isIdle() {
+		return _idle;
+	}
+	
+	// Time.
+	
+	/**
+	 * Gets the current time.
+	 * <p>
+	 * The default implementation reads {@link System#nanoTime()}. Subclasses may override it to provide some other time source.
+	 * 
+	 * @return The current time in nanoseconds. May overflow.
+	 * @since 2.0
+	 */
+	protected long currentTime() {
+		return System.nanoTime();
+	}
+	
+	// State.
+	
+	// Note: the buckets of level i span 2^(SHIFT + i * BUCKET_BITS) ns, that is about 16.8 ms, 1.1 s, 1.2 min, 1.2 h and 3.2 d.
+	private static final int LEVELS = 5;
+	private static final int BUCKET_BITS = 6;
+	private static final int BUCKETS = 1 << BUCKET_BITS;
+	private static final int SHIFT = 24;
+	
+	@Override
+	public CachePolicy.State<K> build() {
+		final long timeout = toNanos(_timeout);
+		return new CachePolicy.State<K>() {
+			/** Scheduled entries. */
+			private final Map<K, Node<K>> _nodes = new HashMap<>();
+			
+			/** Buckets of the wheels, indexed by level and by slot. */
+			private final Node<K>[][] _buckets = buildBuckets();
+			
+			/** Time of the last advance of the wheels. */
+			private long _time = currentTime();
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final A dirtyEntries) {
+				// Note: the entry is unscheduled first so that its previous deadline does not expire it.
+				unschedule(key);
+				final long now = currentTime();
+				advance(now, dirtyEntries);
+				schedule(key, now);
+				return dirtyEntries;
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A accessedEntry(final K key, final A dirtyEntries) {
+				if (_idle) {
+					return updatedEntry(key, dirtyEntries);
+				}
+				
+				final boolean scheduled = _nodes.containsKey(key);
+				final long now = currentTime();
+				advance(now, dirtyEntries);
+				if (!scheduled) {
+					schedule(key, now);
+				}
+				return dirtyEntries;
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A expiredEntries(final A dirtyEntries) {
+				advance(currentTime(), dirtyEntries);
+				return dirtyEntries;
+			}
+			
+			@Override
+			public void clearedEntry(final K key) {
+				final Node<K> node = _nodes.remove(key);
+				if (null != node) {
+					node.unlink();
+				}
+			}
+			
+			@Override
+			public void clearedAllEntries() {
+				_nodes.clear();
+				for (final Node<K>[] level : _buckets) {
+					for (final Node<K> bucket : level) {
+						bucket.prev = bucket;
+						bucket.next = bucket;
+					}
+				}
+			}
+			
+			private void unschedule(final K key) {
+				final Node<K> node = _nodes.get(key);
+				if (null != node) {
+					node.unlink();
+				}
+			}
+			
+			private void schedule(final K key, final long now) {
+				Node<K> node = _nodes.get(key);
+				if (null == node) {
+					node = new Node<>(key);
+					_nodes.put(key, node);
+				} else {
+					node.unlink();
+				}
+				node.deadline = now + timeout;
+				insert(node);
+			}
+			
+			private void insert(final Node<K> node) {
+				// Find the bucket.
+				// Note: deadlines are compared by difference to support the overflow of the nano time.
+				final long delay = Math.max(0, node.deadline - _time);
+				int level = 0;
+				while (level < LEVELS - 1 && delay >= 1L << (SHIFT + (level + 1) * BUCKET_BITS)) {
+					level += 1;
+				}
+				final Node<K> bucket = _buckets[level][bucketIndex(node.deadline, level)];
+				
+				// Append the node.
+				node.prev = bucket.prev;
+				node.next = bucket;
+				bucket.prev.next = node;
+				bucket.prev = node;
+			}
+			
+			private <A extends Accumulator<? super K, ?>> void advance(final long now, final A dirtyEntries) {
+				final long previous = _time;
+				if (now - previous < 0) {
+					return;
+				}
+				_time = now;
+				
+				for (int level = 0; level < LEVELS; level += 1) {
+					// Note: the ticks are counted from the elapsed time to support the overflow of the nano time.
+					final int shift = SHIFT + level * BUCKET_BITS;
+					final long ticks = ((previous & ((1L << shift) - 1)) + (now - previous)) >>> shift;
+					if (ticks <= 0) {
+						// Note: the buckets of the upper levels cannot have changed either.
+						break;
+					}
+					
+					// Expire or cascade the entries of the elapsed buckets.
+					final int count = (int) Math.min(ticks + 1, BUCKETS);
+					for (int i = 0; i < count; i += 1) {
+						expire(_buckets[level][(int) (((previous >> shift) + i) & (BUCKETS - 1))], now, dirtyEntries);
+					}
+				}
+			}
+			
+			private <A extends Accumulator<? super K, ?>> void expire(final Node<K> bucket, final long now, final A dirtyEntries) {
+				// Detach the nodes.
+				Node<K> node = bucket.next;
+				bucket.prev = bucket;
+				bucket.next = bucket;
+				
+				while (node != bucket) {
+					final Node<K> next = node.next;
+					if (node.deadline - now <= 0) {
+						// Expire the entry.
+						node.prev = node;
+						node.next = node;
+						_nodes.remove(node.key);
+						dirtyEntries.add(node.key);
+					} else {
+						// Reschedule the entry in a finer bucket.
+						insert(node);
+					}
+					node = next;
+				}
+			}
+		};
+	}
+	
+	private static long toNanos(final Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (final ArithmeticException exception) {
+			// Note: about 292 years is long enough.
+			return Long.MAX_VALUE / 2;
+		}
+	}
+	
+	private static int bucketIndex(final long time, final int level) {
+		return (int) ((time >> (SHIFT + level * BUCKET_BITS)) & (BUCKETS - 1));
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <K> Node<K>[][] buildBuckets() {
+		final Node<K>[][] buckets = (Node<K>[][]) new Node<?>[LEVELS][BUCKETS];
+		for (int level = 0; level < LEVELS; level += 1) {
+			for (int i = 0; i < BUCKETS; i += 1) {
+				buckets[level][i] = new Node<>(null);
+			}
+		}
+		return buckets;
+	}
+	
+	/**
+	 * The {@link Node} class implements the scheduled entries of the timing wheels.
+	 * <p>
+	 * Nodes are linked in circular lists whose sentinels are the buckets of the wheels.
+	 * 
+	 * @param <K> Type of the keys.
+	 */
+	private static final class Node<K> {
+		public Node(final K key) {
+			this.key = key;
+		}
+		
+		/** Key of the entry. */
+		public final K key;
+		
+		/** Expiration deadline of the entry in nanoseconds. */
+		public long deadline;
+		
+		/** Previous node in the bucket. */
+		public Node<K> prev = this;
+		
+		/** Next node in the bucket. */
+		public Node<K> next = this;
+		
+		public void unlink() {
+			prev.next = next;
+			next.prev = prev;
+			prev = this;
+			next = this;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.imperative.Accumulator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The {@link TinyLFUCachePolicy} class implements cache policies with a bounded capacity based on the Window TinyLFU algorithm.
+ * <p>
+ * The entries are first retained in a small LRU admission window. The entries evicted from the window are then admitted into a segmented LRU main space
+ * (probation and protected segments) only when they have been accessed more frequently than the entry they would replace. The access frequencies are
+ * estimated by a count-min sketch which is periodically aged, so that the policy resists to scans and adapts to changes of the workload.
+ * 
+ * @param <K> Type of the keys.
+ * @since 2.0
+ */
+public class TinyLFUCachePolicy<K>
+implements CachePolicy<K> {
+	/**
+	 * Instanciates a new cache policy.
+	 * 
+	 * @param capacity Capacity of the cache.
+	 * @since 2.0
+	 */
+	public TinyLFUCachePolicy(final int capacity) {
+		assert capacity > 0;
+		
+		// Initialization.
+		_capacity = capacity;
+	}
+	
+	// Capacity.
+	
+	/**
+	 * Capacity of the cache.
+	 * 
+	 * @since 2.0
+	 */
+	protected final int _capacity;
+	
+	/**
+	 * Gets the capacity of the cache.
+	 * 
+	 * @return The capacity.
+	 * @since 2.0
+	 */
+	public int getCapacity() {
+		return _capacity;
+	}
+	
+	// State.
+	
+	@Override
+	public CachePolicy.State<K> build() {
+		// Note: the window holds 1% of the entries and the protected segment 80% of the main space.
+		final int windowCapacity = Math.max(1, _capacity / 100);
+		final int protectedCapacity = (int) ((_capacity - windowCapacity) * 0.8);
+		
+		return new CachePolicy.State<K>() {
+			// Note: access ordered LinkedHashMap allows to touch, find and clear the entries in constant time, and to touch them without allocations. The least
+			// recently used keys comes first.
+			/** Admission window. */
+			private final LinkedHashMap<K, Boolean> _window = new LinkedHashMap<>(16, 0.75f, true);
+			
+			/** Probation segment of the main space. */
+			private final LinkedHashMap<K, Boolean> _probation = new LinkedHashMap<>(16, 0.75f, true);
+			
+			/** Protected segment of the main space. */
+			private final LinkedHashMap<K, Boolean> _protected = new LinkedHashMap<>(16, 0.75f, true);
+			
+			/** Access frequencies. */
+			private final FrequencySketch _sketch = new FrequencySketch(_capacity);
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final A dirtyEntries) {
+				if (_window.containsKey(key) || _probation.containsKey(key) || _protected.containsKey(key)) {
+					return accessedEntry(key, dirtyEntries);
+				}
+				
+				// Admit the entry in the window.
+				_sketch.increment(key);
+				_window.put(key, Boolean.TRUE);
+				
+				// Evict from the window.
+				if (_window.size() > windowCapacity) {
+					final K candidate = removeFirst(_window);
+					_probation.put(candidate, Boolean.TRUE);
+					
+					// Evict from the main space.
+					if (_window.size() + _probation.size() + _protected.size() > _capacity) {
+						final K victim = _probation.keySet().iterator().next();
+						final K evicted = victim == candidate || _sketch.frequency(candidate) > _sketch.frequency(victim) ? victim : candidate;
+						_probation.remove(evicted);
+						dirtyEntries.add(evicted);
+					}
+				}
+				return dirtyEntries;
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A accessedEntry(final K key, final A dirtyEntries) {
+				_sketch.increment(key);
+				
+				// Update the order.
+				// Note: the lookups of the access ordered maps touch the entries.
+				if (null == _window.get(key) && null == _protected.get(key) && null != _probation.remove(key)) {
+					// Promote the entry.
+					_protected.put(key, Boolean.TRUE);
+					if (_protected.size() > protectedCapacity) {
+						_probation.put(removeFirst(_protected), Boolean.TRUE);
+					}
+				}
+				return dirtyEntries;
+			}
+			
+			@Override
+			public void clearedEntry(final K key) {
+				if (null == _window.remove(key) && null == _probation.remove(key)) {
+					_protected.remove(key);
+				}
+			}
+			
+			@Override
+			public void clearedAllEntries() {
+				_window.clear();
+				_probation.clear();
+				_protected.clear();
+			}
+		};
+	}
+	
+	private static <K> K removeFirst(final LinkedHashMap<K, ?> keys) {
+		final Iterator<K> iterator = keys.keySet().iterator();
+		final K key = iterator.next();
+		iterator.remove();
+		return key;
+	}
+	
+	/**
+	 * The {@link FrequencySketch} class implements count-min sketches estimating the access frequencies of keys.
+	 * <p>
+	 * The sketch uses four hash functions over a table of 4-bit counters. All counters are halved once the number of recorded accesses reaches ten times the
+	 * capacity of the cache so that the history fades away.
+	 */
+	static final class FrequencySketch {
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+		private static final long RESET_MASK = 0x7777777777777777L;
+		
+		public FrequencySketch(final int capacity) {
+			int length = 1;
+			while (length < capacity) {
+				length <<= 1;
+			}
+			_table = new long[length];
+			_sampleSize = 10 * Math.max(capacity, 1);
+		}
+		
+		/** Counters, 16 per cell. */
+		private final long[] _table;
+		
+		/** Number of accesses triggering the aging. */
+		private final int _sampleSize;
+		
+		/** Number of accesses since the last aging. */
+		private int _size = 0;
+		
+		public int frequency(final Object key) {
+			final int hash = spread(key.hashCode());
+			final int start = (hash & 3) << 2;
+			int frequency = Integer.MAX_VALUE;
+			for (int i = 0; i < 4; i += 1) {
+				final int offset = (start + i) << 2;
+				final int count = (int) ((_table[indexOf(hash, i)] >>> offset) & 0xfL);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+		
+		public void increment(final Object key) {
+			final int hash = spread(key.hashCode());
+			final int start = (hash & 3) << 2;
+			boolean added = false;
+			for (int i = 0; i < 4; i += 1) {
+				added |= incrementAt(indexOf(hash, i), start + i);
+			}
+			if (added && ++_size == _sampleSize) {
+				reset();
+			}
+		}
+		
+		private boolean incrementAt(final int index, final int counter) {
+			final int offset = counter << 2;
+			final long mask = 0xfL << offset;
+			if ((_table[index] & mask) != mask) {
+				_table[index] += 1L << offset;
+				return true;
+			} else {
+				return false;
+			}
+		}
+		
+		private void reset() {
+			for (int i = 0; i < _table.length; i += 1) {
+				_table[i] = (_table[i] >>> 1) & RESET_MASK;
+			}
+			_size /= 2;
+		}
+		
+		private int indexOf(final int hash, final int i) {
+			long index = (hash + SEEDS[i]) * SEEDS[i];
+			index += index >>> 32;
+			return (int) index & (_table.length - 1);
+		}
+		
+		private static int spread(final int hash) {
+			int spread = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+			spread = ((spread >>> 16) ^ spread) * 0x45d9f3b;
+			return (spread >>> 16) ^ spread;
+		}
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.functional.Function2;
+import com.trazere.core.imperative.Accumulator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@link WeightedCachePolicy} class implements cache policies with a bounded total weight of the entries.
+ * <p>
+ * The weights of the entries are computed by a weigher function when the entries are updated, and tracked incrementally. When the total weight exceeds the
+ * maximum weight, the entries are evicted according to the Least Recently Used or First In/First Out algorithm.
+ * <p>
+ * The entries must be updated with their values. Updating an entry without its value keeps its current weight, which fails for the entries that have not been
+ * weighted yet.
+ * <p>
+ * The policy states are not typed by the values, so the values are checked against the value type of the policy before being weighed. Updating an entry with
+ * a value of another type fails.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @since 2.0
+ */
+public class WeightedCachePolicy<K, V>
+implements CachePolicy<K> {
+	/**
+	 * Instanciates a new cache policy.
+	 * 
+	 * @param valueType Type of the values.
+	 * @param weigher Function computing the weight of the entries.
+	 * @param maxWeight Maximum total weight of the entries.
+	 * @param lru Indicates whether the entries are evicted according to the Least Recently Used algorithm (or First In/First Out).
+	 * @since 2.0
+	 */
+	public WeightedCachePolicy(final Class<V> valueType, final Function2<? super K, ? super V, Long> weigher, final long maxWeight, final boolean lru) {
+		assert null != valueType;
+		assert null != weigher;
+		assert maxWeight >= 0;
+		
+		// Initialization.
+		_valueType = valueType;
+		_weigher = weigher;
+		_maxWeight = maxWeight;
+		_lru = lru;
+	}
+	
+	// Value type.
+	
+	/**
+	 * Type of the values.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Class<V> _valueType;
+	
+	/**
+	 * Gets the type of the values.
+	 * 
+	 * @return The value type.
+	 * @since 2.0
+	 */
+	public Class<V> getValueType() {
+		return _valueType;
+	}
+	
+	// Weigher.
+	
+	/**
+	 * Function computing the weight of the entries.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Function2<? super K, ? super V, Long> _weigher;
+	
+	/**
+	 * Gets the function computing the weight of the entries.
+	 * 
+	 * @return The weigher.
+	 * @since 2.0
+	 */
+	public Function2<? super K, ? super V, Long> getWeigher() {
+		return _weigher;
+	}
+	
+	// Max weight.
+	
+	/**
+	 * Maximum total weight of the entries.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _maxWeight;
+	
+	/**
+	 * Gets the maximum total weight of the entries.
+	 * 
+	 * @return The maximum weight.
+	 * @since 2.0
+	 */
+	public long getMaxWeight() {
+		return _maxWeight;
+	}
+	
+	// LRU.
+	
+	/**
+	 * Indicates whether the entries are evicted according to the Least Recently Used algorithm.
+	 * 
+	 * @since 2.0
+	 */
+	protected final boolean _lru;
+	
+	/**
+	 * Indicates whether the entries are evicted according to the Least Recently Used algorithm (or First In/First Out).
+	 * 
+	 * @return <code>true</code> for the Least Recently Used algorithm, <code>false</code> for the First In/First Out algorithm.
+	 * @since 2.0
+	 */
+	public boolean isLru() {
+		return _lru;
+	}
+	
+	// State.
+	
+	@Override
+	public CachePolicy.State<K> build() {
+		return new CachePolicy.State<K>() {
+			// Note: LinkedHashMap allows to touch, find and clear the entries in constant time. Access ordering allows to touch them without allocations.
+			/** Weights of the entries, in eviction order. */
+			private final LinkedHashMap<K, Long> _weights = new LinkedHashMap<>(16, 0.75f, _lru);
+			
+			/** Total weight of the entries. */
+			private long _totalWeight = 0;
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final A dirtyEntries) {
+				// Note: the weight is unknown, keep the current one.
+				final Long weight = _weights.get(key);
+				if (null == weight) {
+					throw new IllegalStateException("Cannot weigh entry " + key + " without its value");
+				}
+				updateEntry(key, weight.longValue());
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntry(final K key, final Object value, final A dirtyEntries) {
+				updateEntry(key, weigh(key, checkValue(key, value)));
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A updatedEntries(final Map<? extends K, ?> entries, final A dirtyEntries) {
+				// Note: the values are all checked first so that a batch containing a value of another type leaves the state untouched.
+				for (final Map.Entry<? extends K, ?> entry : entries.entrySet()) {
+					checkValue(entry.getKey(), entry.getValue());
+				}
+				for (final Map.Entry<? extends K, ?> entry : entries.entrySet()) {
+					updateEntry(entry.getKey(), weigh(entry.getKey(), _valueType.cast(entry.getValue())));
+				}
+				return findDirtyEntries(dirtyEntries);
+			}
+			
+			private V checkValue(final K key, final Object value) {
+				// Note: the policy states are not typed by the values.
+				if (null != value && !_valueType.isInstance(value)) {
+					throw new IllegalArgumentException("Cannot weigh value " + value + " of type " + value.getClass() + " of entry " + key + " (expected " + _valueType + ")");
+				}
+				return _valueType.cast(value);
+			}
+			
+			private long weigh(final K key, final V value) {
+				final long weight = _weigher.evaluate(key, value).longValue();
+				assert weight >= 0;
+				return weight;
+			}
+			
+			private void updateEntry(final K key, final long weight) {
+				// Update the weight and the order.
+				// Note: the entries to evict first comes first to optimize the cleanups.
+				// Note: key is removed first to maintain the order of the LinkedHashMap.
+				final Long oldWeight = _weights.remove(key);
+				if (null != oldWeight) {
+					_totalWeight -= oldWeight.longValue();
+				}
+				_weights.put(key, weight);
+				_totalWeight += weight;
+			}
+			
+			private <A extends Accumulator<? super K, ?>> A findDirtyEntries(final A dirtyEntries) {
+				// Find the dirty entries.
+				long excessWeight = _totalWeight - _maxWeight;
+				if (excessWeight > 0) {
+					final Iterator<Map.Entry<K, Long>> weights = _weights.entrySet().iterator();
+					while (excessWeight > 0 && weights.hasNext()) {
+						final Map.Entry<K, Long> entry = weights.next();
+						dirtyEntries.add(entry.getKey());
+						excessWeight -= entry.getValue().longValue();
+					}
+				}
+				return dirtyEntries;
+			}
+			
+			@Override
+			public <A extends Accumulator<? super K, ?>> A accessedEntry(final K key, final A dirtyEntries) {
+				// Update the order.
+				// Note: the map is access ordered when the policy is LRU.
+				_weights.get(key);
+				return dirtyEntries;
+			}
+			
+			@Override
+			public void clearedEntry(final K key) {
+				final Long weight = _weights.remove(key);
+				if (null != weight) {
+					_totalWeight -= weight.longValue();
+				}
+			}
+			
+			@Override
+			public void clearedAllEntries() {
+				_weights.clear();
+				_totalWeight = 0;
+			}
+		};
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ * 
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link BidirectionalMultimap} class implements {@link Multimap multimaps} that also index the keys associated to each value.
+ * <p>
+ * The reverse index makes {@link #containsValue(Object)}, {@link #removeValue(Object)} and {@link #getKeys(Object)} proportional to the number of keys
+ * associated to the value rather than to the number of keys of the multimap, at the cost of an extra hash map of sets.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @param <C> Type of the collections of values.
+ * @param <CC> Type of the concrete collections of values.
+ * @since 2.0
+ */
+public class BidirectionalMultimap<K, V, C extends Collection<V>, CC extends C>
+extends MapMultimap<K, V, C, CC> {
+	/**
+	 * Instantiates a new multimap.
+	 * 
+	 * @param mapFactory Factory of the backing map.
+	 * @param valuesFactory Factory of the collections of values.
+	 * @since 2.0
+	 */
+	public BidirectionalMultimap(final MapFactory<K, CC, ? extends Map<K, CC>> mapFactory, final ExtendedAbstractCollectionFactory<V, C, CC> valuesFactory) {
+		super(mapFactory.build(), valuesFactory);
+	}
+	
+	/**
+	 * Instantiates a new multimap containing the bindings of the given multimap.
+	 * 
+	 * @param mapFactory Factory of the backing map.
+	 * @param valuesFactory Factory of the collections of values.
+	 * @param multimap Multimap to copy.
+	 * @since 2.0
+	 */
+	public BidirectionalMultimap(final MapFactory<K, CC, ? extends Map<K, CC>> mapFactory, final ExtendedAbstractCollectionFactory<V, C, CC> valuesFactory, final Multimap<? extends K, ? extends V, ?> multimap) {
+		this(mapFactory, valuesFactory);
+		
+		// Copy.
+		putAll(multimap);
+	}
+	
+	// Index.
+	
+	/**
+	 * Keys associated to each value.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Map<V, Set<K>> _keys = new HashMap<>();
+	
+	/**
+	 * Indexes the given binding.
+	 * 
+	 * @param key Key of the binding.
+	 * @param value Value of the binding.
+	 * @since 2.0
+	 */
+	protected void index(final K key, final V value) {
+		Set<K> keys = _keys.get(value);
+		if (null == keys) {
+			keys = new HashSet<>();
+			_keys.put(value, keys);
+		}
+		keys.add(key);
+	}
+	
+	/**
+	 * Unindexes the given binding when the given collection of values of its key does not contain its value anymore.
+	 * 
+	 * @param key Key of the binding.
+	 * @param value Value of the binding.
+	 * @param values Remaining values associated to the key.
+	 * @since 2.0
+	 */
+	protected void unindex(final K key, final V value, final C values) {
+		if (!values.contains(value)) {
+			final Set<K> keys = _keys.get(value);
+			if (null != keys) {
+				keys.remove(key);
+				if (keys.isEmpty()) {
+					_keys.remove(value);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the keys associated to the given value in this multimap.
+	 * 
+	 * @param value Value whose keys should be read.
+	 * @return An unmodifiable view of the associated keys.
+	 * @since 2.0
+	 */
+	public Set<K> getKeys(final V value) {
+		final Set<K> keys = _keys.get(value);
+		return null != keys ? Collections.unmodifiableSet(keys) : Collections.emptySet();
+	}
+	
+	/**
+	 * Gets the values of this multimap.
+	 * 
+	 * @return An unmodifiable view of the values.
+	 * @since 2.0
+	 */
+	public Set<V> valueSet() {
+		return Collections.unmodifiableSet(_keys.keySet());
+	}
+	
+	// Bindings.
+	
+	@Override
+	public boolean put(final K key, final V value) {
+		if (getCollection(key).add(value)) {
+			index(key, value);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public boolean putAll(final K key, final Iterable<? extends V> values) {
+		final C collection = getCollection(key);
+		boolean changed = false;
+		for (final V value : values) {
+			if (collection.add(value)) {
+				index(key, value);
+				changed = true;
+			}
+		}
+		if (collection.isEmpty()) {
+			_bindings.remove(key);
+		}
+		return changed;
+	}
+	
+	@Override
+	public boolean containsValue(final V value) {
+		return _keys.containsKey(value);
+	}
+	
+	@Override
+	public void clear() {
+		super.clear();
+		_keys.clear();
+	}
+	
+	@Override
+	public boolean remove(final K key, final V value) {
+		final C collection = _bindings.get(key);
+		if (null != collection && collection.remove(value)) {
+			unindex(key, value, collection);
+			if (collection.isEmpty()) {
+				_bindings.remove(key);
+			}
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public boolean removeAll(final K key, final Iterable<? extends V> values) {
+		final C collection = _bindings.get(key);
+		if (null == collection) {
+			return false;
+		}
+		
+		boolean changed = false;
+		for (final V value : values) {
+			if (collection.remove(value)) {
+				unindex(key, value, collection);
+				changed = true;
+			}
+		}
+		if (collection.isEmpty()) {
+			_bindings.remove(key);
+		}
+		return changed;
+	}
+	
+	@Override
+	public C removeKey(final K key) {
+		final CC collection = _bindings.remove(key);
+		if (null == collection) {
+			return _collectionFactory.empty();
+		}
+		
+		final C emptyValues = _collectionFactory.empty();
+		for (final V value : collection) {
+			unindex(key, value, emptyValues);
+		}
+		return _collectionFactory.unmodifiable(collection);
+	}
+	
+	@Override
+	public boolean removeValue(final V value) {
+		final Set<K> keys = _keys.remove(value);
+		if (null == keys) {
+			return false;
+		}
+		
+		for (final K key : keys) {
+			final CC collection = _bindings.get(key);
+			collection.remove(value);
+			if (collection.isEmpty()) {
+				_bindings.remove(key);
+			} else if (collection.contains(value)) {
+				// Keep indexing the remaining occurrences.
+				index(key, value);
+			}
+		}
+		return true;
+	}
+}
@@ -138,6 +138,33 @@ public class CollectionFactories {
 		}
 	};
 	
+	/**
+	 * Builds a factory of {@link VectorList}s.
+	 * <p>
+	 * The built lists copy the vector lists in constant time.
+	 * 
+	 * @param <E> Type of the elements.
+	 * @return The built factory.
+	 * @see VectorList
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> ExtendedListFactory<E, VectorList<E>> vectorList() {
+		return (ExtendedListFactory<E, VectorList<E>>) VECTOR_LIST;
+	}
+	
+	private static final ExtendedListFactory<?, ?> VECTOR_LIST = new ExtendedListFactory<Object, VectorList<Object>>() {
+		@Override
+		public VectorList<Object> build() {
+			return new VectorList<>();
+		}
+		
+		@Override
+		public VectorList<Object> build(final Collection<? extends Object> elements) {
+			return new VectorList<>(elements);
+		}
+	};
+	
 	private CollectionFactories() {
 		// Prevents instantiation.
 	}
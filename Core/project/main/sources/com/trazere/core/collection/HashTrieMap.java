@@ -0,0 +1,170 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link HashTrieMap} class implements maps backed by {@link PersistentHashMap persistent hash maps}.
+ * <p>
+ * Reading, putting and removing bindings take a time proportional to log<sub>32</sub>(n). Copying the map into another hash trie map and taking a
+ * {@link #getMap() snapshot} of it take a constant time as the underlying persistent map is shared.
+ * <p>
+ * The iterators of the views of the map iterate over a snapshot of the bindings and do not fail when the map is modified.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @see PersistentHashMap
+ * @since 2.0
+ */
+public class HashTrieMap<K, V>
+extends AbstractMap<K, V> {
+	/**
+	 * Instantiates a new empty map.
+	 * 
+	 * @since 2.0
+	 */
+	public HashTrieMap() {
+		this(PersistentHashMap.<K, V>empty());
+	}
+	
+	/**
+	 * Instantiates a new map containing the bindings of the given map.
+	 * <p>
+	 * The bindings are shared in constant time when the given map is a hash trie map or a view of a persistent hash map.
+	 * 
+	 * @param bindings Bindings of the map.
+	 * @since 2.0
+	 */
+	public HashTrieMap(final Map<? extends K, ? extends V> bindings) {
+		this(PersistentHashMap.fromMap(bindings));
+	}
+	
+	/**
+	 * Instantiates a new map containing the bindings of the given persistent map.
+	 * 
+	 * @param map Persistent map containing the bindings of the map.
+	 * @since 2.0
+	 */
+	public HashTrieMap(final PersistentHashMap<K, V> map) {
+		assert null != map;
+		
+		// Initialization.
+		_map = map;
+	}
+	
+	// Map.
+	
+	/**
+	 * Persistent map containing the bindings.
+	 * 
+	 * @since 2.0
+	 */
+	protected PersistentHashMap<K, V> _map;
+	
+	/**
+	 * Gets a snapshot of the bindings of this map.
+	 * <p>
+	 * The snapshot is not affected by the later modifications of the map.
+	 * 
+	 * @return The persistent map containing the bindings.
+	 * @since 2.0
+	 */
+	public PersistentHashMap<K, V> getMap() {
+		return _map;
+	}
+	
+	@Override
+	public int size() {
+		return _map.size();
+	}
+	
+	@Override
+	public boolean containsKey(final Object key) {
+		return _map.containsKey(key);
+	}
+	
+	@Override
+	public V get(final Object key) {
+		return _map.get(key, null);
+	}
+	
+	@Override
+	public V put(final K key, final V value) {
+		final V previousValue = _map.get(key, null);
+		_map = _map.put(key, value);
+		return previousValue;
+	}
+	
+	@Override
+	public void putAll(final Map<? extends K, ? extends V> bindings) {
+		_map = _map.isEmpty() ? PersistentHashMap.fromMap(bindings) : _map.putAll(bindings);
+	}
+	
+	@Override
+	public V remove(final Object key) {
+		final V previousValue = _map.get(key, null);
+		_map = _map.remove(key);
+		return previousValue;
+	}
+	
+	@Override
+	public void clear() {
+		_map = PersistentHashMap.empty();
+	}
+	
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new AbstractSet<Map.Entry<K, V>>() {
+			@Override
+			public int size() {
+				return _map.size();
+			}
+			
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator() {
+				final Iterator<Map.Entry<K, V>> bindings = _map.asMap().entrySet().iterator();
+				return new Iterator<Map.Entry<K, V>>() {
+					private Map.Entry<K, V> _binding = null;
+					
+					@Override
+					public boolean hasNext() {
+						return bindings.hasNext();
+					}
+					
+					@Override
+					public Map.Entry<K, V> next() {
+						_binding = bindings.next();
+						return _binding;
+					}
+					
+					@Override
+					public void remove() {
+						if (null == _binding) {
+							throw new IllegalStateException();
+						}
+						_map = _map.remove(_binding.getKey());
+						_binding = null;
+					}
+				};
+			}
+		};
+	}
+}
@@ -0,0 +1,364 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.IntIterator;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@link IntHashSet} class implements sets of <code>int</code> values backed by open addressing hash tables.
+ * <p>
+ * This class is the counterpart of {@link java.util.HashSet} for <code>int</code> values. The values are stored in a single <code>int</code> array probed
+ * linearly, and removals shift the following values back instead of leaving tombstones. The <code>0</code> value marks the free slots of the table, so it is
+ * tracked separately.
+ * <p>
+ * The iterators do not detect concurrent modifications.
+ * 
+ * @see java.util.HashSet
+ * @since 2.0
+ */
+public class IntHashSet
+implements IntCollection {
+	/**
+	 * Default initial capacity of the sets.
+	 * 
+	 * @since 2.0
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+	
+	/**
+	 * Maximum ratio of occupied slots of the tables.
+	 * 
+	 * @since 2.0
+	 */
+	public static final float LOAD_FACTOR = 0.7f;
+	
+	/**
+	 * Instantiates a new empty set.
+	 * 
+	 * @since 2.0
+	 */
+	public IntHashSet() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new empty set able to hold the given number of values without growing.
+	 * 
+	 * @param capacity Initial capacity of the set.
+	 * @since 2.0
+	 */
+	public IntHashSet(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		
+		// Initialization.
+		allocate(PrimitiveHashing.tableLength(capacity, LOAD_FACTOR));
+	}
+	
+	// Table.
+	
+	/**
+	 * Values of the set indexed by their hash, <code>0</code> for the free slots.
+	 * 
+	 * @since 2.0
+	 */
+	protected int[] _table;
+	
+	/**
+	 * Mask of the slot indexes.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _mask;
+	
+	/**
+	 * Number of bits to shift the mixed hashes by to get the slot indexes.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _shift;
+	
+	/**
+	 * Number of values of the table beyond which the table grows.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _threshold;
+	
+	/**
+	 * Indicates whether the set contains the <code>0</code> value.
+	 * 
+	 * @since 2.0
+	 */
+	protected boolean _containsZero = false;
+	
+	/**
+	 * Number of values of the set.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _size = 0;
+	
+	/**
+	 * Allocates a table with the given number of slots.
+	 * 
+	 * @param length Number of slots. Must be a power of two.
+	 * @since 2.0
+	 */
+	protected void allocate(final int length) {
+		_table = new int[length];
+		_mask = length - 1;
+		_shift = 32 - Integer.numberOfTrailingZeros(length);
+		_threshold = (int) (length * LOAD_FACTOR);
+	}
+	
+	/**
+	 * Computes the home slot of the given value.
+	 * 
+	 * @param key Value whose slot should be computed.
+	 * @return The index of the slot.
+	 * @since 2.0
+	 */
+	protected int slot(final int key) {
+		return (key * 0x9E3779B9) >>> _shift;
+	}
+	
+	/**
+	 * Finds the slot of the given non-zero value.
+	 * 
+	 * @param key Value to look for.
+	 * @return The index of the slot containing the value, or the one's complement of the index of the free slot where it would be inserted.
+	 * @since 2.0
+	 */
+	protected int find(final int key) {
+		int index = slot(key);
+		while (true) {
+			final int current = _table[index];
+			if (0 == current) {
+				return ~index;
+			} else if (current == key) {
+				return index;
+			}
+			index = (index + 1) & _mask;
+		}
+	}
+	
+	/**
+	 * Grows the table.
+	 * 
+	 * @since 2.0
+	 */
+	protected void grow() {
+		final int[] table = _table;
+		allocate(table.length << 1);
+		for (final int key : table) {
+			if (0 != key) {
+				_table[~find(key)] = key;
+			}
+		}
+	}
+	
+	/**
+	 * Removes the value at the given slot, shifting back the following values of its cluster.
+	 * 
+	 * @param index Index of the slot to free.
+	 * @since 2.0
+	 */
+	protected void removeSlot(final int index) {
+		int free = index;
+		int current = (index + 1) & _mask;
+		while (true) {
+			final int key = _table[current];
+			if (0 == key) {
+				_table[free] = 0;
+				return;
+			}
+			
+			// Move the value to the free slot when its home slot is not in the cyclic range ]free, current].
+			final int home = slot(key);
+			if (free <= current ? home <= free || home > current : home <= free && home > current) {
+				_table[free] = key;
+				free = current;
+			}
+			current = (current + 1) & _mask;
+		}
+	}
+	
+	// Values.
+	
+	@Override
+	public int size() {
+		return _size;
+	}
+	
+	@Override
+	public boolean contains(final int value) {
+		return 0 == value ? _containsZero : find(value) >= 0;
+	}
+	
+	@Override
+	public boolean add(final int value) {
+		if (0 == value) {
+			if (_containsZero) {
+				return false;
+			} else {
+				_containsZero = true;
+				_size += 1;
+				return true;
+			}
+		}
+		
+		final int index = find(value);
+		if (index >= 0) {
+			return false;
+		}
+		_table[~index] = value;
+		_size += 1;
+		if (_size > _threshold) {
+			grow();
+		}
+		return true;
+	}
+	
+	@Override
+	public boolean remove(final int value) {
+		if (0 == value) {
+			if (_containsZero) {
+				_containsZero = false;
+				_size -= 1;
+				return true;
+			} else {
+				return false;
+			}
+		}
+		
+		final int index = find(value);
+		if (index < 0) {
+			return false;
+		}
+		removeSlot(index);
+		_size -= 1;
+		return true;
+	}
+	
+	@Override
+	public void clear() {
+		Arrays.fill(_table, 0);
+		_containsZero = false;
+		_size = 0;
+	}
+	
+	@Override
+	public int[] toArray() {
+		final int[] values = new int[_size];
+		int i = 0;
+		if (_containsZero) {
+			i += 1;
+		}
+		for (final int key : _table) {
+			if (0 != key) {
+				values[i] = key;
+				i += 1;
+			}
+		}
+		return values;
+	}
+	
+	// Iterable.
+	
+	@Override
+	public IntIterator intIterator() {
+		return new IntIterator() {
+			private boolean _zero = _containsZero;
+			private int _index = advance(0);
+			
+			private int advance(final int index) {
+				int i = index;
+				while (i < _table.length && 0 == _table[i]) {
+					i += 1;
+				}
+				return i;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return _zero || _index < _table.length;
+			}
+			
+			@Override
+			public int nextInt()
+			throws NoSuchElementException {
+				if (_zero) {
+					_zero = false;
+					return 0;
+				} else if (_index < _table.length) {
+					final int value = _table[_index];
+					_index = advance(_index + 1);
+					return value;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	// Object.
+	
+	@Override
+	public int hashCode() {
+		int result = 0;
+		for (final int key : _table) {
+			result += Integer.hashCode(key);
+		}
+		return result;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		} else if (null != object && getClass().equals(object.getClass())) {
+			final IntHashSet set = (IntHashSet) object;
+			if (_size != set._size || _containsZero != set._containsZero) {
+				return false;
+			}
+			for (final int key : _table) {
+				if (0 != key && !set.contains(key)) {
+					return false;
+				}
+			}
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+		final IntIterator iterator = intIterator();
+		while (iterator.hasNext()) {
+			builder.append(iterator.nextInt());
+			if (iterator.hasNext()) {
+				builder.append(", ");
+			}
+		}
+		return builder.append("]").toString();
+	}
+}
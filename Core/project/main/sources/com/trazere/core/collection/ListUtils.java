@@ -19,20 +19,19 @@ import com.trazere.core.functional.Function;
 import com.trazere.core.functional.Predicate;
 import com.trazere.core.imperative.Accumulator;
 import com.trazere.core.imperative.Accumulator2;
+import com.trazere.core.imperative.Accumulators;
 import com.trazere.core.imperative.ImperativePredicates;
 import com.trazere.core.util.Maybe;
 import java.util.AbstractList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Queue;
 import java.util.Random;
-import java.util.Set;
 
 /**
  * The {@link ListUtils} class provides various utilities regarding {@link List lists}.
@@ -232,6 +231,9 @@ public class ListUtils {
 	 * graph include such elements and that they are not included in the results.
 	 * <p>
 	 * The sort is stable and places the dependencies before the elements that depend on them.
+	 * <p>
+	 * The sort maintains in-degree counters over the dependency graph and takes a time proportional to the number of elements and dependencies, plus a
+	 * logarithmic factor for keeping the order stable.
 	 * 
 	 * @param <E> Type of the elements.
 	 * @param <L> Type of the result list.
@@ -245,28 +247,11 @@ public class ListUtils {
 	 * @since 2.0
 	 */
 	public static <E, L extends List<? super E>> L topologicalSort(final Iterable<? extends E> elements, final Function<? super E, ? extends Iterable<? extends E>> dependencies, final boolean includeDependencies, final CollectionFactory<? super E, L> resultFactory) {
-		final Accumulator<E, L> results = CollectionAccumulators.add(resultFactory.build());
-		
 		// Compute the dependencies.
-		final List<E> pendingElements = new LinkedList<>();
-		final Multimap<E, E, Set<E>> pendingDependencies = computeTopologicalDependencies(elements, dependencies, includeDependencies, CollectionAccumulators.add(pendingElements), MultimapAccumulators.put(new MapMultimap<>(MapFactories.hashMap(), CollectionFactories.hashSet()))).get();
+		final TopologicalGraph<E> graph = computeTopologicalGraph(elements, dependencies, includeDependencies);
 		
 		// Sort.
-		while (!pendingElements.isEmpty()) {
-			// Iterate the pending elements.
-			final Maybe<E> maybeLeaf = CollectionUtils.removeFirst(pendingElements, element -> !pendingDependencies.containsKey(element));
-			if (maybeLeaf.isNone()) {
-				throw new IllegalArgumentException("Cyclic or external dependencies for elements " + pendingElements);
-			}
-			final E leaf = maybeLeaf.asSome().getValue();
-			
-			// Add the element to the result.
-			results.add(leaf);
-			
-			// Clean the dependencies.
-			pendingDependencies.removeValue(leaf);
-		}
-		return results.get();
+		return graph.sort(CollectionAccumulators.add(resultFactory.build())).get();
 	}
 	
 	/**
@@ -281,6 +266,9 @@ public class ListUtils {
 	 * graph include such elements and that they are not included in the results.
 	 * <p>
 	 * This sort is stable and places the dependencies before the regions that depend on them.
+	 * <p>
+	 * The sort maintains in-degree counters over the dependency graph and takes a time proportional to the number of elements and dependencies, plus the
+	 * ordering of the elements of each region.
 	 *
 	 * @param <E> Type of the elements.
 	 * @param <R> Type of the region lists.
@@ -296,44 +284,18 @@ public class ListUtils {
 	 * @since 2.0
 	 */
 	public static <E, R extends List<? super E>, L extends List<? super R>> L topologicalRegionSort(final Collection<? extends E> elements, final Function<? super E, ? extends Collection<? extends E>> dependencies, final boolean includeDependencies, final CollectionFactory<? super E, R> regionFactory, final CollectionFactory<? super R, L> resultFactory) {
-		final Accumulator<R, L> results = CollectionAccumulators.add(resultFactory.build());
-		
 		// Compute the dependencies.
-		final List<E> pendingElements = new LinkedList<>();
-		final Multimap<E, E, Set<E>> pendingDependencies = computeTopologicalDependencies(elements, dependencies, includeDependencies, CollectionAccumulators.add(pendingElements), MultimapAccumulators.put(new MapMultimap<>(MapFactories.hashMap(), CollectionFactories.hashSet()))).get();
+		final TopologicalGraph<E> graph = computeTopologicalGraph(elements, dependencies, includeDependencies);
 		
 		// Sort.
-		while (!pendingElements.isEmpty()) {
-			// Iterate the pending elements.
-			final R region = regionFactory.build();
-			final Set<E> leaves = new HashSet<>();
-			final Iterator<E> elementsIt = pendingElements.iterator();
-			while (elementsIt.hasNext()) {
-				final E element = elementsIt.next();
-				if (!pendingDependencies.containsKey(element)) {
-					// Add the element.
-					region.add(element);
-					leaves.add(element);
-					
-					// Not pending anymore.
-					elementsIt.remove();
-				}
-			}
-			
-			// Check that some leaf were found.
-			if (leaves.isEmpty()) {
-				throw new IllegalArgumentException("Cyclic or external dependencies for elements " + pendingElements);
-			} else {
-				results.add(region);
-			}
-			
-			// Clean the dependencies.
-			for (final E leaf : leaves) {
-				pendingDependencies.removeValue(leaf);
-			}
-		}
-		
-		return results.get();
+		return graph.sortRegions(regionFactory, CollectionAccumulators.add(resultFactory.build())).get();
+	}
+	
+	static <E> TopologicalGraph<E> computeTopologicalGraph(final Iterable<? extends E> elements, final Function<? super E, ? extends Iterable<? extends E>> dependencies, final boolean includeDependencies) {
+		final TopologicalGraph<E> graph = new TopologicalGraph<>();
+		computeTopologicalDependencies(elements, dependencies, includeDependencies, Accumulators.fromConsumer(graph::addElement), Accumulators.fromBiConsumer(graph::addDependency));
+		graph.index();
+		return graph;
 	}
 	
 	private static <E, A extends Accumulator2<? super E, ? super E, ?>> A computeTopologicalDependencies(final Iterable<? extends E> elements, final Function<? super E, ? extends Iterable<? extends E>> dependencies, final boolean includeDependencies, final Accumulator<? super E, ?> traversedElements, final A resultDependencies) {
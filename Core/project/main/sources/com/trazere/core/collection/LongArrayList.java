@@ -0,0 +1,316 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.LongIterator;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@link LongArrayList} class implements lists of <code>long</code> values backed by arrays.
+ * <p>
+ * This class is the counterpart of {@link java.util.ArrayList} for <code>long</code> values. The values are stored in a growable <code>long</code> array.
+ * <p>
+ * The iterators do not detect concurrent modifications.
+ * 
+ * @see java.util.ArrayList
+ * @since 2.0
+ */
+public class LongArrayList
+implements LongCollection {
+	/**
+	 * Default initial capacity of the lists.
+	 * 
+	 * @since 2.0
+	 */
+	public static final int DEFAULT_CAPACITY = 10;
+	
+	/**
+	 * Instantiates a new empty list.
+	 * 
+	 * @since 2.0
+	 */
+	public LongArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new empty list with the given initial capacity.
+	 * 
+	 * @param capacity Initial capacity of the list.
+	 * @since 2.0
+	 */
+	public LongArrayList(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		
+		// Initialization.
+		_values = new long[capacity];
+	}
+	
+	/**
+	 * Instantiates a new list containing the given values.
+	 * 
+	 * @param values Values of the list.
+	 * @since 2.0
+	 */
+	public LongArrayList(final long... values) {
+		assert null != values;
+		
+		// Initialization.
+		_values = Arrays.copyOf(values, values.length);
+		_size = values.length;
+	}
+	
+	// Values.
+	
+	/**
+	 * Values of the list.
+	 * 
+	 * @since 2.0
+	 */
+	protected long[] _values;
+	
+	/**
+	 * Number of values of the list.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _size = 0;
+	
+	@Override
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * Gets the value at the given index of this list.
+	 * 
+	 * @param index Index of the value.
+	 * @return The value.
+	 * @throws IndexOutOfBoundsException When the index is out of bounds.
+	 * @since 2.0
+	 */
+	public long get(final int index)
+	throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return _values[index];
+	}
+	
+	/**
+	 * Sets the value at the given index of this list.
+	 * 
+	 * @param index Index of the value.
+	 * @param value Value to set.
+	 * @return The previous value.
+	 * @throws IndexOutOfBoundsException When the index is out of bounds.
+	 * @since 2.0
+	 */
+	public long set(final int index, final long value)
+	throws IndexOutOfBoundsException {
+		checkIndex(index);
+		final long previousValue = _values[index];
+		_values[index] = value;
+		return previousValue;
+	}
+	
+	/**
+	 * Gets the index of the first occurrence of the given value in this list.
+	 * 
+	 * @param value Value to look for.
+	 * @return The index of the value, or <code>-1</code> when the list does not contain the value.
+	 * @since 2.0
+	 */
+	public int indexOf(final long value) {
+		for (int i = 0; i < _size; i += 1) {
+			if (0 == Long.compare(_values[i], value)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	@Override
+	public boolean contains(final long value) {
+		return indexOf(value) >= 0;
+	}
+	
+	@Override
+	public boolean add(final long value) {
+		ensureCapacity(_size + 1);
+		_values[_size] = value;
+		_size += 1;
+		return true;
+	}
+	
+	/**
+	 * Removes the value at the given index of this list.
+	 * <p>
+	 * The following values are shifted to the left.
+	 * 
+	 * @param index Index of the value to remove.
+	 * @return The removed value.
+	 * @throws IndexOutOfBoundsException When the index is out of bounds.
+	 * @since 2.0
+	 */
+	public long removeAt(final int index)
+	throws IndexOutOfBoundsException {
+		checkIndex(index);
+		final long value = _values[index];
+		System.arraycopy(_values, index + 1, _values, index, _size - index - 1);
+		_size -= 1;
+		return value;
+	}
+	
+	@Override
+	public boolean remove(final long value) {
+		final int index = indexOf(value);
+		if (index >= 0) {
+			removeAt(index);
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public void clear() {
+		_size = 0;
+	}
+	
+	/**
+	 * Sorts the values of this list in ascending order.
+	 * 
+	 * @since 2.0
+	 */
+	public void sort() {
+		Arrays.sort(_values, 0, _size);
+	}
+	
+	@Override
+	public long[] toArray() {
+		return Arrays.copyOf(_values, _size);
+	}
+	
+	/**
+	 * Checks the given index.
+	 * 
+	 * @param index Index to check.
+	 * @throws IndexOutOfBoundsException When the index is out of bounds.
+	 * @since 2.0
+	 */
+	protected void checkIndex(final int index)
+	throws IndexOutOfBoundsException {
+		if (index < 0 || index >= _size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + _size);
+		}
+	}
+	
+	// Capacity.
+	
+	/**
+	 * Ensures this list can hold the given number of values without growing.
+	 * 
+	 * @param capacity Required capacity.
+	 * @since 2.0
+	 */
+	public void ensureCapacity(final int capacity) {
+		if (capacity > _values.length) {
+			_values = Arrays.copyOf(_values, Math.max(capacity, _values.length + (_values.length >> 1) + 1));
+		}
+	}
+	
+	/**
+	 * Trims the capacity of this list to its size.
+	 * 
+	 * @since 2.0
+	 */
+	public void trimToSize() {
+		if (_size < _values.length) {
+			_values = Arrays.copyOf(_values, _size);
+		}
+	}
+	
+	// Iterable.
+	
+	@Override
+	public LongIterator longIterator() {
+		return new LongIterator() {
+			private int _index = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return _index < _size;
+			}
+			
+			@Override
+			public long nextLong()
+			throws NoSuchElementException {
+				if (_index < _size) {
+					final long value = _values[_index];
+					_index += 1;
+					return value;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	// Object.
+	
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < _size; i += 1) {
+			result = 31 * result + Long.hashCode(_values[i]);
+		}
+		return result;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		} else if (null != object && getClass().equals(object.getClass())) {
+			final LongArrayList list = (LongArrayList) object;
+			if (_size != list._size) {
+				return false;
+			}
+			for (int i = 0; i < _size; i += 1) {
+				if (0 != Long.compare(_values[i], list._values[i])) {
+					return false;
+				}
+			}
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < _size; i += 1) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(_values[i]);
+		}
+		return builder.append("]").toString();
+	}
+}
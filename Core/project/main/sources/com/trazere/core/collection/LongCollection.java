@@ -0,0 +1,107 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.LongIterator;
+import com.trazere.core.lang.LongIterable;
+
+/**
+ * The {@link LongCollection} interface defines collections of <code>long</code> values.
+ * <p>
+ * Primitive collections store their values without boxing them. They are the counterpart of {@link java.util.Collection} for <code>long</code> values.
+ * 
+ * @see LongArrayList
+ * @see LongHashSet
+ * @since 2.0
+ */
+public interface LongCollection
+extends LongIterable {
+	/**
+	 * Gets the number of values of this collection.
+	 * 
+	 * @return The number of values.
+	 * @since 2.0
+	 */
+	int size();
+	
+	/**
+	 * Indicates whether this collection is empty.
+	 * 
+	 * @return <code>true</code> when the collection contains no values, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	default boolean isEmpty() {
+		return 0 == size();
+	}
+	
+	/**
+	 * Tests whether this collection contains the given value.
+	 * 
+	 * @param value Value to test.
+	 * @return <code>true</code> when the collection contains the value, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	boolean contains(long value);
+	
+	/**
+	 * Adds the given value to this collection.
+	 * 
+	 * @param value Value to add.
+	 * @return <code>true</code> when the collection has been modified, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	boolean add(long value);
+	
+	/**
+	 * Adds the given values to this collection.
+	 * 
+	 * @param values Values to add.
+	 * @return <code>true</code> when the collection has been modified, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	default boolean addAll(final LongIterable values) {
+		boolean modified = false;
+		final LongIterator iterator = values.longIterator();
+		while (iterator.hasNext()) {
+			modified |= add(iterator.nextLong());
+		}
+		return modified;
+	}
+	
+	/**
+	 * Removes an occurrence of the given value from this collection.
+	 * 
+	 * @param value Value to remove.
+	 * @return <code>true</code> when the collection has been modified, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	boolean remove(long value);
+	
+	/**
+	 * Removes all values from this collection.
+	 * 
+	 * @since 2.0
+	 */
+	void clear();
+	
+	/**
+	 * Gets the values of this collection as an array.
+	 * 
+	 * @return A new array containing the values.
+	 * @since 2.0
+	 */
+	long[] toArray();
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.design.Factory;
+import com.trazere.core.imperative.LongIterator;
+import com.trazere.core.lang.LongIterable;
+
+/**
+ * The {@link LongCollectionFactory} interface defines factories of {@link LongCollection collections of <code>long</code> values}.
+ * 
+ * @param <C> Type of the collections.
+ * @see LongCollection
+ * @see CollectionFactory
+ * @since 2.0
+ */
+public interface LongCollectionFactory<C extends LongCollection>
+extends Factory<C> {
+	/**
+	 * Builds an empty collection.
+	 * 
+	 * @return The built collection.
+	 * @since 2.0
+	 */
+	@Override
+	C build();
+	
+	/**
+	 * Builds an empty collection with the given initial capacity.
+	 * 
+	 * @param capacity Initial capacity of the collection.
+	 * @return The built collection.
+	 * @since 2.0
+	 */
+	default C build(final int capacity) {
+		return build();
+	}
+	
+	/**
+	 * Builds a collection containing the given values.
+	 * 
+	 * @param values Values.
+	 * @return The built collection.
+	 * @since 2.0
+	 */
+	default C build(final long... values) {
+		final C collection = build(values.length);
+		for (final long value : values) {
+			collection.add(value);
+		}
+		return collection;
+	}
+	
+	/**
+	 * Builds a collection containing the given values.
+	 * 
+	 * @param values Values.
+	 * @return The built collection.
+	 * @since 2.0
+	 */
+	default C build(final LongIterable values) {
+		final C collection = build();
+		final LongIterator iterator = values.longIterator();
+		while (iterator.hasNext()) {
+			collection.add(iterator.nextLong());
+		}
+		return collection;
+	}
+	
+	/**
+	 * Builds a collection containing the given values.
+	 * 
+	 * @param values Values.
+	 * @return The built collection.
+	 * @since 2.0
+	 */
+	default C build(final LongCollection values) {
+		final C collection = build(values.size());
+		collection.addAll(values);
+		return collection;
+	}
+}
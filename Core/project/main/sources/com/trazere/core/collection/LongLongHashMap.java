@@ -0,0 +1,559 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.LongIterator;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@link LongLongHashMap} class implements maps from <code>long</code> keys to <code>long</code> values backed by open addressing hash tables.
+ * <p>
+ * This class is the counterpart of {@link java.util.HashMap} for <code>long</code> keys and values. The keys and values are stored in parallel
+ * <code>long</code> arrays probed linearly, and removals shift the following bindings back instead of leaving tombstones. The <code>0</code> key marks the
+ * free slots of the table, so its binding is tracked separately.
+ * <p>
+ * The iterators do not detect concurrent modifications.
+ * 
+ * @see java.util.HashMap
+ * @since 2.0
+ */
+public class LongLongHashMap {
+	/**
+	 * The {@link BindingProcedure} interface defines procedures that take the bindings of the maps.
+	 * 
+	 * @since 2.0
+	 */
+	@FunctionalInterface
+	public interface BindingProcedure {
+		/**
+		 * Executes this procedure with the given binding.
+		 * 
+		 * @param key Key of the binding.
+		 * @param value Value of the binding.
+		 * @since 2.0
+		 */
+		void execute(long key, long value);
+	}
+	
+	/**
+	 * Default initial capacity of the maps.
+	 * 
+	 * @since 2.0
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+	
+	/**
+	 * Maximum ratio of occupied slots of the tables.
+	 * 
+	 * @since 2.0
+	 */
+	public static final float LOAD_FACTOR = 0.7f;
+	
+	/**
+	 * Instantiates a new empty map.
+	 * 
+	 * @since 2.0
+	 */
+	public LongLongHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new empty map able to hold the given number of bindings without growing.
+	 * 
+	 * @param capacity Initial capacity of the map.
+	 * @since 2.0
+	 */
+	public LongLongHashMap(final int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		}
+		
+		// Initialization.
+		allocate(PrimitiveHashing.tableLength(capacity, LOAD_FACTOR));
+	}
+	
+	// Table.
+	
+	/**
+	 * Keys of the map indexed by their hash, <code>0</code> for the free slots.
+	 * 
+	 * @since 2.0
+	 */
+	protected long[] _keys;
+	
+	/**
+	 * Values of the map, in the slots of their keys.
+	 * 
+	 * @since 2.0
+	 */
+	protected long[] _values;
+	
+	/**
+	 * Mask of the slot indexes.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _mask;
+	
+	/**
+	 * Number of bits to shift the mixed hashes by to get the slot indexes.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _shift;
+	
+	/**
+	 * Number of keys of the table beyond which the table grows.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _threshold;
+	
+	/**
+	 * Indicates whether the map contains the <code>0</code> key.
+	 * 
+	 * @since 2.0
+	 */
+	protected boolean _containsZero = false;
+	
+	/**
+	 * Value associated to the <code>0</code> key.
+	 * 
+	 * @since 2.0
+	 */
+	protected long _zeroValue;
+	
+	/**
+	 * Number of bindings of the map.
+	 * 
+	 * @since 2.0
+	 */
+	protected int _size = 0;
+	
+	/**
+	 * Allocates a table with the given number of slots.
+	 * 
+	 * @param length Number of slots. Must be a power of two.
+	 * @since 2.0
+	 */
+	protected void allocate(final int length) {
+		_keys = new long[length];
+		_values = new long[length];
+		_mask = length - 1;
+		_shift = 64 - Integer.numberOfTrailingZeros(length);
+		_threshold = (int) (length * LOAD_FACTOR);
+	}
+	
+	/**
+	 * Computes the home slot of the given key.
+	 * 
+	 * @param key Key whose slot should be computed.
+	 * @return The index of the slot.
+	 * @since 2.0
+	 */
+	protected int slot(final long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> _shift);
+	}
+	
+	/**
+	 * Finds the slot of the given non-zero key.
+	 * 
+	 * @param key Key to look for.
+	 * @return The index of the slot containing the key, or the one's complement of the index of the free slot where it would be inserted.
+	 * @since 2.0
+	 */
+	protected int find(final long key) {
+		int index = slot(key);
+		while (true) {
+			final long current = _keys[index];
+			if (0 == current) {
+				return ~index;
+			} else if (current == key) {
+				return index;
+			}
+			index = (index + 1) & _mask;
+		}
+	}
+	
+	/**
+	 * Inserts a new binding at the given free slot, growing the table when needed.
+	 * 
+	 * @param index Index of the free slot.
+	 * @param key Key of the binding.
+	 * @param value Value of the binding.
+	 * @since 2.0
+	 */
+	protected void insert(final int index, final long key, final long value) {
+		_keys[index] = key;
+		_values[index] = value;
+		_size += 1;
+		if (_size > _threshold) {
+			grow();
+		}
+	}
+	
+	/**
+	 * Grows the table.
+	 * 
+	 * @since 2.0
+	 */
+	protected void grow() {
+		final long[] keys = _keys;
+		final long[] values = _values;
+		allocate(keys.length << 1);
+		for (int i = 0; i < keys.length; i += 1) {
+			final long key = keys[i];
+			if (0 != key) {
+				final int index = ~find(key);
+				_keys[index] = key;
+				_values[index] = values[i];
+			}
+		}
+	}
+	
+	/**
+	 * Removes the binding at the given slot, shifting back the following bindings of its cluster.
+	 * 
+	 * @param index Index of the slot to free.
+	 * @since 2.0
+	 */
+	protected void removeSlot(final int index) {
+		int free = index;
+		int current = (index + 1) & _mask;
+		while (true) {
+			final long key = _keys[current];
+			if (0 == key) {
+				_keys[free] = 0;
+				_values[free] = 0;
+				return;
+			}
+			
+			// Move the binding to the free slot when its home slot is not in the cyclic range ]free, current].
+			final int home = slot(key);
+			if (free <= current ? home <= free || home > current : home <= free && home > current) {
+				_keys[free] = key;
+				_values[free] = _values[current];
+				free = current;
+			}
+			current = (current + 1) & _mask;
+		}
+	}
+	
+	// Bindings.
+	
+	/**
+	 * Gets the number of bindings of this map.
+	 * 
+	 * @return The number of bindings.
+	 * @since 2.0
+	 */
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * Indicates whether this map is empty.
+	 * 
+	 * @return <code>true</code> when the map contains no bindings, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean isEmpty() {
+		return 0 == _size;
+	}
+	
+	/**
+	 * Tests whether this map contains a binding for the given key.
+	 * 
+	 * @param key Key to test.
+	 * @return <code>true</code> when the key is bound, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean containsKey(final long key) {
+		return 0 == key ? _containsZero : find(key) >= 0;
+	}
+	
+	/**
+	 * Gets the value associated to the given key in this map.
+	 * 
+	 * @param key Key of the value.
+	 * @param defaultValue Value to return when the key is not bound.
+	 * @return The associated value, or the default value when the key is not bound.
+	 * @since 2.0
+	 */
+	public long get(final long key, final long defaultValue) {
+		if (0 == key) {
+			return _containsZero ? _zeroValue : defaultValue;
+		} else {
+			final int index = find(key);
+			return index >= 0 ? _values[index] : defaultValue;
+		}
+	}
+	
+	/**
+	 * Associates the given value to the given key in this map.
+	 * 
+	 * @param key Key of the binding.
+	 * @param value Value of the binding.
+	 * @return <code>true</code> when the key was not bound, <code>false</code> when its value has been replaced.
+	 * @since 2.0
+	 */
+	public boolean put(final long key, final long value) {
+		if (0 == key) {
+			final boolean added = !_containsZero;
+			if (added) {
+				_containsZero = true;
+				_size += 1;
+			}
+			_zeroValue = value;
+			return added;
+		}
+		
+		final int index = find(key);
+		if (index >= 0) {
+			_values[index] = value;
+			return false;
+		} else {
+			insert(~index, key, value);
+			return true;
+		}
+	}
+	
+	/**
+	 * Adds the given increment to the value associated to the given key in this map.
+	 * <p>
+	 * Unbound keys are considered to be associated to <code>0</code>.
+	 * 
+	 * @param key Key of the binding.
+	 * @param increment Increment to add.
+	 * @return The new value associated to the key.
+	 * @since 2.0
+	 */
+	public long addTo(final long key, final long increment) {
+		if (0 == key) {
+			if (!_containsZero) {
+				_containsZero = true;
+				_size += 1;
+				_zeroValue = 0;
+			}
+			_zeroValue += increment;
+			return _zeroValue;
+		}
+		
+		final int index = find(key);
+		if (index >= 0) {
+			_values[index] += increment;
+			return _values[index];
+		} else {
+			insert(~index, key, increment);
+			return increment;
+		}
+	}
+	
+	/**
+	 * Removes the binding of the given key from this map.
+	 * 
+	 * @param key Key of the binding to remove.
+	 * @return <code>true</code> when the map has been modified, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean remove(final long key) {
+		if (0 == key) {
+			if (_containsZero) {
+				_containsZero = false;
+				_zeroValue = 0;
+				_size -= 1;
+				return true;
+			} else {
+				return false;
+			}
+		}
+		
+		final int index = find(key);
+		if (index < 0) {
+			return false;
+		}
+		removeSlot(index);
+		_size -= 1;
+		return true;
+	}
+	
+	/**
+	 * Removes all bindings from this map.
+	 * 
+	 * @since 2.0
+	 */
+	public void clear() {
+		Arrays.fill(_keys, 0);
+		Arrays.fill(_values, 0);
+		_containsZero = false;
+		_zeroValue = 0;
+		_size = 0;
+	}
+	
+	// Iteration.
+	
+	/**
+	 * Gets an iterator over the keys of this map.
+	 * 
+	 * @return The iterator.
+	 * @since 2.0
+	 */
+	public LongIterator keyIterator() {
+		return new LongIterator() {
+			private boolean _zero = _containsZero;
+			private int _index = advance(0);
+			
+			private int advance(final int index) {
+				int i = index;
+				while (i < _keys.length && 0 == _keys[i]) {
+					i += 1;
+				}
+				return i;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return _zero || _index < _keys.length;
+			}
+			
+			@Override
+			public long nextLong()
+			throws NoSuchElementException {
+				if (_zero) {
+					_zero = false;
+					return 0;
+				} else if (_index < _keys.length) {
+					final long key = _keys[_index];
+					_index = advance(_index + 1);
+					return key;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Gets an iterator over the values of this map.
+	 * 
+	 * @return The iterator.
+	 * @since 2.0
+	 */
+	public LongIterator valueIterator() {
+		return new LongIterator() {
+			private boolean _zero = _containsZero;
+			private int _index = advance(0);
+			
+			private int advance(final int index) {
+				int i = index;
+				while (i < _keys.length && 0 == _keys[i]) {
+					i += 1;
+				}
+				return i;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return _zero || _index < _keys.length;
+			}
+			
+			@Override
+			public long nextLong()
+			throws NoSuchElementException {
+				if (_zero) {
+					_zero = false;
+					return _zeroValue;
+				} else if (_index < _keys.length) {
+					final long value = _values[_index];
+					_index = advance(_index + 1);
+					return value;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Executes the given procedure with each binding of this map.
+	 * 
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public void foreach(final BindingProcedure procedure) {
+		if (_containsZero) {
+			procedure.execute(0, _zeroValue);
+		}
+		for (int i = 0; i < _keys.length; i += 1) {
+			final long key = _keys[i];
+			if (0 != key) {
+				procedure.execute(key, _values[i]);
+			}
+		}
+	}
+	
+	// Object.
+	
+	@Override
+	public int hashCode() {
+		int result = _containsZero ? Long.hashCode(_zeroValue) : 0;
+		for (int i = 0; i < _keys.length; i += 1) {
+			final long key = _keys[i];
+			if (0 != key) {
+				result += Long.hashCode(key) ^ Long.hashCode(_values[i]);
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		} else if (null != object && getClass().equals(object.getClass())) {
+			final LongLongHashMap map = (LongLongHashMap) object;
+			if (_size != map._size || _containsZero != map._containsZero || (_containsZero && _zeroValue != map._zeroValue)) {
+				return false;
+			}
+			for (int i = 0; i < _keys.length; i += 1) {
+				final long key = _keys[i];
+				if (0 != key) {
+					final int index = map.find(key);
+					if (index < 0 || _values[i] != map._values[index]) {
+						return false;
+					}
+				}
+			}
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("{");
+		foreach((key, value) -> {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(key).append("=").append(value);
+		});
+		return builder.append("}").toString();
+	}
+}
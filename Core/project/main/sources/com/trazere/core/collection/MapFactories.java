@@ -81,6 +81,33 @@ public class MapFactories {
 		}
 	};
 	
+	/**
+	 * Builds a map factory that builds {@link HashTrieMap}s.
+	 * <p>
+	 * The built maps copy the hash trie maps in constant time.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @return The built factory.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> ExtendedMapFactory<K, V, HashTrieMap<K, V>> hashTrieMap() {
+		return (ExtendedMapFactory<K, V, HashTrieMap<K, V>>) HASH_TRIE_MAP;
+	}
+	
+	private static final ExtendedMapFactory<?, ?, ?> HASH_TRIE_MAP = new ExtendedMapFactory<Object, Object, HashTrieMap<Object, Object>>() {
+		@Override
+		public HashTrieMap<Object, Object> build() {
+			return new HashTrieMap<>();
+		}
+		
+		@Override
+		public HashTrieMap<Object, Object> build(final Map<? extends Object, ? extends Object> bindings) {
+			return new HashTrieMap<>(bindings);
+		}
+	};
+	
 	private MapFactories() {
 		// Prevents instantiation.
 	}
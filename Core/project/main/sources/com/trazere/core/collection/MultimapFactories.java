@@ -59,6 +59,40 @@ public class MultimapFactories {
 		};
 	}
 	
+	/**
+	 * Builds a map factory that builds {@link BidirectionalMultimap}s.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @param <C> Type of the collections of values.
+	 * @param <CC> Type of the concrete collections of values.
+	 * @param mapFactory Factory of the backing maps.
+	 * @param valuesFactory Factory of the collections of values.
+	 * @return The built factory.
+	 * @since 2.0
+	 */
+	public static <K, V, C extends Collection<V>, CC extends C> ExtendedMultimapFactory<K, V, C, BidirectionalMultimap<K, V, C, CC>> bidirectionalMultimap(final MapFactory<K, CC, ? extends Map<K, CC>> mapFactory, final ExtendedAbstractCollectionFactory<V, C, CC> valuesFactory) {
+		assert null != mapFactory;
+		assert null != valuesFactory;
+		
+		return new ExtendedMultimapFactory<K, V, C, BidirectionalMultimap<K, V, C, CC>>() {
+			@Override
+			public BidirectionalMultimap<K, V, C, CC> build() {
+				return new BidirectionalMultimap<>(mapFactory, valuesFactory);
+			}
+			
+			@Override
+			public BidirectionalMultimap<K, V, C, CC> build(final Multimap<? extends K, ? extends V, ?> bindings) {
+				return new BidirectionalMultimap<>(mapFactory, valuesFactory, bindings);
+			}
+			
+			@Override
+			public Multimap<K, V, C> empty() {
+				return Multimaps.empty(valuesFactory);
+			}
+		};
+	}
+	
 	private MultimapFactories() {
 		// Prevents instantiation.
 	}
@@ -0,0 +1,564 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.util.Maybe;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The {@link PersistentHashMap} class implements immutable hash maps with structural sharing.
+ * <p>
+ * The bindings are stored in a hash array mapped trie: each level of the trie consumes 5 bits of the hash codes of the keys and its nodes only allocate the
+ * slots of their present children, which are located using a bitmap. Updates copy the path from the root to the updated binding only and share the rest of
+ * the trie with the original map, so reading, putting and removing bindings take a time proportional to log<sub>32</sub>(n).
+ * <p>
+ * The keys must implement {@link Object#hashCode()} and {@link Object#equals(Object)} consistently. The <code>null</code> key and values are supported.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @see HashTrieMap
+ * @since 2.0
+ */
+public final class PersistentHashMap<K, V> {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	
+	private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(0, new BitmapNode(0, new Object[0]));
+	
+	/**
+	 * Builds an empty map.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+	
+	/**
+	 * Builds a map containing the bindings of the given map.
+	 * <p>
+	 * The bindings are shared in constant time when the given map is a {@link #asMap() view} of a persistent hash map or a {@link HashTrieMap}.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @param map Map containing the bindings of the map to build.
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentHashMap<K, V> fromMap(final Map<? extends K, ? extends V> map) {
+		assert null != map;
+		
+		if (map instanceof MapView) {
+			return ((MapView<K, V>) map).getMap();
+		} else if (map instanceof HashTrieMap) {
+			return ((HashTrieMap<K, V>) map).getMap();
+		} else {
+			return PersistentHashMap.<K, V>empty().putAll(map);
+		}
+	}
+	
+	private PersistentHashMap(final int size, final BitmapNode root) {
+		_size = size;
+		_root = root;
+	}
+	
+	// Trie.
+	
+	/** Number of bindings. */
+	private final int _size;
+	
+	/** Root node of the trie. */
+	private final BitmapNode _root;
+	
+	/**
+	 * The {@link Leaf} class represents the bindings of the trie.
+	 */
+	private static final class Leaf
+	extends AbstractMap.SimpleImmutableEntry<Object, Object> {
+		private static final long serialVersionUID = 1L;
+		
+		public final int hash;
+		
+		public Leaf(final int hash, final Object key, final Object value) {
+			super(key, value);
+			this.hash = hash;
+		}
+		
+		public boolean matches(final int keyHash, final Object key) {
+			return hash == keyHash && Objects.equals(getKey(), key);
+		}
+	}
+	
+	/**
+	 * The {@link BitmapNode} class represents the nodes of the trie.
+	 * <p>
+	 * The children are {@link Leaf leaves} or nodes.
+	 */
+	private static final class BitmapNode {
+		public final int bitmap;
+		public final Object[] children;
+		
+		public BitmapNode(final int bitmap, final Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+		
+		public int index(final int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+	}
+	
+	/**
+	 * The {@link CollisionNode} class represents the nodes of the trie containing the bindings whose keys have the same hash code.
+	 */
+	private static final class CollisionNode {
+		public final int hash;
+		public final Leaf[] leaves;
+		
+		public CollisionNode(final int hash, final Leaf[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+		
+		public int indexOf(final Object key) {
+			for (int i = 0; i < leaves.length; i += 1) {
+				if (Objects.equals(leaves[i].getKey(), key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+	
+	private static int hash(final Object key) {
+		final int hash = Objects.hashCode(key);
+		return hash ^ (hash >>> 16);
+	}
+	
+	private static int bit(final int hash, final int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+	
+	private Leaf find(final Object key) {
+		final int hash = hash(key);
+		Object node = _root;
+		int shift = 0;
+		while (true) {
+			if (node instanceof BitmapNode) {
+				final BitmapNode bitmapNode = (BitmapNode) node;
+				final int bit = bit(hash, shift);
+				if (0 == (bitmapNode.bitmap & bit)) {
+					return null;
+				}
+				node = bitmapNode.children[bitmapNode.index(bit)];
+				shift += BITS;
+			} else if (node instanceof Leaf) {
+				final Leaf leaf = (Leaf) node;
+				return leaf.matches(hash, key) ? leaf : null;
+			} else {
+				final CollisionNode collisionNode = (CollisionNode) node;
+				final int index = hash == collisionNode.hash ? collisionNode.indexOf(key) : -1;
+				return index >= 0 ? collisionNode.leaves[index] : null;
+			}
+		}
+	}
+	
+	// Bindings.
+	
+	/**
+	 * Gets the number of bindings of this map.
+	 * 
+	 * @return The number of bindings.
+	 * @since 2.0
+	 */
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * Indicates whether this map is empty.
+	 * 
+	 * @return <code>true</code> when the map contains no bindings, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean isEmpty() {
+		return 0 == _size;
+	}
+	
+	/**
+	 * Indicates whether this map contains a binding for the given key.
+	 * 
+	 * @param key Key of the binding.
+	 * @return <code>true</code> when the map contains a binding for the key, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean containsKey(final Object key) {
+		return null != find(key);
+	}
+	
+	/**
+	 * Gets the value associated to the given key in this map.
+	 * 
+	 * @param key Key of the binding.
+	 * @return The associated value, or nothing when the map contains no bindings for the key.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public Maybe<V> get(final Object key) {
+		final Leaf leaf = find(key);
+		return null != leaf ? Maybe.some((V) leaf.getValue()) : Maybe.<V>none();
+	}
+	
+	/**
+	 * Gets the value associated to the given key in this map.
+	 * 
+	 * @param key Key of the binding.
+	 * @param defaultValue Value to return when the map contains no bindings for the key.
+	 * @return The associated value, or the given default value when the map contains no bindings for the key.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(final Object key, final V defaultValue) {
+		final Leaf leaf = find(key);
+		return null != leaf ? (V) leaf.getValue() : defaultValue;
+	}
+	
+	/**
+	 * Builds a map containing the bindings of this map and a binding of the given key to the given value.
+	 * <p>
+	 * The binding replaces any binding of the key in this map.
+	 * 
+	 * @param key Key of the binding.
+	 * @param value Value of the binding.
+	 * @return The built map, or this map when it already contains the binding.
+	 * @since 2.0
+	 */
+	public PersistentHashMap<K, V> put(final K key, final V value) {
+		final boolean[] added = new boolean[1];
+		final BitmapNode root = (BitmapNode) put(_root, 0, new Leaf(hash(key), key, value), added);
+		return root == _root ? this : new PersistentHashMap<>(added[0] ? _size + 1 : _size, root);
+	}
+	
+	private static Object put(final Object node, final int shift, final Leaf leaf, final boolean[] added) {
+		if (node instanceof BitmapNode) {
+			final BitmapNode bitmapNode = (BitmapNode) node;
+			final int bit = bit(leaf.hash, shift);
+			final int index = bitmapNode.index(bit);
+			if (0 == (bitmapNode.bitmap & bit)) {
+				// Insert the leaf.
+				final Object[] children = new Object[bitmapNode.children.length + 1];
+				System.arraycopy(bitmapNode.children, 0, children, 0, index);
+				children[index] = leaf;
+				System.arraycopy(bitmapNode.children, index, children, index + 1, bitmapNode.children.length - index);
+				added[0] = true;
+				return new BitmapNode(bitmapNode.bitmap | bit, children);
+			} else {
+				// Update the child.
+				final Object child = bitmapNode.children[index];
+				final Object newChild = put(child, shift + BITS, leaf, added);
+				if (newChild == child) {
+					return node;
+				}
+				final Object[] children = bitmapNode.children.clone();
+				children[index] = newChild;
+				return new BitmapNode(bitmapNode.bitmap, children);
+			}
+		} else if (node instanceof Leaf) {
+			final Leaf currentLeaf = (Leaf) node;
+			if (currentLeaf.matches(leaf.hash, leaf.getKey())) {
+				// Replace the leaf.
+				return currentLeaf.getValue() == leaf.getValue() ? node : leaf;
+			} else {
+				// Split the leaf.
+				added[0] = true;
+				return merge(shift, currentLeaf, leaf);
+			}
+		} else {
+			final CollisionNode collisionNode = (CollisionNode) node;
+			if (leaf.hash == collisionNode.hash) {
+				final int index = collisionNode.indexOf(leaf.getKey());
+				if (index < 0) {
+					// Add the leaf.
+					final Leaf[] leaves = Arrays.copyOf(collisionNode.leaves, collisionNode.leaves.length + 1);
+					leaves[collisionNode.leaves.length] = leaf;
+					added[0] = true;
+					return new CollisionNode(collisionNode.hash, leaves);
+				} else if (collisionNode.leaves[index].getValue() == leaf.getValue()) {
+					return node;
+				} else {
+					// Replace the leaf.
+					final Leaf[] leaves = collisionNode.leaves.clone();
+					leaves[index] = leaf;
+					return new CollisionNode(collisionNode.hash, leaves);
+				}
+			} else {
+				// Nest the collision node.
+				final BitmapNode bitmapNode = new BitmapNode(bit(collisionNode.hash, shift), new Object[] { collisionNode });
+				return put(bitmapNode, shift, leaf, added);
+			}
+		}
+	}
+	
+	private static Object merge(final int shift, final Leaf leaf1, final Leaf leaf2) {
+		if (leaf1.hash == leaf2.hash) {
+			return new CollisionNode(leaf1.hash, new Leaf[] { leaf1, leaf2 });
+		}
+		
+		final int bit1 = bit(leaf1.hash, shift);
+		final int bit2 = bit(leaf2.hash, shift);
+		if (bit1 == bit2) {
+			return new BitmapNode(bit1, new Object[] { merge(shift + BITS, leaf1, leaf2) });
+		} else {
+			return new BitmapNode(bit1 | bit2, Integer.compareUnsigned(bit1, bit2) < 0 ? new Object[] { leaf1, leaf2 } : new Object[] { leaf2, leaf1 });
+		}
+	}
+	
+	/**
+	 * Builds a map containing the bindings of this map and the bindings of the given map.
+	 * 
+	 * @param map Map containing the bindings to put.
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	public PersistentHashMap<K, V> putAll(final Map<? extends K, ? extends V> map) {
+		PersistentHashMap<K, V> result = this;
+		for (final Map.Entry<? extends K, ? extends V> binding : map.entrySet()) {
+			result = result.put(binding.getKey(), binding.getValue());
+		}
+		return result;
+	}
+	
+	/**
+	 * Builds a map containing the bindings of this map except the binding of the given key.
+	 * 
+	 * @param key Key of the binding to remove.
+	 * @return The built map, or this map when it contains no bindings for the key.
+	 * @since 2.0
+	 */
+	public PersistentHashMap<K, V> remove(final Object key) {
+		final Object root = remove(_root, 0, hash(key), key);
+		if (root == _root) {
+			return this;
+		} else if (null == root) {
+			return empty();
+		} else if (root instanceof BitmapNode) {
+			return new PersistentHashMap<>(_size - 1, (BitmapNode) root);
+		} else {
+			// Note: the root must be a bitmap node.
+			return new PersistentHashMap<>(_size - 1, new BitmapNode(bit(hash(((Leaf) root).getKey()), 0), new Object[] { root }));
+		}
+	}
+	
+	/**
+	 * Removes the binding of the given key from the given node.
+	 * <p>
+	 * The nodes containing a single leaf are collapsed into the leaf.
+	 * 
+	 * @return The given node when it contains no bindings for the key, <code>null</code> when the resulting node is empty, or the resulting node or leaf.
+	 */
+	private static Object remove(final Object node, final int shift, final int hash, final Object key) {
+		if (node instanceof BitmapNode) {
+			final BitmapNode bitmapNode = (BitmapNode) node;
+			final int bit = bit(hash, shift);
+			if (0 == (bitmapNode.bitmap & bit)) {
+				return node;
+			}
+			final int index = bitmapNode.index(bit);
+			final Object child = bitmapNode.children[index];
+			final Object newChild = remove(child, shift + BITS, hash, key);
+			if (newChild == child) {
+				return node;
+			} else if (null != newChild) {
+				// Update the child.
+				if (1 == bitmapNode.children.length && newChild instanceof Leaf) {
+					return newChild;
+				}
+				final Object[] children = bitmapNode.children.clone();
+				children[index] = newChild;
+				return new BitmapNode(bitmapNode.bitmap, children);
+			} else if (1 == bitmapNode.children.length) {
+				return null;
+			} else if (2 == bitmapNode.children.length && bitmapNode.children[1 - index] instanceof Leaf) {
+				return bitmapNode.children[1 - index];
+			} else {
+				// Remove the child.
+				final Object[] children = new Object[bitmapNode.children.length - 1];
+				System.arraycopy(bitmapNode.children, 0, children, 0, index);
+				System.arraycopy(bitmapNode.children, index + 1, children, index, children.length - index);
+				return new BitmapNode(bitmapNode.bitmap ^ bit, children);
+			}
+		} else if (node instanceof Leaf) {
+			return ((Leaf) node).matches(hash, key) ? null : node;
+		} else {
+			final CollisionNode collisionNode = (CollisionNode) node;
+			final int index = hash == collisionNode.hash ? collisionNode.indexOf(key) : -1;
+			if (index < 0) {
+				return node;
+			} else if (2 == collisionNode.leaves.length) {
+				return collisionNode.leaves[1 - index];
+			} else {
+				final Leaf[] leaves = new Leaf[collisionNode.leaves.length - 1];
+				System.arraycopy(collisionNode.leaves, 0, leaves, 0, index);
+				System.arraycopy(collisionNode.leaves, index + 1, leaves, index, leaves.length - index);
+				return new CollisionNode(collisionNode.hash, leaves);
+			}
+		}
+	}
+	
+	// Iteration.
+	
+	private Iterator<Map.Entry<K, V>> bindingIterator() {
+		return new Iterator<Map.Entry<K, V>>() {
+			// Note: the trie is at most 7 levels deep.
+			private final Object[][] _nodes = new Object[8][];
+			private final int[] _indexes = new int[8];
+			private int _depth = 0;
+			private Leaf _next;
+			
+			{
+				_nodes[0] = _root.children;
+				_next = advance();
+			}
+			
+			private Leaf advance() {
+				while (_depth >= 0) {
+					final Object[] children = _nodes[_depth];
+					if (_indexes[_depth] >= children.length) {
+						_depth -= 1;
+						continue;
+					}
+					final Object child = children[_indexes[_depth]];
+					_indexes[_depth] += 1;
+					if (child instanceof Leaf) {
+						return (Leaf) child;
+					}
+					_depth += 1;
+					_nodes[_depth] = child instanceof BitmapNode ? ((BitmapNode) child).children : ((CollisionNode) child).leaves;
+					_indexes[_depth] = 0;
+				}
+				return null;
+			}
+			
+			@Override
+			public boolean hasNext() {
+				return null != _next;
+			}
+			
+			@Override
+			@SuppressWarnings("unchecked")
+			public Map.Entry<K, V> next()
+			throws NoSuchElementException {
+				if (null == _next) {
+					throw new NoSuchElementException();
+				}
+				
+				final Leaf leaf = _next;
+				_next = advance();
+				return (Map.Entry<K, V>) (Map.Entry<?, ?>) leaf;
+			}
+		};
+	}
+	
+	// Views.
+	
+	/**
+	 * Builds an unmodifiable view of this persistent map as a map.
+	 * 
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	public Map<K, V> asMap() {
+		return new MapView<>(this);
+	}
+	
+	private static final class MapView<K, V>
+	extends AbstractMap<K, V> {
+		private final PersistentHashMap<K, V> _map;
+		
+		public MapView(final PersistentHashMap<K, V> map) {
+			_map = map;
+		}
+		
+		public PersistentHashMap<K, V> getMap() {
+			return _map;
+		}
+		
+		@Override
+		public int size() {
+			return _map.size();
+		}
+		
+		@Override
+		public boolean containsKey(final Object key) {
+			return _map.containsKey(key);
+		}
+		
+		@Override
+		public V get(final Object key) {
+			return _map.get(key, null);
+		}
+		
+		@Override
+		public Set<Map.Entry<K, V>> entrySet() {
+			return new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public int size() {
+					return _map.size();
+				}
+				
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return _map.bindingIterator();
+				}
+			};
+		}
+	}
+	
+	// Object.
+	
+	@Override
+	public int hashCode() {
+		return asMap().hashCode();
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		} else if (null != object && getClass().equals(object.getClass())) {
+			return asMap().equals(((PersistentHashMap<?, ?>) object).asMap());
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return asMap().toString();
+	}
+}
@@ -0,0 +1,476 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The {@link PersistentVector} class implements immutable indexed sequences of elements with structural sharing.
+ * <p>
+ * The elements are stored in the leaves of a tree of arrays of 32 slots, plus a tail array holding the last elements. Updates copy the path from the root to
+ * the updated leaf only and share the rest of the tree with the original vector, so reading, replacing, appending and removing the last element take a time
+ * proportional to log<sub>32</sub>(n), which is bounded by 7 for any vector.
+ * 
+ * @param <E> Type of the elements.
+ * @see VectorList
+ * @since 2.0
+ */
+public final class PersistentVector<E>
+implements Iterable<E> {
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+	private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+	
+	/**
+	 * Builds an empty vector.
+	 * 
+	 * @param <E> Type of the elements.
+	 * @return The built vector.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentVector<E> empty() {
+		return (PersistentVector<E>) EMPTY;
+	}
+	
+	/**
+	 * Builds a vector containing the given elements.
+	 * 
+	 * @param <E> Type of the elements.
+	 * @param elements Elements of the vector to build.
+	 * @return The built vector.
+	 * @since 2.0
+	 */
+	@SafeVarargs
+	public static <E> PersistentVector<E> fromElements(final E... elements) {
+		assert null != elements;
+		
+		return fromArray(Arrays.copyOf(elements, elements.length, Object[].class));
+	}
+	
+	/**
+	 * Builds a vector containing the elements provided by the given iterable.
+	 * <p>
+	 * The vector is shared in constant time when the iterable is a persistent vector, a {@link #asList() view} of a persistent vector or a {@link VectorList}.
+	 * 
+	 * @param <E> Type of the elements.
+	 * @param iterable Iterable providing the elements of the vector to build.
+	 * @return The built vector.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentVector<E> fromIterable(final Iterable<? extends E> iterable) {
+		assert null != iterable;
+		
+		if (iterable instanceof PersistentVector) {
+			return (PersistentVector<E>) iterable;
+		} else if (iterable instanceof ListView) {
+			return ((ListView<E>) iterable).getVector();
+		} else if (iterable instanceof VectorList) {
+			return ((VectorList<E>) iterable).getVector();
+		} else if (iterable instanceof Collection) {
+			return fromArray(((Collection<? extends E>) iterable).toArray());
+		} else {
+			return PersistentVector.<E>empty().appendAll(iterable);
+		}
+	}
+	
+	private static <E> PersistentVector<E> fromArray(final Object[] values) {
+		final int size = values.length;
+		if (0 == size) {
+			return empty();
+		}
+		
+		// Build the leaves.
+		final int tailOffset = computeTailOffset(size);
+		Object[][] nodes = new Object[tailOffset >>> BITS][];
+		for (int i = 0; i < nodes.length; i += 1) {
+			nodes[i] = Arrays.copyOfRange(values, i << BITS, (i + 1) << BITS);
+		}
+		
+		// Build the branches.
+		int shift = BITS;
+		while (nodes.length > WIDTH) {
+			final Object[][] parents = new Object[(nodes.length + MASK) >>> BITS][];
+			for (int i = 0; i < parents.length; i += 1) {
+				parents[i] = new Object[WIDTH];
+				System.arraycopy(nodes, i << BITS, parents[i], 0, Math.min(WIDTH, nodes.length - (i << BITS)));
+			}
+			nodes = parents;
+			shift += BITS;
+		}
+		final Object[] root = new Object[WIDTH];
+		System.arraycopy(nodes, 0, root, 0, nodes.length);
+		
+		return new PersistentVector<>(size, shift, root, Arrays.copyOfRange(values, tailOffset, size));
+	}
+	
+	private PersistentVector(final int size, final int shift, final Object[] root, final Object[] tail) {
+		_size = size;
+		_shift = shift;
+		_root = root;
+		_tail = tail;
+	}
+	
+	// Tree.
+	
+	/** Number of elements. */
+	private final int _size;
+	
+	/** Shift of the indexes at the root level. */
+	private final int _shift;
+	
+	/** Root node of the tree. */
+	private final Object[] _root;
+	
+	/** Last elements. */
+	private final Object[] _tail;
+	
+	private static int computeTailOffset(final int size) {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+	
+	private Object[] leafFor(final int index) {
+		if (index >= computeTailOffset(_size)) {
+			return _tail;
+		} else {
+			Object[] node = _root;
+			for (int level = _shift; level > 0; level -= BITS) {
+				node = (Object[]) node[(index >>> level) & MASK];
+			}
+			return node;
+		}
+	}
+	
+	// Elements.
+	
+	/**
+	 * Gets the number of elements of this vector.
+	 * 
+	 * @return The number of elements.
+	 * @since 2.0
+	 */
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * Indicates whether this vector is empty.
+	 * 
+	 * @return <code>true</code> when the vector contains no elements, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	public boolean isEmpty() {
+		return 0 == _size;
+	}
+	
+	/**
+	 * Gets the element of this vector at the given index.
+	 * 
+	 * @param index Index of the element to get.
+	 * @return The element.
+	 * @throws IndexOutOfBoundsException When the index is out of the bounds of the vector.
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(final int index)
+	throws IndexOutOfBoundsException {
+		checkIndex(index);
+		
+		return (E) leafFor(index)[index & MASK];
+	}
+	
+	/**
+	 * Builds a vector containing the elements of this vector, where the element at the given index is replaced by the given element.
+	 * 
+	 * @param index Index of the element to replace.
+	 * @param element Replacing element.
+	 * @return The built vector.
+	 * @throws IndexOutOfBoundsException When the index is out of the bounds of the vector.
+	 * @since 2.0
+	 */
+	public PersistentVector<E> set(final int index, final E element)
+	throws IndexOutOfBoundsException {
+		checkIndex(index);
+		
+		if (index >= computeTailOffset(_size)) {
+			final Object[] tail = _tail.clone();
+			tail[index & MASK] = element;
+			return new PersistentVector<>(_size, _shift, _root, tail);
+		} else {
+			return new PersistentVector<>(_size, _shift, set(_shift, _root, index, element), _tail);
+		}
+	}
+	
+	private static Object[] set(final int level, final Object[] node, final int index, final Object element) {
+		final Object[] result = node.clone();
+		if (0 == level) {
+			result[index & MASK] = element;
+		} else {
+			final int subIndex = (index >>> level) & MASK;
+			result[subIndex] = set(level - BITS, (Object[]) node[subIndex], index, element);
+		}
+		return result;
+	}
+	
+	/**
+	 * Builds a vector containing the elements of this vector followed by the given element.
+	 * 
+	 * @param element Element to append.
+	 * @return The built vector.
+	 * @since 2.0
+	 */
+	public PersistentVector<E> append(final E element) {
+		// Append to the tail.
+		if (_size - computeTailOffset(_size) < WIDTH) {
+			final Object[] tail = Arrays.copyOf(_tail, _tail.length + 1);
+			tail[_tail.length] = element;
+			return new PersistentVector<>(_size + 1, _shift, _root, tail);
+		}
+		
+		// Push the full tail into the tree.
+		final Object[] root;
+		final int shift;
+		if ((_size >>> BITS) > (1 << _shift)) {
+			// Note: the tree is full.
+			root = new Object[WIDTH];
+			root[0] = _root;
+			root[1] = buildPath(_shift, _tail);
+			shift = _shift + BITS;
+		} else {
+			root = pushTail(_shift, _root, _tail);
+			shift = _shift;
+		}
+		return new PersistentVector<>(_size + 1, shift, root, new Object[] { element });
+	}
+	
+	private Object[] pushTail(final int level, final Object[] node, final Object[] tail) {
+		final int subIndex = ((_size - 1) >>> level) & MASK;
+		final Object[] result = node.clone();
+		if (BITS == level) {
+			result[subIndex] = tail;
+		} else {
+			final Object[] child = (Object[]) node[subIndex];
+			result[subIndex] = null != child ? pushTail(level - BITS, child, tail) : buildPath(level - BITS, tail);
+		}
+		return result;
+	}
+	
+	private static Object[] buildPath(final int level, final Object[] leaf) {
+		if (0 == level) {
+			return leaf;
+		} else {
+			final Object[] result = new Object[WIDTH];
+			result[0] = buildPath(level - BITS, leaf);
+			return result;
+		}
+	}
+	
+	/**
+	 * Builds a vector containing the elements of this vector followed by the elements provided by the given iterable.
+	 * 
+	 * @param elements Iterable providing the elements to append.
+	 * @return The built vector.
+	 * @since 2.0
+	 */
+	public PersistentVector<E> appendAll(final Iterable<? extends E> elements) {
+		PersistentVector<E> result = this;
+		for (final E element : elements) {
+			result = result.append(element);
+		}
+		return result;
+	}
+	
+	/**
+	 * Builds a vector containing the elements of this vector without its last element.
+	 * 
+	 * @return The built vector.
+	 * @throws NoSuchElementException When the vector is empty.
+	 * @since 2.0
+	 */
+	public PersistentVector<E> removeLast()
+	throws NoSuchElementException {
+		if (0 == _size) {
+			throw new NoSuchElementException();
+		} else if (1 == _size) {
+			return empty();
+		}
+		
+		// Remove from the tail.
+		if (_size - computeTailOffset(_size) > 1) {
+			return new PersistentVector<>(_size - 1, _shift, _root, Arrays.copyOf(_tail, _tail.length - 1));
+		}
+		
+		// Pop the last leaf of the tree as the new tail.
+		final Object[] tail = leafFor(_size - 2);
+		Object[] root = popTail(_shift, _root);
+		int shift = _shift;
+		if (null == root) {
+			root = EMPTY_NODE;
+		} else if (shift > BITS && null == root[1]) {
+			// Note: the root has a single child.
+			root = (Object[]) root[0];
+			shift -= BITS;
+		}
+		return new PersistentVector<>(_size - 1, shift, root, tail);
+	}
+	
+	private Object[] popTail(final int level, final Object[] node) {
+		final int subIndex = ((_size - 2) >>> level) & MASK;
+		if (level > BITS) {
+			final Object[] child = popTail(level - BITS, (Object[]) node[subIndex]);
+			if (null == child && 0 == subIndex) {
+				return null;
+			} else {
+				final Object[] result = node.clone();
+				result[subIndex] = child;
+				return result;
+			}
+		} else if (0 == subIndex) {
+			return null;
+		} else {
+			final Object[] result = node.clone();
+			result[subIndex] = null;
+			return result;
+		}
+	}
+	
+	private void checkIndex(final int index)
+	throws IndexOutOfBoundsException {
+		if (index < 0 || index >= _size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+		}
+	}
+	
+	// Iterable.
+	
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int _index = 0;
+			private Object[] _leaf = null;
+			
+			@Override
+			public boolean hasNext() {
+				return _index < _size;
+			}
+			
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next()
+			throws NoSuchElementException {
+				if (_index >= _size) {
+					throw new NoSuchElementException();
+				}
+				
+				if (0 == (_index & MASK)) {
+					_leaf = leafFor(_index);
+				}
+				final E element = (E) _leaf[_index & MASK];
+				_index += 1;
+				return element;
+			}
+		};
+	}
+	
+	// Views.
+	
+	/**
+	 * Builds an unmodifiable view of this vector as a list.
+	 * 
+	 * @return The built list.
+	 * @since 2.0
+	 */
+	public List<E> asList() {
+		return new ListView<>(this);
+	}
+	
+	private static final class ListView<E>
+	extends AbstractList<E>
+	implements RandomAccess {
+		private final PersistentVector<E> _vector;
+		
+		public ListView(final PersistentVector<E> vector) {
+			_vector = vector;
+		}
+		
+		public PersistentVector<E> getVector() {
+			return _vector;
+		}
+		
+		@Override
+		public int size() {
+			return _vector.size();
+		}
+		
+		@Override
+		public E get(final int index) {
+			return _vector.get(index);
+		}
+		
+		@Override
+		public Iterator<E> iterator() {
+			return _vector.iterator();
+		}
+	}
+	
+	// Object.
+	
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (final E element : this) {
+			result = 31 * result + Objects.hashCode(element);
+		}
+		return result;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if (this == object) {
+			return true;
+		} else if (null != object && getClass().equals(object.getClass())) {
+			final PersistentVector<?> vector = (PersistentVector<?>) object;
+			if (_size != vector._size) {
+				return false;
+			}
+			final Iterator<?> elements = vector.iterator();
+			for (final E element : this) {
+				if (!Objects.equals(element, elements.next())) {
+					return false;
+				}
+			}
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return asList().toString();
+	}
+}
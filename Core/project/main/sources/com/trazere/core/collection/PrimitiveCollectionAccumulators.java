@@ -0,0 +1,239 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.Accumulator;
+import com.trazere.core.imperative.Accumulator2;
+import com.trazere.core.imperative.IntAccumulator;
+import com.trazere.core.imperative.LongAccumulator;
+
+/**
+ * The {@link PrimitiveCollectionAccumulators} class provides various factories of accumulators related to primitive collections.
+ * <p>
+ * The boxed accumulators adapt the primitive collections to the utilities that accumulate boxed values, they only unbox the values.
+ * 
+ * @see IntAccumulator
+ * @see LongAccumulator
+ * @see Accumulator
+ * @since 2.0
+ */
+public class PrimitiveCollectionAccumulators {
+	/**
+	 * Builds an accumulator that adds <code>int</code> values to the given collection.
+	 * 
+	 * @param <C> Type of the collection.
+	 * @param collection Collection to populate.
+	 * @return The built accumulator.
+	 * @see IntCollection#add(int)
+	 * @since 2.0
+	 */
+	public static <C extends IntCollection> IntAccumulator<C> add(final C collection) {
+		assert null != collection;
+		
+		return new IntAccumulator<C>() {
+			@Override
+			public void add(final int value) {
+				collection.add(value);
+			}
+			
+			@Override
+			public C get() {
+				return collection;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that adds boxed <code>int</code> values to the given collection.
+	 * 
+	 * @param <C> Type of the collection.
+	 * @param collection Collection to populate.
+	 * @return The built accumulator.
+	 * @see IntCollection#add(int)
+	 * @since 2.0
+	 */
+	public static <C extends IntCollection> Accumulator<Integer, C> addBoxed(final C collection) {
+		assert null != collection;
+		
+		return new Accumulator<Integer, C>() {
+			@Override
+			public void add(final Integer value) {
+				collection.add(value.intValue());
+			}
+			
+			@Override
+			public C get() {
+				return collection;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that puts bindings with boxed keys and values into the given map.
+	 * 
+	 * @param <M> Type of the map.
+	 * @param map Map to populate.
+	 * @return The built accumulator.
+	 * @see IntIntHashMap#put(int, int)
+	 * @since 2.0
+	 */
+	public static <M extends IntIntHashMap> Accumulator2<Integer, Integer, M> putBoxed(final M map) {
+		assert null != map;
+		
+		return new Accumulator2<Integer, Integer, M>() {
+			@Override
+			public void add(final Integer key, final Integer value) {
+				map.put(key.intValue(), value.intValue());
+			}
+			
+			@Override
+			public M get() {
+				return map;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that puts bindings with boxed keys into the given map.
+	 * 
+	 * @param <V> Type of the values.
+	 * @param <M> Type of the map.
+	 * @param map Map to populate.
+	 * @return The built accumulator.
+	 * @see IntObjectHashMap#put(int, Object)
+	 * @since 2.0
+	 */
+	public static <V, M extends IntObjectHashMap<? super V>> Accumulator2<Integer, V, M> putBoxed(final M map) {
+		assert null != map;
+		
+		return new Accumulator2<Integer, V, M>() {
+			@Override
+			public void add(final Integer key, final V value) {
+				map.put(key.intValue(), value);
+			}
+			
+			@Override
+			public M get() {
+				return map;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that adds <code>long</code> values to the given collection.
+	 * 
+	 * @param <C> Type of the collection.
+	 * @param collection Collection to populate.
+	 * @return The built accumulator.
+	 * @see LongCollection#add(long)
+	 * @since 2.0
+	 */
+	public static <C extends LongCollection> LongAccumulator<C> add(final C collection) {
+		assert null != collection;
+		
+		return new LongAccumulator<C>() {
+			@Override
+			public void add(final long value) {
+				collection.add(value);
+			}
+			
+			@Override
+			public C get() {
+				return collection;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that adds boxed <code>long</code> values to the given collection.
+	 * 
+	 * @param <C> Type of the collection.
+	 * @param collection Collection to populate.
+	 * @return The built accumulator.
+	 * @see LongCollection#add(long)
+	 * @since 2.0
+	 */
+	public static <C extends LongCollection> Accumulator<Long, C> addBoxed(final C collection) {
+		assert null != collection;
+		
+		return new Accumulator<Long, C>() {
+			@Override
+			public void add(final Long value) {
+				collection.add(value.longValue());
+			}
+			
+			@Override
+			public C get() {
+				return collection;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that puts bindings with boxed keys and values into the given map.
+	 * 
+	 * @param <M> Type of the map.
+	 * @param map Map to populate.
+	 * @return The built accumulator.
+	 * @see LongLongHashMap#put(long, long)
+	 * @since 2.0
+	 */
+	public static <M extends LongLongHashMap> Accumulator2<Long, Long, M> putBoxed(final M map) {
+		assert null != map;
+		
+		return new Accumulator2<Long, Long, M>() {
+			@Override
+			public void add(final Long key, final Long value) {
+				map.put(key.longValue(), value.longValue());
+			}
+			
+			@Override
+			public M get() {
+				return map;
+			}
+		};
+	}
+	
+	/**
+	 * Builds an accumulator that puts bindings with boxed keys into the given map.
+	 * 
+	 * @param <V> Type of the values.
+	 * @param <M> Type of the map.
+	 * @param map Map to populate.
+	 * @return The built accumulator.
+	 * @see LongObjectHashMap#put(long, Object)
+	 * @since 2.0
+	 */
+	public static <V, M extends LongObjectHashMap<? super V>> Accumulator2<Long, V, M> putBoxed(final M map) {
+		assert null != map;
+		
+		return new Accumulator2<Long, V, M>() {
+			@Override
+			public void add(final Long key, final V value) {
+				map.put(key.longValue(), value);
+			}
+			
+			@Override
+			public M get() {
+				return map;
+			}
+		};
+	}
+	
+	private PrimitiveCollectionAccumulators() {
+		// Prevent instantiation.
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+/**
+ * The {@link PrimitiveCollectionFactories} class provides various factories of factories of primitive collections.
+ * 
+ * @see IntCollectionFactory
+ * @see LongCollectionFactory
+ * @since 2.0
+ */
+public class PrimitiveCollectionFactories {
+	/**
+	 * Builds a factory of {@link IntArrayList}s.
+	 * 
+	 * @return The built factory.
+	 * @see IntArrayList
+	 * @since 2.0
+	 */
+	public static IntCollectionFactory<IntArrayList> intArrayList() {
+		return INT_ARRAY_LIST;
+	}
+	
+	private static final IntCollectionFactory<IntArrayList> INT_ARRAY_LIST = new IntCollectionFactory<IntArrayList>() {
+		@Override
+		public IntArrayList build() {
+			return new IntArrayList();
+		}
+		
+		@Override
+		public IntArrayList build(final int capacity) {
+			return new IntArrayList(capacity);
+		}
+		
+		@Override
+		public IntArrayList build(final int... values) {
+			return new IntArrayList(values);
+		}
+	};
+	
+	/**
+	 * Builds a factory of {@link IntHashSet}s.
+	 * 
+	 * @return The built factory.
+	 * @see IntHashSet
+	 * @since 2.0
+	 */
+	public static IntCollectionFactory<IntHashSet> intHashSet() {
+		return INT_HASH_SET;
+	}
+	
+	private static final IntCollectionFactory<IntHashSet> INT_HASH_SET = new IntCollectionFactory<IntHashSet>() {
+		@Override
+		public IntHashSet build() {
+			return new IntHashSet();
+		}
+		
+		@Override
+		public IntHashSet build(final int capacity) {
+			return new IntHashSet(capacity);
+		}
+	};
+	
+	/**
+	 * Builds a factory of {@link LongArrayList}s.
+	 * 
+	 * @return The built factory.
+	 * @see LongArrayList
+	 * @since 2.0
+	 */
+	public static LongCollectionFactory<LongArrayList> longArrayList() {
+		return LONG_ARRAY_LIST;
+	}
+	
+	private static final LongCollectionFactory<LongArrayList> LONG_ARRAY_LIST = new LongCollectionFactory<LongArrayList>() {
+		@Override
+		public LongArrayList build() {
+			return new LongArrayList();
+		}
+		
+		@Override
+		public LongArrayList build(final int capacity) {
+			return new LongArrayList(capacity);
+		}
+		
+		@Override
+		public LongArrayList build(final long... values) {
+			return new LongArrayList(values);
+		}
+	};
+	
+	/**
+	 * Builds a factory of {@link LongHashSet}s.
+	 * 
+	 * @return The built factory.
+	 * @see LongHashSet
+	 * @since 2.0
+	 */
+	public static LongCollectionFactory<LongHashSet> longHashSet() {
+		return LONG_HASH_SET;
+	}
+	
+	private static final LongCollectionFactory<LongHashSet> LONG_HASH_SET = new LongCollectionFactory<LongHashSet>() {
+		@Override
+		public LongHashSet build() {
+			return new LongHashSet();
+		}
+		
+		@Override
+		public LongHashSet build(final int capacity) {
+			return new LongHashSet(capacity);
+		}
+	};
+	
+	private PrimitiveCollectionFactories() {
+		// Prevent instantiation.
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+/**
+ * The {@link PrimitiveHashing} class provides utilities regarding the open addressing hash tables of the primitive collections.
+ * 
+ * @since 2.0
+ */
+class PrimitiveHashing {
+	/**
+	 * Minimum number of slots of the tables.
+	 */
+	private static final int MIN_LENGTH = 4;
+	
+	/**
+	 * Maximum number of slots of the tables.
+	 */
+	private static final int MAX_LENGTH = 1 << 30;
+	
+	/**
+	 * Computes the number of slots of a table able to hold the given number of entries without growing.
+	 * 
+	 * @param capacity Number of entries.
+	 * @param loadFactor Maximum ratio of occupied slots.
+	 * @return The number of slots, a power of two.
+	 */
+	public static int tableLength(final int capacity, final float loadFactor) {
+		final long length = Math.max(MIN_LENGTH, (long) Math.ceil(capacity / loadFactor) + 1);
+		if (length > MAX_LENGTH) {
+			throw new IllegalArgumentException("Capacity " + capacity + " is too large");
+		}
+		return Integer.highestOneBit((int) length - 1) << 1;
+	}
+	
+	private PrimitiveHashing() {
+		// Prevent instantiation.
+	}
+}
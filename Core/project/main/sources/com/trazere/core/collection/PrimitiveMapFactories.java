@@ -0,0 +1,124 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+/**
+ * The {@link PrimitiveMapFactories} class provides various factories of {@link PrimitiveMapFactory factories of maps with primitive keys}.
+ * 
+ * @see PrimitiveMapFactory
+ * @since 2.0
+ */
+public class PrimitiveMapFactories {
+	/**
+	 * Builds a factory of {@link IntIntHashMap}s.
+	 * 
+	 * @return The built factory.
+	 * @see IntIntHashMap
+	 * @since 2.0
+	 */
+	public static PrimitiveMapFactory<IntIntHashMap> intIntHashMap() {
+		return INT_INT_HASH_MAP;
+	}
+	
+	private static final PrimitiveMapFactory<IntIntHashMap> INT_INT_HASH_MAP = new PrimitiveMapFactory<IntIntHashMap>() {
+		@Override
+		public IntIntHashMap build() {
+			return new IntIntHashMap();
+		}
+		
+		@Override
+		public IntIntHashMap build(final int capacity) {
+			return new IntIntHashMap(capacity);
+		}
+	};
+	
+	/**
+	 * Builds a factory of {@link IntObjectHashMap}s.
+	 * 
+	 * @param <V> Type of the values.
+	 * @return The built factory.
+	 * @see IntObjectHashMap
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> PrimitiveMapFactory<IntObjectHashMap<V>> intObjectHashMap() {
+		return (PrimitiveMapFactory<IntObjectHashMap<V>>) INT_OBJECT_HASH_MAP;
+	}
+	
+	private static final PrimitiveMapFactory<?> INT_OBJECT_HASH_MAP = new PrimitiveMapFactory<IntObjectHashMap<Object>>() {
+		@Override
+		public IntObjectHashMap<Object> build() {
+			return new IntObjectHashMap<>();
+		}
+		
+		@Override
+		public IntObjectHashMap<Object> build(final int capacity) {
+			return new IntObjectHashMap<>(capacity);
+		}
+	};
+	
+	/**
+	 * Builds a factory of {@link LongLongHashMap}s.
+	 * 
+	 * @return The built factory.
+	 * @see LongLongHashMap
+	 * @since 2.0
+	 */
+	public static PrimitiveMapFactory<LongLongHashMap> longLongHashMap() {
+		return LONG_LONG_HASH_MAP;
+	}
+	
+	private static final PrimitiveMapFactory<LongLongHashMap> LONG_LONG_HASH_MAP = new PrimitiveMapFactory<LongLongHashMap>() {
+		@Override
+		public LongLongHashMap build() {
+			return new LongLongHashMap();
+		}
+		
+		@Override
+		public LongLongHashMap build(final int capacity) {
+			return new LongLongHashMap(capacity);
+		}
+	};
+	
+	/**
+	 * Builds a factory of {@link LongObjectHashMap}s.
+	 * 
+	 * @param <V> Type of the values.
+	 * @return The built factory.
+	 * @see LongObjectHashMap
+	 * @since 2.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> PrimitiveMapFactory<LongObjectHashMap<V>> longObjectHashMap() {
+		return (PrimitiveMapFactory<LongObjectHashMap<V>>) LONG_OBJECT_HASH_MAP;
+	}
+	
+	private static final PrimitiveMapFactory<?> LONG_OBJECT_HASH_MAP = new PrimitiveMapFactory<LongObjectHashMap<Object>>() {
+		@Override
+		public LongObjectHashMap<Object> build() {
+			return new LongObjectHashMap<>();
+		}
+		
+		@Override
+		public LongObjectHashMap<Object> build(final int capacity) {
+			return new LongObjectHashMap<>(capacity);
+		}
+	};
+	
+	private PrimitiveMapFactories() {
+		// Prevent instantiation.
+	}
+}
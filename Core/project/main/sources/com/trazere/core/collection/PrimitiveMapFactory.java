@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.design.Factory;
+
+/**
+ * The {@link PrimitiveMapFactory} interface defines factories of maps with primitive keys.
+ * 
+ * @param <M> Type of the maps.
+ * @see MapFactory
+ * @since 2.0
+ */
+public interface PrimitiveMapFactory<M>
+extends Factory<M> {
+	/**
+	 * Builds an empty map.
+	 * 
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	@Override
+	M build();
+	
+	/**
+	 * Builds an empty map with the given initial capacity.
+	 * 
+	 * @param capacity Initial capacity of the map.
+	 * @return The built map.
+	 * @since 2.0
+	 */
+	default M build(final int capacity) {
+		return build();
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.Procedure;
+import com.trazere.core.reactive.Future;
+import com.trazere.core.reactive.Promise;
+import com.trazere.core.util.Result;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The {@link TopologicalExecution} class represents executions of procedures over elements with dependencies.
+ * <p>
+ * The execution completes once all elements have been executed, or once the running elements have completed after some failure or cancellation. Its result
+ * provides the execution time of each element in completion order, or the first failure.
+ * 
+ * @param <E> Type of the elements.
+ * @see TopologicalExecutor
+ * @since 2.0
+ */
+public class TopologicalExecution<E> {
+	/**
+	 * Instantiates a new execution.
+	 * 
+	 * @param graph Dependency graph of the elements.
+	 * @param procedure Procedure to execute with the elements.
+	 * @param executor Executor running the elements.
+	 * @param parallelism Maximum number of elements running at the same time.
+	 */
+	TopologicalExecution(final TopologicalGraph<E> graph, final Procedure<? super E> procedure, final Executor executor, final int parallelism) {
+		assert null != graph;
+		assert null != procedure;
+		assert null != executor;
+		assert parallelism > 0;
+		
+		// Initialization.
+		_graph = graph;
+		_procedure = procedure;
+		_executor = executor;
+		_parallelism = parallelism;
+		_pendingCount = graph.getNodeCount();
+		_inDegrees = new int[_pendingCount];
+		for (int node = 0; node < _pendingCount; node += 1) {
+			_inDegrees[node] = graph.getInDegree(node);
+		}
+	}
+	
+	private final TopologicalGraph<E> _graph;
+	private final Procedure<? super E> _procedure;
+	private final Executor _executor;
+	private final int _parallelism;
+	
+	// State.
+	// Note: the state is guarded by the execution.
+	
+	/** Number of unexecuted dependencies of the nodes. */
+	private final int[] _inDegrees;
+	
+	/** Nodes ready to be executed, polled in traversal order. */
+	private final Queue<Integer> _readyNodes = new PriorityQueue<>();
+	
+	/** Indicates whether some thread is scheduling the ready nodes. */
+	private boolean _scheduling = false;
+	
+	/** Number of running nodes. */
+	private int _runningCount = 0;
+	
+	/** Number of nodes that have not been executed. */
+	private int _pendingCount;
+	
+	/** First failure, or <code>null</code>. */
+	private Throwable _failure = null;
+	
+	/** Execution times of the executed elements. */
+	private final Map<E, Duration> _timings = new LinkedHashMap<>();
+	
+	/** Promise of the result. */
+	private final Promise<Result<Map<E, Duration>>> _promise = new Promise<>();
+	
+	/**
+	 * Starts this execution.
+	 */
+	void start() {
+		synchronized (this) {
+			for (int node = 0; node < _inDegrees.length; node += 1) {
+				if (0 == _inDegrees[node]) {
+					_readyNodes.add(node);
+				}
+			}
+		}
+		if (0 == _inDegrees.length) {
+			complete();
+		} else {
+			schedule();
+		}
+	}
+	
+	/**
+	 * Cancels this execution.
+	 * <p>
+	 * The elements that are already running are not interrupted, but no other element is started. The execution then completes with a
+	 * {@link CancellationException}.
+	 * 
+	 * @since 2.0
+	 */
+	public void cancel() {
+		final boolean completed;
+		synchronized (this) {
+			if (null == _failure && _pendingCount > 0) {
+				_failure = new CancellationException("Cancelled execution");
+			}
+			completed = 0 == _runningCount;
+		}
+		if (completed) {
+			complete();
+		}
+	}
+	
+	/**
+	 * Gets the execution times of the elements executed so far by this execution.
+	 * 
+	 * @return A snapshot of the execution times of the elements, in completion order.
+	 * @since 2.0
+	 */
+	public synchronized Map<E, Duration> getTimings() {
+		return new LinkedHashMap<>(_timings);
+	}
+	
+	/**
+	 * Gets the future result of this execution.
+	 * <p>
+	 * The result is the execution time of each element in completion order when all elements succeed, or the first failure.
+	 * 
+	 * @return The future result.
+	 * @since 2.0
+	 */
+	public Future<Result<Map<E, Duration>>> getFuture() {
+		return _promise.getFuture();
+	}
+	
+	private void schedule() {
+		// Note: the nodes completed by a synchronous executor only queue their ready dependents, the outermost scheduling loop runs them so that the stack does
+		// not grow with the depth of the graph.
+		synchronized (this) {
+			if (_scheduling) {
+				return;
+			}
+			_scheduling = true;
+		}
+		
+		while (true) {
+			// Pick a ready node.
+			final int node;
+			synchronized (this) {
+				if (null != _failure || _runningCount >= _parallelism || _readyNodes.isEmpty()) {
+					_scheduling = false;
+					return;
+				}
+				node = _readyNodes.poll().intValue();
+				_runningCount += 1;
+			}
+			
+			// Run the node.
+			try {
+				_executor.execute(() -> run(node));
+			} catch (final RejectedExecutionException exception) {
+				completeNode(node, 0L, exception);
+			}
+		}
+	}
+	
+	private void run(final int node) {
+		final long start = System.nanoTime();
+		Throwable failure = null;
+		try {
+			_procedure.execute(_graph.getNode(node));
+		} catch (final RuntimeException | Error exception) {
+			failure = exception;
+		}
+		completeNode(node, System.nanoTime() - start, failure);
+	}
+	
+	private void completeNode(final int node, final long duration, final Throwable failure) {
+		final boolean completed;
+		synchronized (this) {
+			_runningCount -= 1;
+			if (null == failure) {
+				// Release the dependents.
+				_timings.put(_graph.getNode(node), Duration.ofNanos(duration));
+				_pendingCount -= 1;
+				_graph.foreachDependent(node, dependent -> {
+					_inDegrees[dependent] -= 1;
+					if (0 == _inDegrees[dependent]) {
+						_readyNodes.add(dependent);
+					}
+				});
+			} else if (null == _failure) {
+				_failure = failure;
+			}
+			completed = 0 == _runningCount && (null != _failure || 0 == _pendingCount);
+		}
+		if (completed) {
+			complete();
+		} else {
+			schedule();
+		}
+	}
+	
+	private void complete() {
+		final Result<Map<E, Duration>> result;
+		synchronized (this) {
+			result = null == _failure ? Result.success(Collections.unmodifiableMap(_timings)) : Result.failure(_failure);
+		}
+		_promise.fulfilIfNot(result);
+	}
+}
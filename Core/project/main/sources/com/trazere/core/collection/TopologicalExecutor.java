@@ -0,0 +1,141 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.functional.Function;
+import com.trazere.core.imperative.Procedure;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The {@link TopologicalExecutor} class implements executors of procedures over elements with dependencies.
+ * <p>
+ * Each element is executed by the underlying executor as soon as all its dependencies have been executed, without waiting for the other elements of its
+ * topological region. The number of elements executed at the same time is bounded by the parallelism of the executor.
+ * 
+ * @see ListUtils#topologicalRegionSort(java.util.Collection, Function, boolean, CollectionFactory, CollectionFactory)
+ * @see TopologicalExecution
+ * @since 2.0
+ */
+public class TopologicalExecutor {
+	/**
+	 * Instantiates a new executor running the elements in the given pool.
+	 * <p>
+	 * The parallelism of the executor is the parallelism of the pool.
+	 * 
+	 * @param pool Pool running the elements.
+	 * @since 2.0
+	 */
+	public TopologicalExecutor(final ForkJoinPool pool) {
+		this(pool, pool.getParallelism());
+	}
+	
+	/**
+	 * Instantiates a new executor.
+	 * 
+	 * @param executor Executor running the elements. May run them synchronously.
+	 * @param parallelism Maximum number of elements running at the same time. Must be strictly positive.
+	 * @since 2.0
+	 */
+	public TopologicalExecutor(final Executor executor, final int parallelism) {
+		assert null != executor;
+		
+		// Check the parallelism.
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("Parallelism " + parallelism + " must be positive");
+		}
+		
+		// Initialization.
+		_executor = executor;
+		_parallelism = parallelism;
+	}
+	
+	// Executor.
+	
+	/**
+	 * Executor running the elements.
+	 * 
+	 * @since 2.0
+	 */
+	protected final Executor _executor;
+	
+	/**
+	 * Gets the executor running the elements of this executor.
+	 * 
+	 * @return The executor.
+	 * @since 2.0
+	 */
+	public Executor getExecutor() {
+		return _executor;
+	}
+	
+	// Parallelism.
+	
+	/**
+	 * Maximum number of elements running at the same time.
+	 * 
+	 * @since 2.0
+	 */
+	protected final int _parallelism;
+	
+	/**
+	 * Gets the maximum number of elements running at the same time of this executor.
+	 * 
+	 * @return The parallelism.
+	 * @since 2.0
+	 */
+	public int getParallelism() {
+		return _parallelism;
+	}
+	
+	// Execution.
+	
+	/**
+	 * Executes the given procedure with the given elements in topological order.
+	 * <p>
+	 * The dependencies between the elements are computed using the given function. It must result to the elements whose the argument element depends on. The
+	 * procedure is executed once per distinct element, after it has been executed with all the dependencies of the element.
+	 * <p>
+	 * The depencency elements that does not belong to the elements to execute may be transitively included into the execution. The execution fails before
+	 * starting when the dependency graph is cyclic or when it includes dependency elements that are not included.
+	 * <p>
+	 * The execution stops starting new elements as soon as the procedure fails with some element or when it is cancelled.
+	 * 
+	 * @param <E> Type of the elements.
+	 * @param elements Elements to execute.
+	 * @param dependencies Function computing the dependencies.
+	 * @param includeDependencies Indicates whether the dependency elements that do not belong to the elements to execute should be included in the execution
+	 *        or not.
+	 * @param procedure Procedure to execute with the elements.
+	 * @return The started execution.
+	 * @throws IllegalArgumentException When there is a cycle in the dependency graph.
+	 * @throws IllegalArgumentException When some dependency element does not belong to the elements to execute and is not included into the execution.
+	 * @since 2.0
+	 */
+	public <E> TopologicalExecution<E> execute(final Iterable<? extends E> elements, final Function<? super E, ? extends Iterable<? extends E>> dependencies, final boolean includeDependencies, final Procedure<? super E> procedure)
+	throws IllegalArgumentException {
+		assert null != procedure;
+		
+		// Compute the dependencies.
+		final TopologicalGraph<E> graph = ListUtils.computeTopologicalGraph(elements, dependencies, includeDependencies);
+		graph.check();
+		
+		// Execute.
+		final TopologicalExecution<E> execution = new TopologicalExecution<>(graph, procedure, _executor, _parallelism);
+		execution.start();
+		return execution;
+	}
+}
@@ -0,0 +1,377 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.Accumulator;
+import com.trazere.core.imperative.Accumulators;
+import com.trazere.core.imperative.IntProcedure;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * The {@link TopologicalGraph} class implements dependency graphs that can be sorted topologically in time proportional to their number of elements and
+ * dependencies (Kahn's algorithm).
+ * <p>
+ * The elements are numbered in traversal order. Each traversed element is a position of the graph, and the positions of equal elements share the same node.
+ * The sorts are stable: they preserve the traversal order of the positions whenever the dependencies allow it.
+ * 
+ * @param <E> Type of the elements.
+ * @see ListUtils#topologicalSort(Iterable, com.trazere.core.functional.Function, boolean, CollectionFactory)
+ * @see ListUtils#topologicalRegionSort(java.util.Collection, com.trazere.core.functional.Function, boolean, CollectionFactory, CollectionFactory)
+ * @since 2.0
+ */
+class TopologicalGraph<E> {
+	// Nodes.
+	
+	/** Elements of the nodes. */
+	private final List<E> _nodes = new ArrayList<>();
+	
+	/** Identifiers of the nodes of the elements. */
+	private final Map<E, Integer> _nodeIds = new HashMap<>();
+	
+	/**
+	 * Adds the given traversed element to this graph.
+	 * 
+	 * @param element Element to add.
+	 * @since 2.0
+	 */
+	public void addElement(final E element) {
+		Integer node = _nodeIds.get(element);
+		if (null == node) {
+			node = _nodes.size();
+			_nodeIds.put(element, node);
+			_nodes.add(element);
+		}
+		_positionNodes.add(node.intValue());
+	}
+	
+	// Positions.
+	
+	/** Nodes of the positions. */
+	private final IntArrayList _positionNodes = new IntArrayList();
+	
+	/** First positions of the nodes, or <code>-1</code>. */
+	private int[] _firstPositions;
+	
+	/** Next positions of the same nodes, or <code>-1</code>. */
+	private int[] _nextPositions;
+	
+	// Dependencies.
+	
+	/** Depending nodes of the dependencies. */
+	private final IntArrayList _dependencyNodes = new IntArrayList();
+	
+	/** Depended elements of the dependencies. */
+	private final List<E> _dependencyElements = new ArrayList<>();
+	
+	/** Depended nodes of the dependencies, or <code>-1</code> for the external dependencies. */
+	private int[] _dependencyTargets;
+	
+	/** Number of dependencies of the nodes. */
+	private int[] _inDegrees;
+	
+	/** Offsets of the dependents of the nodes in {@link #_dependents}. */
+	private int[] _dependentOffsets;
+	
+	/** Depending nodes of the nodes, grouped by depended node. */
+	private int[] _dependents;
+	
+	/**
+	 * Adds the given dependency to this graph.
+	 * <p>
+	 * The depending element must have been added before.
+	 * 
+	 * @param element Depending element.
+	 * @param dependency Depended element.
+	 * @since 2.0
+	 */
+	public void addDependency(final E element, final E dependency) {
+		_dependencyNodes.add(_nodeIds.get(element).intValue());
+		_dependencyElements.add(dependency);
+	}
+	
+	/**
+	 * Indexes the elements and dependencies of this graph.
+	 * <p>
+	 * This method must be called once all elements and dependencies have been added, and before sorting.
+	 * 
+	 * @since 2.0
+	 */
+	public void index() {
+		final int nodeCount = _nodes.size();
+		final int positionCount = _positionNodes.size();
+		final int dependencyCount = _dependencyNodes.size();
+		
+		// Link the positions.
+		_firstPositions = new int[nodeCount];
+		_nextPositions = new int[positionCount];
+		Arrays.fill(_firstPositions, -1);
+		for (int position = positionCount - 1; position >= 0; position -= 1) {
+			final int node = _positionNodes.get(position);
+			_nextPositions[position] = _firstPositions[node];
+			_firstPositions[node] = position;
+		}
+		
+		// Resolve the dependencies.
+		// Note: the external dependencies are counted in the in-degrees but never released.
+		_dependencyTargets = new int[dependencyCount];
+		_inDegrees = new int[nodeCount];
+		_dependentOffsets = new int[nodeCount + 1];
+		for (int dependency = 0; dependency < dependencyCount; dependency += 1) {
+			final Integer target = _nodeIds.get(_dependencyElements.get(dependency));
+			_dependencyTargets[dependency] = null != target ? target.intValue() : -1;
+			_inDegrees[_dependencyNodes.get(dependency)] += 1;
+			if (null != target) {
+				_dependentOffsets[target.intValue() + 1] += 1;
+			}
+		}
+		
+		// Build the adjacency lists.
+		for (int node = 0; node < nodeCount; node += 1) {
+			_dependentOffsets[node + 1] += _dependentOffsets[node];
+		}
+		_dependents = new int[_dependentOffsets[nodeCount]];
+		final int[] dependentCounts = new int[nodeCount];
+		for (int dependency = 0; dependency < dependencyCount; dependency += 1) {
+			final int target = _dependencyTargets[dependency];
+			if (target >= 0) {
+				_dependents[_dependentOffsets[target] + dependentCounts[target]] = _dependencyNodes.get(dependency);
+				dependentCounts[target] += 1;
+			}
+		}
+	}
+	
+	/**
+	 * Gets the number of nodes of this graph.
+	 * 
+	 * @return The number of nodes.
+	 * @since 2.0
+	 */
+	public int getNodeCount() {
+		return _nodes.size();
+	}
+	
+	/**
+	 * Gets the element of the given node of this graph.
+	 * 
+	 * @param node Node to read.
+	 * @return The element.
+	 * @since 2.0
+	 */
+	public E getNode(final int node) {
+		return _nodes.get(node);
+	}
+	
+	/**
+	 * Gets the number of dependencies of the given node of this graph, including the external dependencies.
+	 * 
+	 * @param node Node to read.
+	 * @return The number of dependencies.
+	 * @since 2.0
+	 */
+	public int getInDegree(final int node) {
+		return _inDegrees[node];
+	}
+	
+	/**
+	 * Executes the given procedure with the nodes that depend on the given node of this graph.
+	 * <p>
+	 * The nodes are provided once per dependency.
+	 * 
+	 * @param node Depended node.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public void foreachDependent(final int node, final IntProcedure procedure) {
+		for (int i = _dependentOffsets[node]; i < _dependentOffsets[node + 1]; i += 1) {
+			procedure.execute(_dependents[i]);
+		}
+	}
+	
+	// Sort.
+	
+	/**
+	 * Checks that the elements of this graph can be sorted topologically.
+	 * 
+	 * @throws IllegalArgumentException When there is a cycle in the dependency graph or when some dependency element does not belong to the graph.
+	 * @since 2.0
+	 */
+	public void check()
+	throws IllegalArgumentException {
+		sort(Accumulators.counter());
+	}
+	
+	/**
+	 * Sorts the elements of this graph topologically.
+	 * 
+	 * @param <A> Type of the accumulator.
+	 * @param results Accumulator of the sorted elements.
+	 * @return The given accumulator.
+	 * @throws IllegalArgumentException When there is a cycle in the dependency graph or when some dependency element does not belong to the graph.
+	 * @since 2.0
+	 */
+	public <A extends Accumulator<? super E, ?>> A sort(final A results)
+	throws IllegalArgumentException {
+		final int[] inDegrees = _inDegrees.clone();
+		final boolean[] sortedNodes = new boolean[_nodes.size()];
+		
+		// Note: the leaves are polled in traversal order in order to keep the sort stable.
+		final Queue<Integer> leaves = new PriorityQueue<>();
+		for (int position = 0; position < _positionNodes.size(); position += 1) {
+			if (0 == inDegrees[_positionNodes.get(position)]) {
+				leaves.add(position);
+			}
+		}
+		
+		int sortedPositions = 0;
+		while (!leaves.isEmpty()) {
+			final int node = _positionNodes.get(leaves.poll().intValue());
+			
+			// Add the element to the results.
+			results.add(_nodes.get(node));
+			sortedPositions += 1;
+			
+			// Release the dependents.
+			if (!sortedNodes[node]) {
+				sortedNodes[node] = true;
+				releaseDependents(node, inDegrees, leaves::add);
+			}
+		}
+		
+		// Check that all elements have been sorted.
+		if (sortedPositions < _positionNodes.size()) {
+			throw unsortableDependencies(sortedNodes);
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Sorts the elements of this graph topologically by region.
+	 * 
+	 * @param <R> Type of the region lists.
+	 * @param <A> Type of the accumulator.
+	 * @param regionFactory Factory of the region lists.
+	 * @param results Accumulator of the sorted regions.
+	 * @return The given accumulator.
+	 * @throws IllegalArgumentException When there is a cycle in the dependency graph or when some dependency element does not belong to the graph.
+	 * @since 2.0
+	 */
+	public <R extends List<? super E>, A extends Accumulator<? super R, ?>> A sortRegions(final CollectionFactory<? super E, R> regionFactory, final A results)
+	throws IllegalArgumentException {
+		final int[] inDegrees = _inDegrees.clone();
+		final boolean[] sortedNodes = new boolean[_nodes.size()];
+		
+		IntArrayList leaves = new IntArrayList();
+		for (int position = 0; position < _positionNodes.size(); position += 1) {
+			if (0 == inDegrees[_positionNodes.get(position)]) {
+				leaves.add(position);
+			}
+		}
+		
+		int sortedPositions = 0;
+		while (!leaves.isEmpty()) {
+			// Add the region to the results.
+			final R region = regionFactory.build();
+			for (int i = 0; i < leaves.size(); i += 1) {
+				region.add(_nodes.get(_positionNodes.get(leaves.get(i))));
+			}
+			results.add(region);
+			sortedPositions += leaves.size();
+			
+			// Release the dependents.
+			final IntArrayList nextLeaves = new IntArrayList();
+			for (int i = 0; i < leaves.size(); i += 1) {
+				final int node = _positionNodes.get(leaves.get(i));
+				if (!sortedNodes[node]) {
+					sortedNodes[node] = true;
+					releaseDependents(node, inDegrees, nextLeaves::add);
+				}
+			}
+			
+			// Note: the next region is ordered by traversal order in order to keep the sort stable.
+			nextLeaves.sort();
+			leaves = nextLeaves;
+		}
+		
+		// Check that all elements have been sorted.
+		if (sortedPositions < _positionNodes.size()) {
+			throw unsortableDependencies(sortedNodes);
+		}
+		
+		return results;
+	}
+	
+	private void releaseDependents(final int node, final int[] inDegrees, final IntProcedure leaves) {
+		foreachDependent(node, dependent -> {
+			inDegrees[dependent] -= 1;
+			if (0 == inDegrees[dependent]) {
+				for (int position = _firstPositions[dependent]; position >= 0; position = _nextPositions[position]) {
+					leaves.execute(position);
+				}
+			}
+		});
+	}
+	
+	private IllegalArgumentException unsortableDependencies(final boolean[] sortedNodes) {
+		// Find a blocking dependency for each unsorted node.
+		// Note: every unsorted node has some dependency on an unsorted node or on an external element.
+		final int[] blockingDependencies = new int[_nodes.size()];
+		Arrays.fill(blockingDependencies, -1);
+		for (int dependency = 0; dependency < _dependencyNodes.size(); dependency += 1) {
+			final int node = _dependencyNodes.get(dependency);
+			final int target = _dependencyTargets[dependency];
+			if (!sortedNodes[node] && blockingDependencies[node] < 0 && (target < 0 || !sortedNodes[target])) {
+				blockingDependencies[node] = dependency;
+			}
+		}
+		
+		// Follow the blocking dependencies from the first unsorted element until some node is visited twice.
+		int node = 0;
+		for (int position = 0; position < _positionNodes.size(); position += 1) {
+			node = _positionNodes.get(position);
+			if (!sortedNodes[node]) {
+				break;
+			}
+		}
+		final int[] pathIndexes = new int[_nodes.size()];
+		Arrays.fill(pathIndexes, -1);
+		final IntArrayList path = new IntArrayList();
+		while (pathIndexes[node] < 0) {
+			pathIndexes[node] = path.size();
+			path.add(node);
+			
+			final int dependency = blockingDependencies[node];
+			final int target = _dependencyTargets[dependency];
+			if (target < 0) {
+				return new IllegalArgumentException("External dependency " + _dependencyElements.get(dependency) + " for element " + _nodes.get(node));
+			}
+			node = target;
+		}
+		
+		// Report the cycle.
+		final List<E> cycle = new ArrayList<>();
+		for (int i = pathIndexes[node]; i < path.size(); i += 1) {
+			cycle.add(_nodes.get(path.get(i)));
+		}
+		return new IllegalArgumentException("Cyclic dependencies between elements " + cycle);
+	}
+}
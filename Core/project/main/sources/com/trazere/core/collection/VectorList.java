@@ -0,0 +1,172 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * The {@link VectorList} class implements lists backed by {@link PersistentVector persistent vectors}.
+ * <p>
+ * Reading, replacing, appending and removing the last element take a time proportional to log<sub>32</sub>(n). Copying the list into another vector list and
+ * taking a {@link #getVector() snapshot} of it take a constant time as the underlying vector is shared. The other insertions and removals rebuild the vector.
+ * 
+ * @param <E> Type of the elements.
+ * @see PersistentVector
+ * @since 2.0
+ */
+public class VectorList<E>
+extends AbstractList<E>
+implements RandomAccess {
+	/**
+	 * Instantiates a new empty list.
+	 * 
+	 * @since 2.0
+	 */
+	public VectorList() {
+		this(PersistentVector.<E>empty());
+	}
+	
+	/**
+	 * Instantiates a new list containing the elements of the given collection.
+	 * <p>
+	 * The elements are shared in constant time when the collection is a vector list or a view of a persistent vector.
+	 * 
+	 * @param elements Elements of the list.
+	 * @since 2.0
+	 */
+	public VectorList(final Collection<? extends E> elements) {
+		this(PersistentVector.fromIterable(elements));
+	}
+	
+	/**
+	 * Instantiates a new list containing the elements of the given vector.
+	 * 
+	 * @param vector Vector containing the elements of the list.
+	 * @since 2.0
+	 */
+	public VectorList(final PersistentVector<E> vector) {
+		assert null != vector;
+		
+		// Initialization.
+		_vector = vector;
+	}
+	
+	// Vector.
+	
+	/**
+	 * Vector containing the elements.
+	 * 
+	 * @since 2.0
+	 */
+	protected PersistentVector<E> _vector;
+	
+	/**
+	 * Gets a snapshot of the elements of this list.
+	 * <p>
+	 * The snapshot is not affected by the later modifications of the list.
+	 * 
+	 * @return The vector containing the elements.
+	 * @since 2.0
+	 */
+	public PersistentVector<E> getVector() {
+		return _vector;
+	}
+	
+	// List.
+	
+	@Override
+	public int size() {
+		return _vector.size();
+	}
+	
+	@Override
+	public E get(final int index) {
+		return _vector.get(index);
+	}
+	
+	@Override
+	public E set(final int index, final E element) {
+		final E previousElement = _vector.get(index);
+		_vector = _vector.set(index, element);
+		return previousElement;
+	}
+	
+	@Override
+	public boolean add(final E element) {
+		_vector = _vector.append(element);
+		modCount += 1;
+		return true;
+	}
+	
+	@Override
+	public void add(final int index, final E element) {
+		final int size = _vector.size();
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		} else if (index == size) {
+			add(element);
+		} else {
+			// Rebuild.
+			PersistentVector<E> vector = _vector;
+			for (int i = size - 1; i >= index; i -= 1) {
+				vector = vector.removeLast();
+			}
+			vector = vector.append(element);
+			for (int i = index; i < size; i += 1) {
+				vector = vector.append(_vector.get(i));
+			}
+			_vector = vector;
+			modCount += 1;
+		}
+	}
+	
+	@Override
+	public E remove(final int index) {
+		final E element = _vector.get(index);
+		final int size = _vector.size();
+		PersistentVector<E> vector = _vector;
+		for (int i = size - 1; i >= index; i -= 1) {
+			vector = vector.removeLast();
+		}
+		for (int i = index + 1; i < size; i += 1) {
+			vector = vector.append(_vector.get(i));
+		}
+		_vector = vector;
+		modCount += 1;
+		return element;
+	}
+	
+	@Override
+	public boolean addAll(final Collection<? extends E> elements) {
+		if (elements.isEmpty()) {
+			return false;
+		} else if (_vector.isEmpty()) {
+			_vector = PersistentVector.fromIterable(elements);
+		} else {
+			_vector = _vector.appendAll(elements);
+		}
+		modCount += 1;
+		return true;
+	}
+	
+	@Override
+	public void clear() {
+		_vector = PersistentVector.empty();
+		modCount += 1;
+	}
+}
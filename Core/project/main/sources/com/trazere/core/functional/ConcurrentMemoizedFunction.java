@@ -0,0 +1,209 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.util.Maybe;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link ConcurrentMemoizedFunction} abstract class provides a skeleton implementation of thread-safe {@link MemoizedFunction memoized functions}.
+ * <p>
+ * The memoized results are read without locking. Concurrent evaluations with the same argument are deduplicated: only one of the calling threads computes the
+ * result and the others wait for it, while the evaluations with different arguments proceed in parallel. The failed computations are not memoized.
+ * 
+ * @param <A> Type of the arguments.
+ * @param <R> Type of the results.
+ * @since 2.0
+ */
+public abstract class ConcurrentMemoizedFunction<A, R>
+implements MemoizedFunction<A, R> {
+	// Note: ConcurrentHashMap does not support null keys.
+	/** Placeholder of the null argument. */
+	private static final Object NULL_ARG = new Object();
+	
+	/**
+	 * Evaluations indexed by argument.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ConcurrentHashMap<Object, Evaluation<R>> _evaluations = new ConcurrentHashMap<>();
+	
+	@Override
+	public R evaluate(final A arg) {
+		final Object key = key(arg);
+		
+		// Read the memoized result.
+		final Evaluation<R> evaluation = _evaluations.get(key);
+		if (null != evaluation) {
+			return evaluation.await();
+		}
+		
+		// Start the evaluation.
+		final Evaluation<R> newEvaluation = new Evaluation<>();
+		final Evaluation<R> currentEvaluation = _evaluations.putIfAbsent(key, newEvaluation);
+		if (null != currentEvaluation) {
+			// Note: some other thread started the evaluation meanwhile.
+			return currentEvaluation.await();
+		}
+		
+		// Compute the result.
+		final R result;
+		try {
+			result = compute(arg);
+		} catch (final RuntimeException | Error exception) {
+			// Note: the failures are not memoized.
+			_evaluations.remove(key, newEvaluation);
+			newEvaluation.fail(exception);
+			throw exception;
+		}
+		newEvaluation.succeed(result);
+		return result;
+	}
+	
+	/**
+	 * Computes the result of the evaluation of this function with the given argument.
+	 * 
+	 * @param arg Argument to evaluate the function with.
+	 * @return The result of the function evaluation.
+	 * @since 2.0
+	 */
+	protected abstract R compute(A arg);
+	
+	@Override
+	public boolean isMemoized(final A arg) {
+		final Evaluation<R> evaluation = _evaluations.get(key(arg));
+		return null != evaluation && evaluation.isSucceeded();
+	}
+	
+	@Override
+	public Maybe<R> probe(final A arg) {
+		final Evaluation<R> evaluation = _evaluations.get(key(arg));
+		return null != evaluation && evaluation.isSucceeded() ? Maybe.some(evaluation.getResult()) : Maybe.<R>none();
+	}
+	
+	private static Object key(final Object arg) {
+		return null != arg ? arg : NULL_ARG;
+	}
+	
+	/**
+	 * The {@link Evaluation} class implements evaluations of the function with some argument.
+	 * <p>
+	 * The completed evaluations are read without locking. The threads waiting for the completion of an evaluation in progress block on its monitor.
+	 * 
+	 * @param <R> Type of the result.
+	 * @since 2.0
+	 */
+	protected static final class Evaluation<R> {
+		/** Thread computing the result. */
+		private final Thread _owner = Thread.currentThread();
+		
+		// Note: the result and the failure are published by the volatile write of the state.
+		/** State of the evaluation: 0 in progress, 1 succeeded, 2 failed. */
+		private volatile int _state = 0;
+		
+		/** Result of the evaluation. */
+		private R _result = null;
+		
+		/** Failure of the evaluation. */
+		private Throwable _failure = null;
+		
+		/**
+		 * Indicates whether this evaluation has succeeded.
+		 * 
+		 * @return <code>true</code> when the evaluation has succeeded, <code>false</code> otherwise.
+		 */
+		public boolean isSucceeded() {
+			return 1 == _state;
+		}
+		
+		/**
+		 * Gets the result of this evaluation.
+		 * 
+		 * @return The result.
+		 */
+		public R getResult() {
+			return _result;
+		}
+		
+		/**
+		 * Completes this evaluation with the given result.
+		 * 
+		 * @param result Result of the evaluation.
+		 */
+		public synchronized void succeed(final R result) {
+			_result = result;
+			_state = 1;
+			notifyAll();
+		}
+		
+		/**
+		 * Completes this evaluation with the given failure.
+		 * 
+		 * @param failure Failure of the evaluation.
+		 */
+		public synchronized void fail(final Throwable failure) {
+			_failure = failure;
+			_state = 2;
+			notifyAll();
+		}
+		
+		/**
+		 * Waits for the completion of this evaluation.
+		 * <p>
+		 * The failure of the evaluation is rethrown in the calling thread.
+		 * 
+		 * @return The result of the evaluation.
+		 * @throws IllegalStateException When the evaluation recursively depends on itself.
+		 */
+		public R await() {
+			// Fast path.
+			if (1 == _state) {
+				return _result;
+			}
+			
+			if (Thread.currentThread() == _owner) {
+				throw new IllegalStateException("Recursive evaluation of the memoized function");
+			}
+			
+			// Wait.
+			synchronized (this) {
+				boolean interrupted = false;
+				try {
+					while (0 == _state) {
+						try {
+							wait();
+						} catch (final InterruptedException exception) {
+							// Note: the computing thread is not interruptible, wait for the completion and restore the interrupt status.
+							interrupted = true;
+						}
+					}
+				} finally {
+					if (interrupted) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+			
+			if (_failure instanceof RuntimeException) {
+				throw (RuntimeException) _failure;
+			} else if (_failure instanceof Error) {
+				throw (Error) _failure;
+			} else {
+				return _result;
+			}
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.text.Describable;
+import com.trazere.core.text.DescriptionBuilder;
+import com.trazere.core.text.TextUtils;
+import com.trazere.core.util.Maybe;
+
+/**
+ * The {@link ConcurrentMemoizedThunk} class provides a skeleton implementation of thread-safe {@link MemoizedThunk memoized thunks}.
+ * <p>
+ * The value is computed once, under the lock of the thunk, and published through a volatile field. The evaluations of the memoized value only perform a
+ * volatile read and never lock. The failed computations are not memoized.
+ * 
+ * @param <T> Type of the value.
+ * @since 2.0
+ */
+public abstract class ConcurrentMemoizedThunk<T>
+implements MemoizedThunk<T>, Describable {
+	// Note: the placeholders are never exposed.
+	/** Placeholder of the unevaluated value. */
+	private static final Object UNEVALUATED = new Object();
+	
+	/** Placeholder of the null value. */
+	private static final Object NULL = new Object();
+	
+	/**
+	 * Memoized value, or placeholder.
+	 * 
+	 * @since 2.0
+	 */
+	protected volatile Object _value = UNEVALUATED;
+	
+	/** Indicates whether the value is being computed. */
+	private boolean _computing = false;
+	
+	@Override
+	public T evaluate() {
+		// Fast path.
+		final Object value = _value;
+		if (UNEVALUATED != value) {
+			return unwrap(value);
+		}
+		
+		// Slow path.
+		synchronized (this) {
+			final Object currentValue = _value;
+			if (UNEVALUATED != currentValue) {
+				// Note: some other thread computed the value meanwhile.
+				return unwrap(currentValue);
+			} else if (_computing) {
+				throw new IllegalStateException("Recursive evaluation of the memoized thunk");
+			}
+			
+			_computing = true;
+			try {
+				final T computedValue = compute();
+				_value = null != computedValue ? computedValue : NULL;
+				return computedValue;
+			} finally {
+				_computing = false;
+			}
+		}
+	}
+	
+	/**
+	 * Computes the value of this thunk.
+	 * <p>
+	 * This method is called at most once per successful computation, under the lock of the thunk.
+	 * 
+	 * @return The computed value.
+	 * @since 2.0
+	 */
+	protected abstract T compute();
+	
+	@Override
+	public boolean isMemoized() {
+		return UNEVALUATED != _value;
+	}
+	
+	@Override
+	public Maybe<T> probe() {
+		final Object value = _value;
+		return UNEVALUATED != value ? Maybe.some(unwrap(value)) : Maybe.none();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> T unwrap(final Object value) {
+		return NULL != value ? (T) value : null;
+	}
+	
+	// Object.
+	
+	@Override
+	public String toString() {
+		final Object value = _value;
+		if (UNEVALUATED != value) {
+			return String.valueOf(unwrap(value));
+		} else {
+			return TextUtils.description(this);
+		}
+	}
+	
+	@Override
+	public void appendDescription(final DescriptionBuilder description) {
+		// Nothing to do.
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link DoubleFunctionUtils} class provides various utilities regarding functions specialized for <code>double</code> values.
+ * 
+ * @see DoubleFunction
+ * @see DoubleFunction2
+ * @see DoubleOperator
+ * @see DoubleOperator2
+ * @see ToDoubleFunction
+ * @since 2.0
+ */
+public class DoubleFunctionUtils {
+	/**
+	 * Composes the given operators.
+	 * 
+	 * @param g Outer operator.
+	 * @param f Inner operator.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static DoubleOperator compose(final DoubleOperator g, final DoubleOperator f) {
+		assert null != g;
+		assert null != f;
+		
+		return arg -> g.evaluate(f.evaluate(arg));
+	}
+	
+	/**
+	 * Transforms the results of the given function using the given function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param <TR> Type of the transformed results.
+	 * @param function Function to transform.
+	 * @param mapFunction Function to use to transform the results.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R, TR> DoubleFunction<TR> map(final DoubleFunction<? extends R> function, final Function<? super R, ? extends TR> mapFunction) {
+		assert null != function;
+		assert null != mapFunction;
+		
+		return arg -> mapFunction.evaluate(function.evaluate(arg));
+	}
+	
+	/**
+	 * Builds a function over boxed arguments that lifts the given function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> Function<Double, R> boxed(final DoubleFunction<? extends R> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg.doubleValue());
+	}
+	
+	/**
+	 * Builds a two arguments function over boxed arguments that lifts the given two arguments function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> Function2<Double, Double, R> boxed2(final DoubleFunction2<? extends R> function) {
+		assert null != function;
+		
+		return (arg1, arg2) -> function.evaluate(arg1.doubleValue(), arg2.doubleValue());
+	}
+	
+	/**
+	 * Builds a function over boxed arguments and results that lifts the given operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static Function<Double, Double> boxedOperator(final DoubleOperator operator) {
+		assert null != operator;
+		
+		return arg -> operator.evaluate(arg.doubleValue());
+	}
+	
+	/**
+	 * Builds a two arguments function over boxed arguments and results that lifts the given two arguments operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static Function2<Double, Double, Double> boxedOperator2(final DoubleOperator2 operator) {
+		assert null != operator;
+		
+		return (arg1, arg2) -> operator.evaluate(arg1.doubleValue(), arg2.doubleValue());
+	}
+	
+	/**
+	 * Builds a function over boxed results that lifts the given function.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <A> Function<A, Double> boxedTo(final ToDoubleFunction<? super A> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a Java 8 function that lifts the given function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built Java 8 function.
+	 * @since 2.0
+	 */
+	public static <R> java.util.function.DoubleFunction<R> toDoubleFunction(final DoubleFunction<? extends R> function) {
+		assert null != function;
+		
+		return value -> function.evaluate(value);
+	}
+	
+	/**
+	 * Builds a Java 8 unary operator that lifts the given operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built Java 8 unary operator.
+	 * @since 2.0
+	 */
+	public static java.util.function.DoubleUnaryOperator toDoubleUnaryOperator(final DoubleOperator operator) {
+		assert null != operator;
+		
+		return operand -> operator.evaluate(operand);
+	}
+	
+	/**
+	 * Builds a Java 8 binary operator that lifts the given two arguments operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built Java 8 binary operator.
+	 * @since 2.0
+	 */
+	public static java.util.function.DoubleBinaryOperator toDoubleBinaryOperator(final DoubleOperator2 operator) {
+		assert null != operator;
+		
+		return (left, right) -> operator.evaluate(left, right);
+	}
+	
+	/**
+	 * Builds a Java 8 function that lifts the given function.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param function Function to lift.
+	 * @return The built Java 8 function.
+	 * @since 2.0
+	 */
+	public static <A> java.util.function.ToDoubleFunction<A> toToDoubleFunction(final ToDoubleFunction<? super A> function) {
+		assert null != function;
+		
+		return value -> function.evaluate(value);
+	}
+	
+	private DoubleFunctionUtils() {
+		// Prevent instantiation.
+	}
+}
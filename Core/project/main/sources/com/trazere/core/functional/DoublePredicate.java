@@ -0,0 +1,36 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link DoublePredicate} interface defines functions that take <code>double</code> arguments and result to booleans.
+ * <p>
+ * This interface is a specialization of {@link Predicate} that does not box the arguments.
+ * 
+ * @see Predicate
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface DoublePredicate {
+	/**
+	 * Evaluates this predicate with the given argument.
+	 * 
+	 * @param arg Argument to evaluate the predicate with.
+	 * @return The result of the predicate evaluation.
+	 * @since 2.0
+	 */
+	boolean evaluate(double arg);
+}
@@ -0,0 +1,114 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.text.Describable;
+import com.trazere.core.text.DescriptionBuilder;
+import com.trazere.core.text.TextUtils;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@link FixedPointSolution} class represents solutions of incremental fixed point computations.
+ * <p>
+ * Solutions provide the fixed point value as well as the number of rounds of the computation and the size of the delta propagated by each round.
+ * 
+ * @param <V> Type of the value.
+ * @see WorklistFixedPoint
+ * @see WorklistMapFixedPoint
+ * @since 2.0
+ */
+public class FixedPointSolution<V>
+implements Describable {
+	/**
+	 * Instantiates a new solution.
+	 * 
+	 * @param value Fixed point value.
+	 * @param deltaSizes Sizes of the deltas propagated by the rounds.
+	 * @since 2.0
+	 */
+	public FixedPointSolution(final V value, final List<Integer> deltaSizes) {
+		assert null != deltaSizes;
+		
+		// Initialization.
+		_value = value;
+		_deltaSizes = Collections.unmodifiableList(deltaSizes);
+	}
+	
+	// Value.
+	
+	/**
+	 * Fixed point value.
+	 * 
+	 * @since 2.0
+	 */
+	protected final V _value;
+	
+	/**
+	 * Gets the fixed point value.
+	 * 
+	 * @return The value.
+	 * @since 2.0
+	 */
+	public V getValue() {
+		return _value;
+	}
+	
+	// Rounds.
+	
+	/**
+	 * Sizes of the deltas propagated by the rounds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final List<Integer> _deltaSizes;
+	
+	/**
+	 * Gets the number of rounds of the computation.
+	 * 
+	 * @return The number of rounds.
+	 * @since 2.0
+	 */
+	public int getRounds() {
+		return _deltaSizes.size();
+	}
+	
+	/**
+	 * Gets the sizes of the deltas propagated by the rounds of the computation.
+	 * <p>
+	 * The first delta is the initial value.
+	 * 
+	 * @return An unmodifiable list of the sizes.
+	 * @since 2.0
+	 */
+	public List<Integer> getDeltaSizes() {
+		return _deltaSizes;
+	}
+	
+	// Object.
+	
+	@Override
+	public final String toString() {
+		return TextUtils.description(this);
+	}
+	
+	@Override
+	public void appendDescription(final DescriptionBuilder description) {
+		description.append("Value", _value);
+		description.append("Rounds", getRounds());
+		description.append("Delta sizes", _deltaSizes);
+	}
+}
@@ -106,6 +106,29 @@ public class FunctionUtils {
 		};
 	}
 	
+	/**
+	 * Builds a thread-safe memoized view of the the given function.
+	 * <p>
+	 * The memoized results are read without locking and the concurrent evaluations with the same argument are deduplicated.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param <R> Type of the results.
+	 * @param function Function to memoize.
+	 * @return The built function.
+	 * @see ConcurrentMemoizedFunction
+	 * @since 2.0
+	 */
+	public static <A, R> MemoizedFunction<A, R> concurrentMemoized(final Function<? super A, ? extends R> function) {
+		assert null != function;
+		
+		return new ConcurrentMemoizedFunction<A, R>() {
+			@Override
+			protected R compute(final A arg) {
+				return function.evaluate(arg);
+			}
+		};
+	}
+	
 	/**
 	 * Builds a memoized, resettable view of the given function.
 	 * 
@@ -0,0 +1,213 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link IntFunctions} class provides various factories of functions specialized for <code>int</code> values.
+ * 
+ * @see IntFunction
+ * @see IntFunction2
+ * @see IntOperator
+ * @see IntOperator2
+ * @see ToIntFunction
+ * @since 2.0
+ */
+public class IntFunctions {
+	/**
+	 * Builds an identity operator.
+	 * 
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator identity() {
+		return IDENTITY;
+	}
+	
+	private static final IntOperator IDENTITY = arg -> arg;
+	
+	/**
+	 * Builds an operator that evaluates to the given result for all arguments.
+	 * 
+	 * @param result Result of the operator.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator constant(final int result) {
+		return arg -> result;
+	}
+	
+	/**
+	 * Builds an operator that computes the sum of its arguments.
+	 * 
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator2 sum() {
+		return SUM;
+	}
+	
+	private static final IntOperator2 SUM = (arg1, arg2) -> arg1 + arg2;
+	
+	/**
+	 * Builds an operator that computes the least of its arguments.
+	 * 
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator2 least() {
+		return LEAST;
+	}
+	
+	private static final IntOperator2 LEAST = Math::min;
+	
+	/**
+	 * Builds an operator that computes the greatest of its arguments.
+	 * 
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator2 greatest() {
+		return GREATEST;
+	}
+	
+	private static final IntOperator2 GREATEST = Math::max;
+	
+	/**
+	 * Builds a function that lifts the given function over boxed arguments.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> IntFunction<R> fromFunction(final Function<? super Integer, ? extends R> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a two arguments function that lifts the given two arguments function over boxed arguments.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> IntFunction2<R> fromFunction2(final Function2<? super Integer, ? super Integer, ? extends R> function) {
+		assert null != function;
+		
+		return (arg1, arg2) -> function.evaluate(arg1, arg2);
+	}
+	
+	/**
+	 * Builds an operator that lifts the given function over boxed arguments and results.
+	 * 
+	 * @param function Function to lift.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator fromOperator(final Function<? super Integer, ? extends Integer> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg).intValue();
+	}
+	
+	/**
+	 * Builds a two arguments operator that lifts the given two arguments function over boxed arguments and results.
+	 * 
+	 * @param function Function to lift.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator2 fromOperator2(final Function2<? super Integer, ? super Integer, ? extends Integer> function) {
+		assert null != function;
+		
+		return (arg1, arg2) -> function.evaluate(arg1, arg2).intValue();
+	}
+	
+	/**
+	 * Builds a function that lifts the given function over boxed results.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <A> ToIntFunction<A> fromToFunction(final Function<? super A, ? extends Integer> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg).intValue();
+	}
+	
+	/**
+	 * Builds a function that lifts the given Java 8 function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Java 8 function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> IntFunction<R> fromIntFunction(final java.util.function.IntFunction<? extends R> function) {
+		assert null != function;
+		
+		return arg -> function.apply(arg);
+	}
+	
+	/**
+	 * Builds an operator that lifts the given Java 8 unary operator.
+	 * 
+	 * @param operator Java 8 unary operator to lift.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator fromIntUnaryOperator(final java.util.function.IntUnaryOperator operator) {
+		assert null != operator;
+		
+		return arg -> operator.applyAsInt(arg);
+	}
+	
+	/**
+	 * Builds a two arguments operator that lifts the given Java 8 binary operator.
+	 * 
+	 * @param operator Java 8 binary operator to lift.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static IntOperator2 fromIntBinaryOperator(final java.util.function.IntBinaryOperator operator) {
+		assert null != operator;
+		
+		return (arg1, arg2) -> operator.applyAsInt(arg1, arg2);
+	}
+	
+	/**
+	 * Builds a function that lifts the given Java 8 function.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param function Java 8 function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <A> ToIntFunction<A> fromToIntFunction(final java.util.function.ToIntFunction<? super A> function) {
+		assert null != function;
+		
+		return arg -> function.applyAsInt(arg);
+	}
+	
+	private IntFunctions() {
+		// Prevent instantiation.
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link IntOperator} interface defines functions that take <code>int</code> arguments and result to <code>int</code> values.
+ * <p>
+ * This interface is a specialization of {@link Function} that neither boxes the arguments nor the results.
+ * 
+ * @see Function
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface IntOperator {
+	/**
+	 * Evaluates this operator with the given argument.
+	 * 
+	 * @param arg Argument to evaluate the operator with.
+	 * @return The result of the operator evaluation.
+	 * @since 2.0
+	 */
+	int evaluate(int arg);
+}
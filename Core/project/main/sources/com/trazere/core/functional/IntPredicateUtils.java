@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link IntPredicateUtils} class provides various utilities regarding {@link IntPredicate predicates} specialized for <code>int</code> values.
+ * 
+ * @see IntPredicate
+ * @since 2.0
+ */
+public class IntPredicateUtils {
+	/**
+	 * Transforms the given predicate using the given operator.
+	 * 
+	 * @param predicate Predicate to transform.
+	 * @param operator Operator to use to transform the arguments.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static IntPredicate map(final IntPredicate predicate, final IntOperator operator) {
+		assert null != predicate;
+		assert null != operator;
+		
+		return arg -> predicate.evaluate(operator.evaluate(arg));
+	}
+	
+	/**
+	 * Transforms the given predicate using the given function.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param predicate Predicate to transform.
+	 * @param function Function to use to transform the arguments.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static <A> Predicate<A> mapFrom(final IntPredicate predicate, final ToIntFunction<? super A> function) {
+		assert null != predicate;
+		assert null != function;
+		
+		return arg -> predicate.evaluate(function.evaluate(arg));
+	}
+	
+	/**
+	 * Builds a predicate over boxed arguments that lifts the given predicate.
+	 * 
+	 * @param predicate Predicate to lift.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static Predicate<Integer> boxed(final IntPredicate predicate) {
+		assert null != predicate;
+		
+		return arg -> predicate.evaluate(arg.intValue());
+	}
+	
+	/**
+	 * Builds a Java 8 predicate that lifts the given predicate.
+	 * 
+	 * @param predicate Predicate to lift.
+	 * @return The built Java 8 predicate.
+	 * @since 2.0
+	 */
+	public static java.util.function.IntPredicate toIntPredicate(final IntPredicate predicate) {
+		assert null != predicate;
+		
+		return value -> predicate.evaluate(value);
+	}
+	
+	private IntPredicateUtils() {
+		// Prevent instantiation.
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link LongFunction2} interface defines uncurried functions that take two <code>long</code> arguments.
+ * <p>
+ * This interface is a specialization of {@link Function2} that does not box the arguments.
+ * 
+ * @param <R> Type of the results.
+ * @see Function2
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface LongFunction2<R> {
+	/**
+	 * Evaluates this function with the given arguments.
+	 * 
+	 * @param arg1 First argument to evaluate the function with.
+	 * @param arg2 Second argument to evaluate the function with.
+	 * @return The result of the function evaluation.
+	 * @since 2.0
+	 */
+	R evaluate(long arg1, long arg2);
+}
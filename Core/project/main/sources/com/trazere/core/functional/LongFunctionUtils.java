@@ -0,0 +1,186 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link LongFunctionUtils} class provides various utilities regarding functions specialized for <code>long</code> values.
+ * 
+ * @see LongFunction
+ * @see LongFunction2
+ * @see LongOperator
+ * @see LongOperator2
+ * @see ToLongFunction
+ * @since 2.0
+ */
+public class LongFunctionUtils {
+	/**
+	 * Composes the given operators.
+	 * 
+	 * @param g Outer operator.
+	 * @param f Inner operator.
+	 * @return The built operator.
+	 * @since 2.0
+	 */
+	public static LongOperator compose(final LongOperator g, final LongOperator f) {
+		assert null != g;
+		assert null != f;
+		
+		return arg -> g.evaluate(f.evaluate(arg));
+	}
+	
+	/**
+	 * Transforms the results of the given function using the given function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param <TR> Type of the transformed results.
+	 * @param function Function to transform.
+	 * @param mapFunction Function to use to transform the results.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R, TR> LongFunction<TR> map(final LongFunction<? extends R> function, final Function<? super R, ? extends TR> mapFunction) {
+		assert null != function;
+		assert null != mapFunction;
+		
+		return arg -> mapFunction.evaluate(function.evaluate(arg));
+	}
+	
+	/**
+	 * Builds a function over boxed arguments that lifts the given function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> Function<Long, R> boxed(final LongFunction<? extends R> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg.longValue());
+	}
+	
+	/**
+	 * Builds a two arguments function over boxed arguments that lifts the given two arguments function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <R> Function2<Long, Long, R> boxed2(final LongFunction2<? extends R> function) {
+		assert null != function;
+		
+		return (arg1, arg2) -> function.evaluate(arg1.longValue(), arg2.longValue());
+	}
+	
+	/**
+	 * Builds a function over boxed arguments and results that lifts the given operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static Function<Long, Long> boxedOperator(final LongOperator operator) {
+		assert null != operator;
+		
+		return arg -> operator.evaluate(arg.longValue());
+	}
+	
+	/**
+	 * Builds a two arguments function over boxed arguments and results that lifts the given two arguments operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static Function2<Long, Long, Long> boxedOperator2(final LongOperator2 operator) {
+		assert null != operator;
+		
+		return (arg1, arg2) -> operator.evaluate(arg1.longValue(), arg2.longValue());
+	}
+	
+	/**
+	 * Builds a function over boxed results that lifts the given function.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param function Function to lift.
+	 * @return The built function.
+	 * @since 2.0
+	 */
+	public static <A> Function<A, Long> boxedTo(final ToLongFunction<? super A> function) {
+		assert null != function;
+		
+		return arg -> function.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a Java 8 function that lifts the given function.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param function Function to lift.
+	 * @return The built Java 8 function.
+	 * @since 2.0
+	 */
+	public static <R> java.util.function.LongFunction<R> toLongFunction(final LongFunction<? extends R> function) {
+		assert null != function;
+		
+		return value -> function.evaluate(value);
+	}
+	
+	/**
+	 * Builds a Java 8 unary operator that lifts the given operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built Java 8 unary operator.
+	 * @since 2.0
+	 */
+	public static java.util.function.LongUnaryOperator toLongUnaryOperator(final LongOperator operator) {
+		assert null != operator;
+		
+		return operand -> operator.evaluate(operand);
+	}
+	
+	/**
+	 * Builds a Java 8 binary operator that lifts the given two arguments operator.
+	 * 
+	 * @param operator Operator to lift.
+	 * @return The built Java 8 binary operator.
+	 * @since 2.0
+	 */
+	public static java.util.function.LongBinaryOperator toLongBinaryOperator(final LongOperator2 operator) {
+		assert null != operator;
+		
+		return (left, right) -> operator.evaluate(left, right);
+	}
+	
+	/**
+	 * Builds a Java 8 function that lifts the given function.
+	 * 
+	 * @param <A> Type of the arguments.
+	 * @param function Function to lift.
+	 * @return The built Java 8 function.
+	 * @since 2.0
+	 */
+	public static <A> java.util.function.ToLongFunction<A> toToLongFunction(final ToLongFunction<? super A> function) {
+		assert null != function;
+		
+		return value -> function.evaluate(value);
+	}
+	
+	private LongFunctionUtils() {
+		// Prevent instantiation.
+	}
+}
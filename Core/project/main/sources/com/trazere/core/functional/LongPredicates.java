@@ -0,0 +1,182 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import java.util.Arrays;
+
+/**
+ * The {@link LongPredicates} class provides various factories of {@link LongPredicate predicates} specialized for <code>long</code> values.
+ * 
+ * @see LongPredicate
+ * @since 2.0
+ */
+public class LongPredicates {
+	/**
+	 * Builds a predicate that evaluates to <code>true</code> for all arguments.
+	 * 
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate all() {
+		return ALL;
+	}
+	
+	private static final LongPredicate ALL = arg -> true;
+	
+	/**
+	 * Builds a predicate that evaluates to <code>false</code> for all arguments.
+	 * 
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate none() {
+		return NONE;
+	}
+	
+	private static final LongPredicate NONE = arg -> false;
+	
+	/**
+	 * Builds a predicate that evaluates to the given result for all arguments.
+	 * 
+	 * @param result Result of the predicate.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate constant(final boolean result) {
+		return result ? ALL : NONE;
+	}
+	
+	/**
+	 * Builds a predicate corresponding to the logical negation of the given predicate.
+	 * 
+	 * @param predicate Predicate to inverse.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate not(final LongPredicate predicate) {
+		assert null != predicate;
+		
+		return arg -> !predicate.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a predicate corresponding to the logical conjunction of the given predicates.
+	 * 
+	 * @param predicate1 First predicate to combine.
+	 * @param predicate2 Second predicate to combine.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate and(final LongPredicate predicate1, final LongPredicate predicate2) {
+		assert null != predicate1;
+		assert null != predicate2;
+		
+		return arg -> predicate1.evaluate(arg) && predicate2.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a predicate corresponding to the logical disjunction of the given predicates.
+	 * 
+	 * @param predicate1 First predicate to combine.
+	 * @param predicate2 Second predicate to combine.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate or(final LongPredicate predicate1, final LongPredicate predicate2) {
+		assert null != predicate1;
+		assert null != predicate2;
+		
+		return arg -> predicate1.evaluate(arg) || predicate2.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a predicate that evaluates to <code>true</code> for the given value.
+	 * 
+	 * @param value Value to accept.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate value(final long value) {
+		return arg -> 0 == Long.compare(arg, value);
+	}
+	
+	/**
+	 * Builds a predicate that evaluates to <code>true</code> for the given values.
+	 * 
+	 * @param values Values to accept.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate values(final long... values) {
+		assert null != values;
+		
+		final long[] sortedValues = Arrays.copyOf(values, values.length);
+		Arrays.sort(sortedValues);
+		return arg -> Arrays.binarySearch(sortedValues, arg) >= 0;
+	}
+	
+	/**
+	 * Builds a predicate that evaluates to <code>true</code> for the values less than the given bound.
+	 * 
+	 * @param bound Exclusive upper bound of the accepted values.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate lessThan(final long bound) {
+		return arg -> arg < bound;
+	}
+	
+	/**
+	 * Builds a predicate that evaluates to <code>true</code> for the values greater than the given bound.
+	 * 
+	 * @param bound Exclusive lower bound of the accepted values.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate greaterThan(final long bound) {
+		return arg -> arg > bound;
+	}
+	
+	/**
+	 * Builds a predicate that lifts the given predicate over boxed arguments.
+	 * 
+	 * @param predicate Predicate to lift.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate fromPredicate(final Predicate<? super Long> predicate) {
+		assert null != predicate;
+		
+		return arg -> predicate.evaluate(arg);
+	}
+	
+	/**
+	 * Builds a predicate that lifts the given Java 8 predicate.
+	 * 
+	 * @param predicate Java 8 predicate to lift.
+	 * @return The built predicate.
+	 * @since 2.0
+	 */
+	public static LongPredicate fromLongPredicate(final java.util.function.LongPredicate predicate) {
+		assert null != predicate;
+		
+		return arg -> predicate.test(arg);
+	}
+	
+	private LongPredicates() {
+		// Prevent instantiation.
+	}
+}
@@ -17,10 +17,12 @@ package com.trazere.core.functional;
 
 import com.trazere.core.imperative.IntCounter;
 import com.trazere.core.lang.ThrowableFactory;
+import com.trazere.core.reactive.Future;
 import com.trazere.core.util.FailureHandler;
 import com.trazere.core.util.Maybe;
 import com.trazere.core.util.Result;
 import com.trazere.core.util.ResultUtils;
+import java.time.Duration;
 
 /**
  * The {@link RetryFunction} interface defines one argument functions whose evaluation is attempted multiple times in case of failure.
@@ -51,6 +53,22 @@ implements Function<A, Result<R>>, FailureHandler<R> {
 		}
 	}
 	
+	/**
+	 * Evaluates this function asynchronously using the given scheduler.
+	 * <p>
+	 * The attempts are run by the scheduler and the waits between them are scheduled, so the failure handler should not block. The evaluation stops with the
+	 * last failure when the timeout is reached or when the retry budget of the scheduler is exhausted.
+	 * 
+	 * @param arg Argument to evaluate the function with.
+	 * @param scheduler Scheduler of the attempts.
+	 * @param timeout Timeout of the evaluation.
+	 * @return The future result of the evaluation.
+	 * @since 2.0
+	 */
+	public Future<Result<R>> evaluateAsync(final A arg, final RetryScheduler scheduler, final Duration timeout) {
+		return scheduler.evaluate(failureCount -> attemptEvaluate(arg, failureCount.intValue()), this, timeout);
+	}
+	
 	/**
 	 * Attempts to evaluate this function.
 	 * 
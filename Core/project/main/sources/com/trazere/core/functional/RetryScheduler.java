@@ -0,0 +1,345 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.reactive.Future;
+import com.trazere.core.reactive.Promise;
+import com.trazere.core.util.FailureHandler;
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Result;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link RetryScheduler} class implements schedulers of asynchronous retried evaluations.
+ * <p>
+ * The attempts of the evaluations are run by a shared scheduled executor, and the waits between the attempts are scheduled rather than blocking, so many
+ * retried evaluations in flight only need a few threads. The delays between the attempts grow exponentially and are randomized by some jitter.
+ * <p>
+ * The retries are limited by a budget shared by all evaluations: each retry consumes a token, and each successful attempt gives back a fraction of token. The
+ * evaluations fail without retrying when the budget is exhausted, which prevents retry storms when some service is down. The budget may also be unlimited.
+ * 
+ * @see RetryFunction#evaluateAsync(Object, RetryScheduler, Duration)
+ * @see RetryThunk#evaluateAsync(RetryScheduler, Duration)
+ * @since 2.0
+ */
+public class RetryScheduler {
+	/** Scale of the tokens of the budget. */
+	private static final long TOKEN = 1000;
+	
+	/**
+	 * Maximum number of tokens of the unlimited retry budgets.
+	 * 
+	 * @since 2.0
+	 */
+	public static final long UNLIMITED_BUDGET = Long.MAX_VALUE;
+	
+	/**
+	 * Instantiates a new scheduler with a doubling backoff, a 50% jitter and an unlimited budget.
+	 * 
+	 * @param executor Executor of the attempts.
+	 * @param initialDelay Delay before the first retry.
+	 * @param maxDelay Maximum delay between two attempts.
+	 * @since 2.0
+	 */
+	public RetryScheduler(final ScheduledExecutorService executor, final Duration initialDelay, final Duration maxDelay) {
+		this(executor, initialDelay, maxDelay, 2.0, 0.5, UNLIMITED_BUDGET, 0.0);
+	}
+	
+	/**
+	 * Instantiates a new scheduler.
+	 * 
+	 * @param executor Executor of the attempts.
+	 * @param initialDelay Delay before the first retry.
+	 * @param maxDelay Maximum delay between two attempts.
+	 * @param multiplier Growth factor of the delays.
+	 * @param jitter Randomized fraction of the delays, between 0 and 1.
+	 * @param maxTokens Maximum number of tokens of the retry budget, or {@link #UNLIMITED_BUDGET} for an unlimited budget. The budgets too large to be
+	 *        tracked are unlimited.
+	 * @param tokenRatio Number of tokens given back to the retry budget by each successful attempt.
+	 * @since 2.0
+	 */
+	public RetryScheduler(final ScheduledExecutorService executor, final Duration initialDelay, final Duration maxDelay, final double multiplier, final double jitter, final long maxTokens, final double tokenRatio) {
+		assert null != executor;
+		assert null != initialDelay && !initialDelay.isNegative();
+		assert null != maxDelay && maxDelay.compareTo(initialDelay) >= 0;
+		assert multiplier >= 1.0;
+		assert jitter >= 0.0 && jitter <= 1.0;
+		assert maxTokens > 0;
+		assert tokenRatio >= 0.0;
+		
+		// Initialization.
+		_executor = executor;
+		_initialDelay = toNanos(initialDelay);
+		_maxDelay = toNanos(maxDelay);
+		_multiplier = multiplier;
+		_jitter = jitter;
+		// Note: the budgets whose scaled tokens overflow are unlimited.
+		_unlimitedBudget = maxTokens > Long.MAX_VALUE / TOKEN;
+		_maxTokens = _unlimitedBudget ? Long.MAX_VALUE : maxTokens * TOKEN;
+		_tokenRatio = Math.round(tokenRatio * TOKEN);
+		_tokens = new AtomicLong(_maxTokens);
+	}
+	
+	// Executor.
+	
+	/**
+	 * Executor of the attempts.
+	 * 
+	 * @since 2.0
+	 */
+	protected final ScheduledExecutorService _executor;
+	
+	/**
+	 * Gets the executor of the attempts of this scheduler.
+	 * 
+	 * @return The executor.
+	 * @since 2.0
+	 */
+	public ScheduledExecutorService getExecutor() {
+		return _executor;
+	}
+	
+	// Backoff.
+	
+	/**
+	 * Delay before the first retry in nanoseconds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _initialDelay;
+	
+	/**
+	 * Maximum delay between two attempts in nanoseconds.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _maxDelay;
+	
+	/**
+	 * Growth factor of the delays.
+	 * 
+	 * @since 2.0
+	 */
+	protected final double _multiplier;
+	
+	/**
+	 * Randomized fraction of the delays.
+	 * 
+	 * @since 2.0
+	 */
+	protected final double _jitter;
+	
+	/**
+	 * Computes the delay before the next attempt after the given number of failures.
+	 * <p>
+	 * The delay grows exponentially with the number of failures up to the maximum delay, and a random fraction of it is removed according to the jitter.
+	 * 
+	 * @param failureCount Number of failures.
+	 * @return The delay in nanoseconds.
+	 * @since 2.0
+	 */
+	public long computeDelay(final int failureCount) {
+		assert failureCount > 0;
+		
+		final double delay = Math.min(_maxDelay, _initialDelay * Math.pow(_multiplier, failureCount - 1));
+		return (long) (delay * (1.0 - _jitter * ThreadLocalRandom.current().nextDouble()));
+	}
+	
+	private static long toNanos(final Duration duration) {
+		try {
+			return duration.toNanos();
+		} catch (final ArithmeticException exception) {
+			// Note: about 292 years is long enough.
+			return Long.MAX_VALUE / 2;
+		}
+	}
+	
+	// Budget.
+	
+	/**
+	 * Indicates whether the retry budget is unlimited.
+	 * 
+	 * @since 2.0
+	 */
+	protected final boolean _unlimitedBudget;
+	
+	/**
+	 * Maximum number of tokens of the retry budget, scaled.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _maxTokens;
+	
+	/**
+	 * Number of tokens given back by the successful attempts, scaled.
+	 * 
+	 * @since 2.0
+	 */
+	protected final long _tokenRatio;
+	
+	/**
+	 * Number of tokens of the retry budget, scaled.
+	 * 
+	 * @since 2.0
+	 */
+	protected final AtomicLong _tokens;
+	
+	/**
+	 * Gets the number of retries left in the budget of this scheduler.
+	 * 
+	 * @return The number of retries, or {@link #UNLIMITED_BUDGET} when the budget is unlimited.
+	 * @since 2.0
+	 */
+	public long getRetryBudget() {
+		return _unlimitedBudget ? UNLIMITED_BUDGET : _tokens.get() / TOKEN;
+	}
+	
+	private boolean acquireRetry() {
+		if (_unlimitedBudget) {
+			return true;
+		}
+		
+		while (true) {
+			final long tokens = _tokens.get();
+			if (tokens < TOKEN) {
+				return false;
+			} else if (_tokens.compareAndSet(tokens, tokens - TOKEN)) {
+				return true;
+			}
+		}
+	}
+	
+	private void recordSuccess() {
+		if (!_unlimitedBudget && _tokenRatio > 0) {
+			while (true) {
+				final long tokens = _tokens.get();
+				if (tokens >= _maxTokens || _tokens.compareAndSet(tokens, tokens + Math.min(_tokenRatio, _maxTokens - tokens))) {
+					return;
+				}
+			}
+		}
+	}
+	
+	// Evaluation.
+	
+	/**
+	 * Evaluates the given attempts asynchronously until one of them succeeds.
+	 * <p>
+	 * The failures are reported to the given failure handler, which should not block. The evaluation stops when the handler provides some result, when the
+	 * retry budget is exhausted or when the next attempt would start after the timeout. The result is then the last failure.
+	 * 
+	 * @param <R> Type of the results.
+	 * @param attempt Function evaluating the attempts given the number of previous failures.
+	 * @param failureHandler Handler of the failures.
+	 * @param timeout Timeout of the evaluation.
+	 * @return The future result of the evaluation.
+	 * @since 2.0
+	 */
+	public <R> Future<Result<R>> evaluate(final Function<? super Integer, ? extends Result<R>> attempt, final FailureHandler<R> failureHandler, final Duration timeout) {
+		assert null != attempt;
+		assert null != failureHandler;
+		assert null != timeout;
+		
+		final Promise<Result<R>> promise = new Promise<>();
+		final long deadline = System.nanoTime() + toNanos(timeout);
+		schedule(new Attempt<>(attempt, failureHandler, deadline, promise), 0L);
+		return promise.getFuture();
+	}
+	
+	/**
+	 * The {@link Attempt} class implements the attempts of some asynchronous evaluation.
+	 * 
+	 * @param <R> Type of the results.
+	 */
+	private final class Attempt<R>
+	implements Runnable {
+		private final Function<? super Integer, ? extends Result<R>> _attempt;
+		private final FailureHandler<R> _failureHandler;
+		private final long _deadline;
+		private final Promise<Result<R>> _promise;
+		
+		/** Number of failures. */
+		private int _failureCount = 0;
+		
+		public Attempt(final Function<? super Integer, ? extends Result<R>> attempt, final FailureHandler<R> failureHandler, final long deadline, final Promise<Result<R>> promise) {
+			_attempt = attempt;
+			_failureHandler = failureHandler;
+			_deadline = deadline;
+			_promise = promise;
+		}
+		
+		@Override
+		public void run() {
+			try {
+				attempt();
+			} catch (final RuntimeException | Error exception) {
+				// Note: the errors of the attempts and the failures of the handler are not retried, the promise must be fulfilled anyway.
+				_promise.fulfilIfNot(Result.failure(exception));
+			}
+		}
+		
+		private void attempt() {
+			// Try.
+			Result<R> result;
+			try {
+				result = _attempt.evaluate(_failureCount);
+			} catch (final RuntimeException exception) {
+				result = Result.failure(exception);
+			}
+			if (result.isSuccess()) {
+				// Success.
+				recordSuccess();
+				_promise.fulfil(result);
+				return;
+			}
+			
+			// Failure.
+			_failureCount += 1;
+			final Maybe<? extends Result<R>> failureHandling = _failureHandler.handleFailure(result.asFailure().getCause(), _failureCount);
+			if (failureHandling.isSome()) {
+				_promise.fulfil(failureHandling.asSome().getValue());
+				return;
+			}
+			
+			// Retry.
+			final long delay = computeDelay(_failureCount);
+			// Note: the times are compared by difference because the deadline may overflow.
+			if (System.nanoTime() + delay - _deadline > 0 || !acquireRetry()) {
+				// Note: the deadline or the budget does not allow another attempt.
+				_promise.fulfil(result);
+				return;
+			}
+			schedule(this, delay);
+		}
+		
+		public void reject(final RejectedExecutionException exception) {
+			_promise.fulfil(Result.failure(exception));
+		}
+	}
+	
+	private void schedule(final Attempt<?> attempt, final long delay) {
+		try {
+			_executor.schedule(attempt, delay, TimeUnit.NANOSECONDS);
+		} catch (final RejectedExecutionException exception) {
+			attempt.reject(exception);
+		}
+	}
+}
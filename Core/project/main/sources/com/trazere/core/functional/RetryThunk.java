@@ -17,10 +17,12 @@ package com.trazere.core.functional;
 
 import com.trazere.core.imperative.IntCounter;
 import com.trazere.core.lang.ThrowableFactory;
+import com.trazere.core.reactive.Future;
 import com.trazere.core.util.FailureHandler;
 import com.trazere.core.util.Maybe;
 import com.trazere.core.util.Result;
 import com.trazere.core.util.ResultUtils;
+import java.time.Duration;
 
 /**
  * The {@link RetryThunk} interface defines abstract computations of some value whose evaluation is attempted multiple times in case of failure.
@@ -50,6 +52,21 @@ implements Thunk<Result<T>>, FailureHandler<T> {
 		}
 	}
 	
+	/**
+	 * Evaluates this thunk asynchronously using the given scheduler.
+	 * <p>
+	 * The attempts are run by the scheduler and the waits between them are scheduled, so the failure handler should not block. The evaluation stops with the
+	 * last failure when the timeout is reached or when the retry budget of the scheduler is exhausted.
+	 * 
+	 * @param scheduler Scheduler of the attempts.
+	 * @param timeout Timeout of the evaluation.
+	 * @return The future result of the evaluation.
+	 * @since 2.0
+	 */
+	public Future<Result<T>> evaluateAsync(final RetryScheduler scheduler, final Duration timeout) {
+		return scheduler.evaluate(failureCount -> attemptEvaluate(failureCount.intValue()), this, timeout);
+	}
+	
 	/**
 	 * Attempts to evaluate this thunk.
 	 * 
@@ -99,6 +99,34 @@ public class ThunkUtils {
 		};
 	}
 	
+	/**
+	 * Builds a thread-safe memoized view of the the given thunk.
+	 * <p>
+	 * The value is computed once and the subsequent evaluations do not lock.
+	 * 
+	 * @param <T> Type of the values.
+	 * @param thunk Thunk to memoize.
+	 * @return The built thunk.
+	 * @see ConcurrentMemoizedThunk
+	 * @since 2.0
+	 */
+	public static <T> MemoizedThunk<T> concurrentMemoized(final Thunk<? extends T> thunk) {
+		assert null != thunk;
+		
+		return new ConcurrentMemoizedThunk<T>() {
+			@Override
+			protected T compute() {
+				return thunk.evaluate();
+			}
+			
+			@Override
+			public void appendDescription(final DescriptionBuilder description) {
+				super.appendDescription(description);
+				description.append("Thunk", thunk);
+			}
+		};
+	}
+	
 	/**
 	 * Builds a memoized, resettable view of the the given thunk.
 	 * 
@@ -0,0 +1,37 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+/**
+ * The {@link ToDoubleFunction} interface defines functions that result to <code>double</code> values.
+ * <p>
+ * This interface is a specialization of {@link Function} that does not box the results.
+ * 
+ * @param <A> Type of the arguments.
+ * @see Function
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface ToDoubleFunction<A> {
+	/**
+	 * Evaluates this function with the given argument.
+	 * 
+	 * @param arg Argument to evaluate the function with.
+	 * @return The result of the function evaluation.
+	 * @since 2.0
+	 */
+	double evaluate(A arg);
+}
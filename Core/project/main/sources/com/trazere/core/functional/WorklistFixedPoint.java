@@ -0,0 +1,183 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@link WorklistFixedPoint} abstract class implements incremental computations of monotone set-valued fixed points.
+ * <p>
+ * The fixed point is computed semi-naively: each round only derives new elements from the delta of the elements discovered by the previous round rather than
+ * from the whole current set. The computation stops when a round does not discover any new element. The rounds can optionally derive the elements of their
+ * delta in parallel.
+ * <p>
+ * The derivation function must be monotone and must not modify the set of the elements it is given.
+ * 
+ * @param <E> Type of the elements.
+ * @see FixedPoint
+ * @since 2.0
+ */
+public abstract class WorklistFixedPoint<E>
+implements Function<Iterable<? extends E>, Set<E>> {
+	/**
+	 * Builds a worklist fixed point function using the given derivation function.
+	 * 
+	 * @param <E> Type of the elements.
+	 * @param derive Derivation function to use, evaluated with each element of the delta and the current set of elements.
+	 * @return The built fixed point function.
+	 * @since 2.0
+	 */
+	public static <E> WorklistFixedPoint<E> build(final Function2<? super E, ? super Set<E>, ? extends Iterable<? extends E>> derive) {
+		assert null != derive;
+		
+		return new WorklistFixedPoint<E>() {
+			@Override
+			protected Iterable<? extends E> derive(final E element, final Set<E> elements) {
+				return derive.evaluate(element, elements);
+			}
+		};
+	}
+	
+	/**
+	 * Minimum number of elements of the delta per parallel derivation task.
+	 * 
+	 * @since 2.0
+	 */
+	public static final int PARALLEL_THRESHOLD = 64;
+	
+	@Override
+	public Set<E> evaluate(final Iterable<? extends E> initialElements) {
+		return solve(initialElements).getValue();
+	}
+	
+	/**
+	 * Computes the fixed point from the given initial elements.
+	 * 
+	 * @param initialElements Initial elements.
+	 * @return The solution.
+	 * @since 2.0
+	 */
+	public FixedPointSolution<Set<E>> solve(final Iterable<? extends E> initialElements) {
+		return solve(initialElements, null);
+	}
+	
+	/**
+	 * Computes the fixed point from the given initial elements, deriving the elements of each delta in parallel using the given pool.
+	 * 
+	 * @param initialElements Initial elements.
+	 * @param pool Pool running the derivations.
+	 * @return The solution.
+	 * @since 2.0
+	 */
+	public FixedPointSolution<Set<E>> solveParallel(final Iterable<? extends E> initialElements, final ForkJoinPool pool) {
+		assert null != pool;
+		
+		return solve(initialElements, pool);
+	}
+	
+	private FixedPointSolution<Set<E>> solve(final Iterable<? extends E> initialElements, final ForkJoinPool pool) {
+		assert null != initialElements;
+		
+		// Initialize.
+		final Set<E> elements = new HashSet<>();
+		List<E> delta = new ArrayList<>();
+		for (final E element : initialElements) {
+			if (elements.add(element)) {
+				delta.add(element);
+			}
+		}
+		
+		// Propagate.
+		final Set<E> elementsView = Collections.unmodifiableSet(elements);
+		final List<Integer> deltaSizes = new ArrayList<>();
+		while (!delta.isEmpty()) {
+			deltaSizes.add(delta.size());
+			
+			// Note: the set of the elements is only updated between the rounds, so that it can safely be read by the parallel derivations.
+			final List<E> derivedElements = null != pool && delta.size() > PARALLEL_THRESHOLD ? pool.invoke(new DeriveTask(delta, 0, delta.size(), elementsView)) : derive(delta, 0, delta.size(), elementsView);
+			final List<E> nextDelta = new ArrayList<>();
+			for (final E element : derivedElements) {
+				if (elements.add(element)) {
+					nextDelta.add(element);
+				}
+			}
+			delta = nextDelta;
+		}
+		return new FixedPointSolution<>(elements, deltaSizes);
+	}
+	
+	private List<E> derive(final List<E> delta, final int start, final int end, final Set<E> elements) {
+		final List<E> derivedElements = new ArrayList<>();
+		for (int i = start; i < end; i += 1) {
+			for (final E derivedElement : derive(delta.get(i), elements)) {
+				if (!elements.contains(derivedElement)) {
+					derivedElements.add(derivedElement);
+				}
+			}
+		}
+		return derivedElements;
+	}
+	
+	/**
+	 * The {@link DeriveTask} class implements parallel derivations of ranges of deltas.
+	 */
+	private final class DeriveTask
+	extends RecursiveTask<List<E>> {
+		private static final long serialVersionUID = 1L;
+		
+		private final List<E> _delta;
+		private final int _start;
+		private final int _end;
+		private final Set<E> _elements;
+		
+		public DeriveTask(final List<E> delta, final int start, final int end, final Set<E> elements) {
+			_delta = delta;
+			_start = start;
+			_end = end;
+			_elements = elements;
+		}
+		
+		@Override
+		protected List<E> compute() {
+			if (_end - _start <= PARALLEL_THRESHOLD) {
+				return derive(_delta, _start, _end, _elements);
+			} else {
+				final int middle = (_start + _end) >>> 1;
+				final DeriveTask left = new DeriveTask(_delta, _start, middle, _elements);
+				left.fork();
+				final List<E> derivedElements = new DeriveTask(_delta, middle, _end, _elements).compute();
+				derivedElements.addAll(left.join());
+				return derivedElements;
+			}
+		}
+	}
+	
+	/**
+	 * Derives the elements implied by the given element of the delta.
+	 * 
+	 * @param element Element of the delta.
+	 * @param elements Current elements, including the delta. Must not be modified.
+	 * @return The derived elements.
+	 * @since 2.0
+	 */
+	protected abstract Iterable<? extends E> derive(E element, Set<E> elements);
+}
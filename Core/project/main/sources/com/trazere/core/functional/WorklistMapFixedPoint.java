@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.util.Tuple2;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The {@link WorklistMapFixedPoint} abstract class implements incremental computations of monotone map-valued fixed points.
+ * <p>
+ * The values bound to the keys belong to some join semi-lattice. The fixed point is computed semi-naively: each round only derives new contributions from the
+ * bindings changed by the previous round, and joins them into the current bindings. The computation stops when a round does not change any binding. The
+ * rounds can optionally derive the contributions of their delta in parallel.
+ * <p>
+ * The derivation and join functions must be monotone, and the derivation function must not modify the bindings it is given.
+ * 
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ * @see FixedPoint
+ * @see WorklistFixedPoint
+ * @since 2.0
+ */
+public abstract class WorklistMapFixedPoint<K, V>
+implements Function<Map<? extends K, ? extends V>, Map<K, V>> {
+	/**
+	 * Builds a worklist fixed point function using the given derivation and join functions.
+	 * 
+	 * @param <K> Type of the keys.
+	 * @param <V> Type of the values.
+	 * @param derive Derivation function to use, evaluated with each binding of the delta and the current bindings.
+	 * @param join Join function to use.
+	 * @return The built fixed point function.
+	 * @since 2.0
+	 */
+	public static <K, V> WorklistMapFixedPoint<K, V> build(final Function3<? super K, ? super V, ? super Map<K, V>, ? extends Iterable<? extends Tuple2<? extends K, ? extends V>>> derive, final Function2<? super V, ? super V, ? extends V> join) {
+		assert null != derive;
+		assert null != join;
+		
+		return new WorklistMapFixedPoint<K, V>() {
+			@Override
+			protected Iterable<? extends Tuple2<? extends K, ? extends V>> derive(final K key, final V value, final Map<K, V> bindings) {
+				return derive.evaluate(key, value, bindings);
+			}
+			
+			@Override
+			protected V join(final V value1, final V value2) {
+				return join.evaluate(value1, value2);
+			}
+		};
+	}
+	
+	@Override
+	public Map<K, V> evaluate(final Map<? extends K, ? extends V> initialBindings) {
+		return solve(initialBindings).getValue();
+	}
+	
+	/**
+	 * Computes the fixed point from the given initial bindings.
+	 * 
+	 * @param initialBindings Initial bindings.
+	 * @return The solution.
+	 * @since 2.0
+	 */
+	public FixedPointSolution<Map<K, V>> solve(final Map<? extends K, ? extends V> initialBindings) {
+		return solve(initialBindings, null);
+	}
+	
+	/**
+	 * Computes the fixed point from the given initial bindings, deriving the contributions of each delta in parallel using the given pool.
+	 * 
+	 * @param initialBindings Initial bindings.
+	 * @param pool Pool running the derivations.
+	 * @return The solution.
+	 * @since 2.0
+	 */
+	public FixedPointSolution<Map<K, V>> solveParallel(final Map<? extends K, ? extends V> initialBindings, final ForkJoinPool pool) {
+		assert null != pool;
+		
+		return solve(initialBindings, pool);
+	}
+	
+	private FixedPointSolution<Map<K, V>> solve(final Map<? extends K, ? extends V> initialBindings, final ForkJoinPool pool) {
+		assert null != initialBindings;
+		
+		// Initialize.
+		final Map<K, V> bindings = new HashMap<>(initialBindings);
+		List<Tuple2<K, V>> delta = new ArrayList<>(bindings.size());
+		for (final Map.Entry<K, V> binding : bindings.entrySet()) {
+			delta.add(new Tuple2<>(binding.getKey(), binding.getValue()));
+		}
+		
+		// Propagate.
+		final Map<K, V> bindingsView = Collections.unmodifiableMap(bindings);
+		final List<Integer> deltaSizes = new ArrayList<>();
+		while (!delta.isEmpty()) {
+			deltaSizes.add(delta.size());
+			
+			// Note: the bindings are only updated between the rounds, so that they can safely be read by the parallel derivations.
+			final List<Tuple2<? extends K, ? extends V>> contributions = null != pool && delta.size() > WorklistFixedPoint.PARALLEL_THRESHOLD ? pool.invoke(new DeriveTask(delta, 0, delta.size(), bindingsView)) : derive(delta, 0, delta.size(), bindingsView);
+			final Map<K, V> changedBindings = new LinkedHashMap<>();
+			for (final Tuple2<? extends K, ? extends V> contribution : contributions) {
+				final K key = contribution.get1();
+				final V value = contribution.get2();
+				if (!bindings.containsKey(key)) {
+					bindings.put(key, value);
+					changedBindings.put(key, value);
+				} else {
+					final V currentValue = bindings.get(key);
+					final V joinedValue = join(currentValue, value);
+					if (!Objects.equals(currentValue, joinedValue)) {
+						bindings.put(key, joinedValue);
+						changedBindings.put(key, joinedValue);
+					}
+				}
+			}
+			
+			delta = new ArrayList<>(changedBindings.size());
+			for (final Map.Entry<K, V> binding : changedBindings.entrySet()) {
+				delta.add(new Tuple2<>(binding.getKey(), binding.getValue()));
+			}
+		}
+		return new FixedPointSolution<>(bindings, deltaSizes);
+	}
+	
+	private List<Tuple2<? extends K, ? extends V>> derive(final List<Tuple2<K, V>> delta, final int start, final int end, final Map<K, V> bindings) {
+		final List<Tuple2<? extends K, ? extends V>> contributions = new ArrayList<>();
+		for (int i = start; i < end; i += 1) {
+			final Tuple2<K, V> binding = delta.get(i);
+			for (final Tuple2<? extends K, ? extends V> contribution : derive(binding.get1(), binding.get2(), bindings)) {
+				contributions.add(contribution);
+			}
+		}
+		return contributions;
+	}
+	
+	/**
+	 * The {@link DeriveTask} class implements parallel derivations of ranges of deltas.
+	 */
+	private final class DeriveTask
+	extends RecursiveTask<List<Tuple2<? extends K, ? extends V>>> {
+		private static final long serialVersionUID = 1L;
+		
+		private final List<Tuple2<K, V>> _delta;
+		private final int _start;
+		private final int _end;
+		private final Map<K, V> _bindings;
+		
+		public DeriveTask(final List<Tuple2<K, V>> delta, final int start, final int end, final Map<K, V> bindings) {
+			_delta = delta;
+			_start = start;
+			_end = end;
+			_bindings = bindings;
+		}
+		
+		@Override
+		protected List<Tuple2<? extends K, ? extends V>> compute() {
+			if (_end - _start <= WorklistFixedPoint.PARALLEL_THRESHOLD) {
+				return derive(_delta, _start, _end, _bindings);
+			} else {
+				final int middle = (_start + _end) >>> 1;
+				final DeriveTask left = new DeriveTask(_delta, _start, middle, _bindings);
+				left.fork();
+				final List<Tuple2<? extends K, ? extends V>> contributions = new DeriveTask(_delta, middle, _end, _bindings).compute();
+				contributions.addAll(left.join());
+				return contributions;
+			}
+		}
+	}
+	
+	/**
+	 * Derives the contributions implied by the given changed binding.
+	 * 
+	 * @param key Key of the changed binding.
+	 * @param value Value of the changed binding.
+	 * @param bindings Current bindings, including the delta. Must not be modified.
+	 * @return The derived contributions.
+	 * @since 2.0
+	 */
+	protected abstract Iterable<? extends Tuple2<? extends K, ? extends V>> derive(K key, V value, Map<K, V> bindings);
+	
+	/**
+	 * Joins the given values.
+	 * 
+	 * @param value1 First value.
+	 * @param value2 Second value.
+	 * @return The joined value.
+	 * @since 2.0
+	 */
+	protected abstract V join(V value1, V value2);
+}
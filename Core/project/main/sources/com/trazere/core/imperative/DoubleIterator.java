@@ -0,0 +1,48 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.imperative;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@link DoubleIterator} interface defines iterators over <code>double</code> values.
+ * <p>
+ * Unlike {@link java.util.PrimitiveIterator.OfDouble}, this interface does not extend {@link Iterator} so that the utilities can overload the iterator
+ * functions with boxing-free versions without ambiguities.
+ * 
+ * @see Iterator
+ * @since 2.0
+ */
+public interface DoubleIterator {
+	/**
+	 * Indicates whether this iterator has more values.
+	 * 
+	 * @return <code>true</code> when the iterator has more values, <code>false</code> otherwise.
+	 * @since 2.0
+	 */
+	boolean hasNext();
+	
+	/**
+	 * Gets the next value of this iterator.
+	 * 
+	 * @return The next value.
+	 * @throws NoSuchElementException When the iterator has no more values.
+	 * @since 2.0
+	 */
+	double nextDouble()
+	throws NoSuchElementException;
+}
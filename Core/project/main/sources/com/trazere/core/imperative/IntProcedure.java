@@ -0,0 +1,35 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.imperative;
+
+/**
+ * The {@link IntProcedure} interface defines procedures that take <code>int</code> arguments.
+ * <p>
+ * This interface is a specialization of {@link Procedure} that does not box the arguments.
+ * 
+ * @see Procedure
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface IntProcedure {
+	/**
+	 * Executes this procedure with the given argument.
+	 * 
+	 * @param arg Argument to execute the procedure with.
+	 * @since 2.0
+	 */
+	void execute(int arg);
+}
@@ -17,17 +17,34 @@ package com.trazere.core.imperative;
 
 import com.trazere.core.collection.CollectionAccumulators;
 import com.trazere.core.collection.CollectionFactory;
+import com.trazere.core.collection.IntCollection;
+import com.trazere.core.collection.LongCollection;
 import com.trazere.core.collection.MapAccumulators;
 import com.trazere.core.collection.Multimap;
 import com.trazere.core.collection.MultimapAccumulators;
 import com.trazere.core.design.Decorator;
+import com.trazere.core.functional.DoubleFunction;
+import com.trazere.core.functional.DoubleOperator;
+import com.trazere.core.functional.DoubleOperator2;
+import com.trazere.core.functional.DoublePredicate;
 import com.trazere.core.functional.Function;
 import com.trazere.core.functional.Function2;
 import com.trazere.core.functional.Function3;
 import com.trazere.core.functional.FunctionAccumulators;
 import com.trazere.core.functional.FunctionUtils;
+import com.trazere.core.functional.IntFunction;
+import com.trazere.core.functional.IntOperator;
+import com.trazere.core.functional.IntOperator2;
+import com.trazere.core.functional.IntPredicate;
+import com.trazere.core.functional.LongFunction;
+import com.trazere.core.functional.LongOperator;
+import com.trazere.core.functional.LongOperator2;
+import com.trazere.core.functional.LongPredicate;
 import com.trazere.core.functional.Predicate;
 import com.trazere.core.functional.Predicate2;
+import com.trazere.core.functional.ToDoubleFunction;
+import com.trazere.core.functional.ToIntFunction;
+import com.trazere.core.functional.ToLongFunction;
 import com.trazere.core.lang.ComparableAccumulators;
 import com.trazere.core.lang.IterableFunctions;
 import com.trazere.core.util.ComparatorAccumulators;
@@ -38,6 +55,10 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
 
 /**
  * The {@link IteratorUtils} class provides various utilities regarding {@link Iterator iterators}.
@@ -1069,6 +1090,955 @@ public class IteratorUtils {
 		};
 	}
 	
+	// Int iterators.
+	
+	/**
+	 * Drains all values provided by the given iterator and accumulates them into the given accumulator.
+	 * 
+	 * @param <A> Type of the accumulator.
+	 * @param iterator Iterator to drain.
+	 * @param results Accumulator to populate with the drained values.
+	 * @return The given result accumulator.
+	 * @since 2.0
+	 */
+	public static <A extends IntAccumulator<?>> A drain(final IntIterator iterator, final A results) {
+		while (iterator.hasNext()) {
+			results.add(iterator.nextInt());
+		}
+		return results;
+	}
+	
+	/**
+	 * Drains all values provided by the given iterator and adds them into the given collection.
+	 * 
+	 * @param <C> Type of the collection.
+	 * @param iterator Iterator to drain.
+	 * @param results Collection to populate with the drained values.
+	 * @return The given result collection.
+	 * @since 2.0
+	 */
+	public static <C extends IntCollection> C drain(final IntIterator iterator, final C results) {
+		while (iterator.hasNext()) {
+			results.add(iterator.nextInt());
+		}
+		return results;
+	}
+	
+	/**
+	 * Executes the given procedure with each value provided by the given iterator.
+	 * 
+	 * @param iterator Iterator providing the values.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public static void foreach(final IntIterator iterator, final IntProcedure procedure) {
+		while (iterator.hasNext()) {
+			procedure.execute(iterator.nextInt());
+		}
+	}
+	
+	/**
+	 * Left folds over the values provided by the given iterator using the given binary operator and initial state.
+	 * 
+	 * @param iterator Iterator providing the values to fold over.
+	 * @param operator Binary operator to use.
+	 * @param initialState Initial state.
+	 * @return The folded state.
+	 * @since 2.0
+	 */
+	public static int fold(final IntIterator iterator, final IntOperator2 operator, final int initialState) {
+		int state = initialState;
+		while (iterator.hasNext()) {
+			state = operator.evaluate(state, iterator.nextInt());
+		}
+		return state;
+	}
+	
+	/**
+	 * Gets the first value provided by the given iterator accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The first accepted value.
+	 * @since 2.0
+	 */
+	public static OptionalInt first(final IntIterator iterator, final IntPredicate filter) {
+		while (iterator.hasNext()) {
+			final int value = iterator.nextInt();
+			if (filter.evaluate(value)) {
+				return OptionalInt.of(value);
+			}
+		}
+		return OptionalInt.empty();
+	}
+	
+	/**
+	 * Tests whether any value provided by the given iterator is accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when some value is accepted, <code>false</code> when all values are rejected.
+	 * @since 2.0
+	 */
+	public static boolean isAny(final IntIterator iterator, final IntPredicate filter) {
+		while (iterator.hasNext()) {
+			if (filter.evaluate(iterator.nextInt())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Tests whether all values provided by the given iterator are accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when all values are accepted, <code>false</code> when some value is rejected.
+	 * @since 2.0
+	 */
+	public static boolean areAll(final IntIterator iterator, final IntPredicate filter) {
+		while (iterator.hasNext()) {
+			if (!filter.evaluate(iterator.nextInt())) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Counts the values provided by the given iterator accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to count.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The number of accepted values.
+	 * @since 2.0
+	 */
+	public static int count(final IntIterator iterator, final IntPredicate filter) {
+		int count = 0;
+		while (iterator.hasNext()) {
+			if (filter.evaluate(iterator.nextInt())) {
+				count += 1;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the least value provided by the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to compare.
+	 * @return The least value.
+	 * @since 2.0
+	 */
+	public static OptionalInt least(final IntIterator iterator) {
+		if (!iterator.hasNext()) {
+			return OptionalInt.empty();
+		}
+		
+		int least = iterator.nextInt();
+		while (iterator.hasNext()) {
+			final int value = iterator.nextInt();
+			if (Integer.compare(value, least) < 0) {
+				least = value;
+			}
+		}
+		return OptionalInt.of(least);
+	}
+	
+	/**
+	 * Gets the greatest value provided by the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to compare.
+	 * @return The greatest value.
+	 * @since 2.0
+	 */
+	public static OptionalInt greatest(final IntIterator iterator) {
+		if (!iterator.hasNext()) {
+			return OptionalInt.empty();
+		}
+		
+		int greatest = iterator.nextInt();
+		while (iterator.hasNext()) {
+			final int value = iterator.nextInt();
+			if (Integer.compare(value, greatest) > 0) {
+				greatest = value;
+			}
+		}
+		return OptionalInt.of(greatest);
+	}
+	
+	/**
+	 * Filters the values provided by the given iterator using the given filter.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return An iterator providing the filtered values.
+	 * @since 2.0
+	 */
+	public static IntIterator filter(final IntIterator iterator, final IntPredicate filter) {
+		assert null != iterator;
+		assert null != filter;
+		
+		return new IntIterator() {
+			private boolean _pulled = false;
+			private int _next;
+			
+			@Override
+			public boolean hasNext() {
+				while (!_pulled && iterator.hasNext()) {
+					final int value = iterator.nextInt();
+					if (filter.evaluate(value)) {
+						_pulled = true;
+						_next = value;
+					}
+				}
+				return _pulled;
+			}
+			
+			@Override
+			public int nextInt()
+			throws NoSuchElementException {
+				if (hasNext()) {
+					_pulled = false;
+					return _next;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterator using the given operator.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to transform.
+	 * @param operator Operator to use to transform the values.
+	 * @return An iterator providing the transformed values.
+	 * @since 2.0
+	 */
+	public static IntIterator map(final IntIterator iterator, final IntOperator operator) {
+		assert null != iterator;
+		assert null != operator;
+		
+		return new IntIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public int nextInt() {
+				return operator.evaluate(iterator.nextInt());
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterator into elements using the given function.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param <TE> Type of the transformed elements.
+	 * @param iterator Iterator providing the values to transform.
+	 * @param function Function to use to transform the values.
+	 * @return An iterator providing the transformed elements.
+	 * @since 2.0
+	 */
+	public static <TE> Iterator<TE> mapToObj(final IntIterator iterator, final IntFunction<? extends TE> function) {
+		assert null != iterator;
+		assert null != function;
+		
+		return new Iterator<TE>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public TE next() {
+				return function.evaluate(iterator.nextInt());
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the elements provided by the given iterator into <code>int</code> values using the given function.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param <E> Type of the elements.
+	 * @param iterator Iterator providing the elements to transform.
+	 * @param function Function to use to transform the elements.
+	 * @return An iterator providing the transformed values.
+	 * @since 2.0
+	 */
+	public static <E> IntIterator mapToInt(final Iterator<? extends E> iterator, final ToIntFunction<? super E> function) {
+		assert null != iterator;
+		assert null != function;
+		
+		return new IntIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public int nextInt() {
+				return function.evaluate(iterator.next());
+			}
+		};
+	}
+	
+	/**
+	 * Builds a Java 8 primitive iterator that lifts the given iterator.
+	 * 
+	 * @param iterator Iterator to lift.
+	 * @return The built Java 8 primitive iterator.
+	 * @since 2.0
+	 */
+	public static PrimitiveIterator.OfInt toIntIterator(final IntIterator iterator) {
+		assert null != iterator;
+		
+		return new PrimitiveIterator.OfInt() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public int nextInt() {
+				return iterator.nextInt();
+			}
+		};
+	}
+	
+	// Long iterators.
+	
+	/**
+	 * Drains all values provided by the given iterator and accumulates them into the given accumulator.
+	 * 
+	 * @param <A> Type of the accumulator.
+	 * @param iterator Iterator to drain.
+	 * @param results Accumulator to populate with the drained values.
+	 * @return The given result accumulator.
+	 * @since 2.0
+	 */
+	public static <A extends LongAccumulator<?>> A drain(final LongIterator iterator, final A results) {
+		while (iterator.hasNext()) {
+			results.add(iterator.nextLong());
+		}
+		return results;
+	}
+	
+	/**
+	 * Drains all values provided by the given iterator and adds them into the given collection.
+	 * 
+	 * @param <C> Type of the collection.
+	 * @param iterator Iterator to drain.
+	 * @param results Collection to populate with the drained values.
+	 * @return The given result collection.
+	 * @since 2.0
+	 */
+	public static <C extends LongCollection> C drain(final LongIterator iterator, final C results) {
+		while (iterator.hasNext()) {
+			results.add(iterator.nextLong());
+		}
+		return results;
+	}
+	
+	/**
+	 * Executes the given procedure with each value provided by the given iterator.
+	 * 
+	 * @param iterator Iterator providing the values.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public static void foreach(final LongIterator iterator, final LongProcedure procedure) {
+		while (iterator.hasNext()) {
+			procedure.execute(iterator.nextLong());
+		}
+	}
+	
+	/**
+	 * Left folds over the values provided by the given iterator using the given binary operator and initial state.
+	 * 
+	 * @param iterator Iterator providing the values to fold over.
+	 * @param operator Binary operator to use.
+	 * @param initialState Initial state.
+	 * @return The folded state.
+	 * @since 2.0
+	 */
+	public static long fold(final LongIterator iterator, final LongOperator2 operator, final long initialState) {
+		long state = initialState;
+		while (iterator.hasNext()) {
+			state = operator.evaluate(state, iterator.nextLong());
+		}
+		return state;
+	}
+	
+	/**
+	 * Gets the first value provided by the given iterator accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The first accepted value.
+	 * @since 2.0
+	 */
+	public static OptionalLong first(final LongIterator iterator, final LongPredicate filter) {
+		while (iterator.hasNext()) {
+			final long value = iterator.nextLong();
+			if (filter.evaluate(value)) {
+				return OptionalLong.of(value);
+			}
+		}
+		return OptionalLong.empty();
+	}
+	
+	/**
+	 * Tests whether any value provided by the given iterator is accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when some value is accepted, <code>false</code> when all values are rejected.
+	 * @since 2.0
+	 */
+	public static boolean isAny(final LongIterator iterator, final LongPredicate filter) {
+		while (iterator.hasNext()) {
+			if (filter.evaluate(iterator.nextLong())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Tests whether all values provided by the given iterator are accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when all values are accepted, <code>false</code> when some value is rejected.
+	 * @since 2.0
+	 */
+	public static boolean areAll(final LongIterator iterator, final LongPredicate filter) {
+		while (iterator.hasNext()) {
+			if (!filter.evaluate(iterator.nextLong())) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Counts the values provided by the given iterator accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to count.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The number of accepted values.
+	 * @since 2.0
+	 */
+	public static int count(final LongIterator iterator, final LongPredicate filter) {
+		int count = 0;
+		while (iterator.hasNext()) {
+			if (filter.evaluate(iterator.nextLong())) {
+				count += 1;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the least value provided by the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to compare.
+	 * @return The least value.
+	 * @since 2.0
+	 */
+	public static OptionalLong least(final LongIterator iterator) {
+		if (!iterator.hasNext()) {
+			return OptionalLong.empty();
+		}
+		
+		long least = iterator.nextLong();
+		while (iterator.hasNext()) {
+			final long value = iterator.nextLong();
+			if (Long.compare(value, least) < 0) {
+				least = value;
+			}
+		}
+		return OptionalLong.of(least);
+	}
+	
+	/**
+	 * Gets the greatest value provided by the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to compare.
+	 * @return The greatest value.
+	 * @since 2.0
+	 */
+	public static OptionalLong greatest(final LongIterator iterator) {
+		if (!iterator.hasNext()) {
+			return OptionalLong.empty();
+		}
+		
+		long greatest = iterator.nextLong();
+		while (iterator.hasNext()) {
+			final long value = iterator.nextLong();
+			if (Long.compare(value, greatest) > 0) {
+				greatest = value;
+			}
+		}
+		return OptionalLong.of(greatest);
+	}
+	
+	/**
+	 * Filters the values provided by the given iterator using the given filter.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return An iterator providing the filtered values.
+	 * @since 2.0
+	 */
+	public static LongIterator filter(final LongIterator iterator, final LongPredicate filter) {
+		assert null != iterator;
+		assert null != filter;
+		
+		return new LongIterator() {
+			private boolean _pulled = false;
+			private long _next;
+			
+			@Override
+			public boolean hasNext() {
+				while (!_pulled && iterator.hasNext()) {
+					final long value = iterator.nextLong();
+					if (filter.evaluate(value)) {
+						_pulled = true;
+						_next = value;
+					}
+				}
+				return _pulled;
+			}
+			
+			@Override
+			public long nextLong()
+			throws NoSuchElementException {
+				if (hasNext()) {
+					_pulled = false;
+					return _next;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterator using the given operator.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to transform.
+	 * @param operator Operator to use to transform the values.
+	 * @return An iterator providing the transformed values.
+	 * @since 2.0
+	 */
+	public static LongIterator map(final LongIterator iterator, final LongOperator operator) {
+		assert null != iterator;
+		assert null != operator;
+		
+		return new LongIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public long nextLong() {
+				return operator.evaluate(iterator.nextLong());
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterator into elements using the given function.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param <TE> Type of the transformed elements.
+	 * @param iterator Iterator providing the values to transform.
+	 * @param function Function to use to transform the values.
+	 * @return An iterator providing the transformed elements.
+	 * @since 2.0
+	 */
+	public static <TE> Iterator<TE> mapToObj(final LongIterator iterator, final LongFunction<? extends TE> function) {
+		assert null != iterator;
+		assert null != function;
+		
+		return new Iterator<TE>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public TE next() {
+				return function.evaluate(iterator.nextLong());
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the elements provided by the given iterator into <code>long</code> values using the given function.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param <E> Type of the elements.
+	 * @param iterator Iterator providing the elements to transform.
+	 * @param function Function to use to transform the elements.
+	 * @return An iterator providing the transformed values.
+	 * @since 2.0
+	 */
+	public static <E> LongIterator mapToLong(final Iterator<? extends E> iterator, final ToLongFunction<? super E> function) {
+		assert null != iterator;
+		assert null != function;
+		
+		return new LongIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public long nextLong() {
+				return function.evaluate(iterator.next());
+			}
+		};
+	}
+	
+	/**
+	 * Builds a Java 8 primitive iterator that lifts the given iterator.
+	 * 
+	 * @param iterator Iterator to lift.
+	 * @return The built Java 8 primitive iterator.
+	 * @since 2.0
+	 */
+	public static PrimitiveIterator.OfLong toLongIterator(final LongIterator iterator) {
+		assert null != iterator;
+		
+		return new PrimitiveIterator.OfLong() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public long nextLong() {
+				return iterator.nextLong();
+			}
+		};
+	}
+	
+	// Double iterators.
+	
+	/**
+	 * Executes the given procedure with each value provided by the given iterator.
+	 * 
+	 * @param iterator Iterator providing the values.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public static void foreach(final DoubleIterator iterator, final DoubleProcedure procedure) {
+		while (iterator.hasNext()) {
+			procedure.execute(iterator.nextDouble());
+		}
+	}
+	
+	/**
+	 * Left folds over the values provided by the given iterator using the given binary operator and initial state.
+	 * 
+	 * @param iterator Iterator providing the values to fold over.
+	 * @param operator Binary operator to use.
+	 * @param initialState Initial state.
+	 * @return The folded state.
+	 * @since 2.0
+	 */
+	public static double fold(final DoubleIterator iterator, final DoubleOperator2 operator, final double initialState) {
+		double state = initialState;
+		while (iterator.hasNext()) {
+			state = operator.evaluate(state, iterator.nextDouble());
+		}
+		return state;
+	}
+	
+	/**
+	 * Gets the first value provided by the given iterator accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The first accepted value.
+	 * @since 2.0
+	 */
+	public static OptionalDouble first(final DoubleIterator iterator, final DoublePredicate filter) {
+		while (iterator.hasNext()) {
+			final double value = iterator.nextDouble();
+			if (filter.evaluate(value)) {
+				return OptionalDouble.of(value);
+			}
+		}
+		return OptionalDouble.empty();
+	}
+	
+	/**
+	 * Tests whether any value provided by the given iterator is accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when some value is accepted, <code>false</code> when all values are rejected.
+	 * @since 2.0
+	 */
+	public static boolean isAny(final DoubleIterator iterator, final DoublePredicate filter) {
+		while (iterator.hasNext()) {
+			if (filter.evaluate(iterator.nextDouble())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Tests whether all values provided by the given iterator are accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when all values are accepted, <code>false</code> when some value is rejected.
+	 * @since 2.0
+	 */
+	public static boolean areAll(final DoubleIterator iterator, final DoublePredicate filter) {
+		while (iterator.hasNext()) {
+			if (!filter.evaluate(iterator.nextDouble())) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Counts the values provided by the given iterator accepted by the given filter.
+	 * 
+	 * @param iterator Iterator providing the values to count.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The number of accepted values.
+	 * @since 2.0
+	 */
+	public static int count(final DoubleIterator iterator, final DoublePredicate filter) {
+		int count = 0;
+		while (iterator.hasNext()) {
+			if (filter.evaluate(iterator.nextDouble())) {
+				count += 1;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the least value provided by the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to compare.
+	 * @return The least value.
+	 * @since 2.0
+	 */
+	public static OptionalDouble least(final DoubleIterator iterator) {
+		if (!iterator.hasNext()) {
+			return OptionalDouble.empty();
+		}
+		
+		double least = iterator.nextDouble();
+		while (iterator.hasNext()) {
+			final double value = iterator.nextDouble();
+			if (Double.compare(value, least) < 0) {
+				least = value;
+			}
+		}
+		return OptionalDouble.of(least);
+	}
+	
+	/**
+	 * Gets the greatest value provided by the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to compare.
+	 * @return The greatest value.
+	 * @since 2.0
+	 */
+	public static OptionalDouble greatest(final DoubleIterator iterator) {
+		if (!iterator.hasNext()) {
+			return OptionalDouble.empty();
+		}
+		
+		double greatest = iterator.nextDouble();
+		while (iterator.hasNext()) {
+			final double value = iterator.nextDouble();
+			if (Double.compare(value, greatest) > 0) {
+				greatest = value;
+			}
+		}
+		return OptionalDouble.of(greatest);
+	}
+	
+	/**
+	 * Filters the values provided by the given iterator using the given filter.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return An iterator providing the filtered values.
+	 * @since 2.0
+	 */
+	public static DoubleIterator filter(final DoubleIterator iterator, final DoublePredicate filter) {
+		assert null != iterator;
+		assert null != filter;
+		
+		return new DoubleIterator() {
+			private boolean _pulled = false;
+			private double _next;
+			
+			@Override
+			public boolean hasNext() {
+				while (!_pulled && iterator.hasNext()) {
+					final double value = iterator.nextDouble();
+					if (filter.evaluate(value)) {
+						_pulled = true;
+						_next = value;
+					}
+				}
+				return _pulled;
+			}
+			
+			@Override
+			public double nextDouble()
+			throws NoSuchElementException {
+				if (hasNext()) {
+					_pulled = false;
+					return _next;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterator using the given operator.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param iterator Iterator providing the values to transform.
+	 * @param operator Operator to use to transform the values.
+	 * @return An iterator providing the transformed values.
+	 * @since 2.0
+	 */
+	public static DoubleIterator map(final DoubleIterator iterator, final DoubleOperator operator) {
+		assert null != iterator;
+		assert null != operator;
+		
+		return new DoubleIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public double nextDouble() {
+				return operator.evaluate(iterator.nextDouble());
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterator into elements using the given function.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param <TE> Type of the transformed elements.
+	 * @param iterator Iterator providing the values to transform.
+	 * @param function Function to use to transform the values.
+	 * @return An iterator providing the transformed elements.
+	 * @since 2.0
+	 */
+	public static <TE> Iterator<TE> mapToObj(final DoubleIterator iterator, final DoubleFunction<? extends TE> function) {
+		assert null != iterator;
+		assert null != function;
+		
+		return new Iterator<TE>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public TE next() {
+				return function.evaluate(iterator.nextDouble());
+			}
+		};
+	}
+	
+	/**
+	 * Transforms the elements provided by the given iterator into <code>double</code> values using the given function.
+	 * <p>
+	 * The built iterator feeds from the given iterator.
+	 *
+	 * @param <E> Type of the elements.
+	 * @param iterator Iterator providing the elements to transform.
+	 * @param function Function to use to transform the elements.
+	 * @return An iterator providing the transformed values.
+	 * @since 2.0
+	 */
+	public static <E> DoubleIterator mapToDouble(final Iterator<? extends E> iterator, final ToDoubleFunction<? super E> function) {
+		assert null != iterator;
+		assert null != function;
+		
+		return new DoubleIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public double nextDouble() {
+				return function.evaluate(iterator.next());
+			}
+		};
+	}
+	
+	/**
+	 * Builds a Java 8 primitive iterator that lifts the given iterator.
+	 * 
+	 * @param iterator Iterator to lift.
+	 * @return The built Java 8 primitive iterator.
+	 * @since 2.0
+	 */
+	public static PrimitiveIterator.OfDouble toDoubleIterator(final DoubleIterator iterator) {
+		assert null != iterator;
+		
+		return new PrimitiveIterator.OfDouble() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public double nextDouble() {
+				return iterator.nextDouble();
+			}
+		};
+	}
+	
 	private IteratorUtils() {
 		// Prevent instantiation.
 	}
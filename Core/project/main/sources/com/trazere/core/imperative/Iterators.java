@@ -18,6 +18,7 @@ package com.trazere.core.imperative;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
  * The {@link Iterators} class provides various factories of {@link Iterator iterators}.
@@ -102,6 +103,177 @@ public class Iterators {
 		};
 	}
 	
+	/**
+	 * Builds an iterator over the given <code>int</code> values.
+	 * 
+	 * @param values Values provided by the iterator to build.
+	 * @return The built iterator.
+	 * @since 2.0
+	 */
+	public static IntIterator fromInts(final int... values) {
+		assert null != values;
+		
+		return new IntIterator() {
+			protected int _index = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return _index < values.length;
+			}
+			
+			@Override
+			public int nextInt()
+			throws NoSuchElementException {
+				if (_index < values.length) {
+					final int value = values[_index];
+					_index += 1;
+					
+					return value;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Builds an iterator that lifts the given Java 8 primitive iterator.
+	 * 
+	 * @param iterator Java 8 primitive iterator to lift.
+	 * @return The built iterator.
+	 * @since 2.0
+	 */
+	public static IntIterator fromIntIterator(final PrimitiveIterator.OfInt iterator) {
+		assert null != iterator;
+		
+		return new IntIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public int nextInt()
+			throws NoSuchElementException {
+				return iterator.nextInt();
+			}
+		};
+	}
+	
+	/**
+	 * Builds an iterator over the given <code>long</code> values.
+	 * 
+	 * @param values Values provided by the iterator to build.
+	 * @return The built iterator.
+	 * @since 2.0
+	 */
+	public static LongIterator fromLongs(final long... values) {
+		assert null != values;
+		
+		return new LongIterator() {
+			protected int _index = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return _index < values.length;
+			}
+			
+			@Override
+			public long nextLong()
+			throws NoSuchElementException {
+				if (_index < values.length) {
+					final long value = values[_index];
+					_index += 1;
+					
+					return value;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Builds an iterator that lifts the given Java 8 primitive iterator.
+	 * 
+	 * @param iterator Java 8 primitive iterator to lift.
+	 * @return The built iterator.
+	 * @since 2.0
+	 */
+	public static LongIterator fromLongIterator(final PrimitiveIterator.OfLong iterator) {
+		assert null != iterator;
+		
+		return new LongIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public long nextLong()
+			throws NoSuchElementException {
+				return iterator.nextLong();
+			}
+		};
+	}
+	
+	/**
+	 * Builds an iterator over the given <code>double</code> values.
+	 * 
+	 * @param values Values provided by the iterator to build.
+	 * @return The built iterator.
+	 * @since 2.0
+	 */
+	public static DoubleIterator fromDoubles(final double... values) {
+		assert null != values;
+		
+		return new DoubleIterator() {
+			protected int _index = 0;
+			
+			@Override
+			public boolean hasNext() {
+				return _index < values.length;
+			}
+			
+			@Override
+			public double nextDouble()
+			throws NoSuchElementException {
+				if (_index < values.length) {
+					final double value = values[_index];
+					_index += 1;
+					
+					return value;
+				} else {
+					throw new NoSuchElementException();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Builds an iterator that lifts the given Java 8 primitive iterator.
+	 * 
+	 * @param iterator Java 8 primitive iterator to lift.
+	 * @return The built iterator.
+	 * @since 2.0
+	 */
+	public static DoubleIterator fromDoubleIterator(final PrimitiveIterator.OfDouble iterator) {
+		assert null != iterator;
+		
+		return new DoubleIterator() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public double nextDouble()
+			throws NoSuchElementException {
+				return iterator.nextDouble();
+			}
+		};
+	}
+	
 	private Iterators() {
 		// Prevent instantiation.
 	}
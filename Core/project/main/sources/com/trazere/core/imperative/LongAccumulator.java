@@ -0,0 +1,51 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.imperative;
+
+/**
+ * The {@link LongAccumulator} interface defines accumulators of <code>long</code> values.
+ * <p>
+ * This interface is a specialization of {@link Accumulator} that does not box the accumulated values.
+ * 
+ * @param <S> Type of the state.
+ * @see Accumulator
+ * @since 2.0
+ */
+public interface LongAccumulator<S>
+extends LongProcedure {
+	/**
+	 * Accumulates the given value into this accumulator.
+	 * 
+	 * @param value Value to accumulate.
+	 * @since 2.0
+	 */
+	void add(long value);
+	
+	/**
+	 * Gets the current state of this accumulator.
+	 * 
+	 * @return The state.
+	 * @since 2.0
+	 */
+	S get();
+	
+	// Procedure.
+	
+	@Override
+	default void execute(final long value) {
+		add(value);
+	}
+}
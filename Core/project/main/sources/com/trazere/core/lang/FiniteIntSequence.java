@@ -15,6 +15,7 @@
  */
 package com.trazere.core.lang;
 
+import com.trazere.core.imperative.IntIterator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -45,7 +46,7 @@ extends BaseIntSequence {
 	 * @since 2.0
 	 */
 	public FiniteIntSequence(final int start, final int end, final int interval) {
-		super(start, start >= end ? interval : -interval);
+		super(start, start <= end ? interval : -interval);
 		
 		// Check the interval.
 		if (interval <= 0) {
@@ -122,6 +123,30 @@ extends BaseIntSequence {
 		};
 	}
 	
+	@Override
+	public IntIterator intIterator() {
+		return new IntIterator() {
+			private int _value = _start;
+			
+			@Override
+			public boolean hasNext() {
+				return !_logic.isOver(_value, _end);
+			}
+			
+			@Override
+			public int nextInt()
+			throws NoSuchElementException {
+				if (_logic.isOver(_value, _end)) {
+					throw new NoSuchElementException();
+				} else {
+					final int value = _value;
+					_value += _increment;
+					return value;
+				}
+			}
+		};
+	}
+	
 	// Object.
 	
 	@Override
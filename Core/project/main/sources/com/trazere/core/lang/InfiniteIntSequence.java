@@ -15,6 +15,7 @@
  */
 package com.trazere.core.lang;
 
+import com.trazere.core.imperative.IntIterator;
 import java.util.Iterator;
 
 /**
@@ -102,6 +103,25 @@ extends BaseIntSequence {
 		};
 	}
 	
+	@Override
+	public IntIterator intIterator() {
+		return new IntIterator() {
+			private int _value = _start;
+			
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+			
+			@Override
+			public int nextInt() {
+				final int value = _value;
+				_value += _increment;
+				return value;
+			}
+		};
+	}
+	
 	// Object.
 	
 	@Override
@@ -16,6 +16,7 @@
 package com.trazere.core.lang;
 
 import com.trazere.core.functional.Predicate;
+import com.trazere.core.imperative.IntIterator;
 
 /**
  * The {@link IntSequence} class represents sequences of integers.
@@ -109,4 +110,27 @@ extends Predicate<Integer>, Iterable<Integer> {
 	 * @since 2.0
 	 */
 	boolean includes(int value);
+	
+	// Iteration.
+	
+	/**
+	 * Gets an iterator over the values of this sequence that does not box them.
+	 * 
+	 * @return The iterator.
+	 * @since 2.0
+	 */
+	IntIterator intIterator();
+	
+	/**
+	 * Gets a view of this sequence as an iterable of <code>int</code> values.
+	 * <p>
+	 * Note: sequences are not {@link IntIterable} themselves because the generic and the <code>int</code> overloads of {@link IterableUtils} would then be
+	 * ambiguous for them.
+	 * 
+	 * @return The view.
+	 * @since 2.0
+	 */
+	default IntIterable asIntIterable() {
+		return this::intIterator;
+	}
 }
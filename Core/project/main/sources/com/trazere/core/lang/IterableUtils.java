@@ -17,12 +17,30 @@ package com.trazere.core.lang;
 
 import com.trazere.core.collection.CollectionFactory;
 import com.trazere.core.design.Decorator;
+import com.trazere.core.functional.DoubleFunction;
+import com.trazere.core.functional.DoubleOperator;
+import com.trazere.core.functional.DoubleOperator2;
+import com.trazere.core.functional.DoublePredicate;
 import com.trazere.core.functional.Function;
 import com.trazere.core.functional.Function2;
 import com.trazere.core.functional.Function3;
+import com.trazere.core.functional.IntFunction;
+import com.trazere.core.functional.IntOperator;
+import com.trazere.core.functional.IntOperator2;
+import com.trazere.core.functional.IntPredicate;
+import com.trazere.core.functional.LongFunction;
+import com.trazere.core.functional.LongOperator;
+import com.trazere.core.functional.LongOperator2;
+import com.trazere.core.functional.LongPredicate;
 import com.trazere.core.functional.Predicate;
 import com.trazere.core.functional.Predicate2;
+import com.trazere.core.functional.ToDoubleFunction;
+import com.trazere.core.functional.ToIntFunction;
+import com.trazere.core.functional.ToLongFunction;
+import com.trazere.core.imperative.DoubleProcedure;
+import com.trazere.core.imperative.IntProcedure;
 import com.trazere.core.imperative.IteratorUtils;
+import com.trazere.core.imperative.LongProcedure;
 import com.trazere.core.imperative.Procedure;
 import com.trazere.core.imperative.Procedure2;
 import com.trazere.core.util.Maybe;
@@ -31,6 +49,9 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 /**
  * The {@link IterableUtils} class provides various utilities regarding {@link Iterable iterables}.
@@ -559,6 +580,504 @@ public class IterableUtils {
 		return () -> IteratorUtils.zip(iterable1.iterator(), iterable2.iterator());
 	}
 	
+	// Int iterables.
+	
+	/**
+	 * Executes the given procedure with each value provided by the given iterable.
+	 * 
+	 * @param iterable Iterable providing the values.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public static void foreach(final IntIterable iterable, final IntProcedure procedure) {
+		IteratorUtils.foreach(iterable.intIterator(), procedure);
+	}
+	
+	/**
+	 * Left folds over the values provided by the given iterable using the given binary operator and initial state.
+	 * 
+	 * @param iterable Iterable providing the values to fold over.
+	 * @param operator Binary operator to use.
+	 * @param initialState Initial state.
+	 * @return The folded state.
+	 * @since 2.0
+	 */
+	public static int fold(final IntIterable iterable, final IntOperator2 operator, final int initialState) {
+		return IteratorUtils.fold(iterable.intIterator(), operator, initialState);
+	}
+	
+	/**
+	 * Gets the first value provided by the given iterable accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The first accepted value.
+	 * @since 2.0
+	 */
+	public static OptionalInt first(final IntIterable iterable, final IntPredicate filter) {
+		return IteratorUtils.first(iterable.intIterator(), filter);
+	}
+	
+	/**
+	 * Tests whether any value provided by the given iterable is accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when some value is accepted, <code>false</code> when all values are rejected.
+	 * @since 2.0
+	 */
+	public static boolean isAny(final IntIterable iterable, final IntPredicate filter) {
+		return IteratorUtils.isAny(iterable.intIterator(), filter);
+	}
+	
+	/**
+	 * Tests whether all values provided by the given iterable are accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when all values are accepted, <code>false</code> when some value is rejected.
+	 * @since 2.0
+	 */
+	public static boolean areAll(final IntIterable iterable, final IntPredicate filter) {
+		return IteratorUtils.areAll(iterable.intIterator(), filter);
+	}
+	
+	/**
+	 * Counts the values provided by the given iterable accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to count.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The number of accepted values.
+	 * @since 2.0
+	 */
+	public static int count(final IntIterable iterable, final IntPredicate filter) {
+		return IteratorUtils.count(iterable.intIterator(), filter);
+	}
+	
+	/**
+	 * Gets the least value provided by the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to compare.
+	 * @return The least value.
+	 * @since 2.0
+	 */
+	public static OptionalInt least(final IntIterable iterable) {
+		return IteratorUtils.least(iterable.intIterator());
+	}
+	
+	/**
+	 * Gets the greatest value provided by the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to compare.
+	 * @return The greatest value.
+	 * @since 2.0
+	 */
+	public static OptionalInt greatest(final IntIterable iterable) {
+		return IteratorUtils.greatest(iterable.intIterator());
+	}
+	
+	/**
+	 * Filters the values provided by the given iterable using the given filter.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return An iterable providing the filtered values.
+	 * @since 2.0
+	 */
+	public static IntIterable filter(final IntIterable iterable, final IntPredicate filter) {
+		assert null != iterable;
+		assert null != filter;
+		
+		return () -> IteratorUtils.filter(iterable.intIterator(), filter);
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterable using the given operator.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to transform.
+	 * @param operator Operator to use to transform the values.
+	 * @return An iterable providing the transformed values.
+	 * @since 2.0
+	 */
+	public static IntIterable map(final IntIterable iterable, final IntOperator operator) {
+		assert null != iterable;
+		assert null != operator;
+		
+		return () -> IteratorUtils.map(iterable.intIterator(), operator);
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterable into elements using the given function.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param <TE> Type of the transformed elements.
+	 * @param iterable Iterable providing the values to transform.
+	 * @param function Function to use to transform the values.
+	 * @return An iterable providing the transformed elements.
+	 * @since 2.0
+	 */
+	public static <TE> Iterable<TE> mapToObj(final IntIterable iterable, final IntFunction<? extends TE> function) {
+		assert null != iterable;
+		assert null != function;
+		
+		return () -> IteratorUtils.mapToObj(iterable.intIterator(), function);
+	}
+	
+	/**
+	 * Transforms the elements provided by the given iterable into <code>int</code> values using the given function.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param <E> Type of the elements.
+	 * @param iterable Iterable providing the elements to transform.
+	 * @param function Function to use to transform the elements.
+	 * @return An iterable providing the transformed values.
+	 * @since 2.0
+	 */
+	public static <E> IntIterable mapToInt(final Iterable<? extends E> iterable, final ToIntFunction<? super E> function) {
+		assert null != iterable;
+		assert null != function;
+		
+		return () -> IteratorUtils.mapToInt(iterable.iterator(), function);
+	}
+	
+	// Long iterables.
+	
+	/**
+	 * Executes the given procedure with each value provided by the given iterable.
+	 * 
+	 * @param iterable Iterable providing the values.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public static void foreach(final LongIterable iterable, final LongProcedure procedure) {
+		IteratorUtils.foreach(iterable.longIterator(), procedure);
+	}
+	
+	/**
+	 * Left folds over the values provided by the given iterable using the given binary operator and initial state.
+	 * 
+	 * @param iterable Iterable providing the values to fold over.
+	 * @param operator Binary operator to use.
+	 * @param initialState Initial state.
+	 * @return The folded state.
+	 * @since 2.0
+	 */
+	public static long fold(final LongIterable iterable, final LongOperator2 operator, final long initialState) {
+		return IteratorUtils.fold(iterable.longIterator(), operator, initialState);
+	}
+	
+	/**
+	 * Gets the first value provided by the given iterable accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The first accepted value.
+	 * @since 2.0
+	 */
+	public static OptionalLong first(final LongIterable iterable, final LongPredicate filter) {
+		return IteratorUtils.first(iterable.longIterator(), filter);
+	}
+	
+	/**
+	 * Tests whether any value provided by the given iterable is accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when some value is accepted, <code>false</code> when all values are rejected.
+	 * @since 2.0
+	 */
+	public static boolean isAny(final LongIterable iterable, final LongPredicate filter) {
+		return IteratorUtils.isAny(iterable.longIterator(), filter);
+	}
+	
+	/**
+	 * Tests whether all values provided by the given iterable are accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when all values are accepted, <code>false</code> when some value is rejected.
+	 * @since 2.0
+	 */
+	public static boolean areAll(final LongIterable iterable, final LongPredicate filter) {
+		return IteratorUtils.areAll(iterable.longIterator(), filter);
+	}
+	
+	/**
+	 * Counts the values provided by the given iterable accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to count.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The number of accepted values.
+	 * @since 2.0
+	 */
+	public static int count(final LongIterable iterable, final LongPredicate filter) {
+		return IteratorUtils.count(iterable.longIterator(), filter);
+	}
+	
+	/**
+	 * Gets the least value provided by the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to compare.
+	 * @return The least value.
+	 * @since 2.0
+	 */
+	public static OptionalLong least(final LongIterable iterable) {
+		return IteratorUtils.least(iterable.longIterator());
+	}
+	
+	/**
+	 * Gets the greatest value provided by the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to compare.
+	 * @return The greatest value.
+	 * @since 2.0
+	 */
+	public static OptionalLong greatest(final LongIterable iterable) {
+		return IteratorUtils.greatest(iterable.longIterator());
+	}
+	
+	/**
+	 * Filters the values provided by the given iterable using the given filter.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return An iterable providing the filtered values.
+	 * @since 2.0
+	 */
+	public static LongIterable filter(final LongIterable iterable, final LongPredicate filter) {
+		assert null != iterable;
+		assert null != filter;
+		
+		return () -> IteratorUtils.filter(iterable.longIterator(), filter);
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterable using the given operator.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to transform.
+	 * @param operator Operator to use to transform the values.
+	 * @return An iterable providing the transformed values.
+	 * @since 2.0
+	 */
+	public static LongIterable map(final LongIterable iterable, final LongOperator operator) {
+		assert null != iterable;
+		assert null != operator;
+		
+		return () -> IteratorUtils.map(iterable.longIterator(), operator);
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterable into elements using the given function.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param <TE> Type of the transformed elements.
+	 * @param iterable Iterable providing the values to transform.
+	 * @param function Function to use to transform the values.
+	 * @return An iterable providing the transformed elements.
+	 * @since 2.0
+	 */
+	public static <TE> Iterable<TE> mapToObj(final LongIterable iterable, final LongFunction<? extends TE> function) {
+		assert null != iterable;
+		assert null != function;
+		
+		return () -> IteratorUtils.mapToObj(iterable.longIterator(), function);
+	}
+	
+	/**
+	 * Transforms the elements provided by the given iterable into <code>long</code> values using the given function.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param <E> Type of the elements.
+	 * @param iterable Iterable providing the elements to transform.
+	 * @param function Function to use to transform the elements.
+	 * @return An iterable providing the transformed values.
+	 * @since 2.0
+	 */
+	public static <E> LongIterable mapToLong(final Iterable<? extends E> iterable, final ToLongFunction<? super E> function) {
+		assert null != iterable;
+		assert null != function;
+		
+		return () -> IteratorUtils.mapToLong(iterable.iterator(), function);
+	}
+	
+	// Double iterables.
+	
+	/**
+	 * Executes the given procedure with each value provided by the given iterable.
+	 * 
+	 * @param iterable Iterable providing the values.
+	 * @param procedure Procedure to execute.
+	 * @since 2.0
+	 */
+	public static void foreach(final DoubleIterable iterable, final DoubleProcedure procedure) {
+		IteratorUtils.foreach(iterable.doubleIterator(), procedure);
+	}
+	
+	/**
+	 * Left folds over the values provided by the given iterable using the given binary operator and initial state.
+	 * 
+	 * @param iterable Iterable providing the values to fold over.
+	 * @param operator Binary operator to use.
+	 * @param initialState Initial state.
+	 * @return The folded state.
+	 * @since 2.0
+	 */
+	public static double fold(final DoubleIterable iterable, final DoubleOperator2 operator, final double initialState) {
+		return IteratorUtils.fold(iterable.doubleIterator(), operator, initialState);
+	}
+	
+	/**
+	 * Gets the first value provided by the given iterable accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The first accepted value.
+	 * @since 2.0
+	 */
+	public static OptionalDouble first(final DoubleIterable iterable, final DoublePredicate filter) {
+		return IteratorUtils.first(iterable.doubleIterator(), filter);
+	}
+	
+	/**
+	 * Tests whether any value provided by the given iterable is accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when some value is accepted, <code>false</code> when all values are rejected.
+	 * @since 2.0
+	 */
+	public static boolean isAny(final DoubleIterable iterable, final DoublePredicate filter) {
+		return IteratorUtils.isAny(iterable.doubleIterator(), filter);
+	}
+	
+	/**
+	 * Tests whether all values provided by the given iterable are accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to test.
+	 * @param filter Predicate to use to filter the values.
+	 * @return <code>true</code> when all values are accepted, <code>false</code> when some value is rejected.
+	 * @since 2.0
+	 */
+	public static boolean areAll(final DoubleIterable iterable, final DoublePredicate filter) {
+		return IteratorUtils.areAll(iterable.doubleIterator(), filter);
+	}
+	
+	/**
+	 * Counts the values provided by the given iterable accepted by the given filter.
+	 * 
+	 * @param iterable Iterable providing the values to count.
+	 * @param filter Predicate to use to filter the values.
+	 * @return The number of accepted values.
+	 * @since 2.0
+	 */
+	public static int count(final DoubleIterable iterable, final DoublePredicate filter) {
+		return IteratorUtils.count(iterable.doubleIterator(), filter);
+	}
+	
+	/**
+	 * Gets the least value provided by the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to compare.
+	 * @return The least value.
+	 * @since 2.0
+	 */
+	public static OptionalDouble least(final DoubleIterable iterable) {
+		return IteratorUtils.least(iterable.doubleIterator());
+	}
+	
+	/**
+	 * Gets the greatest value provided by the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to compare.
+	 * @return The greatest value.
+	 * @since 2.0
+	 */
+	public static OptionalDouble greatest(final DoubleIterable iterable) {
+		return IteratorUtils.greatest(iterable.doubleIterator());
+	}
+	
+	/**
+	 * Filters the values provided by the given iterable using the given filter.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to filter.
+	 * @param filter Predicate to use to filter the values.
+	 * @return An iterable providing the filtered values.
+	 * @since 2.0
+	 */
+	public static DoubleIterable filter(final DoubleIterable iterable, final DoublePredicate filter) {
+		assert null != iterable;
+		assert null != filter;
+		
+		return () -> IteratorUtils.filter(iterable.doubleIterator(), filter);
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterable using the given operator.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param iterable Iterable providing the values to transform.
+	 * @param operator Operator to use to transform the values.
+	 * @return An iterable providing the transformed values.
+	 * @since 2.0
+	 */
+	public static DoubleIterable map(final DoubleIterable iterable, final DoubleOperator operator) {
+		assert null != iterable;
+		assert null != operator;
+		
+		return () -> IteratorUtils.map(iterable.doubleIterator(), operator);
+	}
+	
+	/**
+	 * Transforms the values provided by the given iterable into elements using the given function.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param <TE> Type of the transformed elements.
+	 * @param iterable Iterable providing the values to transform.
+	 * @param function Function to use to transform the values.
+	 * @return An iterable providing the transformed elements.
+	 * @since 2.0
+	 */
+	public static <TE> Iterable<TE> mapToObj(final DoubleIterable iterable, final DoubleFunction<? extends TE> function) {
+		assert null != iterable;
+		assert null != function;
+		
+		return () -> IteratorUtils.mapToObj(iterable.doubleIterator(), function);
+	}
+	
+	/**
+	 * Transforms the elements provided by the given iterable into <code>double</code> values using the given function.
+	 * <p>
+	 * The built iterable feeds from the given iterable.
+	 *
+	 * @param <E> Type of the elements.
+	 * @param iterable Iterable providing the elements to transform.
+	 * @param function Function to use to transform the elements.
+	 * @return An iterable providing the transformed values.
+	 * @since 2.0
+	 */
+	public static <E> DoubleIterable mapToDouble(final Iterable<? extends E> iterable, final ToDoubleFunction<? super E> function) {
+		assert null != iterable;
+		assert null != function;
+		
+		return () -> IteratorUtils.mapToDouble(iterable.iterator(), function);
+	}
+	
 	private IterableUtils() {
 		// Prevent instantiation.
 	}
@@ -81,6 +81,45 @@ public class Iterables {
 		};
 	}
 	
+	/**
+	 * Builds an iterable over the given <code>int</code> values.
+	 * 
+	 * @param values Values provided by the iterable to build.
+	 * @return The built iterable.
+	 * @since 2.0
+	 */
+	public static IntIterable fromInts(final int... values) {
+		assert null != values;
+		
+		return () -> Iterators.fromInts(values);
+	}
+	
+	/**
+	 * Builds an iterable over the given <code>long</code> values.
+	 * 
+	 * @param values Values provided by the iterable to build.
+	 * @return The built iterable.
+	 * @since 2.0
+	 */
+	public static LongIterable fromLongs(final long... values) {
+		assert null != values;
+		
+		return () -> Iterators.fromLongs(values);
+	}
+	
+	/**
+	 * Builds an iterable over the given <code>double</code> values.
+	 * 
+	 * @param values Values provided by the iterable to build.
+	 * @return The built iterable.
+	 * @since 2.0
+	 */
+	public static DoubleIterable fromDoubles(final double... values) {
+		assert null != values;
+		
+		return () -> Iterators.fromDoubles(values);
+	}
+	
 	private Iterables() {
 		// Prevent instantiation.
 	}
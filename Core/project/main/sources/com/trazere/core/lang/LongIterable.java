@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.lang;
+
+import com.trazere.core.imperative.LongIterator;
+
+/**
+ * The {@link LongIterable} interface defines iterables of <code>long</code> values.
+ * <p>
+ * This interface is a specialization of {@link Iterable} that does not box the values. Types should not implement both interfaces, because the generic and
+ * the <code>long</code> overloads of {@link IterableUtils} would then be ambiguous for them.
+ * 
+ * @see Iterable
+ * @since 2.0
+ */
+@FunctionalInterface
+public interface LongIterable {
+	/**
+	 * Gets an iterator over the values of this iterable.
+	 * 
+	 * @return The iterator.
+	 * @since 2.0
+	 */
+	LongIterator longIterator();
+}
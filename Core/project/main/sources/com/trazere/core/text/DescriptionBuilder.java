@@ -250,7 +250,7 @@ public class DescriptionBuilder {
 		assert null != values;
 		
 		if (!values.isEmpty()) {
-			return append(name, values);
+			return append(name, (Object) values);
 		} else {
 			return this;
 		}
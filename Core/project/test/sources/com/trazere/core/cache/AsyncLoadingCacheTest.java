@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.reactive.Future;
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Result;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class AsyncLoadingCacheTest {
+	public void testRefreshAhead() {
+		final Queue<Runnable> tasks = new ArrayDeque<>();
+		final AtomicInteger loads = new AtomicInteger();
+		final AsyncLoadingCache<String, Integer> cache = new AsyncLoadingCache<>(CachePolicies.all(), (final String key) -> loads.incrementAndGet(), tasks::add, Duration.ZERO, Duration.ofHours(1), 1);
+		
+		// Load.
+		final Future<Result<Integer>> future = cache.get("a");
+		Assert.assertFalse(future.isAvailable(), "pending loading");
+		Assert.assertSame(cache.get("a"), future, "deduplicated loading");
+		tasks.poll().run();
+		Assert.assertEquals(future.get(), Maybe.some(Result.success(1)), "loaded value");
+		
+		// Refresh.
+		Assert.assertEquals(cache.get("a").get(), Maybe.some(Result.success(1)), "stale value");
+		Assert.assertEquals(cache.get("a").get(), Maybe.some(Result.success(1)), "stale value");
+		Assert.assertEquals(tasks.size(), 1, "number of refreshes");
+		tasks.poll().run();
+		Assert.assertEquals(cache.get("a").get(), Maybe.some(Result.success(2)), "refreshed value");
+	}
+	
+	public void testClearDuringLoading() {
+		final Queue<Runnable> tasks = new ArrayDeque<>();
+		final AsyncLoadingCache<String, Integer> cache = new AsyncLoadingCache<>(CachePolicies.all(), (final String key) -> 1, tasks::add, Duration.ofHours(1), Duration.ofHours(1), 1);
+		
+		final Future<Result<Integer>> future = cache.get("a");
+		cache.clear("a");
+		tasks.poll().run();
+		Assert.assertEquals(future.get(), Maybe.some(Result.success(1)), "loaded value");
+		Assert.assertEquals(cache.getIfLoaded("a"), Maybe.none(), "value of the cleared loading");
+		Assert.assertEquals(cache.size(), 0, "size");
+	}
+	
+	public void testConcurrentClears()
+	throws InterruptedException {
+		final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+		final AsyncLoadingCache<String, Integer> cache = new AsyncLoadingCache<>(CachePolicies.all(), (final String key) -> 1, tasks::add, Duration.ofHours(1), Duration.ofHours(1), 1);
+		
+		for (int i = 0; i < 2000; i += 1) {
+			final CyclicBarrier barrier = new CyclicBarrier(2);
+			final Thread loader = new Thread(() -> {
+				await(barrier);
+				cache.get("a");
+			});
+			loader.start();
+			await(barrier);
+			cache.clear();
+			loader.join();
+			
+			// Note: the pending entries must belong to some registered loading.
+			Assert.assertTrue(cache._entries.getEntry("a").isNone() || cache._loadings.containsKey("a"), "registered pending entry");
+			
+			Runnable task;
+			while (null != (task = tasks.poll())) {
+				task.run();
+			}
+			cache.clear();
+		}
+	}
+	
+	private static void await(final CyclicBarrier barrier) {
+		try {
+			barrier.await();
+		} catch (final InterruptedException | BrokenBarrierException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@link CacheAllocationBenchmark} class measures the heap allocations of the hot paths of the caches.
+ * <p>
+ * Usage: <code>CacheAllocationBenchmark [&lt;capacity&gt;]</code>. The allocations of the calling thread are read from the HotSpot thread MX bean and reported
+ * in bytes per operation for hits and for fills of a full cache.
+ */
+public class CacheAllocationBenchmark {
+	private static final int WARMUP = 200000;
+	private static final int OPERATIONS = 1000000;
+	
+	public static void main(final String[] args) {
+		final int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		
+		final Map<String, CachePolicy<Integer>> policies = new LinkedHashMap<>();
+		policies.put("all", CachePolicies.all());
+		policies.put("fifo", CachePolicies.fifo(capacity));
+		policies.put("lru", CachePolicies.lru(capacity));
+		policies.put("timed-idle", CachePolicies.timedIdle(Duration.ofHours(1)));
+		policies.put("weighted-lru", CachePolicies.weightedLru(Integer.class, (key, value) -> 1L, capacity));
+		policies.put("tinylfu", CachePolicies.tinyLfu(capacity));
+		
+		System.out.println("Allocations (capacity " + capacity + ")");
+		for (final Map.Entry<String, CachePolicy<Integer>> policy : policies.entrySet()) {
+			final double hit = measureHits(policy.getValue(), capacity);
+			final double fill = measureFills(policy.getValue(), capacity);
+			System.out.println(String.format("  %-14s get hit %8.1f B/op  fill %8.1f B/op", policy.getKey(), hit, fill));
+		}
+	}
+	
+	private static double measureHits(final CachePolicy<Integer> policy, final int capacity) {
+		final SimpleCache<Integer, Integer> cache = new SimpleCache<>(policy);
+		final Integer[] keys = keys(capacity);
+		for (final Integer key : keys) {
+			cache.fill(key, key);
+		}
+		
+		run(() -> {
+			for (int i = 0; i < WARMUP; i += 1) {
+				cache.get(keys[i % capacity]);
+			}
+		});
+		return run(() -> {
+			for (int i = 0; i < OPERATIONS; i += 1) {
+				cache.get(keys[i % capacity]);
+			}
+		}) / OPERATIONS;
+	}
+	
+	private static double measureFills(final CachePolicy<Integer> policy, final int capacity) {
+		final SimpleCache<Integer, Integer> cache = new SimpleCache<>(policy);
+		final Integer[] keys = keys(2 * capacity);
+		
+		run(() -> {
+			for (int i = 0; i < WARMUP; i += 1) {
+				cache.fill(keys[i % keys.length], keys[0]);
+			}
+		});
+		return run(() -> {
+			for (int i = 0; i < OPERATIONS; i += 1) {
+				cache.fill(keys[i % keys.length], keys[0]);
+			}
+		}) / OPERATIONS;
+	}
+	
+	private static Integer[] keys(final int count) {
+		final Integer[] keys = new Integer[count];
+		for (int i = 0; i < count; i += 1) {
+			keys[i] = Integer.valueOf(i);
+		}
+		return keys;
+	}
+	
+	private static double run(final Runnable operations) {
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final long threadId = Thread.currentThread().getId();
+		final long start = threads.getThreadAllocatedBytes(threadId);
+		operations.run();
+		return threads.getThreadAllocatedBytes(threadId) - start;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link CacheBulkBenchmark} class compares the warming of the caches using bulk and per key operations.
+ * <p>
+ * Usage: <code>CacheBulkBenchmark [&lt;key count&gt; [&lt;capacity&gt;]]</code>. Each policy warms a cache with all keys, reads them back and clears them, using
+ * the bulk operations and the per key operations in interleaved runs. The best time of several runs is reported in milliseconds.
+ */
+public class CacheBulkBenchmark {
+	private static final int RUNS = 60;
+	
+	public static void main(final String[] args) {
+		final int keyCount = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		final int capacity = args.length > 1 ? Integer.parseInt(args[1]) : keyCount / 2;
+		
+		final Map<String, CachePolicy<Integer>> policies = new LinkedHashMap<>();
+		policies.put("all", CachePolicies.all());
+		policies.put("fifo", CachePolicies.fifo(capacity));
+		policies.put("lru", CachePolicies.lru(capacity));
+		policies.put("weighted-lru", CachePolicies.weightedLru(Integer.class, (key, value) -> 1L, capacity));
+		policies.put("tinylfu", CachePolicies.tinyLfu(capacity));
+		
+		final Map<Integer, Integer> entries = new LinkedHashMap<>();
+		for (int i = 0; i < keyCount; i += 1) {
+			entries.put(i, i);
+		}
+		final List<Integer> keys = new ArrayList<>(entries.keySet());
+		
+		System.out.println("Warming " + keyCount + " keys (capacity " + capacity + ")");
+		for (final Map.Entry<String, CachePolicy<Integer>> policy : policies.entrySet()) {
+			final CachePolicy<Integer> cachePolicy = policy.getValue();
+			final double[][] times = measure(() -> {
+				final SimpleCache<Integer, Integer> cache = new SimpleCache<>(cachePolicy);
+				return new Runnable[] {
+					() -> cache.fillAll(entries),
+					() -> cache.getAll(keys),
+					() -> cache.clearAll(keys),
+				};
+			}, () -> {
+				final SimpleCache<Integer, Integer> cache = new SimpleCache<>(cachePolicy);
+				return new Runnable[] {
+					() -> {
+						for (final Map.Entry<Integer, Integer> entry : entries.entrySet()) {
+							cache.fill(entry.getKey(), entry.getValue());
+						}
+					},
+					() -> {
+						// Note: collect the values like the bulk operation does.
+						final Map<Integer, Integer> values = new LinkedHashMap<>();
+						for (final Integer key : keys) {
+							final Maybe<Integer> value = cache.get(key);
+							if (value.isSome()) {
+								values.put(key, value.asSome().getValue());
+							}
+						}
+					},
+					() -> {
+						for (final Integer key : keys) {
+							cache.clear(key);
+						}
+					},
+				};
+			});
+			final double[] bulk = times[0];
+			final double[] perKey = times[1];
+			System.out.println(String.format("  %-14s fill %8.2f / %8.2f ms  get %8.2f / %8.2f ms  clear %8.2f / %8.2f ms (bulk / per key)", policy.getKey(), bulk[0], perKey[0], bulk[1], perKey[1], bulk[2], perKey[2]));
+		}
+	}
+	
+	private interface Scenario {
+		Runnable[] build();
+	}
+	
+	private static double[][] measure(final Scenario... scenarios) {
+		final double[][] times = new double[scenarios.length][];
+		for (int i = 0; i < scenarios.length; i += 1) {
+			times[i] = new double[] { Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE };
+		}
+		
+		// Note: the runs of the scenarios are interleaved and their order alternates so that they all benefit from the same JIT compilations.
+		for (int run = 0; run < RUNS; run += 1) {
+			for (int i = 0; i < scenarios.length; i += 1) {
+				final int scenario = (run + i) % scenarios.length;
+				final Runnable[] steps = scenarios[scenario].build();
+				for (int j = 0; j < steps.length; j += 1) {
+					// Note: collect the garbage of the previous steps so that it is not charged to the measured step.
+					System.gc();
+					final long start = System.nanoTime();
+					steps[j].run();
+					times[scenario][j] = Math.min(times[scenario][j], (System.nanoTime() - start) / 1e6);
+				}
+			}
+		}
+		return times;
+	}
+}
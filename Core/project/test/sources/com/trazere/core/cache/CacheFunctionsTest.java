@@ -0,0 +1,124 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.collection.Sets;
+import com.trazere.core.functional.ResettableFunction;
+import com.trazere.core.lang.Releasable;
+import com.trazere.core.util.Maybe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CacheFunctionsTest {
+	private static final class DisposingFunction
+	extends CachedResettableFunction<Integer, String> {
+		public DisposingFunction(final CachePolicy<Integer> policy) {
+			super(policy);
+		}
+		
+		public final List<Integer> computedArgs = new ArrayList<>();
+		public final List<String> disposedResults = new ArrayList<>();
+		
+		@Override
+		protected String compute(final Integer arg) {
+			computedArgs.add(arg);
+			return "r" + arg;
+		}
+		
+		@Override
+		protected void dispose(final Integer arg, final String result) {
+			Assert.assertEquals(result, "r" + arg, "disposed result of " + arg);
+			disposedResults.add(result);
+		}
+	}
+	
+	public void testLru() {
+		final DisposingFunction function = new DisposingFunction(CachePolicies.lru(2));
+		Assert.assertEquals(function.evaluate(1), "r1", "result of 1");
+		Assert.assertEquals(function.evaluate(2), "r2", "result of 2");
+		Assert.assertEquals(function.evaluate(1), "r1", "memoized result of 1");
+		Assert.assertEquals(function.evaluate(3), "r3", "result of 3");
+		Assert.assertEquals(function.memoizedArgs(), Sets.fromElements(1, 3), "memoized arguments");
+		Assert.assertEquals(function.computedArgs, Arrays.asList(1, 2, 3), "computed arguments");
+		Assert.assertEquals(function.disposedResults, Arrays.asList("r2"), "disposed results after the eviction");
+		
+		// Reset.
+		function.reset(1);
+		Assert.assertEquals(function.disposedResults, Arrays.asList("r2", "r1"), "disposed results after the reset");
+		function.resetAll();
+		Assert.assertEquals(function.disposedResults, Arrays.asList("r2", "r1", "r3"), "disposed results after the reset of all results");
+		Assert.assertTrue(function.memoizedArgs().isEmpty(), "memoized arguments after the reset");
+	}
+	
+	public void testWeighted() {
+		// Note: the weigher is given the results.
+		final ResettableFunction<Integer, String> function = CacheFunctions.memoized(i -> "x".repeat(i), CachePolicies.weightedLru(String.class, (key, value) -> (long) value.length(), 10L));
+		Assert.assertEquals(function.evaluate(3), "xxx", "result of 3");
+		Assert.assertEquals(function.evaluate(4), "xxxx", "result of 4");
+		Assert.assertEquals(function.evaluate(2), "xx", "result of 2");
+		Assert.assertEquals(function.memoizedArgs(), Sets.fromElements(3, 4, 2), "memoized arguments");
+		
+		function.evaluate(5);
+		Assert.assertEquals(function.memoizedArgs(), Sets.fromElements(2, 5), "memoized arguments after the eviction");
+	}
+	
+	public void testProbe() {
+		final DisposingFunction function = new DisposingFunction(CachePolicies.lru(2));
+		function.evaluate(1);
+		function.evaluate(2);
+		
+		// Note: the probes do not count as accesses.
+		Assert.assertEquals(function.probe(1), Maybe.some("r1"), "probed result of 1");
+		Assert.assertEquals(function.probe(3), Maybe.none(), "probed result of 3");
+		function.evaluate(3);
+		Assert.assertEquals(function.memoizedArgs(), Sets.fromElements(2, 3), "memoized arguments");
+		Assert.assertEquals(function.computedArgs, Arrays.asList(1, 2, 3), "computed arguments");
+	}
+	
+	private static final class Resource
+	implements Releasable {
+		public Resource(final int id, final List<Integer> releasedIds) {
+			_id = id;
+			_releasedIds = releasedIds;
+		}
+		
+		private final int _id;
+		private final List<Integer> _releasedIds;
+		
+		@Override
+		public void release() {
+			_releasedIds.add(_id);
+		}
+	}
+	
+	public void testReleasing() {
+		final List<Integer> releasedIds = new ArrayList<>();
+		final ResettableFunction<Integer, Resource> function = CacheFunctions.releasingMemoized(id -> new Resource(id, releasedIds), CachePolicies.fifo(2));
+		function.evaluate(1);
+		function.evaluate(2);
+		function.evaluate(3);
+		Assert.assertEquals(releasedIds, Arrays.asList(1), "released results after the eviction");
+		
+		function.reset(3);
+		Assert.assertEquals(releasedIds, Arrays.asList(1, 3), "released results after the reset");
+		function.resetAll();
+		Assert.assertEquals(releasedIds, Arrays.asList(1, 3, 2), "released results after the reset of all results");
+	}
+}
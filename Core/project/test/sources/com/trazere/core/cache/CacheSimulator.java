@@ -0,0 +1,127 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The {@link CacheSimulator} class replays traces of keys against caches using various policies and reports their hit rates.
+ * <p>
+ * Usage: <code>CacheSimulator &lt;capacity&gt; [&lt;trace file&gt;...]</code>. Each line of a trace file is a key. When no trace files are given, a synthetic
+ * trace mixing a skewed hot set and periodic scans is replayed.
+ */
+public class CacheSimulator {
+	public static void main(final String[] args)
+	throws IOException {
+		final int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		if (args.length > 1) {
+			for (int i = 1; i < args.length; i += 1) {
+				report(args[i], capacity, readTrace(args[i]));
+			}
+		} else {
+			report("synthetic", capacity, syntheticTrace(capacity, 1000000, 42L));
+		}
+	}
+	
+	/**
+	 * Builds the simulated policies.
+	 * 
+	 * @param capacity Capacity of the caches.
+	 * @return The policies indexed by name.
+	 */
+	public static Map<String, CachePolicy<String>> policies(final int capacity) {
+		final Map<String, CachePolicy<String>> policies = new LinkedHashMap<>();
+		policies.put("fifo", CachePolicies.fifo(capacity));
+		policies.put("lru", CachePolicies.lru(capacity));
+		policies.put("weighted-lru", CachePolicies.weightedLru(String.class, (key, value) -> 1L, capacity));
+		policies.put("tinylfu", CachePolicies.tinyLfu(capacity));
+		return policies;
+	}
+	
+	/**
+	 * Replays the given trace against a cache using the given policy.
+	 * 
+	 * @param policy Policy of the cache.
+	 * @param trace Keys to access.
+	 * @return The hit rate.
+	 */
+	public static <K> double simulate(final CachePolicy<K> policy, final Iterable<? extends K> trace) {
+		final SimpleCache<K, Boolean> cache = new SimpleCache<>(policy);
+		long hits = 0;
+		long accesses = 0;
+		for (final K key : trace) {
+			accesses += 1;
+			if (cache.get(key).isSome()) {
+				hits += 1;
+			} else {
+				cache.fill(key, Boolean.TRUE);
+			}
+		}
+		return accesses > 0 ? (double) hits / accesses : 0.;
+	}
+	
+	private static void report(final String name, final int capacity, final List<String> trace) {
+		System.out.println("Trace " + name + " (" + trace.size() + " accesses, capacity " + capacity + ")");
+		for (final Map.Entry<String, CachePolicy<String>> policy : policies(capacity).entrySet()) {
+			final long start = System.nanoTime();
+			final double hitRate = simulate(policy.getValue(), trace);
+			final long duration = System.nanoTime() - start;
+			System.out.println(String.format("  %-14s hit rate %6.2f%%  (%d ms)", policy.getKey(), hitRate * 100., duration / 1000000));
+		}
+	}
+	
+	private static List<String> readTrace(final String path)
+	throws IOException {
+		final List<String> trace = new ArrayList<>();
+		try (final BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+			String line;
+			while (null != (line = reader.readLine())) {
+				final String key = line.trim();
+				if (!key.isEmpty()) {
+					trace.add(key);
+				}
+			}
+		}
+		return trace;
+	}
+	
+	private static List<String> syntheticTrace(final int capacity, final int length, final long seed) {
+		// Note: zipfian-like hot set of 10 times the capacity, interleaved with scans of 5 times the capacity over fresh keys.
+		final Random random = new Random(seed);
+		final List<String> trace = new ArrayList<>(length);
+		int scan = 0;
+		while (trace.size() < length) {
+			for (int i = 0; i < 20 * capacity && trace.size() < length; i += 1) {
+				final double uniform = random.nextDouble();
+				trace.add("hot-" + (int) (10 * capacity * Math.pow(uniform, 3)));
+			}
+			for (int i = 0; i < 5 * capacity && trace.size() < length; i += 1) {
+				trace.add("scan-" + scan + "-" + i);
+			}
+			scan += 1;
+		}
+		return trace;
+	}
+}
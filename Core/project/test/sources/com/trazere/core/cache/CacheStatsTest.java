@@ -0,0 +1,172 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.reactive.ObserverSubscription;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class CacheStatsTest {
+	public void testCounters() {
+		final CacheStatsCounter counter = new CacheStatsCounter();
+		counter.recordHit();
+		counter.recordHits(2);
+		counter.recordMiss();
+		counter.recordMisses(3);
+		counter.recordFill();
+		counter.recordFills(4);
+		counter.recordReplacement();
+		counter.recordReplacements(2);
+		counter.recordEviction();
+		counter.recordEvictions(5);
+		counter.recordExpiration();
+		counter.recordExpirations(6);
+		counter.recordClear();
+		counter.recordClears(7);
+		counter.recordDispose(10);
+		counter.recordDispose(20);
+		counter.recordLoadSuccess(3, 100);
+		counter.recordLoadFailure(1, 60);
+		
+		final CacheStats stats = counter.snapshot();
+		Assert.assertEquals(stats.getHitCount(), 3L, "number of hits");
+		Assert.assertEquals(stats.getMissCount(), 4L, "number of misses");
+		Assert.assertEquals(stats.getFillCount(), 5L, "number of fills");
+		Assert.assertEquals(stats.getReplacementCount(), 3L, "number of replacements");
+		Assert.assertEquals(stats.getEvictionCount(), 6L, "number of evictions");
+		Assert.assertEquals(stats.getExpirationCount(), 7L, "number of expirations");
+		Assert.assertEquals(stats.getClearCount(), 8L, "number of clears");
+		Assert.assertEquals(stats.getDisposeCount(), 2L, "number of disposals");
+		Assert.assertEquals(stats.getDisposeTime(), 30L, "dispose time");
+		Assert.assertEquals(stats.getLoadSuccessCount(), 3L, "number of successful loads");
+		Assert.assertEquals(stats.getLoadFailureCount(), 1L, "number of failed loads");
+		Assert.assertEquals(stats.getLoadTime(), 160L, "load time");
+		
+		// Note: the snapshots are not affected by the later records.
+		counter.recordHit();
+		Assert.assertEquals(stats.getHitCount(), 3L, "number of hits of the snapshot");
+		Assert.assertEquals(counter.snapshot().getHitCount(), 4L, "number of hits of a new snapshot");
+	}
+	
+	public void testDerivedStats() {
+		final CacheStats stats = new CacheStats(3, 1, 0, 0, 2, 3, 4, 0, 0, 3, 1, 200);
+		Assert.assertEquals(stats.getRequestCount(), 4L, "number of requests");
+		Assert.assertEquals(stats.getHitRate(), 0.75, "hit rate");
+		Assert.assertEquals(stats.getRemovalCount(), 9L, "number of removals");
+		Assert.assertEquals(stats.getAverageLoadTime(), 50., "average load time");
+		
+		final CacheStats emptyStats = new CacheStatsCounter().snapshot();
+		Assert.assertEquals(emptyStats.getRequestCount(), 0L, "number of requests without reads");
+		Assert.assertEquals(emptyStats.getHitRate(), 1., "hit rate without reads");
+		Assert.assertEquals(emptyStats.getAverageLoadTime(), 0., "average load time without loads");
+	}
+	
+	public void testCacheStats() {
+		final SimpleCache<String, String> cache = new SimpleCache<>(CachePolicies.lru(2));
+		Assert.assertFalse(cache.getStats().isSome(), "disabled statistics");
+		final CacheStatsCounter counter = cache.enableStats();
+		Assert.assertSame(cache.enableStats(), counter, "enabled statistics");
+		
+		cache.fill("a", "A");
+		cache.fill("b", "B");
+		cache.fill("a", "A2");
+		cache.get("a");
+		cache.get("c");
+		cache.fill("c", "C");
+		final Map<String, String> entries = new HashMap<>();
+		entries.put("d", "D");
+		entries.put("e", "E");
+		cache.fillAll(entries);
+		cache.clear("e");
+		
+		// Tests.
+		final CacheStats stats = counter.snapshot();
+		Assert.assertEquals(stats.getHitCount(), 1L, "number of hits");
+		Assert.assertEquals(stats.getMissCount(), 1L, "number of misses");
+		Assert.assertEquals(stats.getFillCount(), 6L, "number of fills");
+		Assert.assertEquals(stats.getReplacementCount(), 1L, "number of replacements");
+		Assert.assertEquals(stats.getEvictionCount(), 3L, "number of evictions");
+		Assert.assertEquals(stats.getClearCount(), 1L, "number of clears");
+		Assert.assertEquals(stats.getDisposeCount(), 5L, "number of disposals");
+	}
+	
+	public void testLoadStats() {
+		final LoadingCache<String, String> cache = new LoadingCache<>(CachePolicies.all(), (final String key) -> {
+			if (key.isEmpty()) {
+				throw new IllegalArgumentException();
+			}
+			return key.toUpperCase();
+		});
+		final CacheStatsCounter counter = cache.enableStats();
+		cache.load("a");
+		cache.load("a");
+		try {
+			cache.load("");
+			Assert.fail("failed load");
+		} catch (final IllegalArgumentException exception) {
+			// Expected.
+		}
+		
+		// Tests.
+		final CacheStats stats = counter.snapshot();
+		Assert.assertEquals(stats.getHitCount(), 1L, "number of hits");
+		Assert.assertEquals(stats.getMissCount(), 2L, "number of misses");
+		Assert.assertEquals(stats.getLoadSuccessCount(), 1L, "number of successful loads");
+		Assert.assertEquals(stats.getLoadFailureCount(), 1L, "number of failed loads");
+	}
+	
+	public void testScheduledPublication()
+	throws InterruptedException {
+		final CacheStatsCounter counter = new CacheStatsCounter();
+		final BlockingQueue<CacheStats> snapshots = new LinkedBlockingQueue<>();
+		// Note: the observers are weakly referenced, the subscription keeps it from being collected.
+		final ObserverSubscription subscription = counter.getSnapshots().subscribe(snapshots::add);
+		counter.recordHit();
+		
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final ScheduledFuture<?> publications = counter.schedulePublication(executor, Duration.ofMillis(1));
+			final CacheStats snapshot1 = snapshots.poll(5, TimeUnit.SECONDS);
+			counter.recordHit();
+			
+			// Note: the second snapshot may have been taken before the second hit.
+			CacheStats snapshot2;
+			do {
+				snapshot2 = snapshots.poll(5, TimeUnit.SECONDS);
+			} while (null != snapshot2 && snapshot2.getHitCount() < 2);
+			publications.cancel(false);
+			
+			// Tests.
+			Assert.assertNotNull(snapshot1, "first published snapshot");
+			Assert.assertTrue(snapshot1.getHitCount() >= 1, "number of hits of the first snapshot");
+			Assert.assertNotNull(snapshot2, "later published snapshot");
+			Assert.assertEquals(snapshot2.getHitCount(), 2L, "number of hits of the later snapshot");
+		} finally {
+			executor.shutdownNow();
+			subscription.unsubscribe();
+		}
+	}
+}
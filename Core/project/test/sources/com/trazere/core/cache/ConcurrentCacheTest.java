@@ -0,0 +1,248 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ConcurrentCacheTest {
+	private static final int KEY_COUNT = 64;
+	private static final int CAPACITY = 16;
+	
+	public void testConcurrentUpdates()
+	throws InterruptedException {
+		final AtomicInteger fills = new AtomicInteger();
+		final Set<Integer> disposedValues = ConcurrentHashMap.newKeySet();
+		final AtomicReference<String> failure = new AtomicReference<>();
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>(CachePolicies.lru(CAPACITY)) {
+			@Override
+			protected void dispose(final Integer value) {
+				if (!disposedValues.add(value)) {
+					failure.compareAndSet(null, "value " + value + " disposed twice");
+				}
+			}
+		};
+		
+		// Fill, read and clear concurrently.
+		// Note: the values encode their key so that the reads can be checked.
+		runConcurrently(8, () -> {
+			final ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int i = 0; i < 20000; i += 1) {
+				final int key = random.nextInt(KEY_COUNT);
+				final int operation = random.nextInt(100);
+				if (operation < 50) {
+					final Maybe<Integer> value = cache.get(key);
+					if (value.isSome() && value.asSome().getValue() % KEY_COUNT != key) {
+						failure.compareAndSet(null, "value " + value + " read for key " + key);
+					}
+				} else if (operation < 90) {
+					cache.fill(key, fills.incrementAndGet() * KEY_COUNT + key);
+				} else if (operation < 99) {
+					cache.clear(key);
+				} else {
+					cache.clear();
+				}
+			}
+		});
+		cache.cleanUp();
+		
+		// Tests.
+		Assert.assertNull(failure.get(), "failure");
+		Assert.assertTrue(cache.size() <= CAPACITY, "bounded size");
+		Assert.assertEquals(disposedValues.size() + cache.size(), fills.get(), "disposed and retained values");
+		for (final Integer key : cache.keys()) {
+			final Integer value = cache.get(key).asSome().getValue();
+			Assert.assertFalse(disposedValues.contains(value), "retained value " + value + " disposed");
+		}
+	}
+	
+	public void testContendedAccesses()
+	throws InterruptedException {
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(CachePolicies.lru(4));
+		for (int key = 0; key < 4; key += 1) {
+			cache.fill(key, key);
+		}
+		
+		// Read concurrently to saturate the access buffers.
+		runConcurrently(8, () -> {
+			for (int i = 0; i < 100000; i += 1) {
+				cache.get(0);
+			}
+		});
+		
+		// Tests.
+		for (final ConcurrentCache.AccessBuffer<Integer> accessBuffer : cache._accessBuffers) {
+			Assert.assertTrue(accessBuffer.pending() <= 16, "bounded pending accesses");
+		}
+		cache.cleanUp();
+		for (final ConcurrentCache.AccessBuffer<Integer> accessBuffer : cache._accessBuffers) {
+			Assert.assertEquals(accessBuffer.pending(), 0, "drained accesses");
+		}
+		cache.fill(4, 4);
+		Assert.assertEquals(cache.size(), 4, "size");
+		Assert.assertTrue(cache.contains(0), "retained accessed entry");
+		Assert.assertFalse(cache.contains(1), "evicted least recently used entry");
+	}
+	
+	public void testEvictionsUnderContention()
+	throws InterruptedException {
+		final AtomicInteger disposals = new AtomicInteger();
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>(CachePolicies.fifo(CAPACITY)) {
+			@Override
+			protected void dispose(final Integer value) {
+				disposals.incrementAndGet();
+			}
+		};
+		final CacheStatsCounter stats = cache.enableStats();
+		
+		// Fill distinct keys concurrently.
+		final AtomicInteger keys = new AtomicInteger();
+		runConcurrently(8, () -> {
+			for (int i = 0; i < 10000; i += 1) {
+				final int key = keys.getAndIncrement();
+				cache.fill(key, key);
+				cache.get(key);
+			}
+		});
+		
+		// Tests.
+		final int fillCount = keys.get();
+		Assert.assertEquals(cache.size(), CAPACITY, "size");
+		Assert.assertEquals(disposals.get(), fillCount - CAPACITY, "number of disposals");
+		Assert.assertEquals(stats.snapshot().getEvictionCount(), fillCount - CAPACITY, "number of evictions");
+		for (int key = fillCount - CAPACITY; key < fillCount; key += 1) {
+			Assert.assertTrue(cache.contains(key), "retained entry " + key);
+		}
+	}
+	
+	public void testConditionalUpdates() {
+		final List<Integer> disposedValues = new ArrayList<>();
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>(CachePolicies.lru(CAPACITY)) {
+			@Override
+			protected void dispose(final Integer value) {
+				disposedValues.add(value);
+			}
+		};
+		cache.fill(1, 10);
+		
+		Assert.assertFalse(cache.replace(1, 11, 12), "replacement of an unexpected value");
+		Assert.assertFalse(cache.replace(2, 10, 12), "replacement of a missing entry");
+		Assert.assertTrue(cache.replace(1, 10, 12), "replacement of the expected value");
+		Assert.assertEquals(cache.get(1), Maybe.some(12), "replaced value");
+		Assert.assertEquals(disposedValues, Arrays.asList(10), "disposed values after the replacement");
+		
+		Assert.assertFalse(cache.clear(1, 10), "clear of an unexpected value");
+		Assert.assertEquals(cache.get(1), Maybe.some(12), "kept value");
+		Assert.assertTrue(cache.clear(1, 12), "clear of the expected value");
+		Assert.assertFalse(cache.contains(1), "cleared entry");
+		Assert.assertEquals(disposedValues, Arrays.asList(10, 12), "disposed values after the clear");
+	}
+	
+	public void testFullDisposalQueue() {
+		final List<Integer> disposedValues = Collections.synchronizedList(new ArrayList<>());
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>(CachePolicies.fifo(1)) {
+			@Override
+			protected void dispose(final Integer value) {
+				disposedValues.add(value);
+			}
+		};
+		final Queue<Runnable> tasks = new ArrayDeque<>();
+		cache.enableAsyncDisposal(tasks::add, 2);
+		
+		// Note: the values evicted when the queue is full are disposed by the filling thread.
+		for (int key = 0; key < 6; key += 1) {
+			cache.fill(key, key);
+		}
+		Assert.assertEquals(cache.getPendingDisposals(), 2, "pending disposals");
+		Assert.assertEquals(disposedValues, Arrays.asList(2, 3, 4), "values disposed by the filling thread");
+		
+		tasks.poll().run();
+		Assert.assertEquals(cache.getPendingDisposals(), 0, "pending disposals after the drain");
+		Assert.assertEquals(disposedValues, Arrays.asList(2, 3, 4, 0, 1), "disposed values");
+	}
+	
+	public void testReentrantDisposal()
+	throws InterruptedException {
+		final AtomicReference<String> failure = new AtomicReference<>();
+		final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>(CachePolicies.fifo(1)) {
+			@Override
+			protected void dispose(final Integer value) {
+				if (_policyLock.isHeldByCurrentThread()) {
+					failure.compareAndSet(null, "value " + value + " disposed while holding the lock");
+				}
+				
+				// Update the cache from another thread.
+				if (0 == value) {
+					final Thread thread = new Thread(() -> fill(2, 2));
+					thread.start();
+					try {
+						thread.join(5000);
+					} catch (final InterruptedException exception) {
+						Thread.currentThread().interrupt();
+					}
+					if (thread.isAlive()) {
+						failure.compareAndSet(null, "update blocked by the disposal");
+					}
+				}
+			}
+		};
+		
+		cache.fill(0, 0);
+		cache.fill(1, 1);
+		Assert.assertNull(failure.get(), failure.get());
+		Assert.assertEquals(cache.keys(), Collections.singleton(2), "keys");
+		
+		// Note: the disposals of the clears are deferred too.
+		cache.clear();
+		Assert.assertNull(failure.get(), failure.get());
+	}
+	
+	private static void runConcurrently(final int threadCount, final Runnable task)
+	throws InterruptedException {
+		final CountDownLatch start = new CountDownLatch(1);
+		final Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i += 1) {
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				task.run();
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+	}
+}
@@ -0,0 +1,309 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Serializer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class DiskCacheStoreTest {
+	static final Serializer<String, byte[]> SERIALIZER = new Serializer<String, byte[]>() {
+		@Override
+		public byte[] serialize(final String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+		
+		@Override
+		public String deserialize(final byte[] representation) {
+			return new String(representation, StandardCharsets.UTF_8);
+		}
+	};
+	
+	// Note: the records of 2 byte keys and values take 12 bytes, so 8 of them fit in a segment.
+	private static final int SEGMENT_SIZE = 128;
+	
+	static void deleteDirectory(final Path directory)
+	throws IOException {
+		try (final Stream<Path> paths = Files.walk(directory)) {
+			for (final Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(path);
+			}
+		}
+	}
+	
+	private static long countSegments(final Path directory)
+	throws IOException {
+		try (final Stream<Path> paths = Files.list(directory)) {
+			return paths.count();
+		}
+	}
+	
+	public void testReopen()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try {
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				for (int i = 0; i < 10; i += 1) {
+					store.put("k" + i, "v" + i);
+				}
+				store.put("k3", "w3");
+				store.put("k4", null);
+				Assert.assertTrue(store.remove("k5"), "removal");
+				Assert.assertFalse(store.remove("k5"), "removal of a missing entry");
+				Assert.assertEquals(store.get("k3"), Maybe.some("w3"), "updated value");
+				Assert.assertEquals(store.get("k4"), Maybe.<String>some(null), "null value");
+				Assert.assertEquals(store.get("k5"), Maybe.none(), "removed value");
+			}
+			
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				Assert.assertEquals(store.size(), 9, "recovered size");
+				Assert.assertEquals(store.get("k0"), Maybe.some("v0"), "recovered value");
+				Assert.assertEquals(store.get("k9"), Maybe.some("v9"), "recovered value of the second segment");
+				Assert.assertEquals(store.get("k3"), Maybe.some("w3"), "recovered updated value");
+				Assert.assertEquals(store.get("k4"), Maybe.<String>some(null), "recovered null value");
+				Assert.assertFalse(store.contains("k5"), "recovered removal");
+				
+				// Append to the recovered store.
+				store.put("k5", "w5");
+				Assert.assertEquals(store.get("k5"), Maybe.some("w5"), "value appended after the recovery");
+			}
+			
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				Assert.assertEquals(store.get("k5"), Maybe.some("w5"), "recovered appended value");
+			}
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+	
+	public void testCorruption()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try {
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				for (int i = 0; i < 9; i += 1) {
+					store.put("k" + i, "v" + i);
+				}
+			}
+			
+			// Corrupt a record of the first segment.
+			final Path segment = directory.resolve("segment-0000000000000000.dat");
+			final byte[] bytes = Files.readAllBytes(segment);
+			bytes[34] ^= 1;
+			Files.write(segment, bytes);
+			
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				Assert.assertEquals(store.size(), 1, "size after the discard of the corrupted segment");
+				Assert.assertFalse(store.contains("k0"), "entry of the corrupted segment");
+				Assert.assertEquals(store.get("k8"), Maybe.some("v8"), "entry of the valid segment");
+				Assert.assertFalse(Files.exists(segment), "deleted corrupted segment");
+			}
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+	
+	public void testTombstones()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try {
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				// Fill the first segment with live entries.
+				store.put("a0", "v0");
+				for (int i = 1; i < 8; i += 1) {
+					store.put("x" + i, "v" + i);
+				}
+				
+				// Shadow the removed entry by a tombstone in the second segment, and make that segment sparse.
+				store.remove("a0");
+				for (int i = 0; i < 8; i += 1) {
+					store.put("y0", "v" + i);
+				}
+				Assert.assertEquals(countSegments(directory), 3, "segments before the compaction");
+				
+				Assert.assertEquals(store.compact(), 1, "compacted segments");
+				Assert.assertEquals(store.compact(), 0, "compacted segments of the second compaction");
+				Assert.assertFalse(store.contains("a0"), "removed entry after the compaction");
+			}
+			
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				// Note: the record of the first segment would be recovered without the tombstone.
+				Assert.assertFalse(store.contains("a0"), "recovered removal");
+				Assert.assertEquals(store.get("x7"), Maybe.some("v7"), "recovered value of the first segment");
+				Assert.assertEquals(store.get("y0"), Maybe.some("v7"), "recovered value of the last segment");
+				Assert.assertEquals(store.size(), 8, "recovered size");
+			}
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+	
+	public void testCompaction()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try {
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				for (int round = 0; round < 6; round += 1) {
+					for (int i = 0; i < 5; i += 1) {
+						store.put("k" + i, round + "" + i);
+					}
+				}
+				store.remove("k4");
+				final long segments = countSegments(directory);
+				
+				Assert.assertTrue(store.compact() > 0, "compacted segments");
+				Assert.assertTrue(countSegments(directory) < segments, "segments after the compaction");
+				for (int i = 0; i < 4; i += 1) {
+					Assert.assertEquals(store.get("k" + i), Maybe.some("5" + i), "compacted value");
+				}
+				Assert.assertFalse(store.contains("k4"), "removed entry");
+				
+				// Update after the compaction.
+				store.put("k0", "60");
+			}
+			
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				Assert.assertEquals(store.size(), 4, "recovered size");
+				Assert.assertEquals(store.get("k0"), Maybe.some("60"), "recovered update after the compaction");
+				for (int i = 1; i < 4; i += 1) {
+					Assert.assertEquals(store.get("k" + i), Maybe.some("5" + i), "recovered compacted value");
+				}
+				Assert.assertFalse(store.contains("k4"), "recovered removal");
+			}
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+	
+	public void testConcurrentCompaction()
+	throws IOException, InterruptedException {
+		final Path directory = Files.createTempDirectory("store");
+		try {
+			final Map<String, String> entries = new HashMap<>();
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				final AtomicBoolean done = new AtomicBoolean(false);
+				final AtomicReference<Throwable> failure = new AtomicReference<>();
+				final Thread compactor = new Thread(() -> {
+					try {
+						while (!done.get()) {
+							store.compact();
+						}
+					} catch (final IOException | RuntimeException exception) {
+						failure.set(exception);
+					}
+				});
+				compactor.start();
+				
+				final Random random = new Random(0);
+				for (int i = 0; i < 20000; i += 1) {
+					final String key = "k" + random.nextInt(10);
+					if (random.nextInt(4) == 0) {
+						store.remove(key);
+						entries.remove(key);
+					} else {
+						final String value = Integer.toString(random.nextInt(100));
+						store.put(key, value);
+						entries.put(key, value);
+					}
+				}
+				done.set(true);
+				compactor.join();
+				
+				Assert.assertNull(failure.get(), "compaction failure");
+				for (final Map.Entry<String, String> entry : entries.entrySet()) {
+					Assert.assertEquals(store.get(entry.getKey()), Maybe.some(entry.getValue()), "value after the compactions");
+				}
+				Assert.assertEquals(store.size(), entries.size(), "size after the compactions");
+			}
+			
+			try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, SERIALIZER, SERIALIZER, SEGMENT_SIZE)) {
+				Assert.assertEquals(store.keys(), entries.keySet(), "recovered keys");
+				for (final Map.Entry<String, String> entry : entries.entrySet()) {
+					Assert.assertEquals(store.get(entry.getKey()), Maybe.some(entry.getValue()), "recovered value");
+				}
+			}
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+	
+	public void testScheduledCompaction()
+	throws IOException, InterruptedException {
+		// Note: the deserialization of the keys of the tombstones fails during the first compactions.
+		final AtomicInteger failures = new AtomicInteger(0);
+		final Serializer<String, byte[]> keySerializer = new Serializer<String, byte[]>() {
+			@Override
+			public byte[] serialize(final String value) {
+				return SERIALIZER.serialize(value);
+			}
+			
+			@Override
+			public String deserialize(final byte[] representation) {
+				if (failures.get() < 2) {
+					failures.incrementAndGet();
+					throw new IllegalStateException("Failure");
+				}
+				return SERIALIZER.deserialize(representation);
+			}
+		};
+		
+		final Path directory = Files.createTempDirectory("store");
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try (final DiskCacheStore<String, String> store = DiskCacheStore.open(directory, keySerializer, SERIALIZER, SEGMENT_SIZE)) {
+			for (int i = 0; i < 8; i += 1) {
+				store.put("k0", "v" + i);
+			}
+			store.remove("k0");
+			for (int i = 0; i < 8; i += 1) {
+				store.put("k1", "v" + i);
+			}
+			final long segments = countSegments(directory);
+			
+			final ScheduledFuture<?> compaction = store.scheduleCompaction(executor, Duration.ofMillis(10));
+			final long deadline = System.nanoTime() + 5_000_000_000L;
+			while (countSegments(directory) >= segments && System.nanoTime() - deadline < 0) {
+				Thread.sleep(10);
+			}
+			
+			Assert.assertTrue(compaction.cancel(false), "running compactions");
+			Assert.assertEquals(failures.get(), 2, "failed compactions");
+			Assert.assertTrue(countSegments(directory) < segments, "segments after the compaction");
+			Assert.assertEquals(store.get("k1"), Maybe.some("v7"), "value after the compaction");
+			Assert.assertFalse(store.contains("k0"), "removed entry after the compaction");
+		} finally {
+			executor.shutdownNow();
+			deleteDirectory(directory);
+		}
+	}
+}
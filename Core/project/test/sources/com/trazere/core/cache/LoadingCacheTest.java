@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class LoadingCacheTest {
+	public void testSingleFlight()
+	throws InterruptedException {
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final LoadingCache<String, String> cache = new LoadingCache<>(CachePolicies.all(), (final String key) -> {
+			loads.incrementAndGet();
+			started.countDown();
+			try {
+				release.await();
+			} catch (final InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+			return key.toUpperCase();
+		});
+		
+		// Load concurrently.
+		final String[] values = new String[8];
+		final Thread[] threads = new Thread[values.length];
+		for (int i = 0; i < threads.length; i += 1) {
+			final int index = i;
+			threads[i] = new Thread(() -> values[index] = cache.load("a"));
+			threads[i].start();
+		}
+		started.await();
+		Thread.sleep(50);
+		release.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		
+		// Tests.
+		Assert.assertEquals(loads.get(), 1, "number of loads");
+		for (final String value : values) {
+			Assert.assertEquals(value, "A", "loaded value");
+		}
+		Assert.assertEquals((Object) cache.get("a"), Maybe.some("A"), "cached value");
+	}
+	
+	public void testRecursiveLoading() {
+		final AtomicInteger loads = new AtomicInteger();
+		final AtomicReference<LoadingCache<String, String>> self = new AtomicReference<>();
+		final LoadingCache<String, String> cache = new LoadingCache<>(CachePolicies.all(), (final String key) -> 1 == loads.incrementAndGet() ? self.get().load(key) : key.toUpperCase());
+		self.set(cache);
+		
+		// Tests.
+		try {
+			cache.load("a");
+			Assert.fail("recursive loading");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+		Assert.assertEquals(cache.size(), 0, "cache size");
+		Assert.assertEquals(cache.load("a"), "A", "loaded value");
+	}
+	
+	public void testClearDuringLoading()
+	throws InterruptedException {
+		final AtomicInteger loads = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final LoadingCache<String, String> cache = new LoadingCache<>(CachePolicies.all(), (final String key) -> {
+			if (1 == loads.incrementAndGet()) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+				}
+				return "stale";
+			} else {
+				return "fresh";
+			}
+		});
+		
+		// Load and clear concurrently.
+		final String[] values = new String[1];
+		final Thread thread = new Thread(() -> values[0] = cache.load("a"));
+		thread.start();
+		started.await();
+		cache.clear("a");
+		release.countDown();
+		thread.join();
+		
+		// Tests.
+		Assert.assertEquals(values[0], "stale", "loaded value");
+		Assert.assertFalse(cache.contains("a"), "invalidated entry");
+		Assert.assertEquals(cache.load("a"), "fresh", "reloaded value");
+		Assert.assertEquals(loads.get(), 2, "number of loads");
+	}
+	
+	public void testLoadAll() {
+		final AtomicInteger bulkLoads = new AtomicInteger();
+		final LoadingCache<Integer, Integer> cache = new LoadingCache<>(CachePolicies.all(), (final Integer key) -> -key, keys -> {
+			bulkLoads.incrementAndGet();
+			final Map<Integer, Integer> values = new HashMap<>();
+			for (final Integer key : keys) {
+				if (key != 3) {
+					values.put(key, key * 10);
+				}
+			}
+			return values;
+		});
+		cache.fill(1, 1);
+		
+		final Map<Integer, Integer> values = cache.loadAll(Arrays.asList(1, 2, 3, 2));
+		
+		// Tests.
+		Assert.assertEquals(bulkLoads.get(), 1, "number of bulk loads");
+		Assert.assertEquals(values.keySet().toArray(), new Integer[] { 1, 2, 3 }, "loaded keys");
+		Assert.assertEquals(values.get(1), Integer.valueOf(1), "cached value");
+		Assert.assertEquals(values.get(2), Integer.valueOf(20), "bulk loaded value");
+		Assert.assertEquals(values.get(3), Integer.valueOf(-3), "loaded value");
+		Assert.assertEquals(cache.size(), 3, "cache size");
+	}
+}
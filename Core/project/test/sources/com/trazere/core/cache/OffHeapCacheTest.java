@@ -0,0 +1,247 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Serializer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class OffHeapCacheTest {
+	private static final Serializer<String, byte[]> SERIALIZER = new Serializer<String, byte[]>() {
+		@Override
+		public byte[] serialize(final String value) {
+			return value.getBytes(StandardCharsets.UTF_8);
+		}
+		
+		@Override
+		public String deserialize(final byte[] representation) {
+			return new String(representation, StandardCharsets.UTF_8);
+		}
+	};
+	
+	private static final int SLAB_SIZE = 1024;
+	
+	private static String value(final char c, final int length) {
+		final char[] chars = new char[length];
+		Arrays.fill(chars, c);
+		return new String(chars);
+	}
+	
+	public void testSizeClasses() {
+		final OffHeapCache<String, String> cache = new OffHeapCache<>(CachePolicies.all(), SERIALIZER, SLAB_SIZE);
+		cache.fill("a", value('a', 10));
+		cache.fill("b", value('b', 100));
+		Assert.assertEquals(cache.getAllocatedMemory(), SLAB_SIZE, "allocated memory of the shared slab");
+		Assert.assertEquals(cache.getUsedMemory(), 16 + 128, "used memory");
+		
+		// Overwrite to a larger size class.
+		Assert.assertEquals(cache.fill("a", value('A', 300)), Maybe.some(value('a', 10)), "replaced value");
+		Assert.assertEquals(cache.get("a"), Maybe.some(value('A', 300)), "value of the larger size class");
+		Assert.assertEquals(cache.get("b"), Maybe.some(value('b', 100)), "other value");
+		Assert.assertEquals(cache.getAllocatedMemory(), SLAB_SIZE, "allocated memory after the growth");
+		Assert.assertEquals(cache.getUsedMemory(), 128 + 512, "used memory after the growth");
+		
+		// Overwrite to a smaller size class.
+		cache.fill("a", value('x', 5));
+		Assert.assertEquals(cache.get("a"), Maybe.some(value('x', 5)), "value of the smaller size class");
+		Assert.assertEquals(cache.getUsedMemory(), 16 + 128, "used memory after the shrink");
+		
+		// Dedicated slab.
+		cache.fill("c", value('c', 2000));
+		Assert.assertEquals(cache.get("c"), Maybe.some(value('c', 2000)), "value of the dedicated slab");
+		Assert.assertEquals(cache.getAllocatedMemory(), SLAB_SIZE + 2000, "allocated memory of the dedicated slab");
+		cache.clear("c");
+		Assert.assertEquals(cache.getAllocatedMemory(), SLAB_SIZE, "allocated memory after the release of the dedicated slab");
+		
+		// Null value.
+		cache.fill("d", null);
+		Assert.assertEquals(cache.get("d"), Maybe.<String>some(null), "null value");
+		Assert.assertEquals(cache.getUsedMemory(), 16 + 128, "used memory of the null value");
+		
+		cache.clear();
+		Assert.assertEquals(cache.size(), 0, "size after the clear");
+		Assert.assertEquals(cache.getAllocatedMemory(), 0, "allocated memory after the clear");
+	}
+	
+	public void testFreeChunkReuse() {
+		final OffHeapCache<Integer, String> cache = new OffHeapCache<>(CachePolicies.all(), SERIALIZER, SLAB_SIZE);
+		for (int key = 0; key < 10; key += 1) {
+			cache.fill(key, value((char) ('a' + key), 100));
+		}
+		Assert.assertEquals(cache.getAllocatedMemory(), 2 * SLAB_SIZE, "allocated memory");
+		
+		for (int key = 0; key < 10; key += 1) {
+			cache.clear(key);
+		}
+		Assert.assertEquals(cache.getUsedMemory(), 0, "used memory after the removals");
+		Assert.assertEquals(cache.getAllocatedMemory(), 0, "allocated memory after the removals");
+		
+		for (int key = 0; key < 10; key += 1) {
+			cache.fill(key, value((char) ('A' + key), 120));
+		}
+		for (int key = 0; key < 10; key += 1) {
+			Assert.assertEquals(cache.get(key), Maybe.some(value((char) ('A' + key), 120)), "value " + key);
+		}
+		Assert.assertEquals(cache.getAllocatedMemory(), 2 * SLAB_SIZE, "allocated memory after the reuse");
+	}
+	
+	public void testSlabTailReuse() {
+		final OffHeapCache<String, String> cache = new OffHeapCache<>(CachePolicies.all(), SERIALIZER, SLAB_SIZE);
+		cache.fill("a", value('a', 100));
+		cache.fill("b", value('b', 600));
+		Assert.assertEquals(cache.getAllocatedMemory(), 2 * SLAB_SIZE, "allocated memory");
+		
+		// Note: the end of the first slab has been split into chunks of 512, 256 and 128 bytes.
+		cache.fill("c", value('c', 500));
+		cache.fill("d", value('d', 200));
+		cache.fill("e", value('e', 100));
+		Assert.assertEquals(cache.getAllocatedMemory(), 2 * SLAB_SIZE, "allocated memory after the reuse of the end of the slab");
+		Assert.assertEquals(cache.get("a"), Maybe.some(value('a', 100)), "value a");
+		Assert.assertEquals(cache.get("b"), Maybe.some(value('b', 600)), "value b");
+		Assert.assertEquals(cache.get("c"), Maybe.some(value('c', 500)), "value c");
+		Assert.assertEquals(cache.get("d"), Maybe.some(value('d', 200)), "value d");
+		Assert.assertEquals(cache.get("e"), Maybe.some(value('e', 100)), "value e");
+	}
+	
+	public void testShiftingSizes() {
+		// Note: the size classes of the values change over time, the freed chunks must serve the other size classes.
+		final Random random = new Random(42);
+		final OffHeapCache<Integer, String> cache = new OffHeapCache<>(CachePolicies.all(), SERIALIZER, SLAB_SIZE);
+		final int keyCount = 64;
+		long maxAllocatedMemory = 0;
+		for (int phase = 0; phase < 12; phase += 1) {
+			final int length = 8 << (phase % 7);
+			for (int i = 0; i < 20 * keyCount; i += 1) {
+				final int key = i < keyCount ? i : random.nextInt(keyCount);
+				cache.fill(key, value((char) ('a' + phase), length / 2 + random.nextInt(length / 2)));
+				maxAllocatedMemory = Math.max(maxAllocatedMemory, cache.getAllocatedMemory());
+			}
+			
+			// Tests.
+			Assert.assertTrue(cache.getAllocatedMemory() <= 2 * cache.getUsedMemory() + SLAB_SIZE, "allocated memory " + cache.getAllocatedMemory() + " of phase " + phase);
+		}
+		Assert.assertTrue(maxAllocatedMemory <= 2 * keyCount * 512 + SLAB_SIZE, "maximum allocated memory " + maxAllocatedMemory);
+		
+		for (int key = 0; key < keyCount; key += 1) {
+			cache.clear(key);
+		}
+		Assert.assertEquals(cache.getAllocatedMemory(), 0, "allocated memory after the removals");
+	}
+	
+	private static final class CollidingKey {
+		public CollidingKey(final int id) {
+			this.id = id;
+		}
+		
+		public final int id;
+		
+		@Override
+		public int hashCode() {
+			// Note: few distinct hash codes make long probe sequences.
+			return id % 3;
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			return object instanceof CollidingKey && ((CollidingKey) object).id == id;
+		}
+	}
+	
+	public void testRemovalChains() {
+		final Random random = new Random(42);
+		final OffHeapCache<CollidingKey, String> cache = new OffHeapCache<>(CachePolicies.all(), SERIALIZER, SLAB_SIZE);
+		final Map<CollidingKey, String> entries = new HashMap<>();
+		for (int i = 0; i < 5000; i += 1) {
+			final CollidingKey key = new CollidingKey(random.nextInt(40));
+			if (random.nextInt(3) > 0) {
+				final String value = random.nextInt(10) > 0 ? value((char) ('a' + random.nextInt(26)), random.nextInt(700)) : null;
+				cache.fill(key, value);
+				entries.put(key, value);
+			} else {
+				cache.clear(key);
+				entries.remove(key);
+			}
+			
+			// Tests.
+			Assert.assertEquals(cache.size(), entries.size(), "size");
+			Assert.assertEquals(new HashSet<>(cache.keys()), entries.keySet(), "keys");
+			for (int id = 0; id < 40; id += 1) {
+				final CollidingKey probedKey = new CollidingKey(id);
+				Assert.assertEquals(cache.get(probedKey), entries.containsKey(probedKey) ? Maybe.some(entries.get(probedKey)) : Maybe.none(), "value " + id);
+			}
+		}
+	}
+	
+	public void testFailingDeserialization() {
+		// Note: the values starting with '!' cannot be deserialized.
+		final Serializer<String, byte[]> serializer = new Serializer<String, byte[]>() {
+			@Override
+			public byte[] serialize(final String value) {
+				return SERIALIZER.serialize(value);
+			}
+			
+			@Override
+			public String deserialize(final byte[] representation) {
+				if ('!' == representation[0]) {
+					throw new IllegalStateException("Corrupted value");
+				}
+				return SERIALIZER.deserialize(representation);
+			}
+		};
+		final OffHeapCache<String, String> cache = new OffHeapCache<>(CachePolicies.all(), serializer, SLAB_SIZE);
+		
+		// Replacement.
+		cache.fill("a", value('!', 100));
+		try {
+			cache.fill("a", value('a', 10));
+			Assert.fail("replacement of a corrupted value");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+		Assert.assertEquals(cache.get("a"), Maybe.some(value('a', 10)), "replaced value");
+		Assert.assertEquals(cache.getUsedMemory(), 16, "used memory after the replacement");
+		
+		// Removal.
+		cache.fill("b", value('!', 100));
+		try {
+			cache.clear("b");
+			Assert.fail("removal of a corrupted value");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+		Assert.assertFalse(cache.contains("b"), "removed entry");
+		Assert.assertEquals(cache.getUsedMemory(), 16, "used memory after the removal");
+		
+		// Clear.
+		cache.fill("c", value('!', 100));
+		try {
+			cache.clear();
+			Assert.fail("clear of a corrupted value");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+		Assert.assertEquals(cache.size(), 0, "size after the clear");
+		Assert.assertEquals(cache.getAllocatedMemory(), 0, "allocated memory after the clear");
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.imperative.Accumulator;
+import com.trazere.core.util.Maybe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ReferenceCacheTest {
+	/**
+	 * The {@link RecordingPolicy} class implements cache policies that record the cleared entries.
+	 */
+	private static final class RecordingPolicy
+	implements CachePolicy<String> {
+		private final CachePolicy<String> _policy;
+		public final List<String> clearedKeys = new ArrayList<>();
+		
+		public RecordingPolicy(final CachePolicy<String> policy) {
+			_policy = policy;
+		}
+		
+		@Override
+		public CachePolicy.State<String> build() {
+			final CachePolicy.State<String> state = _policy.build();
+			return new CachePolicy.State<String>() {
+				@Override
+				public <A extends Accumulator<? super String, ?>> A updatedEntry(final String key, final A dirtyEntries) {
+					return state.updatedEntry(key, dirtyEntries);
+				}
+				
+				@Override
+				public <A extends Accumulator<? super String, ?>> A accessedEntry(final String key, final A dirtyEntries) {
+					return state.accessedEntry(key, dirtyEntries);
+				}
+				
+				@Override
+				public void clearedEntry(final String key) {
+					clearedKeys.add(key);
+					state.clearedEntry(key);
+				}
+				
+				@Override
+				public void clearedAllEntries() {
+					state.clearedAllEntries();
+				}
+			};
+		}
+	}
+	
+	private static int purge(final ReferenceCache<?, ?> cache) {
+		// Note: the collected references are enqueued asynchronously.
+		final long deadline = System.nanoTime() + 10_000_000_000L;
+		int count = 0;
+		while (0 == count && System.nanoTime() - deadline < 0) {
+			System.gc();
+			count = cache.purge();
+			if (0 == count) {
+				try {
+					Thread.sleep(10);
+				} catch (final InterruptedException exception) {
+					throw new IllegalStateException(exception);
+				}
+			}
+		}
+		return count;
+	}
+	
+	public void testWeakPurge() {
+		final RecordingPolicy policy = new RecordingPolicy(CachePolicies.lru(3));
+		final ReferenceCache<String, Object> cache = new ReferenceCache<>(policy, false);
+		final CacheStatsCounter stats = cache.enableStats();
+		final Object b = new Object();
+		cache.fill("a", new Object());
+		cache.fill("b", b);
+		cache.fill("n", null);
+		
+		Assert.assertEquals(purge(cache), 1, "purged entries");
+		Assert.assertEquals(cache.keys(), new HashSet<>(Arrays.asList("b", "n")), "keys after the purge");
+		Assert.assertEquals(cache.get("a"), Maybe.none(), "collected value");
+		Assert.assertEquals(cache.get("b"), Maybe.some(b), "reachable value");
+		Assert.assertEquals(cache.get("n"), Maybe.some(null), "null value");
+		Assert.assertEquals(policy.clearedKeys, Collections.singletonList("a"), "cleared keys of the policy");
+		Assert.assertEquals(stats.snapshot().getEvictionCount(), 1L, "evictions");
+	}
+	
+	public void testReplacedReference() {
+		final RecordingPolicy policy = new RecordingPolicy(CachePolicies.all());
+		final ReferenceCache<String, Object> cache = new ReferenceCache<>(policy, false);
+		final Object b = new Object();
+		cache.fill("a", new Object());
+		cache.fill("b", new Object());
+		cache.fill("b", b);
+		
+		// Note: the reference of the replaced value is not enqueued.
+		Assert.assertEquals(purge(cache), 1, "purged entries");
+		Assert.assertEquals(cache.purge(), 0, "purged entries of the second purge");
+		Assert.assertEquals(cache.keys(), Collections.singleton("b"), "keys after the purge");
+		Assert.assertEquals(cache.get("b"), Maybe.some(b), "replacing value");
+		Assert.assertEquals(policy.clearedKeys, Collections.singletonList("a"), "cleared keys of the policy");
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.util.Maybe;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class TieredCacheTest {
+	private static final int SEGMENT_SIZE = 1024;
+	
+	public void testSpill()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try (final TieredCache<String, String> cache = new TieredCache<>(CachePolicies.lru(2), DiskCacheStore.open(directory, DiskCacheStoreTest.SERIALIZER, DiskCacheStoreTest.SERIALIZER, SEGMENT_SIZE))) {
+			cache.fill("a", "1");
+			cache.fill("b", "2");
+			Assert.assertEquals(cache.getStore().size(), 0, "stored entries before the eviction");
+			
+			cache.fill("c", "3");
+			Assert.assertEquals(cache.size(), 2, "size of the first level");
+			Assert.assertEquals(cache.getStore().keys(), new HashSet<>(Arrays.asList("a")), "spilled entries");
+			Assert.assertTrue(cache.contains("a"), "spilled entry");
+			
+			// Update of a spilled entry.
+			cache.fill("d", "4");
+			Assert.assertEquals(cache.getStore().keys(), new HashSet<>(Arrays.asList("a", "b")), "spilled entries after the second eviction");
+			cache.fill("a", "5");
+			Assert.assertFalse(cache.getStore().contains("a"), "stale stored entry");
+			Assert.assertEquals(cache.get("a"), Maybe.some("5"), "updated value");
+			
+			// Removal of a spilled entry.
+			cache.clear("b");
+			Assert.assertFalse(cache.contains("b"), "removed entry");
+			Assert.assertEquals(cache.get("b"), Maybe.none(), "removed value");
+		} finally {
+			DiskCacheStoreTest.deleteDirectory(directory);
+		}
+	}
+	
+	public void testBulkSpill()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try (final TieredCache<String, String> cache = new TieredCache<>(CachePolicies.lru(2), DiskCacheStore.open(directory, DiskCacheStoreTest.SERIALIZER, DiskCacheStoreTest.SERIALIZER, SEGMENT_SIZE))) {
+			cache.fill("a", "1");
+			final Map<String, String> entries = new LinkedHashMap<>();
+			entries.put("b", "2");
+			entries.put("c", "3");
+			entries.put("d", "4");
+			cache.fillAll(entries);
+			
+			// Note: b is evicted by the bulk fill before being stored in the first level.
+			Assert.assertEquals(cache.keys(), new HashSet<>(Arrays.asList("c", "d")), "entries of the first level");
+			Assert.assertEquals(cache.getStore().keys(), new HashSet<>(Arrays.asList("a", "b")), "spilled entries");
+			Assert.assertEquals(cache.get("b"), Maybe.some("2"), "spilled value");
+		} finally {
+			DiskCacheStoreTest.deleteDirectory(directory);
+		}
+	}
+	
+	public void testPromotion()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try (final TieredCache<String, String> cache = new TieredCache<>(CachePolicies.lru(2), DiskCacheStore.open(directory, DiskCacheStoreTest.SERIALIZER, DiskCacheStoreTest.SERIALIZER, SEGMENT_SIZE))) {
+			cache.fill("a", "1");
+			cache.fill("b", "2");
+			cache.fill("c", "3");
+			Assert.assertEquals(cache.keys(), new HashSet<>(Arrays.asList("b", "c")), "keys of the first level");
+			
+			// Promote the spilled entry.
+			Assert.assertEquals(cache.get("a"), Maybe.some("1"), "promoted value");
+			Assert.assertEquals(cache.keys(), new HashSet<>(Arrays.asList("a", "c")), "keys of the first level after the promotion");
+			Assert.assertEquals(cache.getStore().keys(), new HashSet<>(Arrays.asList("a", "b")), "stored entries after the promotion");
+			
+			// Note: the stored copy of the promoted entry is kept.
+			cache.get("b");
+			Assert.assertEquals(cache.keys(), new HashSet<>(Arrays.asList("a", "b")), "keys of the first level after the second promotion");
+			Assert.assertEquals(cache.getStore().keys(), new HashSet<>(Arrays.asList("a", "b", "c")), "stored entries after the second promotion");
+			Assert.assertEquals(cache.get("c"), Maybe.some("3"), "value of the demoted entry");
+		} finally {
+			DiskCacheStoreTest.deleteDirectory(directory);
+		}
+	}
+	
+	public void testWarmStart()
+	throws IOException {
+		final Path directory = Files.createTempDirectory("store");
+		try {
+			try (final TieredCache<String, String> cache = new TieredCache<>(CachePolicies.lru(2), DiskCacheStore.open(directory, DiskCacheStoreTest.SERIALIZER, DiskCacheStoreTest.SERIALIZER, SEGMENT_SIZE))) {
+				cache.fill("a", "1");
+				cache.fill("b", "2");
+				cache.fill("c", "3");
+			}
+			
+			try (final TieredCache<String, String> cache = new TieredCache<>(CachePolicies.lru(2), DiskCacheStore.open(directory, DiskCacheStoreTest.SERIALIZER, DiskCacheStoreTest.SERIALIZER, SEGMENT_SIZE))) {
+				Assert.assertEquals(cache.size(), 0, "size of the first level after the restart");
+				Assert.assertEquals(cache.get("a"), Maybe.some("1"), "spilled value");
+				Assert.assertEquals(cache.get("b"), Maybe.some("2"), "value spilled on closing");
+				Assert.assertEquals(cache.get("c"), Maybe.some("3"), "value spilled on closing");
+				
+				cache.clear();
+				Assert.assertEquals(cache.getStore().size(), 0, "stored entries after the clear");
+				Assert.assertEquals(cache.get("a"), Maybe.none(), "value after the clear");
+			}
+		} finally {
+			DiskCacheStoreTest.deleteDirectory(directory);
+		}
+	}
+}
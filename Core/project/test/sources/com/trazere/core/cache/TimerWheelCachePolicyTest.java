@@ -0,0 +1,188 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.collection.CollectionAccumulators;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class TimerWheelCachePolicyTest {
+	/** Span of the buckets of the finest wheel in nanoseconds. */
+	private static final long TICK = 1L << 24;
+	
+	private static final class TestPolicy<K>
+	extends TimerWheelCachePolicy<K> {
+		public TestPolicy(final Duration timeout, final boolean idle, final long time) {
+			super(timeout, idle);
+			
+			// Initialization.
+			this.time = time;
+		}
+		
+		public volatile long time;
+		
+		@Override
+		protected long currentTime() {
+			return time;
+		}
+	}
+	
+	public void testExpiration() {
+		// Note: the time overflows during the test.
+		final long timeout = Duration.ofMillis(100).toNanos();
+		final TestPolicy<String> policy = new TestPolicy<>(Duration.ofNanos(timeout), false, Long.MAX_VALUE - Duration.ofMillis(50).toNanos());
+		final CachePolicy.State<String> state = policy.build();
+		final long deadline = policy.time + timeout;
+		state.updatedEntry("a", CollectionAccumulators.add(new HashSet<String>()));
+		
+		Set<String> expiredEntries;
+		do {
+			policy.time += Duration.ofMillis(1).toNanos();
+			expiredEntries = state.expiredEntries(CollectionAccumulators.add(new HashSet<String>())).get();
+		} while (expiredEntries.isEmpty() && policy.time - deadline < 2 * TICK);
+		
+		// Tests.
+		Assert.assertEquals(expiredEntries, new HashSet<>(Arrays.asList("a")), "expired entries");
+		Assert.assertTrue(policy.time - deadline >= 0, "expired after the deadline");
+		Assert.assertTrue(policy.time - deadline <= TICK, "expired within a tick of the deadline");
+	}
+	
+	public void testTimeToLive() {
+		testRandomly(Duration.ofHours(2), false, Long.MAX_VALUE - Duration.ofHours(1).toNanos());
+		testRandomly(Duration.ofSeconds(30), false, 0L);
+	}
+	
+	public void testIdle() {
+		testRandomly(Duration.ofHours(2), true, Long.MAX_VALUE - Duration.ofHours(1).toNanos());
+		testRandomly(Duration.ofSeconds(30), true, -Duration.ofSeconds(10).toNanos());
+	}
+	
+	private static void testRandomly(final Duration timeout, final boolean idle, final long startTime) {
+		final Random random = new Random(42);
+		final TestPolicy<Integer> policy = new TestPolicy<>(timeout, idle, startTime);
+		final CachePolicy.State<Integer> state = policy.build();
+		
+		// Note: the steps are small in front of the timeout so that the entries cascade through the levels of the wheels.
+		final long maxStep = timeout.toNanos() / 50;
+		final Map<Integer, Long> deadlines = new HashMap<>();
+		for (int i = 0; i < 5000 || !deadlines.isEmpty(); i += 1) {
+			policy.time += (long) (random.nextDouble() * maxStep);
+			final List<Integer> expiredEntries = new ArrayList<>();
+			boolean advanced = true;
+			if (i < 5000) {
+				final Integer key = random.nextInt(200);
+				final int operation = random.nextInt(10);
+				if (operation < 4) {
+					state.updatedEntry(key, CollectionAccumulators.add(expiredEntries));
+					deadlines.put(key, policy.time + timeout.toNanos());
+				} else if (operation < 8 && deadlines.containsKey(key)) {
+					state.accessedEntry(key, CollectionAccumulators.add(expiredEntries));
+					if (idle) {
+						deadlines.put(key, policy.time + timeout.toNanos());
+					}
+				} else if (operation < 9) {
+					state.clearedEntry(key);
+					deadlines.remove(key);
+					advanced = false;
+				} else {
+					state.expiredEntries(CollectionAccumulators.add(expiredEntries));
+				}
+			} else {
+				state.expiredEntries(CollectionAccumulators.add(expiredEntries));
+			}
+			
+			// Tests.
+			for (final Integer key : expiredEntries) {
+				final Long deadline = deadlines.remove(key);
+				Assert.assertNotNull(deadline, "expired entry " + key + " is scheduled");
+				Assert.assertTrue(policy.time - deadline >= 0, "entry " + key + " expired after its deadline");
+			}
+			if (advanced) {
+				for (final Map.Entry<Integer, Long> deadline : deadlines.entrySet()) {
+					Assert.assertTrue(policy.time - deadline.getValue() < TICK, "entry " + deadline.getKey() + " expired within a tick of its deadline");
+				}
+			}
+		}
+	}
+	
+	public void testClear() {
+		final TestPolicy<String> policy = new TestPolicy<>(Duration.ofSeconds(1), true, 0L);
+		final CachePolicy.State<String> state = policy.build();
+		state.updatedEntry("a", CollectionAccumulators.add(new HashSet<String>()));
+		state.updatedEntry("b", CollectionAccumulators.add(new HashSet<String>()));
+		state.updatedEntry("c", CollectionAccumulators.add(new HashSet<String>()));
+		state.clearedEntry("a");
+		policy.time += Duration.ofSeconds(2).toNanos();
+		Assert.assertEquals(state.expiredEntries(CollectionAccumulators.add(new HashSet<String>())).get(), new HashSet<>(Arrays.asList("b", "c")), "expired entries");
+		
+		state.updatedEntry("d", CollectionAccumulators.add(new HashSet<String>()));
+		state.clearedAllEntries();
+		policy.time += Duration.ofSeconds(2).toNanos();
+		Assert.assertEquals(state.expiredEntries(CollectionAccumulators.add(new HashSet<String>())).get(), new HashSet<String>(), "expired entries");
+	}
+	
+	public void testCleanUp() {
+		final TestPolicy<String> policy = new TestPolicy<>(Duration.ofSeconds(1), false, 0L);
+		final ConcurrentCache<String, String> cache = new ConcurrentCache<>(policy);
+		final CacheStatsCounter stats = cache.enableStats();
+		cache.fill("a", "A");
+		cache.fill("b", "B");
+		
+		cache.cleanUp();
+		Assert.assertEquals(cache.size(), 2, "size before the timeout");
+		
+		policy.time += Duration.ofSeconds(2).toNanos();
+		cache.cleanUp();
+		Assert.assertEquals(cache.size(), 0, "size after the timeout");
+		Assert.assertEquals(stats.snapshot().getExpirationCount(), 2L, "number of expirations");
+	}
+	
+	public void testScheduledCleanUp()
+	throws InterruptedException {
+		final TestPolicy<String> policy = new TestPolicy<>(Duration.ofSeconds(1), false, 0L);
+		final ConcurrentCache<String, String> cache = new ConcurrentCache<>(policy);
+		cache.fill("a", "A");
+		
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final ScheduledFuture<?> cleanUps = cache.scheduleCleanUp(executor, Duration.ofMillis(1));
+			policy.time += Duration.ofSeconds(2).toNanos();
+			final long timeout = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (!cache.isEmpty() && System.nanoTime() - timeout < 0) {
+				Thread.sleep(1);
+			}
+			cleanUps.cancel(false);
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		// Tests.
+		Assert.assertTrue(cache.isEmpty(), "expired entries cleaned up");
+	}
+}
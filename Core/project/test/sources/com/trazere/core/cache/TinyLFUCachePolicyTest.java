@@ -0,0 +1,109 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.collection.CollectionAccumulators;
+import com.trazere.core.collection.Lists;
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class TinyLFUCachePolicyTest {
+	public void testAdmission() {
+		final CachePolicy.State<Integer> state = new TinyLFUCachePolicy<Integer>(100).build();
+		final List<Integer> evictedKeys = new ArrayList<>();
+		
+		// Fill and access the cache.
+		for (int key = 0; key < 100; key += 1) {
+			state.updatedEntry(key, CollectionAccumulators.add(evictedKeys));
+		}
+		for (int i = 0; i < 3; i += 1) {
+			for (int key = 0; key < 100; key += 1) {
+				state.accessedEntry(key, CollectionAccumulators.add(evictedKeys));
+			}
+		}
+		Assert.assertEquals(evictedKeys, Lists.fromElements(), "evicted keys of the full cache");
+		
+		// Scan.
+		for (int key = 1000; key < 2000; key += 1) {
+			state.updatedEntry(key, CollectionAccumulators.add(evictedKeys));
+		}
+		
+		// Tests.
+		// Note: the frequencies are estimated, so a few scanned keys may be admitted.
+		int evictedCount = 0;
+		for (final Integer key : evictedKeys) {
+			if (key < 100) {
+				evictedCount += 1;
+			}
+		}
+		Assert.assertEquals(evictedKeys.size(), 1000, "number of evicted keys");
+		Assert.assertTrue(evictedCount <= 10, "number of evicted frequent keys");
+	}
+	
+	public void testPromotion() {
+		// Note: the capacity is split into a window of 1 entry, a protected segment of 7 entries and a probation segment.
+		final CachePolicy.State<String> state = new TinyLFUCachePolicy<String>(10).build();
+		final List<String> evictedKeys = new ArrayList<>();
+		for (int i = 0; i < 10; i += 1) {
+			state.updatedEntry("k" + i, CollectionAccumulators.add(evictedKeys));
+		}
+		
+		// Promote k1 to k7 from the probation segment to the protected segment.
+		for (int i = 1; i < 8; i += 1) {
+			state.accessedEntry("k" + i, CollectionAccumulators.add(evictedKeys));
+		}
+		
+		// Fill more and more frequently accessed keys so that the candidates of the window replace the victims of the probation segment.
+		// Note: k9 leaves the window first and is rejected as it is not more frequent than k0.
+		final List<String> victims = new ArrayList<>();
+		for (int i = 0; i < 4; i += 1) {
+			state.updatedEntry("n" + i, CollectionAccumulators.add(victims));
+			for (int j = 0; j < 5 + i; j += 1) {
+				state.accessedEntry("n" + i, CollectionAccumulators.add(victims));
+			}
+			if (1 == i) {
+				// Note: the promotion of k8 demotes the least recently used protected key k1.
+				state.accessedEntry("k8", CollectionAccumulators.add(victims));
+			}
+		}
+		
+		// Tests.
+		Assert.assertEquals(evictedKeys, Lists.fromElements(), "evicted keys of the full cache");
+		// Note: the protected keys are never evicted.
+		Assert.assertEquals(victims, Lists.fromElements("k9", "k0", "n0", "k1"), "evicted keys");
+	}
+	
+	public void testAging() {
+		final TinyLFUCachePolicy.FrequencySketch sketch = new TinyLFUCachePolicy.FrequencySketch(16);
+		for (int i = 0; i < 20; i += 1) {
+			sketch.increment("a");
+		}
+		Assert.assertEquals(sketch.frequency("a"), 15, "saturated frequency");
+		
+		// Note: the sketch ages after 10 times the capacity of recorded accesses.
+		int count = 15;
+		while (15 == sketch.frequency("a") && count < 200) {
+			sketch.increment(count);
+			count += 1;
+		}
+		Assert.assertEquals(sketch.frequency("a"), 7, "aged frequency");
+		Assert.assertTrue(count > 150 && count < 170, "aging period");
+		Assert.assertTrue(sketch.frequency(100) <= 1, "aged frequency of the other keys");
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.cache;
+
+import com.trazere.core.collection.Sets;
+import com.trazere.core.util.Maybe;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class WeightedCachePolicyTest {
+	private static CachePolicy<String> lengthWeightedPolicy(final boolean lru) {
+		return lru ? CachePolicies.weightedLru(String.class, (key, value) -> (long) value.length(), 10) : CachePolicies.weightedFifo(String.class, (key, value) -> (long) value.length(), 10);
+	}
+	
+	public void testLru() {
+		final SimpleCache<String, String> cache = new SimpleCache<>(lengthWeightedPolicy(true));
+		cache.fill("a", "aaa");
+		cache.fill("b", "bbbb");
+		cache.fill("c", "cc");
+		cache.fill("a", "a");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("a", "b", "c"), "keys after the update");
+		
+		// Note: the update of a lowered the total weight from 9 to 7.
+		cache.fill("d", "dddd");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("a", "c", "d"), "keys after the eviction");
+		
+		cache.clear("c");
+		cache.fill("e", "eeeee");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("a", "d", "e"), "keys after the removal");
+		
+		cache.get("a");
+		cache.fill("f", "f");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("a", "e", "f"), "keys after the access");
+	}
+	
+	public void testFifo() {
+		final SimpleCache<String, String> cache = new SimpleCache<>(lengthWeightedPolicy(false));
+		cache.fill("a", "a");
+		cache.fill("d", "dddd");
+		cache.fill("e", "eeeee");
+		cache.get("a");
+		cache.fill("f", "f");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("d", "e", "f"), "keys after the eviction");
+		
+		cache.fill("d", "dd");
+		cache.fill("g", "gggg");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("f", "d", "g"), "keys after the update");
+	}
+	
+	public void testFillAll() {
+		final SimpleCache<String, String> cache = new SimpleCache<>(lengthWeightedPolicy(true));
+		final Map<String, String> entries = new LinkedHashMap<>();
+		entries.put("a", "aaaa");
+		entries.put("b", "bbbb");
+		entries.put("c", "cccc");
+		cache.fillAll(entries);
+		Assert.assertEquals(cache.keys(), Sets.fromElements("b", "c"), "keys after the bulk fill");
+		
+		cache.fill("d", "ddddddddddd");
+		Assert.assertEquals(cache.keys(), Sets.fromElements(), "keys after the fill of an overweight entry");
+		
+		cache.fill("e", "eeeeeeeeee");
+		Assert.assertEquals(cache.keys(), Sets.fromElements("e"), "keys after the fill of a full weight entry");
+	}
+	
+	public void testUpdateWithoutValue() {
+		final CachePolicy.State<String> state = lengthWeightedPolicy(true).build();
+		state.updatedEntry("a", "aaa", new BaseCache.DirtyKeys<String>());
+		
+		// Note: the weight of the weighted entries is kept.
+		Assert.assertTrue(state.updatedEntry("a", new BaseCache.DirtyKeys<String>()).isEmpty(), "dirty entries after the update of a weighted entry");
+		try {
+			state.updatedEntry("b", new BaseCache.DirtyKeys<String>());
+			Assert.fail("update of an unweighted entry");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+	}
+	
+	public void testMismatchedValues() {
+		// Note: the policy weighs strings but the cache holds integers.
+		final SimpleCache<String, Integer> cache = new SimpleCache<>(lengthWeightedPolicy(true));
+		try {
+			cache.fill("a", 1);
+			Assert.fail("fill of a mismatched value");
+		} catch (final IllegalArgumentException exception) {
+			// Expected.
+		}
+		
+		final Map<String, Object> entries = new LinkedHashMap<>();
+		entries.put("b", "bbb");
+		entries.put("c", 3);
+		final CachePolicy.State<String> state = lengthWeightedPolicy(true).build();
+		try {
+			state.updatedEntries(entries, new BaseCache.DirtyKeys<String>());
+			Assert.fail("bulk update with a mismatched value");
+		} catch (final IllegalArgumentException exception) {
+			// Expected.
+		}
+		
+		// Note: the entries of the rejected batch are not weighted.
+		try {
+			state.updatedEntry("b", new BaseCache.DirtyKeys<String>());
+			Assert.fail("update of an entry of the rejected batch");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+	}
+	
+	public void testFillAllBound() {
+		// Note: the bulk fills used to insert all entries before evicting any. The entries of the batch evicted right away are not stored at all.
+		final int[] maxSize = { 0 };
+		final SimpleCache<String, String> cache = new SimpleCache<String, String>(lengthWeightedPolicy(false)) {
+			@Override
+			protected Maybe<String> setEntry(final String key, final String value) {
+				final Maybe<String> oldValue = super.setEntry(key, value);
+				maxSize[0] = Math.max(maxSize[0], _entries.size());
+				return oldValue;
+			}
+		};
+		final Map<String, String> entries = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i += 1) {
+			entries.put("k" + i, "vvvv");
+		}
+		cache.fillAll(entries);
+		Assert.assertEquals(cache.keys(), Sets.fromElements("k98", "k99"), "keys after the bulk fill");
+		Assert.assertEquals(maxSize[0], 2, "maximum number of entries during the bulk fill");
+	}
+}
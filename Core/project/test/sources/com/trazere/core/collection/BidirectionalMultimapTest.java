@@ -0,0 +1,74 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class BidirectionalMultimapTest {
+	public void testConsistency() {
+		final Random random = new Random(42);
+		final BidirectionalMultimap<Integer, Integer, List<Integer>, ?> multimap = new BidirectionalMultimap<>(MapFactories.hashMap(), CollectionFactories.arrayList());
+		final MapMultimap<Integer, Integer, List<Integer>, ?> expected = new MapMultimap<>(MapFactories.hashMap(), CollectionFactories.arrayList());
+		for (int i = 0; i < 20000; i += 1) {
+			final Integer key = random.nextInt(20);
+			final Integer value = random.nextInt(20);
+			switch (random.nextInt(6)) {
+				case 0:
+				case 1:
+					Assert.assertEquals(multimap.put(key, value), expected.put(key, value), "put");
+					break;
+				case 2:
+					Assert.assertEquals(multimap.remove(key, value), expected.remove(key, value), "remove");
+					break;
+				case 3:
+					Assert.assertEquals(multimap.removeValue(value), expected.removeValue(value), "removeValue");
+					break;
+				case 4:
+					Assert.assertEquals(multimap.removeKey(key), expected.removeKey(key), "removeKey");
+					break;
+				default:
+					Assert.assertEquals(multimap.containsValue(value), expected.containsValue(value), "containsValue");
+			}
+		}
+		
+		Assert.assertEquals(multimap, expected, "bindings");
+		for (int value = 0; value < 20; value += 1) {
+			final Set<Integer> keys = multimap.getKeys(value);
+			for (final Integer key : expected.keySet()) {
+				Assert.assertEquals(keys.contains(key), expected.contains(key, value), "keys of " + value);
+			}
+		}
+	}
+	
+	public void testTopologicalSort() {
+		final MapMultimap<String, String, Set<String>, ?> dependencies = new MapMultimap<>(MapFactories.hashMap(), CollectionFactories.hashSet());
+		dependencies.put("c", "b");
+		dependencies.put("b", "a");
+		dependencies.put("d", "a");
+		
+		final List<String> sorted = ListUtils.topologicalSort(Arrays.asList("d", "c", "b", "a"), dependencies::get, false, CollectionFactories.arrayList());
+		Assert.assertEquals(sorted.size(), 4, "size");
+		Assert.assertTrue(sorted.indexOf("a") < sorted.indexOf("b"), "a before b");
+		Assert.assertTrue(sorted.indexOf("b") < sorted.indexOf("c"), "b before c");
+		Assert.assertTrue(sorted.indexOf("a") < sorted.indexOf("d"), "a before d");
+	}
+}
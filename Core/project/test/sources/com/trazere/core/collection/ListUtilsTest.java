@@ -0,0 +1,64 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ListUtilsTest {
+	private static MapMultimap<String, String, Set<String>, ?> dependencies(final String... bindings) {
+		final MapMultimap<String, String, Set<String>, ?> dependencies = new MapMultimap<>(MapFactories.hashMap(), CollectionFactories.hashSet());
+		for (int i = 0; i < bindings.length; i += 2) {
+			dependencies.put(bindings[i], bindings[i + 1]);
+		}
+		return dependencies;
+	}
+	
+	public void testTopologicalSort() {
+		final MapMultimap<String, String, Set<String>, ?> dependencies = dependencies("c", "b", "b", "a", "d", "a", "e", "x");
+		
+		Assert.assertEquals(ListUtils.topologicalSort(Arrays.asList("d", "c", "b", "a", "f"), dependencies::get, false, CollectionFactories.arrayList()), Arrays.asList("a", "d", "b", "c", "f"), "sorted elements");
+		Assert.assertEquals(ListUtils.topologicalSort(Arrays.asList("e", "d"), dependencies::get, true, CollectionFactories.arrayList()), Arrays.asList("x", "e", "a", "d"), "sorted elements with dependencies");
+	}
+	
+	public void testTopologicalRegionSort() {
+		final MapMultimap<String, String, Set<String>, ?> dependencies = dependencies("c", "b", "b", "a", "d", "a", "e", "x");
+		
+		final List<List<String>> regions = ListUtils.topologicalRegionSort(Arrays.asList("d", "c", "b", "a", "f"), dependencies::get, false, CollectionFactories.arrayList(), CollectionFactories.arrayList());
+		Assert.assertEquals(regions, Arrays.asList(Arrays.asList("a", "f"), Arrays.asList("d", "b"), Arrays.asList("c")), "sorted regions");
+	}
+	
+	public void testTopologicalSortFailures() {
+		final MapMultimap<String, String, Set<String>, ?> dependencies = dependencies("a", "b", "b", "c", "c", "b", "d", "a", "e", "x");
+		
+		try {
+			ListUtils.topologicalSort(Arrays.asList("d", "a", "b", "c"), dependencies::get, false, CollectionFactories.arrayList());
+			Assert.fail("cyclic dependencies");
+		} catch (final IllegalArgumentException exception) {
+			Assert.assertEquals(exception.getMessage(), "Cyclic dependencies between elements [b, c]", "cycle");
+		}
+		try {
+			ListUtils.topologicalRegionSort(Arrays.asList("e"), dependencies::get, false, CollectionFactories.arrayList(), CollectionFactories.arrayList());
+			Assert.fail("external dependencies");
+		} catch (final IllegalArgumentException exception) {
+			Assert.assertEquals(exception.getMessage(), "External dependency x for element e", "external dependency");
+		}
+	}
+}
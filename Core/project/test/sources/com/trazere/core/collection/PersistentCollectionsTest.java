@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.util.Maybe;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class PersistentCollectionsTest {
+	public void testVector() {
+		final Random random = new Random(42);
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 100000; i += 1) {
+			final int operation = random.nextInt(10);
+			if (operation < 6) {
+				vector = vector.append(i);
+				expected.add(i);
+			} else if (operation < 8 && !expected.isEmpty()) {
+				vector = vector.removeLast();
+				expected.remove(expected.size() - 1);
+			} else if (!expected.isEmpty()) {
+				final int index = random.nextInt(expected.size());
+				vector = vector.set(index, -i);
+				expected.set(index, -i);
+			}
+		}
+		
+		Assert.assertEquals(vector.asList(), expected, "elements");
+		Assert.assertEquals(PersistentVector.fromIterable(expected), vector, "built vector");
+	}
+	
+	public void testVectorSharing() {
+		final PersistentVector<String> vector = PersistentVector.fromElements("a", "b");
+		final PersistentVector<String> appended = vector.append("c");
+		Assert.assertEquals(vector.asList(), Lists.fromElements("a", "b"), "original elements");
+		Assert.assertEquals(appended.asList(), Lists.fromElements("a", "b", "c"), "appended elements");
+		
+		final VectorList<String> list = CollectionFactories.<String>vectorList().build(appended.asList());
+		Assert.assertSame(list.getVector(), appended, "shared vector");
+		final VectorList<String> copy = CollectionFactories.<String>vectorList().build(list);
+		copy.add("d");
+		Assert.assertEquals(list.size(), 3, "size of the copied list");
+		Assert.assertEquals(copy, Lists.fromElements("a", "b", "c", "d"), "elements of the copy");
+	}
+	
+	public void testHashMap() {
+		final Random random = new Random(42);
+		PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+		final Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i += 1) {
+			// Note: the keys are multiples of 2^16 so that the hashes share many bits.
+			final Integer key = random.nextInt(2000) << 16;
+			if (random.nextBoolean()) {
+				map = map.put(key, "v" + i);
+				expected.put(key, "v" + i);
+			} else {
+				map = map.remove(key);
+				expected.remove(key);
+			}
+		}
+		
+		Assert.assertEquals(map.size(), expected.size(), "size");
+		Assert.assertEquals(map.asMap(), expected, "bindings");
+		Assert.assertEquals(map.put(null, "null").get(null), Maybe.some("null"), "null key");
+	}
+	
+	public void testHashMapSharing() {
+		final PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty().put("a", 1).put("b", 2);
+		final PersistentHashMap<String, Integer> updated = map.put("a", 3).remove("b");
+		Assert.assertEquals(map.asMap(), Maps.fromBindings("a", 1, "b", 2), "original bindings");
+		Assert.assertEquals(updated.asMap(), Maps.fromBinding("a", 3), "updated bindings");
+		
+		final HashTrieMap<String, Integer> trieMap = MapFactories.<String, Integer>hashTrieMap().build(map.asMap());
+		Assert.assertSame(trieMap.getMap(), map, "shared map");
+		trieMap.put("c", 4);
+		Assert.assertEquals(map.size(), 2, "size of the original map");
+		Assert.assertEquals(trieMap, Maps.fromBindings("a", 1, "b", 2, "c", 4), "bindings of the trie map");
+	}
+}
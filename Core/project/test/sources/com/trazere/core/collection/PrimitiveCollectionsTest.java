@@ -0,0 +1,118 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.imperative.IntIterator;
+import com.trazere.core.imperative.IteratorUtils;
+import com.trazere.core.imperative.Iterators;
+import com.trazere.core.imperative.LongIterator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class PrimitiveCollectionsTest {
+	public void testArrayList() {
+		final IntArrayList list = PrimitiveCollectionFactories.intArrayList().build(5, 3, 9);
+		list.add(1);
+		Assert.assertEquals(list.removeAt(0), 5, "removed value");
+		list.sort();
+		
+		Assert.assertEquals(list.toArray(), new int[] { 1, 3, 9 }, "values");
+		Assert.assertEquals(list.indexOf(9), 2, "index");
+		Assert.assertFalse(list.contains(5), "contains");
+		Assert.assertEquals(list.toString(), "[1, 3, 9]", "string");
+	}
+	
+	public void testHashSet() {
+		final Random random = new Random(42);
+		final LongHashSet set = new LongHashSet(0);
+		final Set<Long> expected = new HashSet<>();
+		for (int i = 0; i < 100000; i += 1) {
+			final long value = random.nextInt(1000) - 500;
+			if (random.nextBoolean()) {
+				Assert.assertEquals(set.add(value), expected.add(value), "added");
+			} else {
+				Assert.assertEquals(set.remove(value), expected.remove(value), "removed");
+			}
+		}
+		
+		Assert.assertEquals(set.size(), expected.size(), "size");
+		final Set<Long> values = new HashSet<>();
+		final LongIterator iterator = set.longIterator();
+		while (iterator.hasNext()) {
+			values.add(iterator.nextLong());
+		}
+		Assert.assertEquals(values, expected, "values");
+	}
+	
+	public void testObjectHashMap() {
+		final Random random = new Random(42);
+		final IntObjectHashMap<String> map = PrimitiveMapFactories.<String>intObjectHashMap().build();
+		final Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i += 1) {
+			final int key = random.nextInt(1000) - 500;
+			if (random.nextBoolean()) {
+				Assert.assertTrue(Objects.equals(map.put(key, "v" + i), expected.put(key, "v" + i)), "previous value");
+			} else {
+				Assert.assertTrue(Objects.equals(map.remove(key), expected.remove(key)), "removed value");
+			}
+		}
+		
+		Assert.assertEquals(map.size(), expected.size(), "size");
+		final Map<Integer, String> bindings = new HashMap<>();
+		map.foreach(bindings::put);
+		Assert.assertEquals(bindings, expected, "bindings");
+		final Map<String, Integer> values = new HashMap<>();
+		map.valueIterator().forEachRemaining(value -> values.merge(value, 1, Integer::sum));
+		final Map<String, Integer> expectedValues = new HashMap<>();
+		expected.values().forEach(value -> expectedValues.merge(value, 1, Integer::sum));
+		Assert.assertEquals(values, expectedValues, "values");
+		
+		// Note: the copy has a smaller table and different probe sequences.
+		final IntObjectHashMap<String> copy = new IntObjectHashMap<>(0);
+		expected.forEach(copy::put);
+		Assert.assertEquals(copy, map, "copy");
+		copy.put(expected.keySet().iterator().next(), "other");
+		Assert.assertFalse(copy.equals(map), "modified copy");
+	}
+	
+	public void testCounters() {
+		final IntIntHashMap counters = PrimitiveMapFactories.intIntHashMap().build();
+		IteratorUtils.foreach(Iterators.fromInts(0, 7, 7, 3, 7, 0), value -> counters.addTo(value, 1));
+		
+		Assert.assertEquals(counters.size(), 3, "size");
+		Assert.assertEquals(counters.get(0, 0), 2, "count of 0");
+		Assert.assertEquals(counters.get(7, 0), 3, "count of 7");
+		Assert.assertEquals(counters.get(5, -1), -1, "count of 5");
+		final IntIterator counts = counters.valueIterator();
+		int total = 0;
+		while (counts.hasNext()) {
+			total += counts.nextInt();
+		}
+		Assert.assertEquals(total, 6, "total count");
+	}
+	
+	public void testAccumulators() {
+		final IntHashSet set = IteratorUtils.drain(Iterators.fromInts(3, 0, 3, 7), PrimitiveCollectionAccumulators.add(new IntHashSet())).get();
+		Assert.assertEquals(set, PrimitiveCollectionFactories.intHashSet().build(0, 3, 7), "values");
+	}
+}
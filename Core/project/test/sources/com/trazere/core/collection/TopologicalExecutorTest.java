@@ -0,0 +1,105 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.collection;
+
+import com.trazere.core.util.Result;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class TopologicalExecutorTest {
+	public void testExecution() {
+		final Deque<Runnable> tasks = new ArrayDeque<>();
+		final TopologicalExecutor executor = new TopologicalExecutor(tasks::add, 2);
+		final MapMultimap<String, String, Set<String>, ?> dependencies = new MapMultimap<>(MapFactories.hashMap(), CollectionFactories.hashSet());
+		dependencies.put("c", "b");
+		dependencies.put("d", "a");
+		dependencies.put("d", "c");
+		
+		final List<String> executed = new ArrayList<>();
+		final TopologicalExecution<String> execution = executor.execute(Arrays.asList("a", "b", "c", "d", "e"), dependencies::get, false, executed::add);
+		Assert.assertEquals(tasks.size(), 2, "bounded parallelism");
+		
+		// Note: c starts as soon as b completes, before a completes.
+		tasks.pollLast().run();
+		tasks.pollLast().run();
+		Assert.assertEquals(executed, Arrays.asList("b", "c"), "executed elements");
+		while (!tasks.isEmpty()) {
+			tasks.poll().run();
+		}
+		Assert.assertEquals(executed, Arrays.asList("b", "c", "a", "e", "d"), "executed elements");
+		
+		final Result<Map<String, Duration>> result = execution.getFuture().get().asSome().getValue();
+		Assert.assertTrue(result.isSuccess(), "success");
+		Assert.assertEquals(new ArrayList<>(result.asSuccess().getValue().keySet()), executed, "timed elements");
+	}
+	
+	public void testFailure() {
+		final Deque<Runnable> tasks = new ArrayDeque<>();
+		final TopologicalExecutor executor = new TopologicalExecutor(tasks::add, 1);
+		final RuntimeException failure = new RuntimeException();
+		
+		final TopologicalExecution<String> execution = executor.execute(Arrays.asList("a", "b", "c"), element -> "b".equals(element) ? Arrays.asList("a") : Arrays.<String>asList(), false, element -> {
+			if ("a".equals(element)) {
+				throw failure;
+			}
+		});
+		tasks.poll().run();
+		Assert.assertTrue(tasks.isEmpty(), "stopped execution");
+		Assert.assertSame(execution.getFuture().get().asSome().getValue().asFailure().getCause(), failure, "failure");
+	}
+	
+	public void testCancellation() {
+		final Deque<Runnable> tasks = new ArrayDeque<>();
+		final TopologicalExecutor executor = new TopologicalExecutor(tasks::add, 1);
+		
+		final List<String> executed = new ArrayList<>();
+		final TopologicalExecution<String> execution = executor.execute(Arrays.asList("a", "b"), element -> Arrays.<String>asList(), false, executed::add);
+		execution.cancel();
+		Assert.assertFalse(execution.getFuture().isAvailable(), "running execution");
+		tasks.poll().run();
+		Assert.assertTrue(tasks.isEmpty(), "stopped execution");
+		Assert.assertEquals(executed, Arrays.asList("a"), "executed elements");
+		Assert.assertEquals(execution.getTimings().keySet(), CollectionFactories.hashSet().build("a"), "timed elements");
+		Assert.assertTrue(execution.getFuture().get().asSome().getValue().asFailure().getCause() instanceof CancellationException, "cancellation");
+	}
+	
+	public void testSynchronousExecutor() {
+		// Note: the executions used to recurse once per element with the synchronous executors.
+		final TopologicalExecutor executor = new TopologicalExecutor(Runnable::run, 2);
+		final List<Integer> elements = new ArrayList<>();
+		for (int element = 0; element < 300000; element += 1) {
+			elements.add(element);
+		}
+		
+		final int[] executedCount = { 0 };
+		final TopologicalExecution<Integer> execution = executor.execute(elements, element -> element > 0 ? Arrays.asList(element - 1) : Arrays.<Integer>asList(), false, element -> {
+			Assert.assertEquals(element.intValue(), executedCount[0], "executed element");
+			executedCount[0] += 1;
+		});
+		Assert.assertEquals(executedCount[0], elements.size(), "executed elements");
+		Assert.assertTrue(execution.getFuture().get().asSome().getValue().isSuccess(), "success");
+	}
+}
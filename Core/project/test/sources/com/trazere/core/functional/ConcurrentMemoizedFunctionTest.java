@@ -0,0 +1,187 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.util.Maybe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class ConcurrentMemoizedFunctionTest {
+	/**
+	 * The {@link BlockingFunction} class implements memoized functions whose computations of some argument wait for a latch.
+	 */
+	private static final class BlockingFunction
+	extends ConcurrentMemoizedFunction<String, String> {
+		public final AtomicInteger computations = new AtomicInteger();
+		public final CountDownLatch started = new CountDownLatch(1);
+		public final CountDownLatch release = new CountDownLatch(1);
+		public volatile boolean fail = false;
+		
+		@Override
+		protected String compute(final String arg) {
+			computations.incrementAndGet();
+			if ("blocking".equals(arg)) {
+				started.countDown();
+				await(release);
+			}
+			if (fail) {
+				throw new IllegalArgumentException("Failure of " + arg);
+			}
+			return "result of " + arg;
+		}
+	}
+	
+	private static void await(final CountDownLatch latch) {
+		try {
+			Assert.assertTrue(latch.await(5, TimeUnit.SECONDS), "latch timeout");
+		} catch (final InterruptedException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+	
+	private static List<Thread> evaluateConcurrently(final int threadCount, final BlockingFunction function, final String arg, final List<Object> results) {
+		final List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < threadCount; i += 1) {
+			final Thread thread = new Thread(() -> {
+				Object result;
+				try {
+					result = function.evaluate(arg);
+				} catch (final RuntimeException exception) {
+					result = exception;
+				}
+				synchronized (results) {
+					results.add(result);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		return threads;
+	}
+	
+	private static void waitForWaiters(final List<Thread> threads)
+	throws InterruptedException {
+		// Note: the threads either wait for the evaluation or compute it.
+		final long deadline = System.nanoTime() + 5_000_000_000L;
+		for (final Thread thread : threads) {
+			while (Thread.State.RUNNABLE == thread.getState() && System.nanoTime() - deadline < 0) {
+				Thread.sleep(1);
+			}
+		}
+	}
+	
+	public void testSingleEvaluation()
+	throws InterruptedException {
+		final BlockingFunction function = new BlockingFunction();
+		final List<Object> results = new ArrayList<>();
+		final List<Thread> threads = evaluateConcurrently(8, function, "blocking", results);
+		await(function.started);
+		waitForWaiters(threads);
+		Assert.assertFalse(function.isMemoized("blocking"), "memoized evaluation in progress");
+		
+		// Note: the evaluations of other arguments are not blocked.
+		Assert.assertEquals(function.evaluate("other"), "result of other", "result of an other argument");
+		
+		function.release.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		
+		Assert.assertEquals(function.computations.get(), 2, "computations");
+		Assert.assertEquals(results.size(), 8, "evaluations");
+		for (final Object result : results) {
+			Assert.assertEquals(result, "result of blocking", "result");
+		}
+		Assert.assertTrue(function.isMemoized("blocking"), "memoized evaluation");
+		Assert.assertEquals(function.probe("blocking"), Maybe.some("result of blocking"), "memoized result");
+		Assert.assertEquals(function.evaluate("blocking"), "result of blocking", "result of the memoized evaluation");
+		Assert.assertEquals(function.computations.get(), 2, "computations after the memoized evaluation");
+	}
+	
+	public void testRecursion() {
+		final AtomicReference<ConcurrentMemoizedFunction<Integer, Integer>> self = new AtomicReference<>();
+		final ConcurrentMemoizedFunction<Integer, Integer> function = new ConcurrentMemoizedFunction<Integer, Integer>() {
+			@Override
+			protected Integer compute(final Integer arg) {
+				// Note: the evaluation of 0 depends on itself.
+				return arg > 0 ? self.get().evaluate(arg - 1) + arg : self.get().evaluate(arg);
+			}
+		};
+		self.set(function);
+		
+		try {
+			function.evaluate(3);
+			Assert.fail("Recursive evaluation");
+		} catch (final IllegalStateException exception) {
+			// Expected.
+		}
+		for (int arg = 0; arg <= 3; arg += 1) {
+			Assert.assertFalse(function.isMemoized(arg), "memoized recursive evaluation of " + arg);
+		}
+	}
+	
+	public void testFailure()
+	throws InterruptedException {
+		final BlockingFunction function = new BlockingFunction();
+		function.fail = true;
+		
+		// Note: the waiting threads get the failure.
+		final List<Object> results = new ArrayList<>();
+		final List<Thread> threads = evaluateConcurrently(4, function, "blocking", results);
+		await(function.started);
+		waitForWaiters(threads);
+		function.release.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		Assert.assertEquals(function.computations.get(), 1, "computations of the failure");
+		Assert.assertEquals(results.size(), 4, "evaluations");
+		for (final Object result : results) {
+			Assert.assertTrue(result instanceof IllegalArgumentException, "failure");
+		}
+		
+		// Note: the failures are not memoized.
+		Assert.assertFalse(function.isMemoized("blocking"), "memoized failure");
+		Assert.assertEquals(function.probe("blocking"), Maybe.none(), "result of the failure");
+		function.fail = false;
+		Assert.assertEquals(function.evaluate("blocking"), "result of blocking", "result of the next evaluation");
+		Assert.assertEquals(function.computations.get(), 2, "computations after the next evaluation");
+		Assert.assertTrue(function.isMemoized("blocking"), "memoized next evaluation");
+	}
+	
+	public void testNullArgument() {
+		final AtomicInteger computations = new AtomicInteger();
+		final ConcurrentMemoizedFunction<String, String> function = new ConcurrentMemoizedFunction<String, String>() {
+			@Override
+			protected String compute(final String arg) {
+				computations.incrementAndGet();
+				return null != arg ? arg : "null";
+			}
+		};
+		
+		Assert.assertEquals(function.evaluate(null), "null", "result of the null argument");
+		Assert.assertEquals(function.evaluate(null), "null", "memoized result of the null argument");
+		Assert.assertEquals(computations.get(), 1, "computations");
+		Assert.assertTrue(function.isMemoized(null), "memoized null argument");
+	}
+}
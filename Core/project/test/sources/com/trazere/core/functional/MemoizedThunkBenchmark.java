@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The {@link MemoizedThunkBenchmark} class compares the evaluation of memoized values by the concurrent memoized thunks and by the synchronized memoized thunks.
+ * <p>
+ * The thunks are evaluated once during the setup, so the benchmarks measure the reads of the published values by 1, 8 and 64 reader threads.
+ * <p>
+ * The benchmarks are generated by the <code>benchmarks</code> profile of the build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoizedThunkBenchmark {
+	public static void main(final String[] args)
+	throws RunnerException {
+		new Runner(new OptionsBuilder().include(MemoizedThunkBenchmark.class.getSimpleName()).build()).run();
+	}
+	
+	private Thunk<Object> _concurrent;
+	private Thunk<Object> _synchronized;
+	
+	@Setup
+	public void setUp() {
+		_concurrent = ThunkUtils.concurrentMemoized(Object::new);
+		_concurrent.evaluate();
+		_synchronized = ThunkUtils.synchronized_(ThunkUtils.memoized(Object::new));
+		_synchronized.evaluate();
+	}
+	
+	@Benchmark
+	@Threads(1)
+	public Object concurrent1() {
+		return _concurrent.evaluate();
+	}
+	
+	@Benchmark
+	@Threads(8)
+	public Object concurrent8() {
+		return _concurrent.evaluate();
+	}
+	
+	@Benchmark
+	@Threads(64)
+	public Object concurrent64() {
+		return _concurrent.evaluate();
+	}
+	
+	@Benchmark
+	@Threads(1)
+	public Object synchronized1() {
+		return _synchronized.evaluate();
+	}
+	
+	@Benchmark
+	@Threads(8)
+	public Object synchronized8() {
+		return _synchronized.evaluate();
+	}
+	
+	@Benchmark
+	@Threads(64)
+	public Object synchronized64() {
+		return _synchronized.evaluate();
+	}
+}
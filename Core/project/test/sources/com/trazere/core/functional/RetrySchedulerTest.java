@@ -0,0 +1,212 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.reactive.Future;
+import com.trazere.core.reactive.ObserverSubscription;
+import com.trazere.core.util.Maybe;
+import com.trazere.core.util.Result;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class RetrySchedulerTest {
+	private static <T> T await(final Future<T> future)
+	throws InterruptedException {
+		final BlockingQueue<T> results = new LinkedBlockingQueue<>();
+		final ObserverSubscription subscription = future.subscribe(result -> {
+			results.add(result);
+			return false;
+		});
+		try {
+			final T result = results.poll(5, TimeUnit.SECONDS);
+			Assert.assertNotNull(result, "completion of the evaluation");
+			return result;
+		} finally {
+			// Note: the observers are weakly referenced, the subscription keeps it from being collected while waiting.
+			subscription.unsubscribe();
+		}
+	}
+	
+	private static Function<Integer, Result<String>> failingAttempt(final AtomicInteger attempts, final int failureCount) {
+		return previousFailureCount -> {
+			Assert.assertEquals(previousFailureCount.intValue(), attempts.getAndIncrement(), "number of previous failures");
+			return previousFailureCount < failureCount ? Result.failure(new IllegalStateException("Failure " + previousFailureCount)) : Result.success("success");
+		};
+	}
+	
+	public void testBackoff() {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ofMillis(10), Duration.ofMillis(50), 2.0, 0.0, 10, 0.0);
+			Assert.assertEquals(scheduler.computeDelay(1), 10_000_000L, "first delay");
+			Assert.assertEquals(scheduler.computeDelay(2), 20_000_000L, "second delay");
+			Assert.assertEquals(scheduler.computeDelay(3), 40_000_000L, "third delay");
+			Assert.assertEquals(scheduler.computeDelay(4), 50_000_000L, "capped delay");
+			Assert.assertEquals(scheduler.computeDelay(100), 50_000_000L, "capped delay of many failures");
+			
+			// Jitter.
+			final RetryScheduler jitteredScheduler = new RetryScheduler(executor, Duration.ofMillis(10), Duration.ofMillis(50), 2.0, 0.5, 10, 0.0);
+			for (int i = 0; i < 100; i += 1) {
+				final long delay = jitteredScheduler.computeDelay(2);
+				Assert.assertTrue(delay >= 10_000_000L && delay <= 20_000_000L, "jittered delay " + delay);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public void testRetries()
+	throws InterruptedException {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ofMillis(1), Duration.ofMillis(5));
+			final AtomicInteger attempts = new AtomicInteger();
+			final Result<String> result = await(scheduler.evaluate(failingAttempt(attempts, 3), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5)));
+			Assert.assertEquals(result, Result.success("success"), "result");
+			Assert.assertEquals(attempts.get(), 4, "attempts");
+			Assert.assertEquals(scheduler.getRetryBudget(), RetryScheduler.UNLIMITED_BUDGET, "unlimited budget");
+			
+			// Note: the budgets too large to be tracked are unlimited.
+			Assert.assertEquals(new RetryScheduler(executor, Duration.ZERO, Duration.ZERO, 2.0, 0.0, Long.MAX_VALUE / 2, 0.0).getRetryBudget(), RetryScheduler.UNLIMITED_BUDGET, "overflowing budget");
+			Assert.assertEquals(new RetryScheduler(executor, Duration.ZERO, Duration.ZERO, 2.0, 0.0, Long.MAX_VALUE / 1000, 0.0).getRetryBudget(), Long.MAX_VALUE / 1000, "largest budget");
+			
+			// Handled failure.
+			attempts.set(0);
+			final Result<String> handledResult = await(scheduler.evaluate(failingAttempt(attempts, 3), (failure, failureCount) -> 2 == failureCount ? Maybe.some(Result.success("handled")) : Maybe.none(), Duration.ofSeconds(5)));
+			Assert.assertEquals(handledResult, Result.success("handled"), "handled result");
+			Assert.assertEquals(attempts.get(), 2, "attempts of the handled failure");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public void testDeadline()
+	throws InterruptedException {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			// Note: the third retry would start after 20 + 40 + 80 ms.
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ofMillis(20), Duration.ofSeconds(1), 2.0, 0.0, 10, 0.0);
+			final AtomicInteger attempts = new AtomicInteger();
+			final Result<String> result = await(scheduler.evaluate(failingAttempt(attempts, Integer.MAX_VALUE), (failure, failureCount) -> Maybe.none(), Duration.ofMillis(100)));
+			Assert.assertFalse(result.isSuccess(), "failed evaluation");
+			Assert.assertEquals(result.asFailure().getCause().getMessage(), "Failure 2", "last failure");
+			Assert.assertEquals(attempts.get(), 3, "attempts before the deadline");
+			Assert.assertEquals(scheduler.getRetryBudget(), 8L, "retry budget");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public void testLongDurations()
+	throws InterruptedException {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			// Note: the durations used to overflow when converted to nanoseconds or added to the current time.
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ZERO, Duration.ofSeconds(Long.MAX_VALUE), 2.0, 0.0, 10, 0.0);
+			Assert.assertEquals(scheduler.computeDelay(1), 0L, "first delay");
+			
+			final AtomicInteger attempts = new AtomicInteger();
+			final Result<String> result = await(scheduler.evaluate(failingAttempt(attempts, 2), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(Long.MAX_VALUE)));
+			Assert.assertEquals(result, Result.success("success"), "result");
+			Assert.assertEquals(attempts.get(), 3, "attempts");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public void testBudget()
+	throws InterruptedException {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ZERO, Duration.ZERO, 2.0, 0.0, 3, 0.5);
+			final AtomicInteger attempts = new AtomicInteger();
+			
+			// Exhaust the budget.
+			final Result<String> result = await(scheduler.evaluate(failingAttempt(attempts, Integer.MAX_VALUE), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5)));
+			Assert.assertEquals(result.asFailure().getCause().getMessage(), "Failure 3", "last failure");
+			Assert.assertEquals(attempts.get(), 4, "attempts of the budget");
+			Assert.assertEquals(scheduler.getRetryBudget(), 0L, "exhausted budget");
+			
+			// Note: the evaluations fail without retrying when the budget is exhausted.
+			attempts.set(0);
+			final Result<String> exhaustedResult = await(scheduler.evaluate(failingAttempt(attempts, 1), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5)));
+			Assert.assertFalse(exhaustedResult.isSuccess(), "failed evaluation without budget");
+			Assert.assertEquals(attempts.get(), 1, "attempts without budget");
+			
+			// Refill the budget.
+			for (int i = 0; i < 4; i += 1) {
+				attempts.set(0);
+				Assert.assertEquals(await(scheduler.evaluate(failingAttempt(attempts, 0), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5))), Result.success("success"), "result");
+			}
+			Assert.assertEquals(scheduler.getRetryBudget(), 2L, "refilled budget");
+			for (int i = 0; i < 4; i += 1) {
+				attempts.set(0);
+				await(scheduler.evaluate(failingAttempt(attempts, 0), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5)));
+			}
+			Assert.assertEquals(scheduler.getRetryBudget(), 3L, "capped budget");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public void testUnlimitedBudget()
+	throws InterruptedException {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ZERO, Duration.ZERO, 2.0, 0.0, RetryScheduler.UNLIMITED_BUDGET, 0.0);
+			final AtomicInteger attempts = new AtomicInteger();
+			final Result<String> result = await(scheduler.evaluate(failingAttempt(attempts, 10000), (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5)));
+			Assert.assertEquals(result, Result.success("success"), "result");
+			Assert.assertEquals(attempts.get(), 10001, "attempts");
+			Assert.assertEquals(scheduler.getRetryBudget(), RetryScheduler.UNLIMITED_BUDGET, "unlimited budget");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	public void testErrors()
+	throws InterruptedException {
+		final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+		try {
+			final RetryScheduler scheduler = new RetryScheduler(executor, Duration.ZERO, Duration.ZERO);
+			
+			// Note: the errors are not retried.
+			final AtomicInteger attempts = new AtomicInteger();
+			final Result<String> result = await(scheduler.evaluate(failureCount -> {
+				attempts.incrementAndGet();
+				throw new AssertionError("Error");
+			}, (failure, failureCount) -> Maybe.none(), Duration.ofSeconds(5)));
+			Assert.assertTrue(result.asFailure().getCause() instanceof AssertionError, "error");
+			Assert.assertEquals(attempts.get(), 1, "attempts");
+			
+			// Failure of the handler.
+			final Result<String> handlerResult = await(scheduler.evaluate(failingAttempt(new AtomicInteger(), 1), (failure, failureCount) -> {
+				throw new IllegalArgumentException("Handler failure");
+			}, Duration.ofSeconds(5)));
+			Assert.assertEquals(handlerResult.asFailure().getCause().getMessage(), "Handler failure", "failure of the handler");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.util.Tuple2;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class WorklistFixedPointTest {
+	// Note: the initial delta of the chain exceeds the parallel threshold.
+	private static final int NODE_COUNT = 100;
+	
+	private static WorklistFixedPoint<Tuple2<Integer, Integer>> transitiveClosure() {
+		// Note: the edges of the chain link each node to the next one.
+		return WorklistFixedPoint.build((final Tuple2<Integer, Integer> pair, final Set<Tuple2<Integer, Integer>> pairs) -> {
+			final List<Tuple2<Integer, Integer>> derivedPairs = new ArrayList<>();
+			if (pair.get2() < NODE_COUNT - 1) {
+				derivedPairs.add(new Tuple2<>(pair.get1(), pair.get2() + 1));
+			}
+			if (pair.get1() > 0) {
+				derivedPairs.add(new Tuple2<>(pair.get1() - 1, pair.get2()));
+			}
+			return derivedPairs;
+		});
+	}
+	
+	private static List<Tuple2<Integer, Integer>> edges() {
+		final List<Tuple2<Integer, Integer>> edges = new ArrayList<>();
+		for (int node = 0; node < NODE_COUNT - 1; node += 1) {
+			edges.add(new Tuple2<>(node, node + 1));
+		}
+		return edges;
+	}
+	
+	public void testTransitiveClosure() {
+		final FixedPointSolution<Set<Tuple2<Integer, Integer>>> solution = transitiveClosure().solve(edges());
+		
+		final Set<Tuple2<Integer, Integer>> expectedPairs = new HashSet<>();
+		for (int from = 0; from < NODE_COUNT; from += 1) {
+			for (int to = from + 1; to < NODE_COUNT; to += 1) {
+				expectedPairs.add(new Tuple2<>(from, to));
+			}
+		}
+		Assert.assertEquals(solution.getValue(), expectedPairs, "closure");
+		
+		// Note: each round discovers the paths one edge longer.
+		final List<Integer> expectedDeltaSizes = new ArrayList<>();
+		for (int size = NODE_COUNT - 1; size > 0; size -= 1) {
+			expectedDeltaSizes.add(size);
+		}
+		Assert.assertEquals(solution.getDeltaSizes(), expectedDeltaSizes, "delta sizes");
+		Assert.assertEquals(solution.getRounds(), NODE_COUNT - 1, "rounds");
+	}
+	
+	public void testParallelTransitiveClosure() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final WorklistFixedPoint<Tuple2<Integer, Integer>> closure = transitiveClosure();
+			final FixedPointSolution<Set<Tuple2<Integer, Integer>>> solution = closure.solve(edges());
+			final FixedPointSolution<Set<Tuple2<Integer, Integer>>> parallelSolution = closure.solveParallel(edges(), pool);
+			Assert.assertTrue(edges().size() > WorklistFixedPoint.PARALLEL_THRESHOLD, "parallel initial delta");
+			Assert.assertEquals(parallelSolution.getValue(), solution.getValue(), "parallel closure");
+			Assert.assertEquals(parallelSolution.getDeltaSizes(), solution.getDeltaSizes(), "parallel delta sizes");
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	public void testEmpty() {
+		final FixedPointSolution<Set<Tuple2<Integer, Integer>>> solution = transitiveClosure().solve(Collections.<Tuple2<Integer, Integer>>emptyList());
+		Assert.assertEquals(solution.getValue(), Collections.emptySet(), "closure");
+		Assert.assertEquals(solution.getRounds(), 0, "rounds");
+	}
+	
+	public void testDuplicateInitialElements() {
+		final WorklistFixedPoint<Integer> multiples = WorklistFixedPoint.build((final Integer element, final Set<Integer> elements) -> element < 20 ? Collections.singletonList(element + 5) : Collections.<Integer>emptyList());
+		final FixedPointSolution<Set<Integer>> solution = multiples.solve(Arrays.asList(0, 0, 5));
+		Assert.assertEquals(solution.getValue(), new HashSet<>(Arrays.asList(0, 5, 10, 15, 20)), "fixed point");
+		Assert.assertEquals(solution.getDeltaSizes(), Arrays.asList(2, 1, 1, 1), "delta sizes");
+	}
+}
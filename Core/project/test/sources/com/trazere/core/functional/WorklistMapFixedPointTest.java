@@ -0,0 +1,112 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.functional;
+
+import com.trazere.core.util.Tuple2;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class WorklistMapFixedPointTest {
+	private static final int NODE_COUNT = 1000;
+	
+	private static List<Integer> successors(final int node) {
+		// Note: the binary tree is extended with the edges to the parents and to the next nodes.
+		final List<Integer> successors = new ArrayList<>();
+		for (final int successor : new int[] { 2 * node + 1, 2 * node + 2, node / 2, node + 1 }) {
+			if (successor < NODE_COUNT) {
+				successors.add(successor);
+			}
+		}
+		return successors;
+	}
+	
+	private static WorklistMapFixedPoint<Integer, Integer> distances() {
+		return WorklistMapFixedPoint.build((final Integer node, final Integer distance, final Map<Integer, Integer> distances) -> {
+			final List<Tuple2<Integer, Integer>> contributions = new ArrayList<>();
+			for (final int successor : successors(node)) {
+				contributions.add(new Tuple2<>(successor, distance + 1));
+			}
+			return contributions;
+		}, (final Integer distance1, final Integer distance2) -> Math.min(distance1, distance2));
+	}
+	
+	public void testShortestDistances() {
+		final FixedPointSolution<Map<Integer, Integer>> solution = distances().solve(Collections.singletonMap(0, 0));
+		
+		// Note: the rounds of the unit distances are the layers of a breadth first search.
+		final Map<Integer, Integer> expectedDistances = new HashMap<>();
+		final List<Integer> expectedDeltaSizes = new ArrayList<>();
+		final Queue<Integer> queue = new ArrayDeque<>();
+		expectedDistances.put(0, 0);
+		queue.add(0);
+		while (!queue.isEmpty()) {
+			final int node = queue.poll();
+			final int distance = expectedDistances.get(node);
+			if (expectedDeltaSizes.size() <= distance) {
+				expectedDeltaSizes.add(0);
+			}
+			expectedDeltaSizes.set(distance, expectedDeltaSizes.get(distance) + 1);
+			for (final int successor : successors(node)) {
+				if (!expectedDistances.containsKey(successor)) {
+					expectedDistances.put(successor, distance + 1);
+					queue.add(successor);
+				}
+			}
+		}
+		
+		Assert.assertEquals(solution.getValue(), expectedDistances, "distances");
+		Assert.assertEquals(solution.getDeltaSizes(), expectedDeltaSizes, "delta sizes");
+	}
+	
+	public void testParallelShortestDistances() {
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final WorklistMapFixedPoint<Integer, Integer> distances = distances();
+			final FixedPointSolution<Map<Integer, Integer>> solution = distances.solve(Collections.singletonMap(0, 0));
+			final FixedPointSolution<Map<Integer, Integer>> parallelSolution = distances.solveParallel(Collections.singletonMap(0, 0), pool);
+			Assert.assertTrue(Collections.max(solution.getDeltaSizes()) > WorklistFixedPoint.PARALLEL_THRESHOLD, "parallel delta");
+			Assert.assertEquals(parallelSolution.getValue(), solution.getValue(), "parallel distances");
+			Assert.assertEquals(parallelSolution.getDeltaSizes(), solution.getDeltaSizes(), "parallel delta sizes");
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	public void testJoin() {
+		// Note: the shorter distances of the later rounds replace the longer distances.
+		final Map<Integer, Integer> initialDistances = new HashMap<>();
+		initialDistances.put(0, 0);
+		initialDistances.put(2, 10);
+		final FixedPointSolution<Map<Integer, Integer>> solution = WorklistMapFixedPoint.<Integer, Integer>build((final Integer node, final Integer distance, final Map<Integer, Integer> distances) -> node < 3 ? Collections.singletonList(new Tuple2<>(node + 1, distance + 1)) : Collections.<Tuple2<Integer, Integer>>emptyList(), (final Integer distance1, final Integer distance2) -> Math.min(distance1, distance2)).solve(initialDistances);
+		
+		final Map<Integer, Integer> expectedDistances = new HashMap<>();
+		for (int node = 0; node < 4; node += 1) {
+			expectedDistances.put(node, node);
+		}
+		Assert.assertEquals(solution.getValue(), expectedDistances, "distances");
+		Assert.assertEquals(solution.getDeltaSizes(), Arrays.asList(2, 2, 1, 1), "delta sizes");
+	}
+}
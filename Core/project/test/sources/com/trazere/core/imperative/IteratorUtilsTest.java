@@ -0,0 +1,96 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.imperative;
+
+import com.trazere.core.collection.IntArrayList;
+import com.trazere.core.collection.LongArrayList;
+import com.trazere.core.functional.DoubleFunctions;
+import com.trazere.core.functional.DoublePredicates;
+import com.trazere.core.functional.IntFunctions;
+import com.trazere.core.functional.IntPredicates;
+import com.trazere.core.functional.LongFunctions;
+import com.trazere.core.functional.LongPredicates;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class IteratorUtilsTest {
+	public void testIntIterators() {
+		// Empty.
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.filter(Iterators.fromInts(), IntPredicates.all()), new IntArrayList()).toArray(), new int[0], "filtered empty values");
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.map(Iterators.fromInts(), IntFunctions.identity()), new IntArrayList()).toArray(), new int[0], "mapped empty values");
+		Assert.assertEquals(IteratorUtils.fold(Iterators.fromInts(), IntFunctions.sum(), 7), 7, "folded empty values");
+		Assert.assertEquals(IteratorUtils.least(Iterators.fromInts()), OptionalInt.empty(), "least of empty values");
+		Assert.assertEquals(IteratorUtils.greatest(Iterators.fromInts()), OptionalInt.empty(), "greatest of empty values");
+		Assert.assertEquals(IteratorUtils.first(Iterators.fromInts(), IntPredicates.all()), OptionalInt.empty(), "first of empty values");
+		
+		// Values.
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.filter(Iterators.fromInts(5, -3, 9, 0, -7), IntPredicates.lessThan(1)), new IntArrayList()).toArray(), new int[] { -3, 0, -7 }, "filtered values");
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.map(Iterators.fromInts(5, -3, 9), value -> value * 2), new IntArrayList()).toArray(), new int[] { 10, -6, 18 }, "mapped values");
+		Assert.assertEquals(IteratorUtils.fold(Iterators.fromInts(5, -3, 9), IntFunctions.sum(), 7), 18, "folded values");
+		Assert.assertEquals(IteratorUtils.least(Iterators.fromInts(5, -3, 9, Integer.MIN_VALUE)), OptionalInt.of(Integer.MIN_VALUE), "least value");
+		Assert.assertEquals(IteratorUtils.greatest(Iterators.fromInts(5, -3, 9, Integer.MAX_VALUE)), OptionalInt.of(Integer.MAX_VALUE), "greatest value");
+		Assert.assertEquals(IteratorUtils.first(Iterators.fromInts(5, -3, 9), IntPredicates.lessThan(0)), OptionalInt.of(-3), "first value");
+		Assert.assertEquals(IteratorUtils.count(Iterators.fromInts(5, -3, 9), IntPredicates.greaterThan(0)), 2, "number of values");
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.mapToObj(Iterators.fromInts(1, 2), String::valueOf), new ArrayList<>()), Arrays.asList("1", "2"), "mapped objects");
+	}
+	
+	public void testLongIterators() {
+		// Empty.
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.filter(Iterators.fromLongs(), LongPredicates.all()), new LongArrayList()).toArray(), new long[0], "filtered empty values");
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.map(Iterators.fromLongs(), LongFunctions.identity()), new LongArrayList()).toArray(), new long[0], "mapped empty values");
+		Assert.assertEquals(IteratorUtils.fold(Iterators.fromLongs(), LongFunctions.sum(), 7L), 7L, "folded empty values");
+		Assert.assertEquals(IteratorUtils.least(Iterators.fromLongs()), OptionalLong.empty(), "least of empty values");
+		Assert.assertEquals(IteratorUtils.greatest(Iterators.fromLongs()), OptionalLong.empty(), "greatest of empty values");
+		
+		// Values.
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.filter(Iterators.fromLongs(5L, -3L, 1L << 40, 0L), LongPredicates.greaterThan(0L)), new LongArrayList()).toArray(), new long[] { 5L, 1L << 40 }, "filtered values");
+		Assert.assertEquals(IteratorUtils.drain(IteratorUtils.map(Iterators.fromLongs(5L, 1L << 40), value -> value + 1L), new LongArrayList()).toArray(), new long[] { 6L, (1L << 40) + 1L }, "mapped values");
+		Assert.assertEquals(IteratorUtils.fold(Iterators.fromLongs(5L, -3L, 1L << 40), LongFunctions.sum(), 7L), (1L << 40) + 9L, "folded values");
+		Assert.assertEquals(IteratorUtils.least(Iterators.fromLongs(5L, Long.MIN_VALUE, 9L)), OptionalLong.of(Long.MIN_VALUE), "least value");
+		Assert.assertEquals(IteratorUtils.greatest(Iterators.fromLongs(5L, Long.MAX_VALUE, 9L)), OptionalLong.of(Long.MAX_VALUE), "greatest value");
+	}
+	
+	public void testDoubleIterators() {
+		// Empty.
+		Assert.assertFalse(IteratorUtils.filter(Iterators.fromDoubles(), DoublePredicates.all()).hasNext(), "filtered empty values");
+		Assert.assertFalse(IteratorUtils.map(Iterators.fromDoubles(), DoubleFunctions.identity()).hasNext(), "mapped empty values");
+		Assert.assertEquals(IteratorUtils.fold(Iterators.fromDoubles(), DoubleFunctions.sum(), 0.5), 0.5, 0.0, "folded empty values");
+		Assert.assertEquals(IteratorUtils.least(Iterators.fromDoubles()), OptionalDouble.empty(), "least of empty values");
+		Assert.assertEquals(IteratorUtils.greatest(Iterators.fromDoubles()), OptionalDouble.empty(), "greatest of empty values");
+		
+		// Values.
+		Assert.assertEquals(toArray(IteratorUtils.filter(Iterators.fromDoubles(1.5, -2.0, 0.25), DoublePredicates.greaterThan(0.0))), new double[] { 1.5, 0.25 }, "filtered values");
+		Assert.assertEquals(toArray(IteratorUtils.map(Iterators.fromDoubles(1.5, -2.0), value -> value * 2.0)), new double[] { 3.0, -4.0 }, "mapped values");
+		Assert.assertEquals(IteratorUtils.fold(Iterators.fromDoubles(1.5, -2.0, 0.25), DoubleFunctions.sum(), 0.5), 0.25, 0.0, "folded values");
+		Assert.assertEquals(IteratorUtils.least(Iterators.fromDoubles(1.5, Double.NEGATIVE_INFINITY, 0.25)), OptionalDouble.of(Double.NEGATIVE_INFINITY), "least value");
+		Assert.assertEquals(IteratorUtils.greatest(Iterators.fromDoubles(1.5, -2.0, 0.25)), OptionalDouble.of(1.5), "greatest value");
+	}
+	
+	private static double[] toArray(final DoubleIterator iterator) {
+		double[] values = new double[0];
+		while (iterator.hasNext()) {
+			values = Arrays.copyOf(values, values.length + 1);
+			values[values.length - 1] = iterator.nextDouble();
+		}
+		return values;
+	}
+}
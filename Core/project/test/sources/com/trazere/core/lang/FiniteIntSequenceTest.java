@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.lang;
+
+import com.trazere.core.collection.IntArrayList;
+import com.trazere.core.imperative.IteratorUtils;
+import com.trazere.core.util.Maybe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class FiniteIntSequenceTest {
+	public void testIncreasingSequence() {
+		// Note: increasing sequences used to get a negative increment and iterated nothing.
+		final FiniteIntSequence sequence = new FiniteIntSequence(0, 10, 3);
+		Assert.assertEquals(sequence.getIncrement(), 3, "increment");
+		Assert.assertFalse(sequence.isEmpty(), "empty");
+		Assert.assertEquals(toArray(sequence), new int[] { 0, 3, 6, 9 }, "values");
+		Assert.assertEquals(toList(sequence), Arrays.asList(0, 3, 6, 9), "boxed values");
+		Assert.assertTrue(sequence.includes(6), "includes 6");
+		Assert.assertFalse(sequence.includes(7), "includes 7");
+		Assert.assertFalse(sequence.includes(10), "includes the end");
+		Assert.assertFalse(sequence.includes(-3), "includes -3");
+	}
+	
+	public void testDecreasingSequence() {
+		final FiniteIntSequence sequence = new FiniteIntSequence(5, 0, 2);
+		Assert.assertEquals(sequence.getIncrement(), -2, "increment");
+		Assert.assertEquals(toArray(sequence), new int[] { 5, 3, 1 }, "values");
+		Assert.assertEquals(toList(sequence), Arrays.asList(5, 3, 1), "boxed values");
+		Assert.assertTrue(sequence.includes(3), "includes 3");
+		Assert.assertFalse(sequence.includes(0), "includes the end");
+		Assert.assertFalse(sequence.includes(7), "includes 7");
+	}
+	
+	public void testEmptySequence() {
+		final FiniteIntSequence sequence = new FiniteIntSequence(4, 4);
+		Assert.assertTrue(sequence.isEmpty(), "empty");
+		Assert.assertEquals(toArray(sequence), new int[0], "values");
+		Assert.assertEquals(toList(sequence), Arrays.asList(), "boxed values");
+	}
+	
+	public void testGenericIterableUtils() {
+		// Note: the generic overloads used to be ambiguous with the int ones for sequences.
+		final IntSequence sequence = new FiniteIntSequence(0, 10);
+		Assert.assertTrue(IterableUtils.isAny(sequence, x -> x > 5), "any value");
+		Assert.assertEquals(IterableUtils.count(sequence, x -> x % 2 == 0), 5, "number of values");
+		Assert.assertEquals(IterableUtils.least(sequence), Maybe.some(0), "least value");
+		Assert.assertEquals(IterableUtils.greatest(sequence), Maybe.some(9), "greatest value");
+		final List<Integer> values = new ArrayList<>();
+		IterableUtils.foreach(sequence, x -> values.add(x));
+		Assert.assertEquals(values, Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), "values");
+		
+		// Unboxed view.
+		Assert.assertEquals(IterableUtils.count(sequence.asIntIterable(), x -> x % 2 == 0), 5, "number of unboxed values");
+		Assert.assertEquals(IterableUtils.least(sequence.asIntIterable()), OptionalInt.of(0), "least unboxed value");
+	}
+	
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void testInvalidInterval() {
+		new FiniteIntSequence(0, 10, 0);
+	}
+	
+	private static int[] toArray(final FiniteIntSequence sequence) {
+		return IteratorUtils.drain(sequence.intIterator(), new IntArrayList()).toArray();
+	}
+	
+	private static List<Integer> toList(final FiniteIntSequence sequence) {
+		final List<Integer> values = new ArrayList<>();
+		for (final Integer value : sequence) {
+			values.add(value);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2006-2015 Julien Dufour
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.trazere.core.lang;
+
+import com.trazere.core.collection.IntArrayList;
+import com.trazere.core.collection.LongArrayList;
+import com.trazere.core.functional.DoubleFunctions;
+import com.trazere.core.functional.DoublePredicates;
+import com.trazere.core.functional.IntFunctions;
+import com.trazere.core.functional.IntPredicates;
+import com.trazere.core.functional.LongFunctions;
+import com.trazere.core.functional.LongPredicates;
+import com.trazere.core.imperative.IteratorUtils;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test
+public class IterableUtilsTest {
+	public void testIntIterables() {
+		// Empty.
+		Assert.assertEquals(toArray(IterableUtils.filter(Iterables.fromInts(), IntPredicates.all())), new int[0], "filtered empty values");
+		Assert.assertEquals(toArray(IterableUtils.map(Iterables.fromInts(), IntFunctions.identity())), new int[0], "mapped empty values");
+		Assert.assertEquals(IterableUtils.fold(Iterables.fromInts(), IntFunctions.sum(), 7), 7, "folded empty values");
+		Assert.assertEquals(IterableUtils.least(Iterables.fromInts()), OptionalInt.empty(), "least of empty values");
+		Assert.assertEquals(IterableUtils.greatest(Iterables.fromInts()), OptionalInt.empty(), "greatest of empty values");
+		
+		// Values.
+		final IntIterable filtered = IterableUtils.filter(Iterables.fromInts(5, -3, 9, 0), IntPredicates.greaterThan(0));
+		Assert.assertEquals(toArray(filtered), new int[] { 5, 9 }, "filtered values");
+		Assert.assertEquals(toArray(filtered), new int[] { 5, 9 }, "filtered values iterated again");
+		Assert.assertEquals(toArray(IterableUtils.map(Iterables.fromInts(5, -3, 9), value -> -value)), new int[] { -5, 3, -9 }, "mapped values");
+		Assert.assertEquals(IterableUtils.fold(Iterables.fromInts(5, -3, 9), IntFunctions.sum(), 7), 18, "folded values");
+		Assert.assertEquals(IterableUtils.least(Iterables.fromInts(5, -3, 9)), OptionalInt.of(-3), "least value");
+		Assert.assertEquals(IterableUtils.greatest(Iterables.fromInts(5, -3, 9)), OptionalInt.of(9), "greatest value");
+	}
+	
+	public void testLongIterables() {
+		// Empty.
+		Assert.assertEquals(toArray(IterableUtils.filter(Iterables.fromLongs(), LongPredicates.all())), new long[0], "filtered empty values");
+		Assert.assertEquals(toArray(IterableUtils.map(Iterables.fromLongs(), LongFunctions.identity())), new long[0], "mapped empty values");
+		Assert.assertEquals(IterableUtils.fold(Iterables.fromLongs(), LongFunctions.sum(), 7L), 7L, "folded empty values");
+		Assert.assertEquals(IterableUtils.least(Iterables.fromLongs()), OptionalLong.empty(), "least of empty values");
+		Assert.assertEquals(IterableUtils.greatest(Iterables.fromLongs()), OptionalLong.empty(), "greatest of empty values");
+		
+		// Values.
+		Assert.assertEquals(toArray(IterableUtils.filter(Iterables.fromLongs(5L, -3L, 1L << 40), LongPredicates.lessThan(0L))), new long[] { -3L }, "filtered values");
+		Assert.assertEquals(toArray(IterableUtils.map(Iterables.fromLongs(5L, 1L << 40), value -> value * 2L)), new long[] { 10L, 1L << 41 }, "mapped values");
+		Assert.assertEquals(IterableUtils.fold(Iterables.fromLongs(5L, -3L, 1L << 40), LongFunctions.sum(), 7L), (1L << 40) + 9L, "folded values");
+		Assert.assertEquals(IterableUtils.least(Iterables.fromLongs(5L, -3L, 1L << 40)), OptionalLong.of(-3L), "least value");
+		Assert.assertEquals(IterableUtils.greatest(Iterables.fromLongs(5L, -3L, 1L << 40)), OptionalLong.of(1L << 40), "greatest value");
+	}
+	
+	public void testDoubleIterables() {
+		// Empty.
+		Assert.assertFalse(IterableUtils.filter(Iterables.fromDoubles(), DoublePredicates.all()).doubleIterator().hasNext(), "filtered empty values");
+		Assert.assertFalse(IterableUtils.map(Iterables.fromDoubles(), DoubleFunctions.identity()).doubleIterator().hasNext(), "mapped empty values");
+		Assert.assertEquals(IterableUtils.fold(Iterables.fromDoubles(), DoubleFunctions.sum(), 0.5), 0.5, 0.0, "folded empty values");
+		Assert.assertEquals(IterableUtils.least(Iterables.fromDoubles()), OptionalDouble.empty(), "least of empty values");
+		Assert.assertEquals(IterableUtils.greatest(Iterables.fromDoubles()), OptionalDouble.empty(), "greatest of empty values");
+		
+		// Values.
+		Assert.assertEquals(IterableUtils.count(IterableUtils.filter(Iterables.fromDoubles(1.5, -2.0, 0.25), DoublePredicates.lessThan(1.0)), DoublePredicates.all()), 2, "filtered values");
+		Assert.assertEquals(IterableUtils.fold(IterableUtils.map(Iterables.fromDoubles(1.5, -2.0), value -> value * 2.0), DoubleFunctions.sum(), 0.0), -1.0, 0.0, "mapped values");
+		Assert.assertEquals(IterableUtils.fold(Iterables.fromDoubles(1.5, -2.0, 0.25), DoubleFunctions.sum(), 0.5), 0.25, 0.0, "folded values");
+		Assert.assertEquals(IterableUtils.least(Iterables.fromDoubles(1.5, -2.0, 0.25)), OptionalDouble.of(-2.0), "least value");
+		Assert.assertEquals(IterableUtils.greatest(Iterables.fromDoubles(1.5, -2.0, 0.25)), OptionalDouble.of(1.5), "greatest value");
+	}
+	
+	private static int[] toArray(final IntIterable iterable) {
+		return IteratorUtils.drain(iterable.intIterator(), new IntArrayList()).toArray();
+	}
+	
+	private static long[] toArray(final LongIterable iterable) {
+		return IteratorUtils.drain(iterable.longIterator(), new LongArrayList()).toArray();
+	}
+}
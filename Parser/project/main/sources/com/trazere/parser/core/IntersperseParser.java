@@ -16,6 +16,7 @@
 package com.trazere.parser.core;
 
 import com.trazere.core.collection.Lists;
+import com.trazere.core.collection.VectorList;
 import com.trazere.core.lang.HashCode;
 import com.trazere.core.lang.ObjectUtils;
 import com.trazere.core.util.Tuple2;
@@ -24,7 +25,6 @@ import com.trazere.parser.Parser;
 import com.trazere.parser.ParserClosure;
 import com.trazere.parser.ParserHandler;
 import com.trazere.parser.ParserState;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -93,7 +93,7 @@ extends BaseParser<Token, List<Value>> {
 	protected ParserHandler<Token, Tuple2<Value, Value>> buildMoreHandler(final ParserClosure<Token, List<Value>> closure, final int previousCount, final List<Value> previousValues) {
 		return (final Tuple2<Value, Value> value, final ParserState<Token> state) -> {
 			// Add the values.
-			final List<Value> values = new ArrayList<>(previousValues);
+			final List<Value> values = new VectorList<>(previousValues);
 			values.add(value.get1());
 			values.add(value.get2());
 			
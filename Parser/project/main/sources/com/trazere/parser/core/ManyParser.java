@@ -15,6 +15,7 @@
  */
 package com.trazere.parser.core;
 
+import com.trazere.core.collection.VectorList;
 import com.trazere.core.lang.HashCode;
 import com.trazere.core.lang.ObjectUtils;
 import com.trazere.parser.BaseParser;
@@ -22,7 +23,6 @@ import com.trazere.parser.Parser;
 import com.trazere.parser.ParserClosure;
 import com.trazere.parser.ParserHandler;
 import com.trazere.parser.ParserState;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -70,7 +70,7 @@ extends BaseParser<Token, List<Value>> {
 	protected ParserHandler<Token, Value> buildMoreHandler(final ParserClosure<Token, List<Value>> closure, final int previousCount, final List<Value> previousValues) {
 		return (final Value value, final ParserState<Token> state) -> {
 			// Add the value.
-			final List<Value> values = new ArrayList<>(previousValues);
+			final List<Value> values = new VectorList<>(previousValues);
 			values.add(value);
 			
 			// Continue.